@@ -0,0 +1,408 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.impl.ismctsbot;
+
+import com.bueno.spi.model.CardRank;
+import com.bueno.spi.model.CardSuit;
+import com.bueno.spi.model.GameIntel;
+import com.bueno.spi.model.TrucoCard;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <p>Compact and mutable model of a truco hand, following the same rules of the domain engine. Cards are encoded as
+ * ints in the range [0, 40), hands as bit masks, and actions as ints, so the simulator can be copied and played
+ * millions of times without allocating. Player {@link #BOT} is the observer, whose cards are known.</p>
+ * <p>The simulator is public so the domain can check it against its engine, playing both on the same deals.</p>
+ */
+public final class HandSimulator {
+
+    public static final int BOT = 0;
+    public static final int OPPONENT = 1;
+    public static final int NONE = -1;
+
+    public static final int NO_CARD = 0;
+    public static final int ONE_CARD = 1;
+    public static final int WAITING_RAISE = 2;
+    public static final int WAITING_MAO_DE_ONZE = 3;
+    public static final int DONE = 4;
+
+    public static final int CLOSED = 40;
+    public static final int DISCARD = 40;
+    public static final int RAISE = 41;
+    public static final int ACCEPT = 42;
+    public static final int QUIT = 43;
+    public static final int MAX_ACTIONS = 6;
+
+    private final int[] values = new int[41];
+    private final long[] hands = new long[2];
+    private final int[] scores = new int[2];
+    private final int[] roundWinners = new int[3];
+
+    private int vira;
+    private int roundsPlayed;
+    private int firstToPlay;
+    private int currentPlayer;
+    private int tableCard = NONE;
+    private int points;
+    private int proposal;
+    private int lastRaiser = NONE;
+    private int state;
+    private int winner = NONE;
+    private int resultPoints;
+    private int maxHandPoints;
+    private long openHash;
+
+    private long unseen;
+    private int hiddenCards;
+    private boolean unknownFirstToPlay;
+
+    public static int cardId(TrucoCard card) {
+        if (card.getRank() == CardRank.HIDDEN) return CLOSED;
+        return (card.getRank().ordinal() - 1) * 4 + card.getSuit().ordinal() - 1;
+    }
+
+    public static TrucoCard card(int id) {
+        if (id == CLOSED) return TrucoCard.closed();
+        return TrucoCard.of(CardRank.values()[id / 4 + 1], CardSuit.values()[id % 4 + 1]);
+    }
+
+    static HandSimulator ofMaoDeOnze(GameIntel intel) {
+        final HandSimulator simulator = of(intel);
+        simulator.state = WAITING_MAO_DE_ONZE;
+        simulator.unknownFirstToPlay = true;
+        return simulator;
+    }
+
+    static HandSimulator ofRaiseResponse(GameIntel intel) {
+        final HandSimulator simulator = of(intel);
+        simulator.state = WAITING_RAISE;
+        simulator.lastRaiser = OPPONENT;
+        //Without a card on the table, the opponent could only have raised if it was the first to play. With the card
+        //the bot led, the opponent raised before answering it and plays second after the request is settled.
+        if (simulator.tableCard == NONE) simulator.firstToPlay = OPPONENT;
+        simulator.proposal = next(simulator.points);
+        return simulator;
+    }
+
+    public static HandSimulator ofCardPlaying(GameIntel intel) {
+        final HandSimulator simulator = of(intel);
+        simulator.state = simulator.tableCard == NONE ? NO_CARD : ONE_CARD;
+        simulator.lastRaiser = simulator.points > 1 ? OPPONENT : NONE;
+        return simulator;
+    }
+
+    private static HandSimulator of(GameIntel intel) {
+        final HandSimulator simulator = new HandSimulator();
+        simulator.reset(cardId(intel.getVira()), intel.getScore(), intel.getOpponentScore());
+
+        long known = 1L << simulator.vira;
+        for (TrucoCard card : intel.getCards()) simulator.hands[BOT] |= 1L << cardId(card);
+        known |= simulator.hands[BOT];
+
+        for (TrucoCard card : intel.getOpenCards()) {
+            final int id = cardId(card);
+            simulator.openHash = mixOpenCard(simulator.openHash, id);
+            if (id != CLOSED) known |= 1L << id;
+        }
+
+        final List<GameIntel.RoundResult> results = intel.getRoundResults();
+        for (GameIntel.RoundResult result : results)
+            simulator.roundWinners[simulator.roundsPlayed++] = switch (result) {
+                case WON -> BOT;
+                case LOST -> OPPONENT;
+                case DREW -> NONE;
+            };
+
+        final boolean botHasPlayedInRound = intel.getCards().size() < 3 - results.size();
+        final boolean hasCardOnTable = intel.getOpponentCard().isPresent();
+        final List<TrucoCard> openCards = intel.getOpenCards();
+        //If the bot led the round and the opponent has not answered yet, its card is the last one opened.
+        simulator.tableCard = intel.getOpponentCard().map(HandSimulator::cardId)
+                .orElse(botHasPlayedInRound ? cardId(openCards.get(openCards.size() - 1)) : NONE);
+        simulator.firstToPlay = hasCardOnTable && !botHasPlayedInRound ? OPPONENT : BOT;
+        simulator.currentPlayer = BOT;
+        simulator.points = Math.max(1, intel.getHandPoints());
+        simulator.unseen = ~known & ((1L << 40) - 1);
+        simulator.hiddenCards = 3 - results.size() - (hasCardOnTable && !botHasPlayedInRound ? 1 : 0);
+        return simulator;
+    }
+
+    void reset(int vira, int botScore, int opponentScore) {
+        final TrucoCard viraCard = card(vira);
+        for (int id = 0; id <= CLOSED; id++) values[id] = card(id).relativeValue(viraCard);
+        this.vira = vira;
+        scores[BOT] = botScore;
+        scores[OPPONENT] = opponentScore;
+        final int pointsToLosingPlayerWin = 12 - Math.min(botScore, opponentScore);
+        maxHandPoints = pointsToLosingPlayerWin % 3 == 0 ? pointsToLosingPlayerWin
+                : pointsToLosingPlayerWin + (3 - pointsToLosingPlayerWin % 3);
+        hands[BOT] = 0;
+        hands[OPPONENT] = 0;
+        roundsPlayed = 0;
+        firstToPlay = BOT;
+        currentPlayer = BOT;
+        tableCard = NONE;
+        points = 1;
+        proposal = 0;
+        lastRaiser = NONE;
+        state = NO_CARD;
+        winner = NONE;
+        resultPoints = 0;
+        openHash = mixOpenCard(0, vira);
+    }
+
+    void copyFrom(HandSimulator other) {
+        System.arraycopy(other.values, 0, values, 0, values.length);
+        System.arraycopy(other.roundWinners, 0, roundWinners, 0, roundWinners.length);
+        hands[BOT] = other.hands[BOT];
+        hands[OPPONENT] = other.hands[OPPONENT];
+        scores[BOT] = other.scores[BOT];
+        scores[OPPONENT] = other.scores[OPPONENT];
+        vira = other.vira;
+        roundsPlayed = other.roundsPlayed;
+        firstToPlay = other.firstToPlay;
+        currentPlayer = other.currentPlayer;
+        tableCard = other.tableCard;
+        points = other.points;
+        proposal = other.proposal;
+        lastRaiser = other.lastRaiser;
+        state = other.state;
+        winner = other.winner;
+        resultPoints = other.resultPoints;
+        maxHandPoints = other.maxHandPoints;
+        openHash = other.openHash;
+        unseen = other.unseen;
+        hiddenCards = other.hiddenCards;
+        unknownFirstToPlay = other.unknownFirstToPlay;
+    }
+
+    //Deals the cards the bot can not see, choosing them uniformly among the ones it has not seen yet.
+    public void determinize(Random random) {
+        long candidates = unseen;
+        long dealt = 0;
+        int available = Long.bitCount(candidates);
+        for (int i = 0; i < hiddenCards; i++, available--) {
+            long card = candidates;
+            for (int skip = random.nextInt(available); skip > 0; skip--) card &= card - 1;
+            card = Long.lowestOneBit(card);
+            dealt |= card;
+            candidates &= ~card;
+        }
+        hands[OPPONENT] = dealt;
+        if (unknownFirstToPlay) firstToPlay = random.nextBoolean() ? BOT : OPPONENT;
+    }
+
+    public int legalActions(int[] actions) {
+        int size = 0;
+        switch (state) {
+            case NO_CARD, ONE_CARD -> {
+                for (long cards = hands[currentPlayer]; cards != 0; cards &= cards - 1)
+                    actions[size++] = Long.numberOfTrailingZeros(cards);
+                if (roundsPlayed > 0 && hands[currentPlayer] != 0) actions[size++] = DISCARD;
+                if (canRaise()) actions[size++] = RAISE;
+            }
+            case WAITING_RAISE -> {
+                actions[size++] = ACCEPT;
+                actions[size++] = QUIT;
+                if (canRaise()) actions[size++] = RAISE;
+            }
+            case WAITING_MAO_DE_ONZE -> {
+                actions[size++] = ACCEPT;
+                actions[size++] = QUIT;
+            }
+            default -> { }
+        }
+        return size;
+    }
+
+    //Default policy of the rollouts: play a random card and accept any pending request.
+    int rolloutAction(Random random) {
+        if (state == WAITING_RAISE || state == WAITING_MAO_DE_ONZE) return ACCEPT;
+        long cards = hands[currentPlayer];
+        for (int skip = random.nextInt(Long.bitCount(cards)); skip > 0; skip--) cards &= cards - 1;
+        return Long.numberOfTrailingZeros(cards);
+    }
+
+    public void apply(int action) {
+        switch (state) {
+            case NO_CARD -> {
+                if (action == RAISE) raise();
+                else playFirstCard(action);
+            }
+            case ONE_CARD -> {
+                if (action == RAISE) raise();
+                else playSecondCard(action);
+            }
+            case WAITING_RAISE -> {
+                if (action == ACCEPT) accept();
+                else if (action == QUIT) finish(1 - currentPlayer, points);
+                else raise();
+            }
+            case WAITING_MAO_DE_ONZE -> {
+                if (action == ACCEPT) {
+                    points = 3;
+                    currentPlayer = firstToPlay;
+                    state = NO_CARD;
+                } else finish(1 - currentPlayer, 1);
+            }
+            default -> throw new IllegalStateException("Can not play because hand is done.");
+        }
+    }
+
+    private int takeCard(int action) {
+        final long cards = hands[currentPlayer];
+        final int card = action == DISCARD ? lowestCard(cards) : action;
+        hands[currentPlayer] = cards & ~(1L << card);
+        final int played = action == DISCARD ? CLOSED : card;
+        openHash = mixOpenCard(openHash, played);
+        return played;
+    }
+
+    private int lowestCard(long cards) {
+        int lowest = Long.numberOfTrailingZeros(cards);
+        for (long remaining = cards & cards - 1; remaining != 0; remaining &= remaining - 1) {
+            final int card = Long.numberOfTrailingZeros(remaining);
+            if (values[card] < values[lowest]) lowest = card;
+        }
+        return lowest;
+    }
+
+    private void playFirstCard(int action) {
+        tableCard = takeCard(action);
+        currentPlayer = 1 - firstToPlay;
+        state = ONE_CARD;
+    }
+
+    private void playSecondCard(int action) {
+        final int lastCard = takeCard(action);
+        final int difference = values[tableCard] - values[lastCard];
+        final int roundWinner = difference == 0 ? NONE : difference > 0 ? firstToPlay : 1 - firstToPlay;
+        roundWinners[roundsPlayed++] = roundWinner;
+        tableCard = NONE;
+
+        if (roundsPlayed == 2) checkForWinnerAfterSecondRound();
+        else if (roundsPlayed == 3) checkForWinnerAfterThirdRound();
+        if (state == DONE) return;
+
+        if (roundWinner == 1 - firstToPlay) firstToPlay = roundWinner;
+        currentPlayer = firstToPlay;
+        state = NO_CARD;
+    }
+
+    private void checkForWinnerAfterSecondRound() {
+        final int first = roundWinners[0];
+        final int second = roundWinners[1];
+        if (first == NONE && second != NONE) finish(second, points);
+        else if (first != NONE && second == NONE) finish(first, points);
+        else if (second != NONE && second == first) finish(second, points);
+    }
+
+    private void checkForWinnerAfterThirdRound() {
+        final int first = roundWinners[0];
+        final int last = roundWinners[2];
+        if (last == NONE && first != NONE) finish(first, points);
+        else finish(last, last == NONE ? 0 : points);
+    }
+
+    private void raise() {
+        if (proposal != 0) points = proposal;
+        proposal = next(points);
+        lastRaiser = currentPlayer;
+        currentPlayer = 1 - currentPlayer;
+        state = WAITING_RAISE;
+    }
+
+    private void accept() {
+        points = proposal;
+        proposal = 0;
+        currentPlayer = tableCard == NONE ? firstToPlay : 1 - firstToPlay;
+        state = tableCard == NONE ? NO_CARD : ONE_CARD;
+    }
+
+    private void finish(int winner, int points) {
+        this.winner = winner;
+        this.resultPoints = points;
+        currentPlayer = NONE;
+        state = DONE;
+    }
+
+    private boolean canRaise() {
+        return currentPlayer != lastRaiser && points < 12 && next(points) <= maxHandPoints
+                && scores[BOT] < 11 && scores[OPPONENT] < 11
+                && (proposal == 0 || proposal < 12 && next(proposal) <= maxHandPoints);
+    }
+
+    private static int next(int points) {
+        return points == 1 ? 3 : points + 3;
+    }
+
+    private static long mixOpenCard(long hash, int card) {
+        return (hash + card + 1) * 0x9E3779B97F4A7C15L;
+    }
+
+    //Identifies the information set of the bot: everything it can observe, but nothing about the opponent cards.
+    long infoSetKey() {
+        long key = openHash;
+        key = (key ^ hands[BOT]) * 0xBF58476D1CE4E5B9L;
+        key = (key ^ (state | (long) tableCard << 4 | (long) points << 12 | (long) proposal << 20)) * 0x94D049BB133111EBL;
+        key = (key ^ (scores[BOT] | (long) scores[OPPONENT] << 8 | (long) roundsPlayed << 16)) * 0xBF58476D1CE4E5B9L;
+        return key ^ key >>> 31;
+    }
+
+    double botReward() {
+        if (winner == NONE) return 0;
+        return (winner == BOT ? resultPoints : -resultPoints) / 12.0;
+    }
+
+    public boolean isDone() {
+        return state == DONE;
+    }
+
+    public int currentPlayer() {
+        return currentPlayer;
+    }
+
+    public int state() {
+        return state;
+    }
+
+    public int points() {
+        return points;
+    }
+
+    public int winner() {
+        return winner;
+    }
+
+    public int resultPoints() {
+        return resultPoints;
+    }
+
+    public long hand(int player) {
+        return hands[player];
+    }
+
+    int lowestBotCard() {
+        return lowestCard(hands[BOT]);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.impl.ismctsbot;
+
+import com.bueno.spi.model.CardToPlay;
+import com.bueno.spi.model.GameIntel;
+import com.bueno.spi.service.BotServiceProvider;
+
+/**
+ * <p>Bot that decides by information set Monte Carlo tree search, sampling the opponent cards it can not see and
+ * simulating the rest of the hand. The search budget is given by {@link SearchConfig}, read from system properties
+ * when the bot is created by the service loader.</p>
+ */
+public class IsmctsBot implements BotServiceProvider {
+    private final SearchConfig config;
+
+    public IsmctsBot() {
+        this(SearchConfig.fromSystemProperties());
+    }
+
+    IsmctsBot(SearchConfig config) {
+        this.config = config;
+    }
+
+    @Override
+    public boolean getMaoDeOnzeResponse(GameIntel intel) {
+        return bestAction(HandSimulator.ofMaoDeOnze(intel), true) == HandSimulator.ACCEPT;
+    }
+
+    @Override
+    public boolean decideIfRaises(GameIntel intel) {
+        final HandSimulator simulator = HandSimulator.ofCardPlaying(intel);
+        final int[] actions = new int[HandSimulator.MAX_ACTIONS];
+        final int size = simulator.legalActions(actions);
+        if (size == 0 || actions[size - 1] != HandSimulator.RAISE) return false;
+        return bestAction(simulator, true) == HandSimulator.RAISE;
+    }
+
+    @Override
+    public CardToPlay chooseCard(GameIntel intel) {
+        final HandSimulator simulator = HandSimulator.ofCardPlaying(intel);
+        final int action = bestAction(simulator, false);
+        if (action == HandSimulator.DISCARD) return CardToPlay.discard(HandSimulator.card(simulator.lowestBotCard()));
+        return CardToPlay.of(HandSimulator.card(action));
+    }
+
+    @Override
+    public int getRaiseResponse(GameIntel intel) {
+        return switch (bestAction(HandSimulator.ofRaiseResponse(intel), true)) {
+            case HandSimulator.QUIT -> -1;
+            case HandSimulator.RAISE -> 1;
+            default -> 0;
+        };
+    }
+
+    private int bestAction(HandSimulator simulator, boolean raiseAllowed) {
+        return new IsmctsSearch(simulator, config, raiseAllowed).bestAction();
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.impl.ismctsbot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Single-observer information set Monte Carlo tree search. Each iteration samples the opponent cards among the
+ * ones the bot has not seen, descends the tree choosing among the actions that are legal in that sample, expands one
+ * node and finishes the hand with a random rollout. Workers run in parallel, each one on its own tree, and their root
+ * statistics are summed up when choosing the action.</p>
+ */
+final class IsmctsSearch {
+    static final double EXPLORATION = 0.7;
+
+    private static final int POOL_SIZE = Math.min(4, Runtime.getRuntime().availableProcessors());
+    private static final ThreadPoolExecutor pool = new ThreadPoolExecutor(POOL_SIZE, POOL_SIZE,
+            30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(64), runnable -> {
+        final Thread thread = new Thread(runnable, "ismcts-worker");
+        thread.setDaemon(true);
+        return thread;
+    }, new ThreadPoolExecutor.CallerRunsPolicy());
+
+    static {
+        pool.allowCoreThreadTimeOut(true);
+    }
+
+    private final HandSimulator root;
+    private final SearchConfig config;
+    private final boolean raiseAllowedAtRoot;
+
+    IsmctsSearch(HandSimulator root, SearchConfig config, boolean raiseAllowedAtRoot) {
+        this.root = root;
+        this.config = config;
+        this.raiseAllowedAtRoot = raiseAllowedAtRoot;
+    }
+
+    int bestAction() {
+        final int[] actions = new int[HandSimulator.MAX_ACTIONS];
+        final int size = rootActions(actions);
+        if (size == 1) return actions[0];
+
+        final Node[] roots = search();
+        int best = actions[0];
+        int bestVisits = -1;
+        for (int i = 0; i < size; i++) {
+            int visits = 0;
+            for (Node tree : roots) {
+                final Node child = tree.childFor(actions[i]);
+                if (child != null) visits += child.visits();
+            }
+            if (visits > bestVisits) {
+                best = actions[i];
+                bestVisits = visits;
+            }
+        }
+        TreeCache.store(roots);
+        return best;
+    }
+
+    private Node[] search() {
+        final long seed = config.seed() == SearchConfig.RANDOM_SEED ? System.nanoTime() : config.seed();
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.timeLimitMillis());
+        final Node[] cached = TreeCache.take(root.infoSetKey());
+        final int workers = config.workers();
+
+        final List<Callable<Node>> tasks = new ArrayList<>(workers);
+        for (int worker = 0; worker < workers; worker++) {
+            final Node tree = cached != null && worker < cached.length && cached[worker] != null
+                    ? cached[worker] : Node.root();
+            final int iterations = config.iterations() / workers + (worker < config.iterations() % workers ? 1 : 0);
+            tasks.add(new Worker(tree, new Random(seed + worker), iterations, deadline));
+        }
+
+        final Node[] roots = new Node[workers];
+        try {
+            final List<Future<Node>> results = workers == 1 ? List.of() : pool.invokeAll(tasks);
+            for (int worker = 0; worker < workers; worker++)
+                roots[worker] = workers == 1 ? tasks.get(0).call() : results.get(worker).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Search was interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search worker failed.", e.getCause());
+        } catch (Exception e) {
+            throw new IllegalStateException("Search worker failed.", e);
+        }
+        return roots;
+    }
+
+    private int rootActions(int[] actions) {
+        final int size = root.legalActions(actions);
+        if (raiseAllowedAtRoot) return size;
+        int filtered = 0;
+        for (int i = 0; i < size; i++)
+            if (actions[i] != HandSimulator.RAISE) actions[filtered++] = actions[i];
+        return filtered;
+    }
+
+    private final class Worker implements Callable<Node> {
+        private final Node tree;
+        private final Random random;
+        private final int iterations;
+        private final long deadline;
+        private final HandSimulator simulator = new HandSimulator();
+        private final int[] actions = new int[HandSimulator.MAX_ACTIONS];
+        private final int[] untried = new int[HandSimulator.MAX_ACTIONS];
+        private final List<Node> path = new ArrayList<>();
+
+        private Worker(Node tree, Random random, int iterations, long deadline) {
+            this.tree = tree;
+            this.random = random;
+            this.iterations = iterations;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public Node call() {
+            for (int i = 0; i < iterations; i++) {
+                if ((i & 63) == 0 && System.nanoTime() > deadline) break;
+                iterate();
+            }
+            return tree;
+        }
+
+        private void iterate() {
+            simulator.copyFrom(root);
+            simulator.determinize(random);
+            path.clear();
+            path.add(tree);
+
+            Node node = tree;
+            boolean expanded = false;
+            while (!simulator.isDone() && !expanded) {
+                final int size = node == tree ? rootActions(actions) : simulator.legalActions(actions);
+                int untriedSize = 0;
+                Node selected = null;
+                double selectedValue = Double.NEGATIVE_INFINITY;
+                for (int i = 0; i < size; i++) {
+                    final Node child = node.childFor(actions[i]);
+                    if (child == null) {
+                        untried[untriedSize++] = actions[i];
+                        continue;
+                    }
+                    child.markAvailable();
+                    final double value = child.ucb(EXPLORATION);
+                    if (value > selectedValue) {
+                        selected = child;
+                        selectedValue = value;
+                    }
+                }
+
+                final int player = simulator.currentPlayer();
+                if (untriedSize > 0) {
+                    selected = node.addChild(untried[random.nextInt(untriedSize)], player);
+                    expanded = true;
+                }
+                simulator.apply(selected.action());
+                if (!simulator.isDone() && simulator.currentPlayer() == HandSimulator.BOT)
+                    selected.markBotToMove(simulator.infoSetKey());
+                path.add(selected);
+                node = selected;
+            }
+
+            while (!simulator.isDone()) simulator.apply(simulator.rolloutAction(random));
+            final double reward = simulator.botReward();
+            for (Node visited : path) visited.update(reward);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.impl.ismctsbot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class Node {
+    private final int action;
+    private final int player;
+    private final List<Node> children = new ArrayList<>(HandSimulator.MAX_ACTIONS);
+    private int visits;
+    private int availability = 1;
+    private double reward;
+    private long infoSetKey;
+    private boolean botToMove;
+
+    Node(int action, int player) {
+        this.action = action;
+        this.player = player;
+    }
+
+    static Node root() {
+        return new Node(HandSimulator.NONE, HandSimulator.NONE);
+    }
+
+    Node childFor(int action) {
+        for (Node child : children)
+            if (child.action == action) return child;
+        return null;
+    }
+
+    Node addChild(int action, int player) {
+        final Node child = new Node(action, player);
+        children.add(child);
+        return child;
+    }
+
+    //Upper confidence bound of the child, using the number of times it was available instead of the parent visits.
+    double ucb(double exploration) {
+        return reward / visits + exploration * Math.sqrt(Math.log(availability) / visits);
+    }
+
+    void update(double botReward) {
+        visits++;
+        if (player != HandSimulator.NONE) reward += player == HandSimulator.BOT ? botReward : -botReward;
+    }
+
+    void markAvailable() {
+        availability++;
+    }
+
+    void markBotToMove(long infoSetKey) {
+        this.infoSetKey = infoSetKey;
+        this.botToMove = true;
+    }
+
+    int action() {
+        return action;
+    }
+
+    int visits() {
+        return visits;
+    }
+
+    List<Node> children() {
+        return children;
+    }
+
+    long infoSetKey() {
+        return infoSetKey;
+    }
+
+    boolean isBotToMove() {
+        return botToMove;
+    }
+}
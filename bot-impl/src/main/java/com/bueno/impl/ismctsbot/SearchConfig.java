@@ -0,0 +1,50 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.impl.ismctsbot;
+
+/**
+ * <p>Budget of a search: it stops when all {@code iterations} are run or when {@code timeLimitMillis} is over,
+ * whichever comes first. Iterations are split among {@code workers}, each one growing its own tree. A {@code seed}
+ * equal to {@link #RANDOM_SEED} makes each search use a different seed.</p>
+ *
+ * <p>Bots loaded by the service loader read their budget from the system properties {@code ctruco.ismcts.iterations},
+ * {@code ctruco.ismcts.time-limit-millis}, {@code ctruco.ismcts.workers} and {@code ctruco.ismcts.seed}, falling back
+ * to {@link #DEFAULT} for the ones not set.</p>
+ */
+record SearchConfig(int iterations, long timeLimitMillis, int workers, long seed) {
+    static final long RANDOM_SEED = 0;
+    static final SearchConfig DEFAULT = new SearchConfig(4000, 250,
+            Math.min(4, Runtime.getRuntime().availableProcessors()), RANDOM_SEED);
+
+    static SearchConfig fromSystemProperties() {
+        return new SearchConfig(
+                Integer.getInteger("ctruco.ismcts.iterations", DEFAULT.iterations),
+                Long.getLong("ctruco.ismcts.time-limit-millis", DEFAULT.timeLimitMillis),
+                Integer.getInteger("ctruco.ismcts.workers", DEFAULT.workers),
+                Long.getLong("ctruco.ismcts.seed", DEFAULT.seed));
+    }
+
+    SearchConfig {
+        if (iterations <= 0) throw new IllegalArgumentException("Iterations must be positive: " + iterations);
+        if (timeLimitMillis <= 0) throw new IllegalArgumentException("Time limit must be positive: " + timeLimitMillis);
+        if (workers <= 0) throw new IllegalArgumentException("Workers must be positive: " + workers);
+    }
+}
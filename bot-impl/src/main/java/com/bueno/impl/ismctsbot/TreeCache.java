@@ -0,0 +1,69 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.impl.ismctsbot;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//Keeps the subtrees of previous searches, so the next decision of the same hand starts from the statistics already
+//collected. Bots are instantiated for each decision, hence the cache must be static.
+final class TreeCache {
+    static final int MAX_ENTRIES = 256;
+    static final int MIN_VISITS = 50;
+    static final int MAX_DEPTH = 6;
+
+    private static final Map<Long, Node[]> trees = new LinkedHashMap<>(MAX_ENTRIES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Node[]> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private TreeCache() {
+    }
+
+    static synchronized Node[] take(long infoSetKey) {
+        return trees.remove(infoSetKey);
+    }
+
+    static void store(Node[] roots) {
+        final Map<Long, Node[]> subtrees = new LinkedHashMap<>();
+        for (int worker = 0; worker < roots.length; worker++)
+            collect(roots[worker], worker, roots.length, 0, subtrees);
+        synchronized (TreeCache.class) {
+            trees.putAll(subtrees);
+        }
+    }
+
+    private static void collect(Node node, int worker, int workers, int depth, Map<Long, Node[]> subtrees) {
+        if (depth >= MAX_DEPTH) return;
+        for (Node child : node.children()) {
+            if (child.visits() < MIN_VISITS) continue;
+            if (child.isBotToMove())
+                subtrees.computeIfAbsent(child.infoSetKey(), key -> new Node[workers])[worker] = child;
+            collect(child, worker, workers, depth + 1, subtrees);
+        }
+    }
+
+    static synchronized void clear() {
+        trees.clear();
+    }
+}
@@ -1,5 +1,6 @@
 
 import com.bueno.impl.dummybot.DummyBot;
+import com.bueno.impl.ismctsbot.IsmctsBot;
 import com.carvalho.candido.tomegapbot.GapBot;
 import com.pedro.herick.skilldiffbot.SkillDiffBot;
 import com.petrilli.sandro.malasiabot.MalasiaBot;
@@ -27,6 +28,7 @@ module bot.impl {
     exports com.pedro.herick.skilldiffbot;
     exports com.abel.francisco.fogao6boca;
     exports com.antonelli.gibim.degolabot;
+    exports com.bueno.impl.ismctsbot;
 
     provides com.bueno.spi.service.BotServiceProvider with
             DummyBot,
@@ -39,6 +41,7 @@ module bot.impl {
             MoedorDeCana,
             Fogao6Boca,
             SkillDiffBot,
-            DegolaBot;
+            DegolaBot,
+            IsmctsBot;
 
 }
@@ -0,0 +1,186 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.impl.ismctsbot;
+
+import com.bueno.spi.model.CardRank;
+import com.bueno.spi.model.CardSuit;
+import com.bueno.spi.model.CardToPlay;
+import com.bueno.spi.model.GameIntel;
+import com.bueno.spi.model.TrucoCard;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class IsmctsBotTest {
+
+    private IsmctsBot sut;
+
+    @BeforeEach
+    void setUp() {
+        sut = new IsmctsBot(new SearchConfig(3000, 10_000, 1, 42));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TreeCache.clear();
+    }
+
+    @Nested
+    @DisplayName("Should")
+    class ShouldDecide {
+        @Test
+        @DisplayName("accept mao de onze with three manilhas")
+        void shouldAcceptMaoDeOnzeWithThreeManilhas() {
+            final GameIntel intel = GameIntel.StepBuilder.with()
+                    .gameInfo(List.of(), List.of(card(CardRank.THREE, CardSuit.SPADES)),
+                            card(CardRank.THREE, CardSuit.SPADES), 1)
+                    .botInfo(List.of(card(CardRank.FOUR, CardSuit.CLUBS), card(CardRank.FOUR, CardSuit.HEARTS),
+                            card(CardRank.FOUR, CardSuit.SPADES)), 11)
+                    .opponentScore(8)
+                    .build();
+
+            assertThat(sut.getMaoDeOnzeResponse(intel)).isTrue();
+        }
+
+        @Test
+        @DisplayName("quit raise request with the weakest cards")
+        void shouldQuitRaiseRequestWithTheWeakestCards() {
+            final TrucoCard vira = card(CardRank.SEVEN, CardSuit.SPADES);
+            final GameIntel intel = GameIntel.StepBuilder.with()
+                    .gameInfo(List.of(), List.of(vira), vira, 1)
+                    .botInfo(List.of(card(CardRank.FOUR, CardSuit.DIAMONDS), card(CardRank.FIVE, CardSuit.DIAMONDS),
+                            card(CardRank.SIX, CardSuit.DIAMONDS)), 0)
+                    .opponentScore(0)
+                    .build();
+
+            assertThat(sut.getRaiseResponse(intel)).isEqualTo(-1);
+        }
+
+        @Test
+        @DisplayName("not quit raise request with the strongest cards")
+        void shouldNotQuitRaiseRequestWithTheStrongestCards() {
+            final TrucoCard vira = card(CardRank.SEVEN, CardSuit.SPADES);
+            final GameIntel intel = GameIntel.StepBuilder.with()
+                    .gameInfo(List.of(), List.of(vira), vira, 1)
+                    .botInfo(List.of(card(CardRank.QUEEN, CardSuit.CLUBS), card(CardRank.QUEEN, CardSuit.HEARTS),
+                            card(CardRank.QUEEN, CardSuit.SPADES)), 0)
+                    .opponentScore(0)
+                    .build();
+
+            assertThat(sut.getRaiseResponse(intel)).isNotNegative();
+        }
+
+        @Test
+        @DisplayName("play the winning card instead of discarding it in the last round")
+        void shouldPlayTheWinningCardInsteadOfDiscardingItInTheLastRound() {
+            final TrucoCard vira = card(CardRank.SEVEN, CardSuit.SPADES);
+            final TrucoCard threeOfClubs = card(CardRank.THREE, CardSuit.CLUBS);
+            final GameIntel intel = GameIntel.StepBuilder.with()
+                    .gameInfo(List.of(GameIntel.RoundResult.WON, GameIntel.RoundResult.LOST),
+                            List.of(vira, card(CardRank.KING, CardSuit.CLUBS), card(CardRank.JACK, CardSuit.HEARTS),
+                                    card(CardRank.TWO, CardSuit.HEARTS), card(CardRank.ACE, CardSuit.HEARTS),
+                                    card(CardRank.FIVE, CardSuit.DIAMONDS)), vira, 1)
+                    .botInfo(List.of(threeOfClubs), 0)
+                    .opponentScore(0)
+                    .opponentCard(card(CardRank.FIVE, CardSuit.DIAMONDS))
+                    .build();
+
+            final CardToPlay choice = sut.chooseCard(intel);
+
+            assertThat(choice.isDiscard()).isFalse();
+            assertThat(choice.value()).isEqualTo(threeOfClubs);
+        }
+
+        @Test
+        @DisplayName("choose one of its own cards")
+        void shouldChooseOneOfItsOwnCards() {
+            final TrucoCard vira = card(CardRank.KING, CardSuit.DIAMONDS);
+            final List<TrucoCard> cards = List.of(card(CardRank.SIX, CardSuit.CLUBS),
+                    card(CardRank.JACK, CardSuit.HEARTS), card(CardRank.TWO, CardSuit.SPADES));
+            final GameIntel intel = GameIntel.StepBuilder.with()
+                    .gameInfo(List.of(), List.of(vira), vira, 1)
+                    .botInfo(cards, 3)
+                    .opponentScore(4)
+                    .build();
+
+            assertThat(cards).contains(sut.chooseCard(intel).content());
+        }
+    }
+
+    @Test
+    @DisplayName("Should answer raise request made before the opponent answered the card the bot led")
+    void shouldAnswerRaiseRequestMadeBeforeTheOpponentAnsweredTheCardTheBotLed() {
+        final TrucoCard vira = card(CardRank.KING, CardSuit.DIAMONDS);
+        final GameIntel intel = GameIntel.StepBuilder.with()
+                .gameInfo(List.of(), List.of(vira, card(CardRank.FOUR, CardSuit.CLUBS)), vira, 1)
+                .botInfo(List.of(card(CardRank.FIVE, CardSuit.HEARTS), card(CardRank.SIX, CardSuit.SPADES)), 0)
+                .opponentScore(0)
+                .build();
+
+        final HandSimulator simulator = HandSimulator.ofRaiseResponse(intel);
+        simulator.apply(HandSimulator.ACCEPT);
+
+        assertThat(simulator.state()).isEqualTo(HandSimulator.ONE_CARD);
+        assertThat(simulator.currentPlayer()).isEqualTo(HandSimulator.OPPONENT);
+        assertThat(sut.getRaiseResponse(intel)).isBetween(-1, 1);
+    }
+
+    @Test
+    @DisplayName("Should read search config from system properties")
+    void shouldReadSearchConfigFromSystemProperties() {
+        System.setProperty("ctruco.ismcts.iterations", "123");
+        System.setProperty("ctruco.ismcts.workers", "2");
+        try {
+            final SearchConfig config = SearchConfig.fromSystemProperties();
+            assertThat(config.iterations()).isEqualTo(123);
+            assertThat(config.workers()).isEqualTo(2);
+            assertThat(config.timeLimitMillis()).isEqualTo(SearchConfig.DEFAULT.timeLimitMillis());
+        } finally {
+            System.clearProperty("ctruco.ismcts.iterations");
+            System.clearProperty("ctruco.ismcts.workers");
+        }
+    }
+
+    @Test
+    @DisplayName("Should map every card to an unique id")
+    void shouldMapEveryCardToAnUniqueId() {
+        for (int id = 0; id < HandSimulator.CLOSED; id++)
+            assertThat(HandSimulator.cardId(HandSimulator.card(id))).isEqualTo(id);
+        assertThat(HandSimulator.cardId(TrucoCard.closed())).isEqualTo(HandSimulator.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Should not accept search config without workers")
+    void shouldNotAcceptSearchConfigWithoutWorkers() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new SearchConfig(100, 100, 0, 1));
+    }
+
+    private static TrucoCard card(CardRank rank, CardSuit suit) {
+        return TrucoCard.of(rank, suit);
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.spi.equity;
+
+import static com.bueno.spi.equity.EquityIndex.VALUE_CLASSES;
+import static com.bueno.spi.equity.EquityIndex.VIRA_CLASSES;
+
+//Maps a second round position to its entry in the endgame table. The first round cards of both players decide the
+//round result and which cards are left unseen, so a position is described by the vira class, the first round cards,
+//the turn, the bot cards and the card on the table. Each entry packs the value class of the best card and how many
+//opponent holdings the bot wins and loses. The holdings left are draws, so probabilities are read back exactly.
+final class EndgameIndex {
+    static final int MAGIC = 0x43544547;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 12;
+    static final int BOT_LEADS = 0;
+    static final int OPPONENT_LEADS = 1;
+    static final int OPPONENT_LED = 2;
+    static final int BOT_LED = 3;
+    static final int TURNS = 4;
+    static final int NOT_COVERED = -1;
+
+    private static final int PAIRS = VALUE_CLASSES * (VALUE_CLASSES + 1) / 2;
+    private static final int[] turnOffsets = {0, PAIRS, 2 * PAIRS, 2 * PAIRS + PAIRS * VALUE_CLASSES};
+    private static final int BLOCK_SIZE = turnOffsets[BOT_LED] + VALUE_CLASSES * VALUE_CLASSES;
+    private static final int WEIGHT_BITS = 10;
+    private static final int WEIGHT_MASK = (1 << WEIGHT_BITS) - 1;
+
+    private EndgameIndex() {
+    }
+
+    static int entries() {
+        return VIRA_CLASSES * VALUE_CLASSES * VALUE_CLASSES * BLOCK_SIZE;
+    }
+
+    static int of(int viraClass, int botFirst, int opponentFirst, int turn, int[] botCards, int tableCard) {
+        final int block = ((viraClass - 1) * VALUE_CLASSES + botFirst - 1) * VALUE_CLASSES + opponentFirst - 1;
+        final int offset = switch (turn) {
+            case BOT_LEADS, OPPONENT_LEADS -> pairOf(botCards[0], botCards[1]);
+            case OPPONENT_LED -> pairOf(botCards[0], botCards[1]) * VALUE_CLASSES + tableCard - 1;
+            default -> (botCards[0] - 1) * VALUE_CLASSES + tableCard - 1;
+        };
+        return block * BLOCK_SIZE + turnOffsets[turn] + offset;
+    }
+
+    //Returns the entry of a second round position, or NOT_COVERED if the position is in another round or its unseen
+    //cards are not the deck without the vira, the bot cards, the card on the table and the first round cards.
+    static int of(EndgameSolver.Position position) {
+        if (position.rounds() != 1) return NOT_COVERED;
+        final int turn = turnOf(position);
+        final int[] botCards = position.botCards();
+        if (botCards.length != (turn == BOT_LED ? 1 : 2)) return NOT_COVERED;
+
+        int low = 0;
+        int high = 0;
+        for (int valueClass = 1; valueClass <= VALUE_CLASSES; valueClass++) {
+            int removed = EquityIndex.deckCount(valueClass, position.viraClass()) - position.unseen()[valueClass];
+            for (int card : botCards) if (card == valueClass) removed--;
+            if (position.tableCard() == valueClass) removed--;
+            for (; removed > 0; removed--) {
+                if (high != 0) return NOT_COVERED;
+                if (low == 0) low = valueClass;
+                else high = valueClass;
+            }
+        }
+        if (high == 0) return NOT_COVERED;
+
+        final int result = position.history()[0];
+        final int botFirst = result == RoundRules.LOST ? low : high;
+        final int opponentFirst = botFirst == low ? high : low;
+        final EndgameSolver.Position covered = position(position.viraClass(), botFirst, opponentFirst, turn,
+                botCards, position.tableCard());
+        if (covered == null || covered.key() != position.key()) return NOT_COVERED;
+        return of(position.viraClass(), botFirst, opponentFirst, turn, botCards, position.tableCard());
+    }
+
+    //Builds the second round position after the first round cards, or returns null if the cards can not be dealt.
+    static EndgameSolver.Position position(int viraClass, int botFirst, int opponentFirst, int turn, int[] botCards,
+                                           int tableCard) {
+        final int[] unseen = new int[VALUE_CLASSES + 1];
+        for (int valueClass = 1; valueClass <= VALUE_CLASSES; valueClass++)
+            unseen[valueClass] = EquityIndex.deckCount(valueClass, viraClass);
+        unseen[botFirst]--;
+        unseen[opponentFirst]--;
+        for (int card : botCards) unseen[card]--;
+        if (tableCard != EndgameSolver.NO_CARD) unseen[tableCard]--;
+        for (int count : unseen) if (count < 0) return null;
+
+        final int[] history = {RoundRules.resultOf(botFirst, opponentFirst), 0, 0};
+        final boolean botPlaysFirst = turn == BOT_LEADS || turn == BOT_LED;
+        return new EndgameSolver.Position(viraClass, history, 1, botCards, turn == OPPONENT_LED ? 1 : 2, tableCard,
+                turn == BOT_LED, botPlaysFirst, unseen);
+    }
+
+    static int entryOf(EndgameSolver.Outcome outcome, EndgameSolver.Position position) {
+        final long holdings = holdingsOf(position);
+        final int won = (int) Math.round(outcome.win() * holdings);
+        final int lost = (int) Math.round(outcome.lose() * holdings);
+        return outcome.bestClass() << 2 * WEIGHT_BITS | won << WEIGHT_BITS | lost;
+    }
+
+    static EndgameSolver.Outcome outcomeOf(int entry, EndgameSolver.Position position) {
+        final long holdings = holdingsOf(position);
+        final int won = entry >>> WEIGHT_BITS & WEIGHT_MASK;
+        final int lost = entry & WEIGHT_MASK;
+        final double total = holdings;
+        return new EndgameSolver.Outcome(entry >>> 2 * WEIGHT_BITS, won / total, (holdings - won - lost) / total,
+                lost / total);
+    }
+
+    private static int turnOf(EndgameSolver.Position position) {
+        if (position.tableCard() == EndgameSolver.NO_CARD) return position.botPlaysFirst() ? BOT_LEADS : OPPONENT_LEADS;
+        return position.tableIsBotCard() ? BOT_LED : OPPONENT_LED;
+    }
+
+    //Number of holdings the opponent may have among the unseen cards, at most 595 in the second round.
+    private static long holdingsOf(EndgameSolver.Position position) {
+        int unseen = 0;
+        for (int valueClass = 1; valueClass <= VALUE_CLASSES; valueClass++) unseen += position.unseen()[valueClass];
+        long holdings = 1;
+        for (int i = 0; i < position.opponentCards(); i++) holdings = holdings * (unseen - i) / (i + 1);
+        return holdings;
+    }
+
+    //Index of a sorted pair of value classes among all the pairs with repetition.
+    private static int pairOf(int low, int high) {
+        return (low - 1) * (2 * VALUE_CLASSES - low + 2) / 2 + high - low;
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.spi.equity;
+
+import com.bueno.spi.model.GameIntel;
+import com.bueno.spi.model.TrucoCard;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import static com.bueno.spi.equity.EquityIndex.VALUE_CLASSES;
+import static com.bueno.spi.equity.RoundRules.*;
+
+/**
+ * <p>Exact solver for the second and third rounds of a hand. It enumerates every holding the opponent may have among
+ * the cards the bot has not seen, weighted by how many ways it can be dealt. The bot chooses its card without
+ * knowing the opponent holding, and the remaining rounds are played perfectly by both players. Positions are reduced
+ * to a canonical key based on relative card values, and solutions are cached by that key, so repeated positions are
+ * answered without solving them again. Second round positions are also precomputed by {@link EndgameTableGenerator}:
+ * bots that map an {@link EndgameTable} read them from it and only solve the third round here.</p>
+ *
+ * <pre>{@code
+ *    final EndgameSolver.Solution solution = EndgameSolver.solve(intel);
+ *    if (solution.shouldRaise()) ...
+ *    }
+ * </pre>
+ */
+public final class EndgameSolver {
+    static final int MAX_CACHED_POSITIONS = 1 << 16;
+    static final int NO_CARD = 15;
+    private static final int PLAYED = -1;
+
+    private static final Map<Long, Outcome> cache = new LinkedHashMap<>(1024, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Outcome> eldest) {
+            return size() > MAX_CACHED_POSITIONS;
+        }
+    };
+
+    private EndgameSolver() {
+    }
+
+    /**
+     * <p>Solves the position of a bot that is about to choose a card or to decide whether it raises.</p>
+     *
+     * @param intel current game intel, with at least one round played, must be non-null
+     * @return the solution of the position
+     * @throws IllegalArgumentException if no round was played yet
+     */
+    public static Solution solve(GameIntel intel) {
+        return solve(intel, false);
+    }
+
+    /**
+     * <p>Solves the position of a bot that must answer a raise request. If the bot led the current round, its card
+     * is the last open card, and the opponent answers it once the request is settled. If no card was played in the
+     * current round, the opponent is considered the first to play it, since it requested the raise before playing.</p>
+     *
+     * @param intel current game intel, with at least one round played, must be non-null
+     * @return the solution of the position
+     * @throws IllegalArgumentException if no round was played yet
+     */
+    public static Solution solveRaiseResponse(GameIntel intel) {
+        return solve(intel, true);
+    }
+
+    private static Solution solve(GameIntel intel, boolean respondingToRaise) {
+        Objects.requireNonNull(intel, "Game intel must not be null.");
+        return solve(intel, Position.of(intel, respondingToRaise));
+    }
+
+    static Solution solve(GameIntel intel, Position position) {
+        final long key = position.key();
+        Outcome outcome;
+        synchronized (cache) {
+            outcome = cache.get(key);
+        }
+        if (outcome == null) {
+            outcome = position.solve();
+            synchronized (cache) {
+                cache.put(key, outcome);
+            }
+        }
+        return solutionOf(intel, outcome);
+    }
+
+    static Solution solutionOf(GameIntel intel, Outcome outcome) {
+        final int bestClass = outcome.bestClass();
+        final Optional<TrucoCard> bestCard = intel.getCards().stream()
+                .filter(card -> card.relativeValue(intel.getVira()) == bestClass)
+                .findFirst();
+        return new Solution(bestCard, outcome.win(), outcome.draw(), outcome.lose());
+    }
+
+    static int cachedPositions() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    static void clearCache() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * <p>Solution of an endgame position: the card the bot should play, if it is its turn to play a card, and the
+     * probabilities of winning, drawing and losing the hand.</p>
+     */
+    public record Solution(Optional<TrucoCard> bestCard, double winProbability, double drawProbability,
+                           double loseProbability) {
+
+        /**
+         * <p>Returns the expected hand result per point at stake: 1 for a sure win and -1 for a sure loss.</p>
+         * @return the difference between winning and losing probabilities
+         */
+        public double expectedResult() {
+            return winProbability - loseProbability;
+        }
+
+        /**
+         * <p>Decides whether the bot should request a raise. Even if the opponent always accepts, raising increases
+         * the expected points whenever the bot is more likely to win than to lose.</p>
+         * @return {@code true} if the expected result is positive
+         */
+        public boolean shouldRaise() {
+            return expectedResult() > 0;
+        }
+
+        /**
+         * <p>Decides how to answer a raise request, comparing the points expected if the bot accepts the raise
+         * with the points it loses by quitting.</p>
+         *
+         * @param handPoints current hand points, without the raise request
+         * @return {@code 1} to re-raise, {@code 0} to accept or {@code -1} to quit, as expected by
+         * {@link com.bueno.spi.service.BotServiceProvider#getRaiseResponse(GameIntel)}
+         */
+        public int raiseResponse(int handPoints) {
+            final int proposal = handPoints == 1 ? 3 : handPoints + 3;
+            if (shouldRaise()) return 1;
+            return expectedResult() * proposal >= -handPoints ? 0 : -1;
+        }
+    }
+
+    record Outcome(int bestClass, double win, double draw, double lose) {
+    }
+
+    record Position(int viraClass, int[] history, int rounds, int[] botCards, int opponentCards,
+                            int tableCard, boolean tableIsBotCard, boolean botPlaysFirst, int[] unseen) {
+
+        static Position of(GameIntel intel, boolean respondingToRaise) {
+            final TrucoCard vira = intel.getVira();
+            final List<GameIntel.RoundResult> results = intel.getRoundResults();
+            final int rounds = results.size();
+            if (rounds == 0) throw new IllegalArgumentException("Endgame starts after the first round.");
+
+            final int[] history = new int[3];
+            for (int round = 0; round < rounds; round++) history[round] = results.get(round).ordinal();
+
+            final int[] botCards = intel.getCards().stream().mapToInt(card -> card.relativeValue(vira)).sorted().toArray();
+            final boolean botHasPlayed = botCards.length < 3 - rounds;
+            final Optional<TrucoCard> cardOnTable = intel.getOpponentCard();
+            final boolean opponentHasPlayed = cardOnTable.isPresent() && !botHasPlayed;
+            final List<TrucoCard> openCards = intel.getOpenCards();
+            final int tableCard = opponentHasPlayed ? cardOnTable.get().relativeValue(vira)
+                    : botHasPlayed ? openCards.get(openCards.size() - 1).relativeValue(vira) : NO_CARD;
+            final boolean botPlaysFirst = botHasPlayed || !opponentHasPlayed && !respondingToRaise;
+
+            final int viraClass = EquityIndex.viraClass(vira);
+            final int[] unseen = new int[VALUE_CLASSES + 1];
+            for (int valueClass = 1; valueClass <= VALUE_CLASSES; valueClass++)
+                unseen[valueClass] = EquityIndex.deckCount(valueClass, viraClass);
+            for (int card : botCards) unseen[card]--;
+            boolean viraSkipped = false;
+            for (TrucoCard card : openCards) {
+                if (card.equals(vira) && !viraSkipped) viraSkipped = true;
+                else if (!card.equals(TrucoCard.closed())) {
+                    final int valueClass = card.relativeValue(vira);
+                    unseen[valueClass] = Math.max(0, unseen[valueClass] - 1);
+                }
+            }
+
+            final int opponentCards = 3 - rounds - (opponentHasPlayed ? 1 : 0);
+            return new Position(viraClass, history, rounds, botCards, opponentCards, tableCard, botHasPlayed,
+                    botPlaysFirst, unseen);
+        }
+
+        //Packs the position in a long: the remaining cards of each value class take 3 bits each.
+        long key() {
+            long key = viraClass;
+            for (int round = 0; round < rounds; round++) key = key * 3 + history[round];
+            key = key << 2 | rounds;
+            for (int i = 0; i < 2; i++) key = key << 4 | (i < botCards.length ? botCards[i] : NO_CARD);
+            key = key << 2 | opponentCards;
+            key = key << 4 | tableCard;
+            key = key << 1 | (tableIsBotCard ? 1 : 0);
+            key = key << 1 | (botPlaysFirst ? 1 : 0);
+            for (int valueClass = 1; valueClass <= VALUE_CLASSES; valueClass++) key = key << 3 | unseen[valueClass];
+            return key;
+        }
+
+        Outcome solve() {
+            final boolean botChooses = tableCard == NO_CARD ? botPlaysFirst : !tableIsBotCard;
+            if (botChooses && botCards.length == 0) throw new IllegalArgumentException("Bot has no card to play.");
+            Outcome best = null;
+            for (int i = 0; i < botCards.length || i == 0 && !botChooses; i++) {
+                if (botChooses && i > 0 && botCards[i] == botCards[i - 1]) continue;
+                final int choice = botChooses ? i : PLAYED;
+                final double[] totals = new double[4];
+                HandEquityGenerator.forEachHolding(new int[opponentCards], 0, 1, unseen, 1, (holding, weight) -> {
+                    final int result = afterChoice(choice, holding.clone());
+                    totals[result] += weight;
+                    totals[3] += weight;
+                });
+                final Outcome outcome = new Outcome(botChooses ? botCards[i] : NO_CARD,
+                        totals[WON] / totals[3], totals[DREW] / totals[3], totals[LOST] / totals[3]);
+                if (best == null || outcome.win() - outcome.lose() > best.win() - best.lose()) best = outcome;
+                if (!botChooses) break;
+            }
+            return best;
+        }
+
+        private int afterChoice(int choice, int[] opponent) {
+            final int[] bot = botCards.clone();
+            final int[] results = history.clone();
+            if (choice == PLAYED) return play(bot, opponent, results, rounds, botPlaysFirst, tableCard, tableIsBotCard);
+            final int card = bot[choice];
+            bot[choice] = PLAYED;
+            if (tableCard == NO_CARD) return play(bot, opponent, results, rounds, true, card, true);
+            return resolve(bot, opponent, results, rounds, false, card, tableCard);
+        }
+    }
+
+    //Full information minimax of the remaining cards, in which the bot prefers winning to drawing to losing.
+    private static int play(int[] bot, int[] opponent, int[] history, int rounds, boolean botPlaysFirst,
+                            int tableCard, boolean tableIsBotCard) {
+        final int handResult = handResult(history, rounds);
+        if (handResult != UNDECIDED) return handResult;
+
+        if (tableCard == NO_CARD && !botPlaysFirst || tableCard != NO_CARD && tableIsBotCard) {
+            int worst = WON;
+            for (int j = 0; j < opponent.length; j++) {
+                final int card = opponent[j];
+                if (card == PLAYED) continue;
+                opponent[j] = PLAYED;
+                final int result = tableCard == NO_CARD
+                        ? play(bot, opponent, history, rounds, false, card, false)
+                        : resolve(bot, opponent, history, rounds, true, tableCard, card);
+                opponent[j] = card;
+                worst = Math.max(worst, result);
+            }
+            return worst;
+        }
+
+        int best = LOST;
+        for (int i = 0; i < bot.length; i++) {
+            final int card = bot[i];
+            if (card == PLAYED) continue;
+            bot[i] = PLAYED;
+            final int result = tableCard == NO_CARD
+                    ? play(bot, opponent, history, rounds, true, card, true)
+                    : resolve(bot, opponent, history, rounds, false, card, tableCard);
+            bot[i] = card;
+            best = Math.min(best, result);
+        }
+        return best;
+    }
+
+    private static int resolve(int[] bot, int[] opponent, int[] history, int rounds, boolean botPlayedFirst,
+                               int botCard, int opponentCard) {
+        final int result = resultOf(botCard, opponentCard);
+        history[rounds] = result;
+        final boolean botPlaysNext = result == DREW ? botPlayedFirst : result == WON;
+        final int handResult = play(bot, opponent, history, rounds + 1, botPlaysNext, NO_CARD, false);
+        history[rounds] = UNDECIDED;
+        return handResult;
+    }
+}
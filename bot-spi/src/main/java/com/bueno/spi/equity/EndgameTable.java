@@ -0,0 +1,116 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.spi.equity;
+
+import com.bueno.spi.model.GameIntel;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * <p>Read-only view of the endgame file written by {@link EndgameTableGenerator}. Second round positions are read
+ * from the memory-mapped file with a single read at an offset computed from the position. The remaining positions,
+ * which are small enough to be solved in microseconds, fall back to {@link EndgameSolver} and its cache. Objects of
+ * this class are immutable and thread-safe.</p>
+ *
+ * <pre>{@code
+ *    final EndgameTable table = EndgameTable.openOrGenerate(Path.of("endgame.bin"));
+ *    final EndgameSolver.Solution solution = table.solve(intel);
+ *    }
+ * </pre>
+ */
+public final class EndgameTable {
+    private final ByteBuffer entries;
+
+    private EndgameTable(ByteBuffer entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * <p>Maps the endgame table stored in {@code file}.</p>
+     *
+     * @param file path of a file written by {@link EndgameTableGenerator}, must be non-null
+     * @return a table backed by the mapped file
+     * @throws IOException              if the file can not be read
+     * @throws IllegalArgumentException if the file is not an endgame table of the supported version
+     */
+    public static EndgameTable open(Path file) throws IOException {
+        Objects.requireNonNull(file, "File of the endgame table must not be null.");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long expectedSize = EndgameIndex.HEADER_BYTES + (long) EndgameIndex.entries() * Integer.BYTES;
+            if (channel.size() != expectedSize)
+                throw new IllegalArgumentException("Unexpected size of endgame table: " + channel.size());
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, expectedSize);
+            if (buffer.getInt(0) != EndgameIndex.MAGIC || buffer.getInt(4) != EndgameIndex.VERSION)
+                throw new IllegalArgumentException("File is not a supported endgame table: " + file);
+            return new EndgameTable(buffer);
+        }
+    }
+
+    /**
+     * <p>Maps the endgame table stored in {@code file}, generating it first if the file does not exist.</p>
+     *
+     * @param file path of the endgame table, must be non-null
+     * @return a table backed by the mapped file
+     * @throws IOException if the file can not be written or read
+     */
+    public static EndgameTable openOrGenerate(Path file) throws IOException {
+        Objects.requireNonNull(file, "File of the endgame table must not be null.");
+        if (Files.notExists(file)) EndgameTableGenerator.generate(file);
+        return open(file);
+    }
+
+    /**
+     * <p>Returns the same solution of {@link EndgameSolver#solve(GameIntel)}.</p>
+     *
+     * @param intel current game intel, with at least one round played, must be non-null
+     * @return the solution of the position
+     * @throws IllegalArgumentException if no round was played yet
+     */
+    public EndgameSolver.Solution solve(GameIntel intel) {
+        return solve(intel, false);
+    }
+
+    /**
+     * <p>Returns the same solution of {@link EndgameSolver#solveRaiseResponse(GameIntel)}.</p>
+     *
+     * @param intel current game intel, with at least one round played, must be non-null
+     * @return the solution of the position
+     * @throws IllegalArgumentException if no round was played yet
+     */
+    public EndgameSolver.Solution solveRaiseResponse(GameIntel intel) {
+        return solve(intel, true);
+    }
+
+    private EndgameSolver.Solution solve(GameIntel intel, boolean respondingToRaise) {
+        Objects.requireNonNull(intel, "Game intel must not be null.");
+        final EndgameSolver.Position position = EndgameSolver.Position.of(intel, respondingToRaise);
+        final int index = EndgameIndex.of(position);
+        if (index == EndgameIndex.NOT_COVERED) return EndgameSolver.solve(intel, position);
+        final int entry = entries.getInt(EndgameIndex.HEADER_BYTES + index * Integer.BYTES);
+        return EndgameSolver.solutionOf(intel, EndgameIndex.outcomeOf(entry, position));
+    }
+}
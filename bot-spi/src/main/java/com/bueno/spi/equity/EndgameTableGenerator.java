@@ -0,0 +1,93 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.spi.equity;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.bueno.spi.equity.EndgameIndex.*;
+import static com.bueno.spi.equity.EquityIndex.VALUE_CLASSES;
+import static com.bueno.spi.equity.EquityIndex.VIRA_CLASSES;
+
+/**
+ * <p>Offline generator of the file read by {@link EndgameTable}. For every vira, every pair of first round cards and
+ * every second round turn, it solves each bot hand and card on the table with {@link EndgameSolver}, so the table
+ * holds the same solutions the solver would compute during live play.</p>
+ *
+ * <p>Usage: {@code java com.bueno.spi.equity.EndgameTableGenerator <output file>}</p>
+ */
+public final class EndgameTableGenerator {
+
+    private EndgameTableGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) throw new IllegalArgumentException("Usage: EndgameTableGenerator <output file>");
+        generate(Path.of(args[0]));
+    }
+
+    /**
+     * <p>Solves all the second round positions and writes them to {@code file}, replacing it if it already exists.</p>
+     *
+     * @param file path of the table file, must be non-null
+     * @throws IOException if the file can not be written
+     */
+    public static void generate(Path file) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + EndgameIndex.entries() * Integer.BYTES);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(EndgameIndex.entries());
+        for (int viraClass = 1; viraClass <= VIRA_CLASSES; viraClass++)
+            for (int botFirst = 1; botFirst <= VALUE_CLASSES; botFirst++)
+                for (int opponentFirst = 1; opponentFirst <= VALUE_CLASSES; opponentFirst++)
+                    generateBlock(buffer, viraClass, botFirst, opponentFirst);
+        buffer.rewind();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) channel.write(buffer);
+        }
+    }
+
+    private static void generateBlock(ByteBuffer buffer, int viraClass, int botFirst, int opponentFirst) {
+        for (int low = 1; low <= VALUE_CLASSES; low++) {
+            for (int high = low; high <= VALUE_CLASSES; high++) {
+                final int[] botCards = {low, high};
+                put(buffer, viraClass, botFirst, opponentFirst, BOT_LEADS, botCards, EndgameSolver.NO_CARD);
+                put(buffer, viraClass, botFirst, opponentFirst, OPPONENT_LEADS, botCards, EndgameSolver.NO_CARD);
+                for (int tableCard = 1; tableCard <= VALUE_CLASSES; tableCard++)
+                    put(buffer, viraClass, botFirst, opponentFirst, OPPONENT_LED, botCards, tableCard);
+            }
+            for (int tableCard = 1; tableCard <= VALUE_CLASSES; tableCard++)
+                put(buffer, viraClass, botFirst, opponentFirst, BOT_LED, new int[]{low}, tableCard);
+        }
+    }
+
+    //Entries of positions that can not be dealt are left as zero.
+    private static void put(ByteBuffer buffer, int viraClass, int botFirst, int opponentFirst, int turn,
+                            int[] botCards, int tableCard) {
+        final EndgameSolver.Position position = position(viraClass, botFirst, opponentFirst, turn, botCards, tableCard);
+        if (position == null) return;
+        final int index = EndgameIndex.of(viraClass, botFirst, opponentFirst, turn, botCards, tableCard);
+        buffer.putInt(HEADER_BYTES + index * Integer.BYTES, entryOf(position.solve(), position));
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.spi.equity;
+
+import com.bueno.spi.model.CardRank;
+import com.bueno.spi.model.GameIntel;
+import com.bueno.spi.model.TrucoCard;
+
+import java.util.Arrays;
+import java.util.List;
+
+//Maps a position to its entry in the equity table. Since only relative values matter, cards are reduced to value
+//classes (1 to 9 for ordinary cards and 10 to 13 for manilhas) and the vira to the class it removes from the deck.
+//Each position has an entry for each turn: the opponent leads the round, the bot leads it, or the bot already led
+//the first of the values and waits for the answer of the opponent.
+final class EquityIndex {
+    static final int MAGIC = 0x43544551;
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 12;
+    static final int VALUE_CLASSES = 13;
+    static final int VIRA_CLASSES = 9;
+    static final int FIRST_MANILHA_CLASS = 10;
+    static final int OPPONENT_LEADS = 0;
+    static final int BOT_LEADS = 1;
+    static final int BOT_LED = 2;
+    static final int TURNS = 3;
+
+    private static final int[] stageOffsets = new int[4];
+
+    static {
+        for (int rounds = 0; rounds < 3; rounds++)
+            stageOffsets[rounds + 1] = stageOffsets[rounds] + stageSize(rounds);
+    }
+
+    private EquityIndex() {
+    }
+
+    static int entries() {
+        return stageOffsets[3];
+    }
+
+    private static int stageSize(int rounds) {
+        return VIRA_CLASSES * pow(3, rounds) * pow(VALUE_CLASSES, 3 - rounds) * TURNS;
+    }
+
+    static int of(int viraClass, int[] history, int rounds, int[] values, int turn) {
+        int index = viraClass - 1;
+        int encodedHistory = 0;
+        for (int round = rounds - 1; round >= 0; round--) encodedHistory = encodedHistory * 3 + history[round];
+        index = index * pow(3, rounds) + encodedHistory;
+        for (int i = 0; i < 3 - rounds; i++) index = index * VALUE_CLASSES + values[i] - 1;
+        return stageOffsets[rounds] + index * TURNS + turn;
+    }
+
+    static int of(TrucoCard vira, List<TrucoCard> cards, List<GameIntel.RoundResult> roundResults, boolean playsFirst) {
+        if (cards.size() + roundResults.size() != 3)
+            throw new IllegalArgumentException("Cards and round results must sum up to three: " + cards + roundResults);
+        final int[] values = new int[cards.size()];
+        for (int i = 0; i < values.length; i++) values[i] = cards.get(i).relativeValue(vira);
+        Arrays.sort(values);
+        return of(viraClass(vira), history(roundResults), roundResults.size(), values,
+                playsFirst ? BOT_LEADS : OPPONENT_LEADS);
+    }
+
+    static int ofLedCard(TrucoCard vira, TrucoCard ledCard, List<TrucoCard> cards,
+                         List<GameIntel.RoundResult> roundResults) {
+        if (cards.size() + roundResults.size() != 2)
+            throw new IllegalArgumentException("Cards and round results must sum up to two after leading a round: "
+                    + cards + roundResults);
+        final int[] values = new int[cards.size() + 1];
+        for (int i = 1; i < values.length; i++) values[i] = cards.get(i - 1).relativeValue(vira);
+        Arrays.sort(values, 1, values.length);
+        values[0] = ledCard.relativeValue(vira);
+        return of(viraClass(vira), history(roundResults), roundResults.size(), values, BOT_LED);
+    }
+
+    private static int[] history(List<GameIntel.RoundResult> roundResults) {
+        final int[] history = new int[roundResults.size()];
+        for (int i = 0; i < history.length; i++) history[i] = roundResults.get(i).ordinal();
+        return history;
+    }
+
+    static int viraClass(TrucoCard vira) {
+        if (vira.getRank() == CardRank.HIDDEN) throw new IllegalArgumentException("Vira must not be a closed card.");
+        return vira.getRank() == CardRank.THREE ? VIRA_CLASSES : vira.getRank().ordinal();
+    }
+
+    //Number of cards of each value class left in the deck after the vira is removed.
+    static int deckCount(int valueClass, int viraClass) {
+        if (valueClass >= FIRST_MANILHA_CLASS) return 1;
+        return valueClass == viraClass ? 3 : 4;
+    }
+
+    private static int pow(int base, int exponent) {
+        int result = 1;
+        for (int i = 0; i < exponent; i++) result *= base;
+        return result;
+    }
+}
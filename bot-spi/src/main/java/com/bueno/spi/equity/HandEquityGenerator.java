@@ -0,0 +1,334 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.spi.equity;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+import static com.bueno.spi.equity.EquityIndex.VALUE_CLASSES;
+import static com.bueno.spi.equity.RoundRules.*;
+import static com.bueno.spi.equity.EquityIndex.VIRA_CLASSES;
+
+/**
+ * <p>Offline generator of the file read by {@link HandEquityTable}. For every vira, every hand and every partial hand
+ * after the first and second rounds, it enumerates all the opponent holdings, weighted by how many ways they can be
+ * dealt, and computes the probability of winning the hand. The bot does not know the opponent holding: each of its
+ * cards is chosen by the average outcome over the holdings consistent with the cards the opponent has shown. The
+ * opponent plays the best card of each holding as if it could see both hands. Drawn hands count as half a win.
+ * Cards played in previous rounds are not removed from the opponent holdings.</p>
+ *
+ * <p>Usage: {@code java com.bueno.spi.equity.HandEquityGenerator <output file>}</p>
+ */
+public final class HandEquityGenerator {
+    private static final int PLAYED = 0;
+
+    private HandEquityGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) throw new IllegalArgumentException("Usage: HandEquityGenerator <output file>");
+        generate(Path.of(args[0]));
+    }
+
+    /**
+     * <p>Computes all the equities and writes them to {@code file}, replacing it if it already exists.</p>
+     *
+     * @param file path of the table file, must be non-null
+     * @throws IOException if the file can not be written
+     */
+    public static void generate(Path file) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(EquityIndex.HEADER_BYTES + EquityIndex.entries() * Character.BYTES);
+        buffer.putInt(EquityIndex.MAGIC).putInt(EquityIndex.VERSION).putInt(EquityIndex.entries());
+        for (int viraClass = 1; viraClass <= VIRA_CLASSES; viraClass++)
+            for (int rounds = 0; rounds < 3; rounds++)
+                generateStage(buffer, viraClass, rounds);
+        buffer.rewind();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) channel.write(buffer);
+        }
+    }
+
+    private static void generateStage(ByteBuffer buffer, int viraClass, int rounds) {
+        final int[] history = new int[3];
+        final int histories = rounds == 0 ? 1 : rounds == 1 ? 3 : 9;
+        for (int encoded = 0; encoded < histories; encoded++) {
+            for (int round = 0, rest = encoded; round < rounds; round++, rest /= 3) history[round] = rest % 3;
+            forEachHand(new int[3 - rounds], 0, 1, viraClass, hand -> {
+                put(buffer, viraClass, hand, history, rounds, EquityIndex.OPPONENT_LEADS);
+                put(buffer, viraClass, hand, history, rounds, EquityIndex.BOT_LEADS);
+                //Any card of the hand may be the one already led, followed by the other cards in order.
+                for (int led = 0; led < hand.length; led++) {
+                    if (led > 0 && hand[led] == hand[led - 1]) continue;
+                    final int[] values = new int[hand.length];
+                    values[0] = hand[led];
+                    for (int i = 0, j = 1; i < hand.length; i++) if (i != led) values[j++] = hand[i];
+                    put(buffer, viraClass, values, history, rounds, EquityIndex.BOT_LED);
+                }
+            });
+        }
+    }
+
+    private static void put(ByteBuffer buffer, int viraClass, int[] values, int[] history, int rounds, int turn) {
+        final double equity = equity(viraClass, values, history, rounds, turn);
+        final int index = EquityIndex.of(viraClass, history, rounds, values, turn);
+        buffer.putChar(EquityIndex.HEADER_BYTES + index * Character.BYTES,
+                (char) Math.round(equity * Character.MAX_VALUE));
+    }
+
+    //Visits every sorted hand that can be dealt. Entries of impossible hands are left as zero.
+    private static void forEachHand(int[] hand, int position, int minClass, int viraClass, HandConsumer consumer) {
+        if (position == hand.length) {
+            consumer.accept(hand);
+            return;
+        }
+        for (int valueClass = minClass; valueClass <= VALUE_CLASSES; valueClass++) {
+            if (countOf(hand, position, valueClass) >= EquityIndex.deckCount(valueClass, viraClass)) continue;
+            hand[position] = valueClass;
+            forEachHand(hand, position + 1, valueClass, viraClass, consumer);
+        }
+    }
+
+    private static double equity(int viraClass, int[] values, int[] history, int rounds, int turn) {
+        final int handResult = handResult(history, rounds);
+        if (handResult != UNDECIDED) return valueOf(handResult);
+
+        final int[] available = new int[VALUE_CLASSES + 1];
+        for (int valueClass = 1; valueClass <= VALUE_CLASSES; valueClass++)
+            available[valueClass] = EquityIndex.deckCount(valueClass, viraClass) - countOf(values, values.length, valueClass);
+        final List<Holding> holdings = new ArrayList<>();
+        forEachHolding(new int[values.length], 0, 1, available, 1,
+                (opponent, weight) -> holdings.add(new Holding(opponent.clone(), weight)));
+
+        final int[] bot = values.clone();
+        final double total = switch (turn) {
+            case EquityIndex.BOT_LED -> {
+                bot[0] = PLAYED;
+                yield answered(bot, values[0], holdings, history.clone(), rounds);
+            }
+            case EquityIndex.BOT_LEADS -> play(bot, holdings, history.clone(), rounds, true);
+            default -> play(bot, holdings, history.clone(), rounds, false);
+        };
+        return total / weightOf(holdings);
+    }
+
+    static void forEachHolding(int[] holding, int position, int minClass, int[] available, long weight,
+                               HoldingConsumer consumer) {
+        if (position == holding.length) {
+            consumer.accept(holding, weight);
+            return;
+        }
+        for (int valueClass = minClass; valueClass <= VALUE_CLASSES; valueClass++) {
+            final int taken = countOf(holding, position, valueClass);
+            if (taken >= available[valueClass]) continue;
+            holding[position] = valueClass;
+            //Multiplying by (available - taken) / (taken + 1) accumulates the binomial coefficient of each class.
+            final long classWeight = weight * (available[valueClass] - taken) / (taken + 1);
+            forEachHolding(holding, position + 1, valueClass, available, classWeight, consumer);
+        }
+    }
+
+    //Weighted sum of the outcomes of the remaining rounds over the opponent holdings the bot can not tell apart.
+    //The bot plays the card with the best outcome over all of them. The opponent, who is assumed to see both hands,
+    //plays the full information best card of each holding, and the card it shows splits the holdings the bot
+    //considers from then on.
+    private static double play(int[] bot, List<Holding> holdings, int[] history, int rounds, boolean botPlaysFirst) {
+        final int handResult = handResult(history, rounds);
+        if (handResult != UNDECIDED) return weightOf(holdings) * valueOf(handResult);
+
+        if (botPlaysFirst) {
+            double best = -1;
+            for (int i = 0; i < bot.length; i++) {
+                final int botCard = bot[i];
+                if (botCard == PLAYED || i > 0 && botCard == bot[i - 1]) continue;
+                bot[i] = PLAYED;
+                best = Math.max(best, answered(bot, botCard, holdings, history, rounds));
+                bot[i] = botCard;
+            }
+            return best;
+        }
+
+        final List<Holding>[] leads = split(holdings, opponent -> bestLead(bot, opponent, history, rounds));
+        double total = 0;
+        for (int opponentCard = 1; opponentCard <= VALUE_CLASSES; opponentCard++) {
+            if (leads[opponentCard] == null) continue;
+            double best = -1;
+            for (int i = 0; i < bot.length; i++) {
+                final int botCard = bot[i];
+                if (botCard == PLAYED || i > 0 && botCard == bot[i - 1]) continue;
+                bot[i] = PLAYED;
+                best = Math.max(best, resolve(bot, leads[opponentCard], botCard, opponentCard, history, rounds, false));
+                bot[i] = botCard;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    //Weighted sum of the outcomes after the bot led botCard, which is already marked as played in its hand.
+    private static double answered(int[] bot, int botCard, List<Holding> holdings, int[] history, int rounds) {
+        final List<Holding>[] answers = split(holdings,
+                opponent -> bestAnswer(bot, botCard, opponent, history, rounds));
+        double total = 0;
+        for (int opponentCard = 1; opponentCard <= VALUE_CLASSES; opponentCard++)
+            if (answers[opponentCard] != null)
+                total += resolve(bot, answers[opponentCard], botCard, opponentCard, history, rounds, true);
+        return total;
+    }
+
+    private static double resolve(int[] bot, List<Holding> holdings, int botCard, int opponentCard, int[] history,
+                                  int rounds, boolean botPlayedFirst) {
+        final int result = resultOf(botCard, opponentCard);
+        history[rounds] = result;
+        final boolean botPlaysNext = result == DREW ? botPlayedFirst : result == WON;
+        return play(bot, holdings, history, rounds + 1, botPlaysNext);
+    }
+
+    //Groups the holdings by the card each one plays, removing it from the holding.
+    @SuppressWarnings("unchecked")
+    private static List<Holding>[] split(List<Holding> holdings, ToIntFunction<int[]> choice) {
+        final List<Holding>[] shown = new List[VALUE_CLASSES + 1];
+        for (Holding holding : holdings) {
+            final int[] cards = holding.cards().clone();
+            final int played = choice.applyAsInt(cards);
+            final int card = cards[played];
+            cards[played] = PLAYED;
+            if (shown[card] == null) shown[card] = new ArrayList<>();
+            shown[card].add(new Holding(cards, holding.weight()));
+        }
+        return shown;
+    }
+
+    //Index of the card the opponent leads, the one with the lowest full information outcome for the bot.
+    private static int bestLead(int[] bot, int[] opponent, int[] history, int rounds) {
+        int best = -1;
+        double lowest = 2;
+        for (int j = 0; j < opponent.length; j++) {
+            if (opponent[j] == PLAYED) continue;
+            double response = -1;
+            for (int i = 0; i < bot.length; i++)
+                if (bot[i] != PLAYED)
+                    response = Math.max(response, playRound(bot, i, opponent, j, history, rounds, false));
+            if (response < lowest) {
+                lowest = response;
+                best = j;
+            }
+        }
+        return best;
+    }
+
+    //Index of the card the opponent answers botCard with, the one with the lowest full information outcome.
+    private static int bestAnswer(int[] bot, int botCard, int[] opponent, int[] history, int rounds) {
+        int best = -1;
+        double lowest = 2;
+        for (int j = 0; j < opponent.length; j++) {
+            final int opponentCard = opponent[j];
+            if (opponentCard == PLAYED) continue;
+            final int result = resultOf(botCard, opponentCard);
+            history[rounds] = result;
+            opponent[j] = PLAYED;
+            final double outcome = minimax(bot, opponent, history, rounds + 1, result != LOST);
+            opponent[j] = opponentCard;
+            if (outcome < lowest) {
+                lowest = outcome;
+                best = j;
+            }
+        }
+        return best;
+    }
+
+    //Full information minimax of the remaining rounds: the bot maximizes its outcome and the opponent minimizes it.
+    private static double minimax(int[] bot, int[] opponent, int[] history, int rounds, boolean botPlaysFirst) {
+        final int handResult = handResult(history, rounds);
+        if (handResult != UNDECIDED) return valueOf(handResult);
+
+        double best = botPlaysFirst ? -1 : 2;
+        if (botPlaysFirst) {
+            for (int i = 0; i < bot.length; i++) {
+                if (bot[i] == PLAYED) continue;
+                double response = 2;
+                for (int j = 0; j < opponent.length; j++)
+                    if (opponent[j] != PLAYED)
+                        response = Math.min(response, playRound(bot, i, opponent, j, history, rounds, true));
+                best = Math.max(best, response);
+            }
+        } else {
+            for (int j = 0; j < opponent.length; j++) {
+                if (opponent[j] == PLAYED) continue;
+                double response = -1;
+                for (int i = 0; i < bot.length; i++)
+                    if (bot[i] != PLAYED)
+                        response = Math.max(response, playRound(bot, i, opponent, j, history, rounds, false));
+                best = Math.min(best, response);
+            }
+        }
+        return best;
+    }
+
+    private static double playRound(int[] bot, int i, int[] opponent, int j, int[] history, int rounds,
+                                    boolean botPlaysFirst) {
+        final int botCard = bot[i];
+        final int opponentCard = opponent[j];
+        final int result = resultOf(botCard, opponentCard);
+        bot[i] = PLAYED;
+        opponent[j] = PLAYED;
+        history[rounds] = result;
+        final boolean botPlaysNext = result == DREW ? botPlaysFirst : result == WON;
+        final double value = minimax(bot, opponent, history, rounds + 1, botPlaysNext);
+        bot[i] = botCard;
+        opponent[j] = opponentCard;
+        return value;
+    }
+
+    private static double valueOf(int handResult) {
+        return handResult == WON ? 1 : handResult == LOST ? 0 : 0.5;
+    }
+
+    private static long weightOf(List<Holding> holdings) {
+        long weight = 0;
+        for (Holding holding : holdings) weight += holding.weight();
+        return weight;
+    }
+
+    private static int countOf(int[] cards, int size, int valueClass) {
+        int count = 0;
+        for (int i = 0; i < size; i++) if (cards[i] == valueClass) count++;
+        return count;
+    }
+
+    private record Holding(int[] cards, long weight) {
+    }
+
+    private interface HandConsumer {
+        void accept(int[] hand);
+    }
+
+    interface HoldingConsumer {
+        void accept(int[] holding, long weight);
+    }
+}
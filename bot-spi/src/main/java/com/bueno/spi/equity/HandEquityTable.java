@@ -0,0 +1,150 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.spi.equity;
+
+import com.bueno.spi.model.GameIntel;
+import com.bueno.spi.model.TrucoCard;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * <p>Read-only view of the hand equity file written by {@link HandEquityGenerator}. The file is memory-mapped, so
+ * opening it is cheap, the operating system shares its pages among all bots, and each query is a single read at an
+ * offset computed from the position. Objects of this class are immutable and thread-safe.</p>
+ *
+ * <pre>{@code
+ *    final HandEquityTable table = HandEquityTable.openOrGenerate(Path.of("hand-equity.bin"));
+ *    final double chanceToWin = table.equity(intel);
+ *    }
+ * </pre>
+ */
+public final class HandEquityTable {
+    private final ByteBuffer entries;
+
+    private HandEquityTable(ByteBuffer entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * <p>Maps the equity table stored in {@code file}.</p>
+     *
+     * @param file path of a file written by {@link HandEquityGenerator}, must be non-null
+     * @return a table backed by the mapped file
+     * @throws IOException              if the file can not be read
+     * @throws IllegalArgumentException if the file is not a hand equity table of the supported version
+     */
+    public static HandEquityTable open(Path file) throws IOException {
+        Objects.requireNonNull(file, "File of the equity table must not be null.");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long expectedSize = EquityIndex.HEADER_BYTES + (long) EquityIndex.entries() * Character.BYTES;
+            if (channel.size() != expectedSize)
+                throw new IllegalArgumentException("Unexpected size of equity table: " + channel.size());
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, expectedSize);
+            if (buffer.getInt(0) != EquityIndex.MAGIC || buffer.getInt(4) != EquityIndex.VERSION)
+                throw new IllegalArgumentException("File is not a supported equity table: " + file);
+            return new HandEquityTable(buffer);
+        }
+    }
+
+    /**
+     * <p>Maps the equity table stored in {@code file}, generating it first if the file does not exist.</p>
+     *
+     * @param file path of the equity table, must be non-null
+     * @return a table backed by the mapped file
+     * @throws IOException if the file can not be written or read
+     */
+    public static HandEquityTable openOrGenerate(Path file) throws IOException {
+        Objects.requireNonNull(file, "File of the equity table must not be null.");
+        if (Files.notExists(file)) HandEquityGenerator.generate(file);
+        return open(file);
+    }
+
+    /**
+     * <p>Returns the probability of winning the hand holding {@code cards} after the {@code roundResults} already
+     * played, against a random opponent holding. The bot chooses each card by its average outcome over the holdings
+     * consistent with the cards the opponent has shown, and the opponent plays its best cards. Drawn hands count as
+     * half a win.</p>
+     *
+     * @param vira         TrucoCard representing the current vira, must be non-null
+     * @param cards        cards still in hand, must be non-null
+     * @param roundResults results of the rounds already played, must be non-null
+     * @param playsFirst   whether the owner of the {@code cards} is the first to play in the current round
+     * @return the equity of the hand, from 0 to 1
+     * @throws IllegalArgumentException if the number of cards and round results do not sum up to three
+     */
+    public double equity(TrucoCard vira, List<TrucoCard> cards, List<GameIntel.RoundResult> roundResults,
+                         boolean playsFirst) {
+        Objects.requireNonNull(vira, "TrucoCard representing the vira must not be null.");
+        Objects.requireNonNull(cards, "Cards must not be null.");
+        Objects.requireNonNull(roundResults, "Round results must not be null.");
+        return entry(EquityIndex.of(vira, cards, roundResults, playsFirst));
+    }
+
+    /**
+     * <p>Returns the equity of a hand whose owner has led {@code ledCard} in the current round and waits for the
+     * answer of the opponent. See {@link #equity(TrucoCard, List, List, boolean)}.</p>
+     *
+     * @param vira         TrucoCard representing the current vira, must be non-null
+     * @param ledCard      card on the table, must be non-null
+     * @param cards        cards still in hand, must be non-null
+     * @param roundResults results of the rounds already played, must be non-null
+     * @return the equity of the hand, from 0 to 1
+     * @throws IllegalArgumentException if the number of cards and round results do not sum up to two
+     */
+    public double equity(TrucoCard vira, TrucoCard ledCard, List<TrucoCard> cards,
+                         List<GameIntel.RoundResult> roundResults) {
+        Objects.requireNonNull(vira, "TrucoCard representing the vira must not be null.");
+        Objects.requireNonNull(ledCard, "Led card must not be null.");
+        Objects.requireNonNull(cards, "Cards must not be null.");
+        Objects.requireNonNull(roundResults, "Round results must not be null.");
+        return entry(EquityIndex.ofLedCard(vira, ledCard, cards, roundResults));
+    }
+
+    /**
+     * <p>Returns the equity of the bot hand. If the bot has already played in the current round, its card is the last
+     * open card and the position is waiting for the answer of the opponent. Otherwise, the bot is considered the
+     * first to play if there is no opponent card on the table. See {@link #equity(TrucoCard, List, List, boolean)}.</p>
+     *
+     * @param intel current game intel, must be non-null
+     * @return the equity of the bot hand, from 0 to 1
+     */
+    public double equity(GameIntel intel) {
+        Objects.requireNonNull(intel, "Game intel must not be null.");
+        final List<TrucoCard> cards = intel.getCards();
+        final List<GameIntel.RoundResult> roundResults = intel.getRoundResults();
+        if (cards.size() + roundResults.size() < 3) {
+            final List<TrucoCard> openCards = intel.getOpenCards();
+            return equity(intel.getVira(), openCards.get(openCards.size() - 1), cards, roundResults);
+        }
+        return equity(intel.getVira(), cards, roundResults, intel.getOpponentCard().isEmpty());
+    }
+
+    private double entry(int index) {
+        return (double) entries.getChar(EquityIndex.HEADER_BYTES + index * Character.BYTES) / Character.MAX_VALUE;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.spi.equity;
+
+//Decides the hand winner from the round results, with the same rules of the game engine. Results are encoded from
+//the point of view of the bot, in the same order of GameIntel.RoundResult.
+final class RoundRules {
+    static final int WON = 0;
+    static final int DREW = 1;
+    static final int LOST = 2;
+    static final int UNDECIDED = -1;
+
+    private RoundRules() {
+    }
+
+    static int resultOf(int botCard, int opponentCard) {
+        return botCard > opponentCard ? WON : botCard < opponentCard ? LOST : DREW;
+    }
+
+    //Returns WON or LOST if the hand has a winner, DREW if all rounds were drawn or UNDECIDED otherwise.
+    static int handResult(int[] history, int rounds) {
+        if (rounds == 2) {
+            final int first = history[0];
+            final int second = history[1];
+            if (first == DREW && second != DREW) return second;
+            if (first != DREW && second == DREW) return first;
+            if (first == second && first != DREW) return first;
+        }
+        if (rounds == 3) {
+            final int first = history[0];
+            final int last = history[2];
+            return last == DREW && first != DREW ? first : last;
+        }
+        return UNDECIDED;
+    }
+}
@@ -2,5 +2,6 @@ module bot.spi {
 
     exports com.bueno.spi.service;
     exports com.bueno.spi.model;
+    exports com.bueno.spi.equity;
     uses com.bueno.spi.service.BotServiceProvider;
 }
\ No newline at end of file
@@ -0,0 +1,174 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.spi.equity;
+
+import com.bueno.spi.model.GameIntel;
+import com.bueno.spi.model.TrucoCard;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.bueno.spi.model.CardRank.*;
+import static com.bueno.spi.model.CardSuit.*;
+import static com.bueno.spi.model.GameIntel.RoundResult.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndgameSolverTest {
+
+    private final TrucoCard vira = TrucoCard.of(SEVEN, SPADES);
+
+    @AfterEach
+    void tearDown() {
+        EndgameSolver.clearCache();
+    }
+
+    @Test
+    @DisplayName("Should win for sure holding the zap after winning the first round")
+    void shouldWinForSureHoldingTheZapAfterWinningTheFirstRound() {
+        final GameIntel intel = GameIntel.StepBuilder.with()
+                .gameInfo(List.of(WON), List.of(vira, TrucoCard.of(THREE, CLUBS), TrucoCard.of(FOUR, HEARTS)), vira, 1)
+                .botInfo(List.of(TrucoCard.of(QUEEN, CLUBS), TrucoCard.of(FIVE, HEARTS)), 0)
+                .opponentScore(0)
+                .build();
+
+        final EndgameSolver.Solution solution = EndgameSolver.solve(intel);
+
+        assertAll(
+                () -> assertEquals(1.0, solution.winProbability(), 1e-9),
+                () -> assertTrue(solution.shouldRaise()),
+                () -> assertEquals(1, solution.raiseResponse(3))
+        );
+    }
+
+    @Test
+    @DisplayName("Should play the lowest card that beats the card on the table in the last round")
+    void shouldPlayTheLowestCardThatBeatsTheCardOnTheTable() {
+        final TrucoCard opponentCard = TrucoCard.of(KING, HEARTS);
+        final GameIntel intel = GameIntel.StepBuilder.with()
+                .gameInfo(List.of(LOST), List.of(vira, TrucoCard.of(TWO, CLUBS), TrucoCard.of(ACE, HEARTS), opponentCard), vira, 1)
+                .botInfo(List.of(TrucoCard.of(THREE, DIAMONDS), TrucoCard.of(ACE, SPADES)), 0)
+                .opponentScore(0)
+                .opponentCard(opponentCard)
+                .build();
+
+        final EndgameSolver.Solution solution = EndgameSolver.solve(intel);
+
+        assertEquals(Optional.of(TrucoCard.of(ACE, SPADES)), solution.bestCard());
+    }
+
+    @Test
+    @DisplayName("Should quit raise request if the hand is surely lost")
+    void shouldQuitRaiseRequestIfTheHandIsSurelyLost() {
+        final TrucoCard opponentCard = TrucoCard.of(QUEEN, CLUBS);
+        final GameIntel intel = GameIntel.StepBuilder.with()
+                .gameInfo(List.of(WON, LOST), List.of(vira, TrucoCard.of(TWO, CLUBS), TrucoCard.of(ACE, HEARTS),
+                        TrucoCard.of(FOUR, CLUBS), TrucoCard.of(THREE, HEARTS), opponentCard), vira, 1)
+                .botInfo(List.of(TrucoCard.of(THREE, DIAMONDS)), 0)
+                .opponentScore(0)
+                .opponentCard(opponentCard)
+                .build();
+
+        final EndgameSolver.Solution solution = EndgameSolver.solveRaiseResponse(intel);
+
+        assertAll(
+                () -> assertEquals(1.0, solution.loseProbability(), 1e-9),
+                () -> assertEquals(-1, solution.raiseResponse(1))
+        );
+    }
+
+    @Test
+    @DisplayName("Should keep the card the bot led when answering a raise request made before the opponent played")
+    void shouldKeepTheCardTheBotLedWhenAnsweringARaiseRequestMadeBeforeTheOpponentPlayed() {
+        final TrucoCard zap = TrucoCard.of(QUEEN, CLUBS);
+        final GameIntel intel = GameIntel.StepBuilder.with()
+                .gameInfo(List.of(WON, LOST), List.of(vira, TrucoCard.of(TWO, CLUBS), TrucoCard.of(ACE, HEARTS),
+                        TrucoCard.of(FOUR, CLUBS), TrucoCard.of(THREE, HEARTS), zap), vira, 1)
+                .botInfo(List.of(), 0)
+                .opponentScore(0)
+                .build();
+
+        final EndgameSolver.Solution solution = EndgameSolver.solveRaiseResponse(intel);
+
+        assertAll(
+                () -> assertEquals(Optional.empty(), solution.bestCard()),
+                () -> assertEquals(1.0, solution.winProbability(), 1e-9),
+                () -> assertEquals(1, solution.raiseResponse(3))
+        );
+    }
+
+    @Test
+    @DisplayName("Should compute probabilities of the last round from the cards not seen")
+    void shouldComputeProbabilitiesOfTheLastRoundFromTheCardsNotSeen() {
+        final GameIntel intel = GameIntel.StepBuilder.with()
+                .gameInfo(List.of(WON, LOST), List.of(vira, TrucoCard.of(TWO, CLUBS), TrucoCard.of(ACE, HEARTS),
+                        TrucoCard.of(FOUR, CLUBS), TrucoCard.of(THREE, HEARTS)), vira, 1)
+                .botInfo(List.of(TrucoCard.of(THREE, DIAMONDS)), 0)
+                .opponentScore(0)
+                .build();
+
+        final EndgameSolver.Solution solution = EndgameSolver.solve(intel);
+
+        //34 cards were not seen: 4 manilhas beat the bot card and ties go to the bot, which won the first round.
+        assertAll(
+                () -> assertEquals(30.0 / 34, solution.winProbability(), 1e-9),
+                () -> assertEquals(0.0, solution.drawProbability(), 1e-9),
+                () -> assertEquals(4.0 / 34, solution.loseProbability(), 1e-9)
+        );
+    }
+
+    @Test
+    @DisplayName("Should reuse solution of equivalent positions")
+    void shouldReuseSolutionOfEquivalentPositions() {
+        final GameIntel intel = GameIntel.StepBuilder.with()
+                .gameInfo(List.of(DREW), List.of(vira, TrucoCard.of(KING, CLUBS), TrucoCard.of(KING, HEARTS)), vira, 1)
+                .botInfo(List.of(TrucoCard.of(JACK, CLUBS), TrucoCard.of(TWO, HEARTS)), 0)
+                .opponentScore(0)
+                .build();
+        final GameIntel equivalent = GameIntel.StepBuilder.with()
+                .gameInfo(List.of(DREW), List.of(vira, TrucoCard.of(KING, SPADES), TrucoCard.of(KING, DIAMONDS)), vira, 1)
+                .botInfo(List.of(TrucoCard.of(TWO, SPADES), TrucoCard.of(JACK, DIAMONDS)), 0)
+                .opponentScore(0)
+                .build();
+
+        final EndgameSolver.Solution solution = EndgameSolver.solve(intel);
+        final EndgameSolver.Solution other = EndgameSolver.solve(equivalent);
+
+        assertAll(
+                () -> assertEquals(1, EndgameSolver.cachedPositions()),
+                () -> assertEquals(solution.winProbability(), other.winProbability()),
+                () -> assertEquals(Optional.of(TrucoCard.of(TWO, SPADES)), other.bestCard())
+        );
+    }
+
+    @Test
+    @DisplayName("Should throw if no round was played")
+    void shouldThrowIfNoRoundWasPlayed() {
+        final GameIntel intel = GameIntel.StepBuilder.with()
+                .gameInfo(List.of(), List.of(vira), vira, 1)
+                .botInfo(List.of(TrucoCard.of(FOUR, CLUBS), TrucoCard.of(FIVE, CLUBS), TrucoCard.of(SIX, CLUBS)), 0)
+                .opponentScore(0)
+                .build();
+        assertThrows(IllegalArgumentException.class, () -> EndgameSolver.solve(intel));
+    }
+}
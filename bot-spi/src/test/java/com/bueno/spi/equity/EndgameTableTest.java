@@ -0,0 +1,121 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.spi.equity;
+
+import com.bueno.spi.model.CardRank;
+import com.bueno.spi.model.CardSuit;
+import com.bueno.spi.model.GameIntel;
+import com.bueno.spi.model.TrucoCard;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static com.bueno.spi.model.CardRank.*;
+import static com.bueno.spi.model.CardSuit.*;
+import static com.bueno.spi.model.GameIntel.RoundResult.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndgameTableTest {
+
+    @TempDir
+    static Path directory;
+    private static EndgameTable sut;
+
+    @BeforeAll
+    static void generateTable() throws IOException {
+        sut = EndgameTable.openOrGenerate(directory.resolve("endgame.bin"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        EndgameSolver.clearCache();
+    }
+
+    @Test
+    @DisplayName("Should read the same solutions of the solver for second round positions")
+    void shouldReadTheSameSolutionsOfTheSolverForSecondRoundPositions() {
+        final List<TrucoCard> deck = new ArrayList<>();
+        for (CardRank rank : CardRank.values())
+            for (CardSuit suit : CardSuit.values())
+                if (rank != CardRank.HIDDEN && suit != CardSuit.HIDDEN) deck.add(TrucoCard.of(rank, suit));
+        final Random random = new Random(42);
+
+        for (int deal = 0; deal < 500; deal++) {
+            Collections.shuffle(deck, random);
+            final TrucoCard vira = deck.get(0);
+            final int firstRound = Integer.compare(deck.get(1).relativeValue(vira), deck.get(2).relativeValue(vira));
+            final GameIntel.RoundResult result = firstRound > 0 ? WON : firstRound < 0 ? LOST : DREW;
+            final List<TrucoCard> openCards = new ArrayList<>(deck.subList(0, 3));
+            final boolean respondingToRaise = random.nextBoolean();
+            final int turn = deal % 3;
+            if (turn > 0) openCards.add(deck.get(turn == 1 ? 5 : 3));
+            final GameIntel.StepBuilder builder = GameIntel.StepBuilder.with()
+                    .gameInfo(List.of(result), openCards, vira, 1)
+                    .botInfo(deck.subList(turn == 2 ? 4 : 3, 5), 0)
+                    .opponentScore(0);
+            final GameIntel intel = turn == 1 ? builder.opponentCard(deck.get(5)).build() : builder.build();
+
+            final EndgameSolver.Solution solution = respondingToRaise
+                    ? sut.solveRaiseResponse(intel) : sut.solve(intel);
+            assertEquals(0, EndgameSolver.cachedPositions(), "Position was not read from the table: " + intel);
+            final EndgameSolver.Solution expected = respondingToRaise
+                    ? EndgameSolver.solveRaiseResponse(intel) : EndgameSolver.solve(intel);
+            assertEquals(expected, solution);
+            EndgameSolver.clearCache();
+        }
+    }
+
+    @Test
+    @DisplayName("Should fall back to the solver in the third round")
+    void shouldFallBackToTheSolverInTheThirdRound() {
+        final TrucoCard vira = TrucoCard.of(SEVEN, SPADES);
+        final GameIntel intel = GameIntel.StepBuilder.with()
+                .gameInfo(List.of(WON, LOST), List.of(vira, TrucoCard.of(TWO, CLUBS), TrucoCard.of(ACE, HEARTS),
+                        TrucoCard.of(FOUR, CLUBS), TrucoCard.of(THREE, HEARTS)), vira, 1)
+                .botInfo(List.of(TrucoCard.of(THREE, DIAMONDS)), 0)
+                .opponentScore(0)
+                .build();
+
+        final EndgameSolver.Solution solution = sut.solve(intel);
+
+        assertAll(
+                () -> assertEquals(1, EndgameSolver.cachedPositions()),
+                () -> assertEquals(30.0 / 34, solution.winProbability(), 1e-9)
+        );
+    }
+
+    @Test
+    @DisplayName("Should throw if file is not an endgame table")
+    void shouldThrowIfFileIsNotAnEndgameTable() throws IOException {
+        final Path file = Files.write(directory.resolve("other.bin"), new byte[]{1, 2, 3});
+        assertThrows(IllegalArgumentException.class, () -> EndgameTable.open(file));
+    }
+}
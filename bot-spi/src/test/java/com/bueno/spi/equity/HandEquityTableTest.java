@@ -0,0 +1,152 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.spi.equity;
+
+import com.bueno.spi.model.GameIntel;
+import com.bueno.spi.model.TrucoCard;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.bueno.spi.model.CardRank.*;
+import static com.bueno.spi.model.CardSuit.*;
+import static com.bueno.spi.model.GameIntel.RoundResult.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class HandEquityTableTest {
+
+    @TempDir
+    static Path directory;
+    private static HandEquityTable sut;
+
+    private final TrucoCard vira = TrucoCard.of(SEVEN, SPADES);
+
+    @BeforeAll
+    static void generateTable() throws IOException {
+        sut = HandEquityTable.openOrGenerate(directory.resolve("hand-equity.bin"));
+    }
+
+    @Test
+    @DisplayName("Should always win with the three highest manilhas")
+    void shouldAlwaysWinWithTheThreeHighestManilhas() {
+        final List<TrucoCard> cards = List.of(TrucoCard.of(QUEEN, CLUBS), TrucoCard.of(QUEEN, HEARTS),
+                TrucoCard.of(QUEEN, SPADES));
+        assertAll(
+                () -> assertEquals(1.0, sut.equity(vira, cards, List.of(), true), 1e-4),
+                () -> assertEquals(1.0, sut.equity(vira, cards, List.of(), false), 1e-4)
+        );
+    }
+
+    @Test
+    @DisplayName("Should rarely win with the three lowest cards")
+    void shouldRarelyWinWithTheThreeLowestCards() {
+        final List<TrucoCard> cards = List.of(TrucoCard.of(FOUR, CLUBS), TrucoCard.of(FOUR, HEARTS),
+                TrucoCard.of(FIVE, SPADES));
+        assertTrue(sut.equity(vira, cards, List.of(), true) < 0.05);
+    }
+
+    @Test
+    @DisplayName("Should give higher equity to stronger hands")
+    void shouldGiveHigherEquityToStrongerHands() {
+        final List<TrucoCard> weaker = List.of(TrucoCard.of(KING, CLUBS), TrucoCard.of(SIX, HEARTS),
+                TrucoCard.of(FIVE, SPADES));
+        final List<TrucoCard> stronger = List.of(TrucoCard.of(THREE, CLUBS), TrucoCard.of(SIX, HEARTS),
+                TrucoCard.of(FIVE, SPADES));
+        assertTrue(sut.equity(vira, stronger, List.of(), true) > sut.equity(vira, weaker, List.of(), true));
+    }
+
+    @Test
+    @DisplayName("Should not depend on the order or suit of ordinary cards")
+    void shouldNotDependOnTheOrderOrSuitOfOrdinaryCards() {
+        final double equity = sut.equity(vira, List.of(TrucoCard.of(KING, CLUBS), TrucoCard.of(TWO, HEARTS)),
+                List.of(LOST), false);
+        assertEquals(equity, sut.equity(vira, List.of(TrucoCard.of(TWO, SPADES), TrucoCard.of(KING, DIAMONDS)),
+                List.of(LOST), false));
+    }
+
+    @Test
+    @DisplayName("Should return the result of hands already decided")
+    void shouldReturnTheResultOfHandsAlreadyDecided() {
+        final List<TrucoCard> lastCard = List.of(TrucoCard.of(FOUR, CLUBS));
+        assertAll(
+                () -> assertEquals(1.0, sut.equity(vira, lastCard, List.of(DREW, WON), true)),
+                () -> assertEquals(0.0, sut.equity(vira, lastCard, List.of(LOST, LOST), true))
+        );
+    }
+
+    @Test
+    @DisplayName("Should query equity from game intel")
+    void shouldQueryEquityFromGameIntel() {
+        final List<TrucoCard> cards = List.of(TrucoCard.of(ACE, CLUBS), TrucoCard.of(THREE, HEARTS));
+        final GameIntel intel = GameIntel.StepBuilder.with()
+                .gameInfo(List.of(WON), List.of(vira), vira, 1)
+                .botInfo(cards, 0)
+                .opponentScore(0)
+                .build();
+        assertEquals(sut.equity(vira, cards, List.of(WON), true), sut.equity(intel));
+    }
+
+    @Test
+    @DisplayName("Should choose the led card without knowing the opponent holding")
+    void shouldChooseTheLedCardWithoutKnowingTheOpponentHolding() {
+        final TrucoCard six = TrucoCard.of(SIX, HEARTS);
+        final TrucoCard ace = TrucoCard.of(ACE, CLUBS);
+        final TrucoCard three = TrucoCard.of(THREE, DIAMONDS);
+        final double bestLed = Math.max(sut.equity(vira, six, List.of(ace, three), List.of()),
+                Math.max(sut.equity(vira, ace, List.of(six, three), List.of()),
+                        sut.equity(vira, three, List.of(six, ace), List.of())));
+        assertEquals(bestLed, sut.equity(vira, List.of(six, ace, three), List.of(), true), 1e-4);
+    }
+
+    @Test
+    @DisplayName("Should query equity from game intel after the bot led the current round")
+    void shouldQueryEquityFromGameIntelAfterTheBotLedTheCurrentRound() {
+        final TrucoCard led = TrucoCard.of(THREE, HEARTS);
+        final List<TrucoCard> cards = List.of(TrucoCard.of(ACE, CLUBS));
+        final GameIntel intel = GameIntel.StepBuilder.with()
+                .gameInfo(List.of(WON), List.of(vira, TrucoCard.of(FOUR, CLUBS), TrucoCard.of(FIVE, SPADES), led),
+                        vira, 1)
+                .botInfo(cards, 0)
+                .opponentScore(0)
+                .build();
+        assertEquals(sut.equity(vira, led, cards, List.of(WON)), sut.equity(intel));
+    }
+
+    @Test
+    @DisplayName("Should throw if cards and round results do not sum up to three")
+    void shouldThrowIfCardsAndRoundResultsDoNotSumUpToThree() {
+        assertThrows(IllegalArgumentException.class,
+                () -> sut.equity(vira, List.of(TrucoCard.of(FOUR, CLUBS)), List.of(WON), true));
+    }
+
+    @Test
+    @DisplayName("Should throw if file is not an equity table")
+    void shouldThrowIfFileIsNotAnEquityTable() throws IOException {
+        final Path file = Files.write(directory.resolve("other.bin"), new byte[]{1, 2, 3});
+        assertThrows(IllegalArgumentException.class, () -> HandEquityTable.open(file));
+    }
+}
@@ -23,6 +23,7 @@ package com.bueno.domain.entities.deck;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 public class Deck {
     private final List<Card> cards = new ArrayList<>();
@@ -52,6 +53,10 @@ public class Deck {
         Collections.shuffle(cards);
     }
 
+    public void shuffle(Random random) {
+        Collections.shuffle(cards, random);
+    }
+
     public int size() {
         return cards.size();
     }
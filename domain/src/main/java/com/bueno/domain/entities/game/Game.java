@@ -22,6 +22,8 @@ package com.bueno.domain.entities.game;
 
 import com.bueno.domain.entities.deck.Card;
 import com.bueno.domain.entities.deck.Deck;
+import com.bueno.domain.entities.deck.Rank;
+import com.bueno.domain.entities.deck.Suit;
 import com.bueno.domain.entities.hand.Hand;
 import com.bueno.domain.entities.hand.HandResult;
 import com.bueno.domain.entities.intel.Intel;
@@ -44,6 +46,8 @@ public class Game {
 
     private Player firstToPlay;
     private Player lastToPlay;
+    private Random random;
+    private long version;
 
     public Game(Player player1, Player player2) {
         this(player1, player2, UUID.randomUUID(), new Deck());
@@ -65,6 +69,11 @@ public class Game {
 
     public Game(UUID uuid, LocalDateTime timestamp, Player player1, Player player2, Player firstToPlay,
                 Player lastToPlay, List<Hand> hands) {
+        this(uuid, timestamp, player1, player2, firstToPlay, lastToPlay, hands, 0);
+    }
+
+    public Game(UUID uuid, LocalDateTime timestamp, Player player1, Player player2, Player firstToPlay,
+                Player lastToPlay, List<Hand> hands, long version) {
         this.uuid = uuid;
         this.timestamp = timestamp;
         this.player1 = player1;
@@ -72,13 +81,64 @@ public class Game {
         this.firstToPlay = firstToPlay;
         this.lastToPlay = lastToPlay;
         this.hands = new ArrayList<>(hands);
+        this.version = version;
+    }
+
+    private Game(Game other, Random random){
+        this.uuid = other.uuid;
+        this.timestamp = other.timestamp;
+        this.player1 = other.player1.copy();
+        this.player2 = other.player2.copy();
+        this.firstToPlay = other.firstToPlay.equals(player1) ? player1 : player2;
+        this.lastToPlay = firstToPlay.equals(player1) ? player2 : player1;
+        this.random = random;
+        this.version = other.version;
+        this.hands = new ArrayList<>(other.hands);
+        if(!hands.isEmpty()) hands.set(hands.size() - 1, other.currentHand().fork(player1, player2));
+    }
+
+    //Creates an independent copy to be changed instead of this game, which is left as it was if the change fails.
+    //Finished hands and the intel history can not change, so they are shared.
+    public Game copy(){
+        return new Game(this, null);
+    }
+
+    //Creates an independent copy for simulation purposes. Finished hands are shared, since they can not change.
+    //Hands dealt by the copy are shuffled by the seeded random instead of the global one.
+    public Game fork(long seed){
+        return new Game(this, new Random(seed));
+    }
+
+    //Same as fork(long), but re-samples the cards the observer can not see (the opponent's cards in hand).
+    public Game fork(Player observer, long seed){
+        final Game copy = fork(seed);
+        final Player opponent = observer.equals(copy.player1) ? copy.player2 : copy.player1;
+        final List<Card> candidates = copy.cardsOutOfSightOf(opponent);
+        final int numberOfCards = opponent.getCards().size();
+        for (int i = 0; i < numberOfCards; i++)
+            Collections.swap(candidates, i, i + copy.random.nextInt(candidates.size() - i));
+        copy.currentHand().redeal(opponent, candidates.subList(0, numberOfCards));
+        return copy;
+    }
+
+    private List<Card> cardsOutOfSightOf(Player opponent){
+        final List<Card> dealtCards = currentHand().getDealtCards();
+        final List<Card> candidates = new ArrayList<>(40);
+        for (Rank rank : Rank.values())
+            for (Suit suit : Suit.values()) {
+                if (rank == Rank.HIDDEN || suit == Suit.HIDDEN) continue;
+                final Card card = Card.of(rank, suit);
+                if (!dealtCards.contains(card) || opponent.getCards().contains(card)) candidates.add(card);
+            }
+        return candidates;
     }
 
     public void prepareNewHand() {
         defineHandPlayingOrder();
 
-        if(deck == null) deck = new Deck();
-        deck.shuffle();
+        if(deck == null || random != null) deck = new Deck();
+        if(random != null) deck.shuffle(random);
+        else deck.shuffle();
 
         final Card vira = deck.takeOne();
         firstToPlay.setCards(deck.take(3));
@@ -125,6 +185,15 @@ public class Game {
         return uuid;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    //Called by game repositories once a change of this game is stored.
+    public void incrementVersion() {
+        version++;
+    }
+
     public LocalDateTime getTimestamp() {
         return timestamp;
     }
@@ -29,15 +29,18 @@ import com.bueno.domain.entities.intel.PossibleAction;
 import com.bueno.domain.entities.player.Player;
 
 import java.util.*;
+import java.util.function.UnaryOperator;
 
 public class Hand {
 
+    private static final int MAX_SEARCH_DEPTH = 32;
+
     private final Card vira;
     private final List<Card> dealtCards;
     private final List<Card> openCards;
     private final List<Round> roundsPlayed;
-    private final List<Intel> history;
-    private EnumSet<PossibleAction> possibleActions;
+    private History history;
+    private int possibleActions;
 
     private Player firstToPlay;
     private Player lastToPlay;
@@ -52,18 +55,21 @@ public class Hand {
     private HandResult result;
     private HandState state;
 
+    private boolean searching;
+    private UndoFrame[] undoStack;
+    private int searchDepth;
+
     //This method must only be used to recovery the object state from database. Do not use for creating a new hand.
     //To create a hand, use the Game class, since it is its bounded context border.
     public Hand(Card vira, List<Card> dealtCards, List<Card> openCards, List<Round> roundsPlayed, List<Intel> history,
-                EnumSet<PossibleAction> possibleActions, Player firstToPlay, Player lastToPlay, Player currentPlayer,
+                Player firstToPlay, Player lastToPlay, Player currentPlayer,
                 Player lastBetRaiser, Player eventPlayer, Card cardToPlayAgainst, HandPoints points,
-                HandPoints pointsProposal, HandResult result, String stateName){
+                HandPoints pointsProposal, HandResult result, int stateId){
         this.vira = vira;
         this.dealtCards = new ArrayList<>(dealtCards);
         this.openCards = new ArrayList<>(openCards);
         this.roundsPlayed = new ArrayList<>(roundsPlayed);
-        this.history = new ArrayList<>(history);
-        this.possibleActions = EnumSet.copyOf(possibleActions);
+        history.forEach(intel -> this.history = History.append(this.history, intel));
         this.firstToPlay = firstToPlay;
         this.lastToPlay = lastToPlay;
         this.currentPlayer = currentPlayer;
@@ -73,18 +79,7 @@ public class Hand {
         this.points = points;
         this.pointsProposal = pointsProposal;
         this.result = result;
-        this.state = stateFromString(stateName);
-    }
-
-    private HandState stateFromString(String stateName) {
-        return switch (stateName){
-            case "DONE" -> new Done(this);
-            case "NOCARD" -> new NoCard(this);
-            case "ONECARD" -> new OneCard(this);
-            case "WAITINGMAODEONZE" -> new WaitingMaoDeOnze(this);
-            case "WAITINGRAISERESPONSE" -> new WaitingRaiseResponse(this);
-            default -> throw new IllegalArgumentException("No state for name: " + stateName);
-        };
+        setState(HandState.fromId(stateId));
     }
 
     public Hand(Player firstToPlay, Player lastToPlay, Card vira){
@@ -100,7 +95,6 @@ public class Hand {
         points = HandPoints.ONE;
         roundsPlayed = new ArrayList<>();
         openCards = new ArrayList<>();
-        history = new ArrayList<>();
 
         addOpenCard(vira);
 
@@ -110,14 +104,45 @@ public class Hand {
         updateHistory(Event.HAND_START);
     }
 
+    private Hand(Hand other, Player player1, Player player2){
+        final UnaryOperator<Player> mirror = player -> player == null ? null : player.equals(player1) ? player1 : player2;
+        this.vira = other.vira;
+        this.dealtCards = new ArrayList<>(other.dealtCards);
+        this.openCards = new ArrayList<>(other.openCards);
+        this.roundsPlayed = new ArrayList<>(other.roundsPlayed);
+        this.history = other.history;
+        this.possibleActions = other.possibleActions;
+        this.firstToPlay = mirror.apply(other.firstToPlay);
+        this.lastToPlay = mirror.apply(other.lastToPlay);
+        this.currentPlayer = mirror.apply(other.currentPlayer);
+        this.lastBetRaiser = mirror.apply(other.lastBetRaiser);
+        this.eventPlayer = mirror.apply(other.eventPlayer);
+        this.cardToPlayAgainst = other.cardToPlayAgainst;
+        this.points = other.points;
+        this.pointsProposal = other.pointsProposal;
+        this.result = other.result;
+        this.state = other.state;
+    }
+
+    //Copies only the mutable state of the hand. The intel history is immutable, so both hands share it as it is.
+    public Hand fork(Player player1, Player player2){
+        return new Hand(this, player1, player2);
+    }
+
+    public void redeal(Player player, List<Card> cards){
+        dealtCards.removeAll(player.getCards());
+        dealtCards.addAll(cards);
+        player.setCards(cards);
+    }
+
     private void setMaoDeOnzeMode() {
         currentPlayer = this.firstToPlay.getScore() == 11 ? this.firstToPlay : this.lastToPlay;
-        state = new WaitingMaoDeOnze(this);
+        setState(WaitingMaoDeOnze.INSTANCE);
     }
 
     private void setOrdinaryMode() {
         currentPlayer = this.firstToPlay;
-        state = new NoCard(this);
+        setState(NoCard.INSTANCE);
     }
 
     public void playFirstCard(Player player, Card card){
@@ -125,7 +150,7 @@ public class Hand {
         final var requesterCard = Objects.requireNonNull(card, "Card must not be null!");
         validateRequest(requester, PossibleAction.PLAY);
         eventPlayer = currentPlayer;
-        state.playFirstCard(requester, requesterCard);
+        state.playFirstCard(this, requester, requesterCard);
     }
 
     public void playSecondCard(Player player, Card cards){
@@ -133,39 +158,126 @@ public class Hand {
         final var requesterCard = Objects.requireNonNull(cards, "Card must not be null!");
         validateRequest(requester, PossibleAction.PLAY);
         eventPlayer = currentPlayer;
-        state.playSecondCard(requester,requesterCard);
+        state.playSecondCard(this, requester,requesterCard);
     }
 
     public void raise(Player requester){
         final var player = Objects.requireNonNull(requester, "Player must not be null!");
         validateRequest(requester, PossibleAction.RAISE);
         eventPlayer = currentPlayer;
-        state.raise(player);
+        state.raise(this, player);
     }
 
     public void accept(Player responder){
         final var player = Objects.requireNonNull(responder, "Player must not be null!");
         validateRequest(player, PossibleAction.ACCEPT);
         eventPlayer = currentPlayer;
-        state.accept(player);
+        state.accept(this, player);
     }
 
     public void quit(Player responder){
         final var player = Objects.requireNonNull(responder, "Player must not be null!");
         validateRequest(player, PossibleAction.QUIT);
         eventPlayer = currentPlayer;
-        state.quit(player);
+        state.quit(this, player);
+    }
+
+    //Gives the hand to the opponent, whatever the state is, as if the player had quit.
+    public void forfeit(Player player){
+        final var forfeiter = Objects.requireNonNull(player, "Player must not be null!");
+        if(state == Done.INSTANCE) throw new IllegalStateException("Can not forfeit because hand is done.");
+        if(!forfeiter.equals(currentPlayer))
+            throw new IllegalArgumentException(forfeiter + " can not forfeit in " + currentPlayer + " turn.");
+        eventPlayer = currentPlayer;
+        setResult(HandResult.of(getOpponentOf(forfeiter), points));
+        setState(Done.INSTANCE);
+        updateHistory(Event.QUIT);
     }
 
     private void validateRequest(Player requester, PossibleAction action){
         if(!requester.equals(currentPlayer))
             throw new IllegalArgumentException(requester + " can not " + action + " in " + currentPlayer + " turn.");
-        if(!possibleActions.contains(action))
-            throw new IllegalStateException("Can not " + action + ", but " + possibleActions + ".");
+        if(!hasPossibleAction(action))
+            throw new IllegalStateException("Can not " + action + ", but " + getPossibleActions() + ".");
     }
 
     public void updateHistory(Event event) {
-        history.add(Intel.ofHand(this, event));
+        if(searching) return;
+        history = History.append(history, Intel.ofHand(this, event));
+    }
+
+    //While searching, moves skip the intel history and can be reverted in LIFO order with unmakeMove.
+    public void beginSearch(){
+        if(undoStack == null) {
+            undoStack = new UndoFrame[MAX_SEARCH_DEPTH];
+            for (int i = 0; i < MAX_SEARCH_DEPTH; i++) undoStack[i] = new UndoFrame();
+        }
+        searching = true;
+    }
+
+    public void endSearch(){
+        if(searchDepth != 0)
+            throw new IllegalStateException("Can not end search with " + searchDepth + " move(s) to unmake.");
+        searching = false;
+    }
+
+    public boolean isSearching() {
+        return searching;
+    }
+
+    public int getSearchDepth() {
+        return searchDepth;
+    }
+
+    public void makeMove(Move move){
+        Objects.requireNonNull(move, "Move must not be null!");
+        if(!searching) throw new IllegalStateException("Can not make a move out of search mode.");
+        if(searchDepth == MAX_SEARCH_DEPTH) throw new IllegalStateException("Undo stack is full.");
+
+        final UndoFrame frame = undoStack[searchDepth];
+        frame.save(this);
+        try {
+            final Player player = currentPlayer;
+            switch (move.action()) {
+                case PLAY -> playMove(frame, player, move);
+                case RAISE -> raise(player);
+                case ACCEPT -> accept(player);
+                case QUIT -> quit(player);
+            }
+        } catch (RuntimeException e) {
+            frame.restore(this);
+            throw e;
+        }
+        searchDepth++;
+    }
+
+    private void playMove(UndoFrame frame, Player player, Move move) {
+        if(player == null) throw new IllegalStateException("Can not play card because hand is done.");
+        frame.owner = player;
+        frame.ownerCard = move.card();
+        frame.ownerCardIndex = player.getCards().indexOf(move.card());
+        final Card card = move.discard() ? player.discard(move.card()) : player.play(move.card());
+        if(cardToPlayAgainst == null) playFirstCard(player, card);
+        else playSecondCard(player, card);
+    }
+
+    public void unmakeMove(){
+        if(searchDepth == 0) throw new IllegalStateException("No move to unmake.");
+        undoStack[--searchDepth].restore(this);
+    }
+
+    public List<Move> getLegalMoves(){
+        final List<Move> moves = new ArrayList<>();
+        if(currentPlayer == null) return moves;
+        if(hasPossibleAction(PossibleAction.PLAY))
+            for (Card card : currentPlayer.getCards()) {
+                moves.add(Move.play(card));
+                if(!roundsPlayed.isEmpty()) moves.add(Move.discard(card));
+            }
+        if(hasPossibleAction(PossibleAction.RAISE)) moves.add(Move.raise());
+        if(hasPossibleAction(PossibleAction.ACCEPT)) moves.add(Move.accept());
+        if(hasPossibleAction(PossibleAction.QUIT)) moves.add(Move.quit());
+        return moves;
     }
 
     public void playRound(Card lastCard){
@@ -246,15 +358,19 @@ public class Hand {
     }
 
     public EnumSet<PossibleAction> getPossibleActions() {
-        return possibleActions;
+        return PossibleAction.setOf(possibleActions);
+    }
+
+    public boolean hasPossibleAction(PossibleAction action) {
+        return (possibleActions & action.mask()) != 0;
     }
 
-    public void setPossibleActions(EnumSet<PossibleAction> actions){
-        this.possibleActions = EnumSet.copyOf(actions);
+    public void setPossibleActions(int actionsMask){
+        this.possibleActions = actionsMask;
     }
 
     public Intel getLastIntel(){
-        return history.get(history.size() - 1);
+        return history.intel();
     }
 
     public Player getOpponentOf(Player player){
@@ -270,7 +386,7 @@ public class Hand {
     }
 
     public boolean isDone(){
-        return state instanceof Done;
+        return state == Done.INSTANCE;
     }
 
     public void setResult(HandResult result) {
@@ -306,7 +422,7 @@ public class Hand {
     }
 
     public List<Intel> getIntelHistory(){
-        return List.copyOf(history);
+        return History.toList(history);
     }
 
     public Player getLastBetRaiser() {
@@ -319,6 +435,7 @@ public class Hand {
 
     public void setState(HandState state) {
         this.state = state;
+        state.enter(this);
     }
 
     public Card getVira() {
@@ -365,4 +482,74 @@ public class Hand {
         return pointsToLosingPlayerWin % 3 == 0 ? pointsToLosingPlayerWin
                 : pointsToLosingPlayerWin + (3 - pointsToLosingPlayerWin % 3);
     }
-}
\ No newline at end of file
+
+    //Appending links a new node to the previous history, which never changes, so forks can share it from any thread.
+    private record History(History previous, Intel intel, int size) {
+        private static History append(History history, Intel intel) {
+            return new History(history, intel, history == null ? 1 : history.size + 1);
+        }
+
+        private static List<Intel> toList(History history) {
+            if (history == null) return List.of();
+            final Intel[] intel = new Intel[history.size];
+            for (History node = history; node != null; node = node.previous) intel[node.size - 1] = node.intel;
+            return List.of(intel);
+        }
+    }
+
+    private static final class UndoFrame {
+        private int possibleActions;
+        private Player firstToPlay;
+        private Player lastToPlay;
+        private Player currentPlayer;
+        private Player lastBetRaiser;
+        private Player eventPlayer;
+        private Card cardToPlayAgainst;
+        private HandPoints points;
+        private HandPoints pointsProposal;
+        private HandResult result;
+        private HandState state;
+        private int openCards;
+        private int roundsPlayed;
+        private Player owner;
+        private Card ownerCard;
+        private int ownerCardIndex;
+
+        private void save(Hand hand) {
+            possibleActions = hand.possibleActions;
+            firstToPlay = hand.firstToPlay;
+            lastToPlay = hand.lastToPlay;
+            currentPlayer = hand.currentPlayer;
+            lastBetRaiser = hand.lastBetRaiser;
+            eventPlayer = hand.eventPlayer;
+            cardToPlayAgainst = hand.cardToPlayAgainst;
+            points = hand.points;
+            pointsProposal = hand.pointsProposal;
+            result = hand.result;
+            state = hand.state;
+            openCards = hand.openCards.size();
+            roundsPlayed = hand.roundsPlayed.size();
+            owner = null;
+            ownerCard = null;
+            ownerCardIndex = -1;
+        }
+
+        private void restore(Hand hand) {
+            hand.possibleActions = possibleActions;
+            hand.firstToPlay = firstToPlay;
+            hand.lastToPlay = lastToPlay;
+            hand.currentPlayer = currentPlayer;
+            hand.lastBetRaiser = lastBetRaiser;
+            hand.eventPlayer = eventPlayer;
+            hand.cardToPlayAgainst = cardToPlayAgainst;
+            hand.points = points;
+            hand.pointsProposal = pointsProposal;
+            hand.result = result;
+            hand.state = state;
+            while (hand.openCards.size() > openCards) hand.openCards.remove(hand.openCards.size() - 1);
+            while (hand.roundsPlayed.size() > roundsPlayed) hand.roundsPlayed.remove(hand.roundsPlayed.size() - 1);
+            if(ownerCardIndex >= 0 && !owner.getCards().contains(ownerCard))
+                owner.getCards().add(ownerCardIndex, ownerCard);
+        }
+    }
+}
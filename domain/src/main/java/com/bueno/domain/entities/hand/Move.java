@@ -0,0 +1,58 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.domain.entities.hand;
+
+import com.bueno.domain.entities.deck.Card;
+import com.bueno.domain.entities.intel.PossibleAction;
+
+import java.util.Objects;
+
+public record Move(PossibleAction action, Card card, boolean discard) {
+
+    private static final Move RAISE = new Move(PossibleAction.RAISE, null, false);
+    private static final Move ACCEPT = new Move(PossibleAction.ACCEPT, null, false);
+    private static final Move QUIT = new Move(PossibleAction.QUIT, null, false);
+
+    public Move {
+        Objects.requireNonNull(action, "Action must not be null!");
+        if(action == PossibleAction.PLAY) Objects.requireNonNull(card, "Card must not be null!");
+    }
+
+    public static Move play(Card card){
+        return new Move(PossibleAction.PLAY, card, false);
+    }
+
+    public static Move discard(Card card){
+        return new Move(PossibleAction.PLAY, card, true);
+    }
+
+    public static Move raise(){
+        return RAISE;
+    }
+
+    public static Move accept(){
+        return ACCEPT;
+    }
+
+    public static Move quit(){
+        return QUIT;
+    }
+}
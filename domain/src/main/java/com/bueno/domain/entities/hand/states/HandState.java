@@ -21,15 +21,42 @@
 package com.bueno.domain.entities.hand.states;
 
 import com.bueno.domain.entities.deck.Card;
+import com.bueno.domain.entities.hand.Hand;
 import com.bueno.domain.entities.player.Player;
 
+/**
+ * Stateless hand state handler. Implementations are singletons that receive the {@link Hand} they act upon,
+ * so moving from one state to another never allocates. The {@link #id()} is the value persisted in the DTOs.
+ */
 public interface HandState {
-    void playFirstCard(Player player, Card card);
-    void playSecondCard(Player player, Card card);
-    void accept(Player responder);
-    void quit(Player responder);
-    void raise(Player requester);
-    default String className(){
-        return getClass().getSimpleName().toUpperCase();
+    int NO_CARD = 0;
+    int ONE_CARD = 1;
+    int WAITING_RAISE_RESPONSE = 2;
+    int WAITING_MAO_DE_ONZE = 3;
+    int DONE = 4;
+
+    void playFirstCard(Hand context, Player player, Card card);
+    void playSecondCard(Hand context, Player player, Card card);
+    void accept(Hand context, Player responder);
+    void quit(Hand context, Player responder);
+    void raise(Hand context, Player requester);
+
+    int id();
+
+    int possibleActions(boolean canRaise);
+
+    default void enter(Hand context){
+        context.setPossibleActions(possibleActions(context.canRaiseBet()));
+    }
+
+    static HandState fromId(int id){
+        return switch (id){
+            case NO_CARD -> NoCard.INSTANCE;
+            case ONE_CARD -> OneCard.INSTANCE;
+            case WAITING_RAISE_RESPONSE -> WaitingRaiseResponse.INSTANCE;
+            case WAITING_MAO_DE_ONZE -> WaitingMaoDeOnze.INSTANCE;
+            case DONE -> Done.INSTANCE;
+            default -> throw new IllegalArgumentException("No state for id: " + id);
+        };
     }
 }
@@ -28,46 +28,54 @@ import com.bueno.domain.entities.intel.Event;
 import com.bueno.domain.entities.intel.PossibleAction;
 import com.bueno.domain.entities.player.Player;
 
-import java.util.EnumSet;
+public enum WaitingMaoDeOnze implements HandState {
+    INSTANCE;
 
-public class WaitingMaoDeOnze implements HandState {
+    private static final int ACTIONS = PossibleAction.maskOf(PossibleAction.ACCEPT, PossibleAction.QUIT);
 
-    private final Hand context;
-
-    public WaitingMaoDeOnze(Hand context) {
-        this.context = context;
-        this.context.setPossibleActions(EnumSet.of(PossibleAction.ACCEPT, PossibleAction.QUIT));
+    @Override
+    public void enter(Hand context) {
+        context.setPossibleActions(ACTIONS);
     }
 
     @Override
-    public void playFirstCard(Player player, Card card) {
+    public void playFirstCard(Hand context, Player player, Card card) {
         throw new IllegalStateException("Can not play first card before deciding if plays mão de onze.");
     }
 
     @Override
-    public void playSecondCard(Player player, Card card) {
+    public void playSecondCard(Hand context, Player player, Card card) {
         throw new IllegalStateException("Can not play second card before deciding if plays mão de onze.");
     }
 
     @Override
-    public void accept(Player responder) {
+    public void accept(Hand context, Player responder) {
         context.setPoints(HandPoints.THREE);
         context.setCurrentPlayer(context.getFirstToPlay());
-        context.setPossibleActions(EnumSet.of(PossibleAction.PLAY));
-        context.setState(new NoCard(context));
+        context.setState(NoCard.INSTANCE);
         context.updateHistory(Event.ACCEPT_HAND);
     }
 
     @Override
-    public void quit(Player responder) {
+    public void quit(Hand context, Player responder) {
         Player opponent = context.getOpponentOf(responder);
         context.setResult(HandResult.of(opponent, HandPoints.ONE));
-        context.setState(new Done(context));
+        context.setState(Done.INSTANCE);
         context.updateHistory(Event.QUIT_HAND);
     }
 
     @Override
-    public void raise(Player requester) {
+    public void raise(Hand context, Player requester) {
         throw new IllegalStateException("Can not raise while deciding if plays mão de onze.");
     }
+
+    @Override
+    public int id() {
+        return WAITING_MAO_DE_ONZE;
+    }
+
+    @Override
+    public int possibleActions(boolean canRaise) {
+        return ACTIONS;
+    }
 }
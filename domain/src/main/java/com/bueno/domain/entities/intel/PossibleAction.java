@@ -20,9 +20,29 @@
 
 package com.bueno.domain.entities.intel;
 
+import java.util.EnumSet;
+
 public enum PossibleAction {
     PLAY,
     RAISE,
     ACCEPT,
-    QUIT
+    QUIT;
+
+    private static final PossibleAction[] VALUES = values();
+
+    public int mask() {
+        return 1 << ordinal();
+    }
+
+    public static int maskOf(PossibleAction... actions) {
+        int mask = 0;
+        for (PossibleAction action : actions) mask |= action.mask();
+        return mask;
+    }
+
+    public static EnumSet<PossibleAction> setOf(int mask) {
+        final EnumSet<PossibleAction> actions = EnumSet.noneOf(PossibleAction.class);
+        for (PossibleAction action : VALUES) if ((mask & action.mask()) != 0) actions.add(action);
+        return actions;
+    }
 }
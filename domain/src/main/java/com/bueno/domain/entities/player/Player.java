@@ -85,6 +85,10 @@ public class Player {
         return !getCards().contains(discard);
     }
 
+    public Player copy(){
+        return new Player(cards != null ? new ArrayList<>(cards) : null, username, uuid, score, isBot);
+    }
+
     public final void addScore(HandPoints handPoints){
         this.score = Math.min(MAX_SCORE, this.score + handPoints.get());
     }
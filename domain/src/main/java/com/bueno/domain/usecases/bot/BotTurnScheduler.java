@@ -0,0 +1,201 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+
+package com.bueno.domain.usecases.bot;
+
+import com.bueno.domain.entities.game.Game;
+import com.bueno.domain.entities.intel.Intel;
+import com.bueno.domain.usecases.executor.GameActionExecutor;
+import com.bueno.domain.usecases.game.repos.GameRepository;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Plays the turns of bots following the action of a player. With thinkers, the bot chooses its move from a snapshot
+ * of the game on a thinker thread, so the player action is acknowledged without waiting for the bot, and the move is
+ * then made in the mailbox of the game, which is only held to apply and store it. The bot thinks again if the game
+ * changed while it was thinking. A game has at most one turn pending, from the moment it is scheduled until its move
+ * is made, and turns are only scheduled and cleared in the mailbox of the game. Without thinkers, the turn is played
+ * right away in the caller thread. A turn that fails is retried once, and if it fails again the bot plays its default
+ * action (first card, no bets), so the game never waits for a turn that is not going to be played.
+ */
+public class BotTurnScheduler implements AutoCloseable {
+
+    private static final System.Logger log = System.getLogger(BotTurnScheduler.class.getName());
+    private static final BotTurnScheduler CALLER_RUNS = new BotTurnScheduler(GameActionExecutor.callerRuns(), 0);
+    private static final int MAX_ATTEMPTS = 2;
+
+    private final GameActionExecutor executor;
+    private final ExecutorService thinkers;
+    private final int thinkerCount;
+    private final Set<UUID> pendingTurns = ConcurrentHashMap.newKeySet();
+    private final AtomicLong playedTurns = new AtomicLong();
+    private final AtomicLong defaultTurns = new AtomicLong();
+
+    //Moves are made in the mailboxes of the given executor, which must be the one running the actions of players.
+    public BotTurnScheduler(GameActionExecutor executor, int thinkers) {
+        if (thinkers < 0) throw new IllegalArgumentException("Number of thinkers must not be negative: " + thinkers);
+        this.executor = Objects.requireNonNull(executor);
+        this.thinkerCount = thinkers;
+        this.thinkers = thinkers == 0 ? null : Executors.newFixedThreadPool(thinkers, runnable -> {
+            final Thread thread = new Thread(runnable, "bot-thinker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static BotTurnScheduler callerRuns() {
+        return CALLER_RUNS;
+    }
+
+    //Must be called by the single writer of the game, right after the action of the player is stored.
+    public void schedule(GameRepository repository, UUID playerUuid, Game game, BotUseCase botUseCase) {
+        if (!botUseCase.isBotTurn(game)) return;
+        final Turn turn = new Turn(repository, playerUuid, game.getUuid(), botUseCase);
+        if (thinkers == null) {
+            playInCaller(turn, game);
+            return;
+        }
+        if (pendingTurns.add(turn.gameUuid())) think(turn, 1);
+    }
+
+    //Each attempt reads the game again, so the retry and the default action play from the state left by the failure.
+    private void playInCaller(Turn turn, Game game) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS && game != null; attempt++) {
+            try {
+                turn.botUseCase().playWhenNecessary(game);
+                playedTurns.incrementAndGet();
+                return;
+            } catch (RuntimeException e) {
+                logFailure(turn, attempt, e);
+                game = turn.readGame();
+            }
+        }
+        if (game != null) playDefault(turn, game);
+    }
+
+    private void think(Turn turn, int attempt) {
+        try {
+            thinkers.execute(() -> {
+                Game snapshot = null;
+                Supplier<Intel> move = null;
+                RuntimeException failure = null;
+                try {
+                    snapshot = turn.readGame();
+                    if (snapshot != null) move = turn.botUseCase().decide(snapshot);
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+                final long version = snapshot == null ? -1 : snapshot.getVersion();
+                final Supplier<Intel> chosenMove = move;
+                final RuntimeException thinkingFailure = failure;
+                executor.submit(turn.gameUuid(), () -> makeMove(turn, version, chosenMove, thinkingFailure, attempt))
+                        .whenComplete((intel, error) -> {
+                            if (error != null) log.log(System.Logger.Level.ERROR, "Could not play bot turn of game "
+                                    + turn.gameUuid() + ".", error);
+                        });
+            });
+        } catch (RejectedExecutionException e) {
+            pendingTurns.remove(turn.gameUuid());
+            log.log(System.Logger.Level.WARNING, "Bot turn of game " + turn.gameUuid() + " was not scheduled.", e);
+        }
+    }
+
+    //Runs in the mailbox of the game. The turn stops being pending before the move, so the move may schedule the next.
+    private Intel makeMove(Turn turn, long version, Supplier<Intel> move, RuntimeException thinkingFailure,
+                           int attempt) {
+        pendingTurns.remove(turn.gameUuid());
+        final Game game = turn.readGame();
+        if (game == null) return null;
+        if (thinkingFailure != null) return retry(turn, game, attempt, thinkingFailure);
+        if (game.getVersion() != version) {
+            schedule(turn.repository(), turn.playerUuid(), game, turn.botUseCase());
+            return game.getIntel();
+        }
+        if (move == null) return game.getIntel();
+        try {
+            final Intel intel = move.get();
+            playedTurns.incrementAndGet();
+            return intel;
+        } catch (RuntimeException e) {
+            final Game changed = turn.readGame();
+            return changed == null ? null : retry(turn, changed, attempt, e);
+        }
+    }
+
+    private Intel retry(Turn turn, Game game, int attempt, RuntimeException failure) {
+        logFailure(turn, attempt, failure);
+        if (!turn.botUseCase().isBotTurn(game) || !pendingTurns.add(turn.gameUuid())) return game.getIntel();
+        if (attempt < MAX_ATTEMPTS) {
+            think(turn, attempt + 1);
+            return game.getIntel();
+        }
+        pendingTurns.remove(turn.gameUuid());
+        return playDefault(turn, game);
+    }
+
+    private Intel playDefault(Turn turn, Game game) {
+        log.log(System.Logger.Level.ERROR, "Playing default action for bot of game " + turn.gameUuid() + ".");
+        defaultTurns.incrementAndGet();
+        return turn.botUseCase().playDefaultWhenNecessary(game);
+    }
+
+    private static void logFailure(Turn turn, int attempt, RuntimeException failure) {
+        log.log(System.Logger.Level.WARNING, "Bot turn of game " + turn.gameUuid() + " failed (attempt "
+                + attempt + ").", failure);
+    }
+
+    public Metrics metrics() {
+        return new Metrics(thinkerCount, pendingTurns.size(), playedTurns.get(), defaultTurns.get());
+    }
+
+    @Override
+    public void close() {
+        if (thinkers == null) return;
+        thinkers.shutdown();
+        try {
+            if (!thinkers.awaitTermination(10, TimeUnit.SECONDS)) thinkers.shutdownNow();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public record Metrics(int thinkers, int pendingTurns, long playedTurns, long defaultTurns) {
+    }
+
+    private record Turn(GameRepository repository, UUID playerUuid, UUID gameUuid, BotUseCase botUseCase) {
+        //The game of the turn, or null if the player is no longer playing it.
+        private Game readGame() {
+            return repository.findGameByPlayerUuid(playerUuid)
+                    .filter(game -> game.getUuid().equals(gameUuid))
+                    .orElse(null);
+        }
+    }
+}
@@ -27,6 +27,7 @@ import com.bueno.domain.usecases.bot.handlers.CardPlayingHandler;
 import com.bueno.domain.usecases.bot.handlers.MaoDeOnzeHandler;
 import com.bueno.domain.usecases.bot.handlers.RaiseHandler;
 import com.bueno.domain.usecases.bot.handlers.RaiseRequestHandler;
+import com.bueno.domain.usecases.executor.GameActionExecutor;
 import com.bueno.domain.usecases.game.repos.GameRepository;
 import com.bueno.domain.usecases.game.repos.GameResultRepository;
 import com.bueno.domain.usecases.hand.HandResultRepository;
@@ -37,6 +38,7 @@ import com.bueno.spi.service.BotServiceManager;
 import com.bueno.spi.service.BotServiceProvider;
 
 import java.util.Objects;
+import java.util.function.Supplier;
 
 import static com.bueno.domain.usecases.intel.converters.IntelConverter.fromDto;
 
@@ -48,6 +50,7 @@ public class BotUseCase {
     private RaiseHandler raiseHandler;
     private CardPlayingHandler cardHandler;
     private RaiseRequestHandler requestHandler;
+    private BotTurnScheduler botTurns = BotTurnScheduler.callerRuns();
 
     public BotUseCase(GameRepository gameRepo) {
         this(gameRepo, null, null, null, null, null, null);
@@ -57,6 +60,14 @@ public class BotUseCase {
         this(gameRepo, gameResultRepo, handResultRepo, null, null, null, null);
     }
 
+    //The moves of the bot schedule the turns following them, like a bot playing again after winning a round, with
+    //the given scheduler.
+    public BotUseCase(GameRepository gameRepo, GameResultRepository gameResultRepo, HandResultRepository handResultRepo,
+                      BotTurnScheduler botTurns) {
+        this(gameRepo, gameResultRepo, handResultRepo, null, null, null, null);
+        this.botTurns = Objects.requireNonNull(botTurns);
+    }
+
     BotUseCase(GameRepository gameRepo, GameResultRepository gameResultRepo,
                HandResultRepository handResultRepo, MaoDeOnzeHandler maoDeOnze,
                RaiseHandler raise, CardPlayingHandler card, RaiseRequestHandler request){
@@ -75,25 +86,67 @@ public class BotUseCase {
 
         if (!isBotTurn(currentPlayer, intel)) return intel;
 
+        final Supplier<Intel> move = decide(game);
+        return move == null ? null : move.get();
+    }
+
+    //Chooses the move of the bot whose turn it is without changing the game, so it may be chosen from a snapshot of
+    //the game. Returns null if it is not the turn of a bot or the bot makes no move.
+    public Supplier<Intel> decide(Game game) {
+        final Player currentPlayer = game.currentHand().getCurrentPlayer();
+        final Intel intel = game.getIntel();
+
+        if (!isBotTurn(currentPlayer, intel)) return null;
+
         initializeNullHandlers(BotServiceManager.load(currentPlayer.getUsername()));
+        return decide(intel, currentPlayer, maoDeOnzeHandler, raiseHandler, cardHandler, requestHandler);
+    }
 
-        if (maoDeOnzeHandler.shouldHandle(intel))
-            return fromDto(maoDeOnzeHandler.handle(intel, currentPlayer));
+    //Plays the turn as a bot that plays its first card and quits every bet. Used when the bot service keeps failing,
+    //so the game goes on instead of waiting for a turn that is never played.
+    public Intel playDefaultWhenNecessary(Game game) {
+        final Player currentPlayer = game.currentHand().getCurrentPlayer();
+        final Intel intel = game.getIntel();
 
-        if (raiseHandler.shouldHandle(intel)) {
-            final IntelDto dto = raiseHandler.handle(intel, currentPlayer);
-            if(dto != null ) return fromDto(dto);
+        if (!isBotTurn(currentPlayer, intel)) return intel;
+
+        final BotServiceProvider botService = new SafeBotService();
+        final PointsProposalUseCase pointsUseCase = pointsProposalUseCase();
+        final Supplier<Intel> move = decide(intel, currentPlayer,
+                new MaoDeOnzeHandler(pointsUseCase, botService),
+                new RaiseHandler(pointsUseCase, botService),
+                new CardPlayingHandler(playCardUseCase(), botService),
+                new RaiseRequestHandler(pointsUseCase, botService));
+        return move == null ? null : move.get();
+    }
+
+    private static Supplier<Intel> decide(Intel intel, Player currentPlayer, MaoDeOnzeHandler maoDeOnze,
+                                          RaiseHandler raise, CardPlayingHandler card, RaiseRequestHandler request) {
+        if (maoDeOnze.shouldHandle(intel))
+            return moveOf(maoDeOnze.decide(intel, currentPlayer));
+
+        if (raise.shouldHandle(intel)) {
+            final Supplier<IntelDto> raising = raise.decide(intel, currentPlayer);
+            if(raising != null ) return moveOf(raising);
         }
 
-        if (cardHandler.shouldHandle(intel))
-            return fromDto(cardHandler.handle(intel, currentPlayer));
+        if (card.shouldHandle(intel))
+            return moveOf(card.decide(intel, currentPlayer));
 
-        if (requestHandler.shouldHandle(intel))
-            return fromDto(requestHandler.handle(intel, currentPlayer));
+        if (request.shouldHandle(intel))
+            return moveOf(request.decide(intel, currentPlayer));
 
         return null;
     }
 
+    private static Supplier<Intel> moveOf(Supplier<IntelDto> move) {
+        return move == null ? null : () -> fromDto(move.get());
+    }
+
+    public boolean isBotTurn(Game game) {
+        return isBotTurn(game.currentHand().getCurrentPlayer(), game.getIntel());
+    }
+
     private boolean isBotTurn(Player handPlayer, Intel intel) {
         final var currentPlayerUUID = intel.currentPlayerUuid();
         if (currentPlayerUUID.isEmpty() || intel.isGameDone() || !handPlayer.isBot()) return false;
@@ -102,20 +155,22 @@ public class BotUseCase {
 
     private void initializeNullHandlers(BotServiceProvider botService) {
         if (maoDeOnzeHandler == null)
-            maoDeOnzeHandler = new MaoDeOnzeHandler(
-                    new PointsProposalUseCase(gameRepo, gameResultRepo, handResultRepo),
-                    botService);
+            maoDeOnzeHandler = new MaoDeOnzeHandler(pointsProposalUseCase(), botService);
         if (raiseHandler == null)
-            raiseHandler = new RaiseHandler(
-                    new PointsProposalUseCase(gameRepo, gameResultRepo, handResultRepo),
-                    botService);
+            raiseHandler = new RaiseHandler(pointsProposalUseCase(), botService);
         if (cardHandler == null)
-            cardHandler = new CardPlayingHandler(
-                    new PlayCardUseCase(gameRepo, gameResultRepo, handResultRepo),
-                    botService);
+            cardHandler = new CardPlayingHandler(playCardUseCase(), botService);
         if (requestHandler == null)
-            requestHandler = new RaiseRequestHandler(new PointsProposalUseCase(
-                    gameRepo, gameResultRepo, handResultRepo),
-                    botService);
+            requestHandler = new RaiseRequestHandler(pointsProposalUseCase(), botService);
+    }
+
+    //Moves are made by the single writer of the game, so the use cases run them in the caller thread.
+    private PointsProposalUseCase pointsProposalUseCase() {
+        return new PointsProposalUseCase(gameRepo, gameResultRepo, handResultRepo, GameActionExecutor.callerRuns(),
+                botTurns);
+    }
+
+    private PlayCardUseCase playCardUseCase() {
+        return new PlayCardUseCase(gameRepo, gameResultRepo, handResultRepo, GameActionExecutor.callerRuns(), botTurns);
     }
 }
@@ -29,6 +29,8 @@ import com.bueno.domain.usecases.intel.converters.CardConverter;
 import com.bueno.domain.usecases.intel.dtos.IntelDto;
 import com.bueno.spi.service.BotServiceProvider;
 
+import java.util.function.Supplier;
+
 import static com.bueno.domain.entities.intel.PossibleAction.PLAY;
 import static com.bueno.domain.usecases.bot.converter.SpiModelAdapter.toCard;
 import static com.bueno.domain.usecases.bot.converter.SpiModelAdapter.toGameIntel;
@@ -45,13 +47,18 @@ public class CardPlayingHandler implements Handler{
 
     @Override
     public IntelDto handle(Intel intel, Player bot) {
+        return decide(intel, bot).get();
+    }
+
+    @Override
+    public Supplier<IntelDto> decide(Intel intel, Player bot) {
         final var botUuid = bot.getUuid();
         final var chosenCard = botService.chooseCard(toGameIntel(bot, intel));
         final var card = toCard(chosenCard.content());
         final var requestModel = new PlayCardDto(botUuid, CardConverter.toDto(card));
 
-        if (chosenCard.isDiscard()) return cardUseCase.discard(requestModel);
-        return cardUseCase.playCard(requestModel);
+        if (chosenCard.isDiscard()) return () -> cardUseCase.discard(requestModel);
+        return () -> cardUseCase.playCard(requestModel);
     }
 
     @Override
@@ -24,7 +24,13 @@ import com.bueno.domain.entities.intel.Intel;
 import com.bueno.domain.entities.player.Player;
 import com.bueno.domain.usecases.intel.dtos.IntelDto;
 
+import java.util.function.Supplier;
+
 interface Handler {
     IntelDto handle(Intel intel, Player bot);
+
+    //Chooses the move of the bot without changing the game, returning null if it makes none. The move is made by
+    //the returned supplier, so the bot may think apart from the single writer of the game.
+    Supplier<IntelDto> decide(Intel intel, Player bot);
     boolean shouldHandle(Intel intel);
 }
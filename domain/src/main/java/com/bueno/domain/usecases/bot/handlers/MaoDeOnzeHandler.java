@@ -27,6 +27,8 @@ import com.bueno.domain.usecases.hand.PointsProposalUseCase;
 import com.bueno.domain.usecases.intel.dtos.IntelDto;
 import com.bueno.spi.service.BotServiceProvider;
 
+import java.util.function.Supplier;
+
 import static com.bueno.domain.usecases.bot.converter.SpiModelAdapter.toGameIntel;
 
 public class MaoDeOnzeHandler implements Handler {
@@ -41,10 +43,15 @@ public class MaoDeOnzeHandler implements Handler {
 
     @Override
     public IntelDto handle(Intel intel, Player bot) {
+        return decide(intel, bot).get();
+    }
+
+    @Override
+    public Supplier<IntelDto> decide(Intel intel, Player bot) {
         final var botUuid = bot.getUuid();
         final var hasAccepted = botService.getMaoDeOnzeResponse(toGameIntel(bot, intel));
-        if (hasAccepted) return scoreUseCase.accept(botUuid);
-        return scoreUseCase.quit(botUuid);
+        if (hasAccepted) return () -> scoreUseCase.accept(botUuid);
+        return () -> scoreUseCase.quit(botUuid);
     }
 
     @Override
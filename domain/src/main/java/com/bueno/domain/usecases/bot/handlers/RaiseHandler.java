@@ -28,6 +28,7 @@ import com.bueno.domain.usecases.intel.dtos.IntelDto;
 import com.bueno.spi.service.BotServiceProvider;
 
 import java.util.EnumSet;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static com.bueno.domain.entities.intel.PossibleAction.QUIT;
@@ -45,8 +46,14 @@ public class RaiseHandler implements Handler {
     }
 
     public IntelDto handle(Intel intel, Player bot){
+        final Supplier<IntelDto> raise = decide(intel, bot);
+        return raise == null ? null : raise.get();
+    }
+
+    @Override
+    public Supplier<IntelDto> decide(Intel intel, Player bot){
         final boolean wantToRaise = botService.decideIfRaises(toGameIntel(bot, intel));
-        if (wantToRaise) return scoreUseCase.raise(bot.getUuid());
+        if (wantToRaise) return () -> scoreUseCase.raise(bot.getUuid());
         return null;
     }
 
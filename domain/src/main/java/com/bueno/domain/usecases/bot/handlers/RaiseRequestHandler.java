@@ -28,6 +28,7 @@ import com.bueno.domain.usecases.intel.dtos.IntelDto;
 import com.bueno.spi.service.BotServiceProvider;
 
 import java.util.EnumSet;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static com.bueno.domain.usecases.bot.converter.SpiModelAdapter.toGameIntel;
@@ -44,6 +45,11 @@ public class RaiseRequestHandler implements Handler{
 
     @Override
     public IntelDto handle(Intel intel, Player bot) {
+        return decide(intel, bot).get();
+    }
+
+    @Override
+    public Supplier<IntelDto> decide(Intel intel, Player bot) {
         final var botUuid = bot.getUuid();
         final var actions = intel.possibleActions().stream()
                 .map(PossibleAction::valueOf)
@@ -54,10 +60,10 @@ public class RaiseRequestHandler implements Handler{
         if(hasAlreadyReachedHandPointsLimit(actions, response)) response = 0;
 
         return switch (response) {
-            case -1 -> scoreUseCase.quit(botUuid);
-            case 0 -> scoreUseCase.accept(botUuid);
-            case 1 -> scoreUseCase.raise(botUuid);
-            default -> null;
+            case -1 -> () -> scoreUseCase.quit(botUuid);
+            case 0 -> () -> scoreUseCase.accept(botUuid);
+            case 1 -> () -> scoreUseCase.raise(botUuid);
+            default -> () -> null;
         };
     }
 
@@ -0,0 +1,196 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.domain.usecases.executor;
+
+import com.bueno.domain.usecases.game.repos.GameRepository;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Runs the actions of each game one at a time and in arrival order, in a mailbox of the game, while different games
+ * run in parallel. Mailboxes are hashed onto a fixed set of single threaded workers, so a game is always handled by the
+ * same worker and its state has a single writer. Actions submitted from the worker handling the game, like bot turns
+ * triggered by a player action, run immediately. An executor without workers runs every action in the caller thread.
+ */
+public class GameActionExecutor implements AutoCloseable {
+
+    private static final GameActionExecutor CALLER_RUNS = new GameActionExecutor(0);
+    private static final int MAX_ACTIONS_PER_TURN = 32;
+    private static final ThreadLocal<UUID> currentGame = new ThreadLocal<>();
+
+    private final ExecutorService[] workers;
+    private final Map<UUID, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingActions = new AtomicInteger();
+    private final AtomicLong executedActions = new AtomicLong();
+
+    public GameActionExecutor(int workers) {
+        this(workers, "game-worker");
+    }
+
+    public GameActionExecutor(int workers, String workerName) {
+        if (workers < 0) throw new IllegalArgumentException("Number of workers must not be negative: " + workers);
+        this.workers = new ExecutorService[workers];
+        for (int i = 0; i < workers; i++) {
+            final String name = workerName + "-" + i;
+            this.workers[i] = Executors.newSingleThreadExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public static GameActionExecutor callerRuns() {
+        return CALLER_RUNS;
+    }
+
+    //Runs the action in the mailbox of the game of the player, or in the caller thread if the player has no game.
+    public <T> T executeForPlayer(GameRepository repository, UUID playerUuid, Supplier<T> action) {
+        if (workers.length == 0) return action.get();
+        final Optional<UUID> gameUuid = repository.findGameUuidByPlayerUuid(playerUuid);
+        if (gameUuid.isEmpty()) return action.get();
+        return execute(gameUuid.get(), action);
+    }
+
+    public <T> T execute(UUID gameUuid, Supplier<T> action) {
+        Objects.requireNonNull(gameUuid, "Game UUID must not be null.");
+        if (workers.length == 0 || gameUuid.equals(currentGame.get())) return action.get();
+        try {
+            return submit(gameUuid, action).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw e;
+        }
+    }
+
+    public <T> CompletableFuture<T> submit(UUID gameUuid, Supplier<T> action) {
+        Objects.requireNonNull(gameUuid, "Game UUID must not be null.");
+        Objects.requireNonNull(action, "Action must not be null.");
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        if (workers.length == 0) {
+            complete(result, action);
+            return result;
+        }
+        final Runnable task = () -> complete(result, action);
+        final Mailbox mailbox = mailboxes.compute(gameUuid, (uuid, current) -> {
+            final Mailbox box = current == null ? new Mailbox(uuid) : current;
+            box.tasks.add(task);
+            box.depth.incrementAndGet();
+            return box;
+        });
+        pendingActions.incrementAndGet();
+        if (mailbox.scheduled.compareAndSet(false, true)) schedule(mailbox);
+        return result;
+    }
+
+    public int queueDepth(UUID gameUuid) {
+        final Mailbox mailbox = mailboxes.get(gameUuid);
+        return mailbox == null ? 0 : mailbox.depth.get();
+    }
+
+    public Metrics metrics() {
+        final int maxQueueDepth = mailboxes.values().stream().mapToInt(mailbox -> mailbox.depth.get()).max().orElse(0);
+        return new Metrics(workers.length, mailboxes.size(), pendingActions.get(), maxQueueDepth, executedActions.get());
+    }
+
+    @Override
+    public void close() {
+        if (this == CALLER_RUNS) return;
+        for (ExecutorService worker : workers) worker.shutdown();
+        try {
+            for (ExecutorService worker : workers)
+                if (!worker.awaitTermination(10, TimeUnit.SECONDS)) worker.shutdownNow();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void schedule(Mailbox mailbox) {
+        workers[Math.floorMod(mailbox.gameUuid.hashCode(), workers.length)].execute(() -> drain(mailbox));
+    }
+
+    //Runs a bounded number of actions before yielding the worker to the other games hashed onto it.
+    private void drain(Mailbox mailbox) {
+        currentGame.set(mailbox.gameUuid);
+        try {
+            for (int i = 0; i < MAX_ACTIONS_PER_TURN; i++) {
+                final Runnable task = mailbox.tasks.poll();
+                if (task == null) break;
+                mailbox.depth.decrementAndGet();
+                pendingActions.decrementAndGet();
+                task.run();
+                executedActions.incrementAndGet();
+            }
+        } finally {
+            currentGame.remove();
+        }
+        //Checking and removing the empty mailbox is atomic with submissions to the same game.
+        final AtomicBoolean hasTasks = new AtomicBoolean();
+        mailboxes.computeIfPresent(mailbox.gameUuid, (uuid, current) -> {
+            if (current != mailbox) return current;
+            if (!mailbox.tasks.isEmpty()) {
+                hasTasks.set(true);
+                return current;
+            }
+            mailbox.scheduled.set(false);
+            return null;
+        });
+        if (hasTasks.get()) schedule(mailbox);
+    }
+
+    private static <T> void complete(CompletableFuture<T> result, Supplier<T> action) {
+        try {
+            result.complete(action.get());
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    public record Metrics(int workers, int activeGames, int pendingActions, int maxQueueDepth, long executedActions) {
+    }
+
+    private static final class Mailbox {
+        private final UUID gameUuid;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger depth = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private Mailbox(UUID gameUuid) {
+            this.gameUuid = gameUuid;
+        }
+    }
+}
@@ -42,7 +42,8 @@ public class GameConverter {
                 PlayerConverter.toDto(game.getPlayer2()),
                 PlayerConverter.toDto(game.getFirstToPlay()),
                 PlayerConverter.toDto(game.getLastToPlay()),
-                game.getHands().stream().map(HandConverter::toDto).toList()
+                game.getHands().stream().map(HandConverter::toDto).toList(),
+                game.getVersion()
         );
     }
 
@@ -55,6 +56,6 @@ public class GameConverter {
         final List<Hand> hands = dto.hands().stream()
                 .map(handDto -> HandConverter.fromDto(handDto, player1, player2))
                 .toList();
-        return new Game(dto.gameUuid(), dto.timestamp(), player1, player2, firstToPlay, lastToPlay, hands);
+        return new Game(dto.gameUuid(), dto.timestamp(), player1, player2, firstToPlay, lastToPlay, hands, dto.version());
     }
 }
@@ -26,6 +26,16 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
+//The version counts the updates of the stored game and is compared by repositories before replacing it.
 public record GameDto(UUID gameUuid, LocalDateTime timestamp, PlayerDto player1, PlayerDto player2,
-                      PlayerDto firstToPlay, PlayerDto lastToPlay, List<HandDto> hands) {
+                      PlayerDto firstToPlay, PlayerDto lastToPlay, List<HandDto> hands, long version) {
+
+    public GameDto(UUID gameUuid, LocalDateTime timestamp, PlayerDto player1, PlayerDto player2,
+                   PlayerDto firstToPlay, PlayerDto lastToPlay, List<HandDto> hands) {
+        this(gameUuid, timestamp, player1, player2, firstToPlay, lastToPlay, hands, 0);
+    }
+
+    public GameDto withVersion(long version) {
+        return new GameDto(gameUuid, timestamp, player1, player2, firstToPlay, lastToPlay, hands, version);
+    }
 }
\ No newline at end of file
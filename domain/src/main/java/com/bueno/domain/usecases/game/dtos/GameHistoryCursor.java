@@ -0,0 +1,54 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.domain.usecases.game.dtos;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Position in a player's game history, ordered by ending time and game id, both descending. A page starting at a
+ * cursor holds only games that come strictly after it.
+ */
+public record GameHistoryCursor(LocalDateTime endingTime, UUID gameUuid) {
+    private static final String SEPARATOR = "_";
+
+    public GameHistoryCursor {
+        Objects.requireNonNull(endingTime);
+        Objects.requireNonNull(gameUuid);
+    }
+
+    public static GameHistoryCursor fromToken(String token) {
+        final int separator = token.lastIndexOf(SEPARATOR);
+        if (separator < 0) throw new IllegalArgumentException("Invalid history cursor: " + token);
+        try {
+            return new GameHistoryCursor(LocalDateTime.parse(token.substring(0, separator)),
+                    UUID.fromString(token.substring(separator + 1)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid history cursor: " + token, e);
+        }
+    }
+
+    public String toToken() {
+        return endingTime + SEPARATOR + gameUuid;
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.domain.usecases.game.dtos;
+
+import com.bueno.domain.usecases.hand.dtos.HandDto;
+
+import java.util.UUID;
+
+//Only what is needed to find who left an inactive game. The current player is null if no hand is being played.
+public record InactiveGameDto(UUID gameUuid, UUID player1Uuid, UUID player2Uuid, UUID currentPlayerUuid) {
+
+    public static InactiveGameDto of(GameDto game) {
+        final HandDto currentHand = game.hands().isEmpty() ? null : game.hands().get(game.hands().size() - 1);
+        final PlayerDto currentPlayer = currentHand == null ? null : currentHand.currentPlayer();
+        return new InactiveGameDto(game.gameUuid(), game.player1().uuid(), game.player2().uuid(),
+                currentPlayer == null ? null : currentPlayer.uuid());
+    }
+}
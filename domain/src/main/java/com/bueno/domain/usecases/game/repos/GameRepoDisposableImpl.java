@@ -21,6 +21,8 @@
 package com.bueno.domain.usecases.game.repos;
 
 import com.bueno.domain.usecases.game.dtos.GameDto;
+import com.bueno.domain.usecases.game.dtos.InactiveGameDto;
+import com.bueno.domain.usecases.utils.exceptions.ConcurrentGameUpdateException;
 
 import java.util.Collection;
 import java.util.Optional;
@@ -37,7 +39,9 @@ public class GameRepoDisposableImpl implements GameRepository {
 
     @Override
     public void update(GameDto dto) {
-        game = dto;
+        if (game != null && game.version() != dto.version())
+            throw new ConcurrentGameUpdateException("Game " + dto.gameUuid() + " was updated concurrently.");
+        game = dto.withVersion(dto.version() + 1);
     }
 
     @Override
@@ -51,7 +55,7 @@ public class GameRepoDisposableImpl implements GameRepository {
     }
 
     @Override
-    public Collection<GameDto> findAllInactiveAfter(int minutes) {
+    public Collection<InactiveGameDto> findAllInactiveAfter(int minutes) {
         return null;
     }
 }
@@ -20,7 +20,10 @@
 
 package com.bueno.domain.usecases.game.repos;
 
+import com.bueno.domain.entities.game.Game;
+import com.bueno.domain.usecases.game.converter.GameConverter;
 import com.bueno.domain.usecases.game.dtos.GameDto;
+import com.bueno.domain.usecases.game.dtos.InactiveGameDto;
 
 import java.util.Collection;
 import java.util.Optional;
@@ -28,10 +31,32 @@ import java.util.UUID;
 
 public interface GameRepository {
     void save(GameDto gameDto);
+
+    //Replaces the stored game only if its version is still the version of the given dto, incrementing it.
+    //Otherwise, throws ConcurrentGameUpdateException.
     void update(GameDto gameDto);
     void delete(UUID uuid);
     Optional<GameDto> findByPlayerUuid(UUID playerUuid);
 
-    Collection<GameDto> findAllInactiveAfter(int minutes);
+    //Games without activity for the given minutes, only with what is needed to find who left them.
+    Collection<InactiveGameDto> findAllInactiveAfter(int minutes);
+
+    //Repositories keeping live aggregates may return a copy of it, avoiding the conversion from dto.
+    default Optional<Game> findGameByPlayerUuid(UUID playerUuid) {
+        return findByPlayerUuid(playerUuid).map(GameConverter::fromDto);
+    }
+
+    default Optional<UUID> findGameUuidByPlayerUuid(UUID playerUuid) {
+        return findByPlayerUuid(playerUuid).map(GameDto::gameUuid);
+    }
+
+    default void updateGame(Game game) {
+        update(GameConverter.toDto(game));
+        game.incrementVersion();
+    }
 
+    //Token changing whenever the game of the player changes, if the repository keeps it. Looking it up loads no game.
+    default Optional<String> findVersionToken(UUID playerUuid) {
+        return Optional.empty();
+    }
 }
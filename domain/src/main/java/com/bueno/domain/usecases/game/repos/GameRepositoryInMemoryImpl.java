@@ -22,42 +22,82 @@ package com.bueno.domain.usecases.game.repos;
 
 
 import com.bueno.domain.usecases.game.dtos.GameDto;
-import com.bueno.domain.usecases.game.dtos.PlayerDto;
+import com.bueno.domain.usecases.game.dtos.InactiveGameDto;
+import com.bueno.domain.usecases.utils.exceptions.ConcurrentGameUpdateException;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.util.*;
-import java.util.function.Predicate;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class GameRepositoryInMemoryImpl implements GameRepository {
 
-    private static final Map<UUID, GameDto> games = new HashMap<>();
+    private final Map<UUID, GameDto> games = new ConcurrentHashMap<>();
+    private final Map<UUID, UUID> gameByPlayer = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> lastActivity = new ConcurrentHashMap<>();
+    private final Clock clock;
+
+    public GameRepositoryInMemoryImpl() {
+        this(Clock.systemUTC());
+    }
+
+    public GameRepositoryInMemoryImpl(Clock clock) {
+        this.clock = Objects.requireNonNull(clock);
+    }
 
     @Override
     public void save(GameDto game) {
-        games.put(game.gameUuid(), game);
+        final GameDto previous = games.put(game.gameUuid(), game);
+        if (previous != null) unindex(previous);
+        gameByPlayer.put(game.player1().uuid(), game.gameUuid());
+        gameByPlayer.put(game.player2().uuid(), game.gameUuid());
+        lastActivity.put(game.gameUuid(), clock.millis());
     }
 
     @Override
     public void update(GameDto gameDto) {
-        games.replace(gameDto.gameUuid(), gameDto);
+        final GameDto stored = games.get(gameDto.gameUuid());
+        if (stored == null) return;
+        final GameDto updated = gameDto.withVersion(gameDto.version() + 1);
+        if (stored.version() != gameDto.version() || !games.replace(gameDto.gameUuid(), stored, updated))
+            throw new ConcurrentGameUpdateException("Game " + gameDto.gameUuid() + " was updated concurrently.");
+        lastActivity.put(gameDto.gameUuid(), clock.millis());
     }
 
     @Override
     public void delete(UUID uuid) {
-        games.remove(uuid);
+        final GameDto removed = games.remove(uuid);
+        if (removed != null) unindex(removed);
+        lastActivity.remove(uuid);
     }
 
     @Override
     public Optional<GameDto> findByPlayerUuid(UUID uuid) {
-        Predicate<GameDto> hasPlayer = game -> hasUuid(game.player1(), uuid) || hasUuid(game.player2(), uuid);
-        return games.values().stream().filter(hasPlayer).findAny();
+        final UUID gameUuid = gameByPlayer.get(uuid);
+        if (gameUuid == null) return Optional.empty();
+        return Optional.ofNullable(games.get(gameUuid));
+    }
+
+    @Override
+    public Optional<UUID> findGameUuidByPlayerUuid(UUID uuid) {
+        return Optional.ofNullable(gameByPlayer.get(uuid));
     }
 
+    //Games are in memory, so they are visited instead of kept in order of activity. A game that could not be removed is
+    //found again by the next query.
     @Override
-    public Collection<GameDto> findAllInactiveAfter(int minutes) {
-        return null;
+    public Collection<InactiveGameDto> findAllInactiveAfter(int minutes) {
+        final long inactiveSince = clock.millis() - Duration.ofMinutes(minutes).toMillis();
+        return lastActivity.entrySet().stream()
+                .filter(activity -> activity.getValue() <= inactiveSince)
+                .map(activity -> games.get(activity.getKey()))
+                .filter(Objects::nonNull)
+                .map(InactiveGameDto::of)
+                .toList();
     }
 
-    private static boolean hasUuid(PlayerDto player, UUID uuid) {
-        return player.uuid().equals(uuid);
+    private void unindex(GameDto game) {
+        gameByPlayer.remove(game.player1().uuid(), game.gameUuid());
+        gameByPlayer.remove(game.player2().uuid(), game.gameUuid());
     }
 }
@@ -20,6 +20,8 @@
 
 package com.bueno.domain.usecases.game.repos;
 
+import com.bueno.domain.usecases.game.dtos.GameHistoryCursor;
+import com.bueno.domain.usecases.game.dtos.GameHistoryPageDto;
 import com.bueno.domain.usecases.game.dtos.GameResultDto;
 import com.bueno.domain.usecases.game.dtos.GameResultUsernamesDto;
 import com.bueno.domain.usecases.game.dtos.PlayerWinsDto;
@@ -30,8 +32,16 @@ import java.util.UUID;
 public interface GameResultRepository {
     void save(GameResultDto gameResultDto);
 
+    default void saveAll(List<GameResultDto> gameResultDtos) {
+        gameResultDtos.forEach(this::save);
+    }
+
     List<PlayerWinsDto> findTopWinners(Integer maxNumberOfUsers);
 
     List<GameResultUsernamesDto> findAllByUserUuid(UUID uuid);
 
+    // Returns up to pageSize games of the user, newest first, starting after the cursor, or from the newest game if
+    // the cursor is null. The next cursor is null when there are no more games.
+    GameHistoryPageDto findPageByUserUuid(UUID uuid, GameHistoryCursor after, int pageSize);
+
 }
@@ -0,0 +1,90 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+
+package com.bueno.domain.usecases.game.repos;
+
+import com.bueno.domain.entities.game.Game;
+import com.bueno.domain.usecases.game.converter.GameConverter;
+import com.bueno.domain.usecases.game.dtos.GameDto;
+import com.bueno.domain.usecases.game.dtos.InactiveGameDto;
+import com.bueno.domain.usecases.intel.IntelBroadcaster;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+//Publishes the intel of every stored change of a game, which includes the moves of bots and turn timeouts, and closes
+//the subscriptions to a game when it is deleted. Stored dtos are only turned into games when the game has subscribers.
+public class IntelPublishingGameRepository implements GameRepository {
+
+    private final GameRepository repository;
+    private final IntelBroadcaster broadcaster;
+
+    public IntelPublishingGameRepository(GameRepository repository, IntelBroadcaster broadcaster) {
+        this.repository = Objects.requireNonNull(repository);
+        this.broadcaster = Objects.requireNonNull(broadcaster);
+    }
+
+    @Override
+    public void save(GameDto gameDto) {
+        repository.save(gameDto);
+        if (broadcaster.isSubscribed(gameDto.gameUuid())) broadcaster.publish(GameConverter.fromDto(gameDto));
+    }
+
+    @Override
+    public void update(GameDto gameDto) {
+        repository.update(gameDto);
+        if (broadcaster.isSubscribed(gameDto.gameUuid())) broadcaster.publish(GameConverter.fromDto(gameDto));
+    }
+
+    @Override
+    public void updateGame(Game game) {
+        repository.updateGame(game);
+        broadcaster.publish(game);
+    }
+
+    @Override
+    public void delete(UUID uuid) {
+        repository.delete(uuid);
+        broadcaster.closeGame(uuid);
+    }
+
+    @Override
+    public Optional<GameDto> findByPlayerUuid(UUID playerUuid) {
+        return repository.findByPlayerUuid(playerUuid);
+    }
+
+    @Override
+    public Optional<Game> findGameByPlayerUuid(UUID playerUuid) {
+        return repository.findGameByPlayerUuid(playerUuid);
+    }
+
+    @Override
+    public Optional<UUID> findGameUuidByPlayerUuid(UUID playerUuid) {
+        return repository.findGameUuidByPlayerUuid(playerUuid);
+    }
+
+    @Override
+    public Collection<InactiveGameDto> findAllInactiveAfter(int minutes) {
+        return repository.findAllInactiveAfter(minutes);
+    }
+}
@@ -0,0 +1,378 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.domain.usecases.game.repos;
+
+import com.bueno.domain.entities.game.Game;
+import com.bueno.domain.usecases.game.converter.GameConverter;
+import com.bueno.domain.usecases.game.dtos.GameDto;
+import com.bueno.domain.usecases.game.dtos.InactiveGameDto;
+import com.bueno.domain.usecases.game.service.GameTimers;
+import com.bueno.domain.usecases.utils.exceptions.ConcurrentGameUpdateException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Keeps the domain aggregates of the games being played in memory, in front of a slower game repository. Each entry
+ * holds the game as of its last update, which is never changed again: readers get a copy of it, and an update
+ * replaces it with the changed copy, so an action failing halfway leaves the cached game untouched. Each change is
+ * written to the backing repository asynchronously by a writer thread, coalescing changes made while a write is
+ * pending and converting the game only when it is written. Games idle for too long, or the least recently used ones
+ * when the cache is full, are written and evicted by the writer thread as well. Versions of cached games count the
+ * changes made in the cache, while writes are compared against the version of the backing repository. Players were
+ * answered from the cached game, so it overwrites a change made to the stored one by someone else; it is only dropped
+ * from the cache if the stored game was deleted. Turns are timed here, as they are played, instead of when they are
+ * written.
+ */
+public class LiveGameCache implements GameRepository, AutoCloseable {
+
+    private static final System.Logger log = System.getLogger(LiveGameCache.class.getName());
+    private static final long RETRY_DELAY_MILLIS = 1_000;
+
+    private final GameRepository store;
+    private final GameTimers timers;
+    private final int maxGames;
+    private final Duration maxIdle;
+    private final Clock clock;
+    private final Map<UUID, Entry> games = new ConcurrentHashMap<>();
+    private final Map<UUID, UUID> gameByPlayer = new ConcurrentHashMap<>();
+    //Entries from the least to the most recently used, guarded by itself.
+    private final Map<UUID, Entry> recency = new LinkedHashMap<>(1024, 0.75f, true);
+    private final ScheduledExecutorService writer;
+
+    public LiveGameCache(GameRepository store, int maxGames, Duration maxIdle) {
+        this(store, new GameTimers(), maxGames, maxIdle);
+    }
+
+    public LiveGameCache(GameRepository store, GameTimers timers, int maxGames, Duration maxIdle) {
+        this(store, timers, maxGames, maxIdle, Clock.systemUTC());
+    }
+
+    LiveGameCache(GameRepository store, GameTimers timers, int maxGames, Duration maxIdle, Clock clock) {
+        if (maxGames <= 0) throw new IllegalArgumentException("Maximum number of games must be positive: " + maxGames);
+        this.store = Objects.requireNonNull(store);
+        this.timers = Objects.requireNonNull(timers);
+        this.maxGames = maxGames;
+        this.maxIdle = Objects.requireNonNull(maxIdle);
+        this.clock = Objects.requireNonNull(clock);
+        this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "live-game-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final long evictionPeriod = Math.max(1, Math.min(maxIdle.toMillis(), 30_000));
+        writer.scheduleAtFixedRate(this::evictIdle, evictionPeriod, evictionPeriod, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void save(GameDto gameDto) {
+        store.save(gameDto);
+        timers.recordTurn(cache(gameDto).game);
+    }
+
+    @Override
+    public void update(GameDto gameDto) {
+        final Entry entry = games.get(gameDto.gameUuid());
+        if (entry == null) {
+            store.update(gameDto);
+            timers.recordTurn(gameDto);
+            return;
+        }
+        commit(entry, GameConverter.fromDto(gameDto));
+    }
+
+    //The game must not be changed once updated, since the cache keeps it as it is. Read it again to change it again.
+    @Override
+    public void updateGame(Game game) {
+        final Entry entry = games.get(game.getUuid());
+        if (entry == null) {
+            store.update(GameConverter.toDto(game));
+            game.incrementVersion();
+            timers.recordTurn(game);
+            return;
+        }
+        commit(entry, game);
+    }
+
+    @Override
+    public void delete(UUID uuid) {
+        final Entry entry = games.remove(uuid);
+        if (entry != null) {
+            entry.lock.lock();
+            try {
+                entry.deleted = true;
+                unindex(entry);
+            } finally {
+                entry.lock.unlock();
+            }
+        }
+        store.delete(uuid);
+        timers.remove(uuid);
+    }
+
+    @Override
+    public Optional<GameDto> findByPlayerUuid(UUID playerUuid) {
+        return entryOf(playerUuid).map(entry -> GameConverter.toDto(entry.game));
+    }
+
+    @Override
+    public Optional<Game> findGameByPlayerUuid(UUID playerUuid) {
+        return entryOf(playerUuid).map(entry -> entry.game.copy());
+    }
+
+    @Override
+    public Optional<UUID> findGameUuidByPlayerUuid(UUID playerUuid) {
+        return entryOf(playerUuid).map(entry -> entry.gameUuid);
+    }
+
+    //Changes of cached games may not have been written yet, so games played since are left out instead of flushed.
+    @Override
+    public Collection<InactiveGameDto> findAllInactiveAfter(int minutes) {
+        final Instant lastAllowedActivity = Instant.ofEpochMilli(clock.millis()).minus(Duration.ofMinutes(minutes));
+        return store.findAllInactiveAfter(minutes).stream()
+                .filter(game -> !isCachedActiveAfter(game.gameUuid(), lastAllowedActivity))
+                .toList();
+    }
+
+    public void flush() {
+        games.values().forEach(this::write);
+    }
+
+    public int size() {
+        return games.size();
+    }
+
+    @Override
+    public void close() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(10, TimeUnit.SECONDS)) writer.shutdownNow();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private Optional<Entry> entryOf(UUID playerUuid) {
+        Objects.requireNonNull(playerUuid, "Player UUID must not be null.");
+        final UUID gameUuid = gameByPlayer.get(playerUuid);
+        final Entry cached = gameUuid == null ? null : games.get(gameUuid);
+        if (cached != null) {
+            touch(cached);
+            return Optional.of(cached);
+        }
+        return store.findByPlayerUuid(playerUuid).map(this::cache);
+    }
+
+    private Entry cache(GameDto gameDto) {
+        final Entry entry = games.computeIfAbsent(gameDto.gameUuid(), uuid -> new Entry(uuid, gameDto));
+        gameByPlayer.put(gameDto.player1().uuid(), entry.gameUuid);
+        gameByPlayer.put(gameDto.player2().uuid(), entry.gameUuid);
+        touch(entry);
+        if (games.size() > maxGames) evictLeastRecentlyUsed();
+        return entry;
+    }
+
+    private boolean isCachedActiveAfter(UUID gameUuid, Instant instant) {
+        final Entry entry = games.get(gameUuid);
+        return entry != null && entry.game.getIntel().timestamp().isAfter(instant);
+    }
+
+    //Only swaps the cached game, so the lock is held for as long as the version check takes.
+    private void commit(Entry entry, Game game) {
+        final boolean scheduleWrite;
+        final boolean evicted;
+        entry.lock.lock();
+        try {
+            if (entry.deleted || entry.game.getVersion() != game.getVersion())
+                throw new ConcurrentGameUpdateException("Game " + entry.gameUuid + " was updated concurrently.");
+            evicted = entry.evicted;
+            game.incrementVersion();
+            entry.game = game;
+            timers.recordTurn(game);
+            scheduleWrite = entry.writePending.compareAndSet(false, true);
+        } finally {
+            entry.lock.unlock();
+        }
+        touch(entry);
+        //A game evicted after it was read is written right away, since later reads load it from the store.
+        if (evicted) write(entry);
+        else if (scheduleWrite) writer.execute(() -> write(entry));
+    }
+
+    private void touch(Entry entry) {
+        entry.lastAccess = clock.millis();
+        synchronized (recency) {
+            if (recency.get(entry.gameUuid) == null && games.get(entry.gameUuid) == entry)
+                recency.put(entry.gameUuid, entry);
+        }
+    }
+
+    //Writes of an entry are serialized by its write lock. Waiting for the lock also makes a flush wait for writes
+    //already in progress. The game is converted here, out of the way of the actions changing it.
+    private void write(Entry entry) {
+        entry.writeLock.lock();
+        try {
+            if (!entry.writePending.getAndSet(false) || entry.deleted) return;
+            final GameDto dto = GameConverter.toDto(entry.game);
+            try {
+                try {
+                    store.update(dto.withVersion(entry.storedVersion));
+                } catch (ConcurrentGameUpdateException e) {
+                    if (!rebase(entry, e)) return;
+                    store.update(dto.withVersion(entry.storedVersion));
+                }
+                entry.storedVersion++;
+            } catch (RuntimeException e) {
+                log.log(System.Logger.Level.WARNING, "Could not write game " + entry.gameUuid + ", retrying.", e);
+                if (entry.writePending.compareAndSet(false, true) && !writer.isShutdown())
+                    writer.schedule(() -> write(entry), RETRY_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            entry.writeLock.unlock();
+        }
+    }
+
+    //Takes the version of the game changed in the store by someone else, so the cached game overwrites it. Returns
+    //false, dropping the entry, if the game is no longer stored.
+    private boolean rebase(Entry entry, ConcurrentGameUpdateException conflict) {
+        final Optional<GameDto> stored = store.findByPlayerUuid(entry.game.getPlayer1().getUuid())
+                .filter(dto -> dto.gameUuid().equals(entry.gameUuid));
+        if (stored.isEmpty()) {
+            log.log(System.Logger.Level.ERROR, "Game " + entry.gameUuid + " was deleted elsewhere, dropping it.",
+                    conflict);
+            drop(entry);
+            return false;
+        }
+        log.log(System.Logger.Level.WARNING, "Game " + entry.gameUuid + " was changed elsewhere, overwriting it.",
+                conflict);
+        entry.storedVersion = stored.get().version();
+        return true;
+    }
+
+    private void drop(Entry entry) {
+        entry.lock.lock();
+        try {
+            entry.deleted = true;
+            entry.writePending.set(false);
+            if (games.remove(entry.gameUuid, entry)) unindex(entry);
+        } finally {
+            entry.lock.unlock();
+        }
+        timers.remove(entry.gameUuid);
+    }
+
+    //Runs in the writer thread. Entries are visited from the least recently used, up to the first one not idle.
+    void evictIdle() {
+        final long idleSince = clock.millis() - maxIdle.toMillis();
+        final List<Entry> idle = new ArrayList<>();
+        synchronized (recency) {
+            for (Entry entry : recency.values()) {
+                if (entry.lastAccess > idleSince) break;
+                idle.add(entry);
+            }
+        }
+        idle.forEach(entry -> evict(entry, evicted -> evicted.lastAccess <= idleSince));
+    }
+
+    //Hands the least recently used entry to the writer thread, skipping entries already being evicted.
+    private void evictLeastRecentlyUsed() {
+        synchronized (recency) {
+            for (Entry entry : recency.values()) {
+                if (!entry.evicting.compareAndSet(false, true)) continue;
+                final long lastAccess = entry.lastAccess;
+                writer.execute(() -> evict(entry, evicted -> evicted.lastAccess == lastAccess));
+                return;
+            }
+        }
+    }
+
+    //The entry is kept if it was used again since it was chosen, or if its write failed and is going to be retried.
+    private void evict(Entry entry, Predicate<Entry> isStillEvictable) {
+        try {
+            write(entry);
+            entry.lock.lock();
+            try {
+                if (entry.writePending.get() || !isStillEvictable.test(entry)) return;
+                if (games.remove(entry.gameUuid, entry)) {
+                    entry.evicted = true;
+                    unindex(entry);
+                }
+            } finally {
+                entry.lock.unlock();
+            }
+        } finally {
+            entry.evicting.set(false);
+        }
+    }
+
+    private void unindex(Entry entry) {
+        gameByPlayer.remove(entry.game.getPlayer1().getUuid(), entry.gameUuid);
+        gameByPlayer.remove(entry.game.getPlayer2().getUuid(), entry.gameUuid);
+        synchronized (recency) {
+            recency.remove(entry.gameUuid, entry);
+        }
+    }
+
+    //Waits for the tasks handed to the writer thread so far.
+    void awaitWriter() {
+        try {
+            writer.submit(() -> {}).get();
+        } catch (Exception e) {
+            throw new IllegalStateException("Writer thread failed.", e);
+        }
+    }
+
+    private static final class Entry {
+        private final UUID gameUuid;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ReentrantLock writeLock = new ReentrantLock();
+        private final AtomicBoolean writePending = new AtomicBoolean();
+        private final AtomicBoolean evicting = new AtomicBoolean();
+        private volatile Game game;
+        private volatile long lastAccess;
+        private volatile boolean deleted;
+        private volatile boolean evicted;
+        private long storedVersion;
+
+        private Entry(UUID gameUuid, GameDto stored) {
+            this.gameUuid = gameUuid;
+            this.game = GameConverter.fromDto(stored);
+            this.storedVersion = stored.version();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+
+package com.bueno.domain.usecases.game.repos;
+
+import com.bueno.domain.entities.game.Game;
+import com.bueno.domain.usecases.game.dtos.GameDto;
+import com.bueno.domain.usecases.game.dtos.InactiveGameDto;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps in memory a version token of the game of each player, replaced on every stored change of the game and created
+ * when a game without one is read, so callers can tell whether a game changed without loading it. Tokens start with
+ * an identifier of the running instance, so tokens issued before a restart never match.
+ */
+public class VersionTrackingGameRepository implements GameRepository {
+
+    private final GameRepository repository;
+    private final String instance = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final AtomicLong versions = new AtomicLong();
+    private final Map<UUID, Version> versionByPlayer = new ConcurrentHashMap<>();
+    private final Map<UUID, List<UUID>> playersByGame = new ConcurrentHashMap<>();
+
+    private record Version(UUID gameUuid, String token) {}
+
+    public VersionTrackingGameRepository(GameRepository repository) {
+        this.repository = Objects.requireNonNull(repository);
+    }
+
+    @Override
+    public void save(GameDto gameDto) {
+        repository.save(gameDto);
+        changed(gameDto.gameUuid(), gameDto.player1().uuid(), gameDto.player2().uuid());
+    }
+
+    @Override
+    public void update(GameDto gameDto) {
+        repository.update(gameDto);
+        changed(gameDto.gameUuid(), gameDto.player1().uuid(), gameDto.player2().uuid());
+    }
+
+    @Override
+    public void updateGame(Game game) {
+        repository.updateGame(game);
+        changed(game.getUuid(), game.getPlayer1().getUuid(), game.getPlayer2().getUuid());
+    }
+
+    @Override
+    public void delete(UUID uuid) {
+        repository.delete(uuid);
+        final List<UUID> players = playersByGame.remove(uuid);
+        if (players == null) return;
+        players.forEach(player -> versionByPlayer.computeIfPresent(player,
+                (key, version) -> version.gameUuid().equals(uuid) ? null : version));
+    }
+
+    @Override
+    public Optional<GameDto> findByPlayerUuid(UUID playerUuid) {
+        final Optional<GameDto> game = repository.findByPlayerUuid(playerUuid);
+        game.ifPresent(dto -> read(dto.gameUuid(), dto.player1().uuid(), dto.player2().uuid()));
+        return game;
+    }
+
+    @Override
+    public Optional<Game> findGameByPlayerUuid(UUID playerUuid) {
+        final Optional<Game> game = repository.findGameByPlayerUuid(playerUuid);
+        game.ifPresent(found -> read(found.getUuid(), found.getPlayer1().getUuid(), found.getPlayer2().getUuid()));
+        return game;
+    }
+
+    @Override
+    public Optional<UUID> findGameUuidByPlayerUuid(UUID playerUuid) {
+        return repository.findGameUuidByPlayerUuid(playerUuid);
+    }
+
+    @Override
+    public Collection<InactiveGameDto> findAllInactiveAfter(int minutes) {
+        return repository.findAllInactiveAfter(minutes);
+    }
+
+    //A token read before loading the game is never newer than the loaded game, so it is safe to tag the game with it.
+    @Override
+    public Optional<String> findVersionToken(UUID playerUuid) {
+        final Version version = versionByPlayer.get(playerUuid);
+        return version == null ? Optional.empty() : Optional.of(version.token());
+    }
+
+    private void changed(UUID gameUuid, UUID player1, UUID player2) {
+        final Version version = nextVersion(gameUuid);
+        playersByGame.putIfAbsent(gameUuid, List.of(player1, player2));
+        versionByPlayer.put(player1, version);
+        versionByPlayer.put(player2, version);
+    }
+
+    //Tokens created by reads never replace the ones of changes stored meanwhile.
+    private void read(UUID gameUuid, UUID player1, UUID player2) {
+        if (versionByPlayer.containsKey(player1) && versionByPlayer.containsKey(player2)) return;
+        final Version version = nextVersion(gameUuid);
+        playersByGame.putIfAbsent(gameUuid, List.of(player1, player2));
+        versionByPlayer.putIfAbsent(player1, version);
+        versionByPlayer.putIfAbsent(player2, version);
+    }
+
+    private Version nextVersion(UUID gameUuid) {
+        return new Version(gameUuid, instance + "-" + versions.incrementAndGet());
+    }
+}
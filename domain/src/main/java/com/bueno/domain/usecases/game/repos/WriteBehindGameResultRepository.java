@@ -0,0 +1,84 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.domain.usecases.game.repos;
+
+import com.bueno.domain.usecases.game.dtos.GameHistoryCursor;
+import com.bueno.domain.usecases.game.dtos.GameHistoryPageDto;
+import com.bueno.domain.usecases.game.dtos.GameResultDto;
+import com.bueno.domain.usecases.game.dtos.GameResultUsernamesDto;
+import com.bueno.domain.usecases.game.dtos.PlayerWinsDto;
+import com.bueno.domain.usecases.utils.writebehind.WriteBehindQueue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Game result repository that buffers results and writes them in batches to the underlying repository. Queries read
+ * the underlying repository without waiting for the buffer, so reports may miss results saved less than a flush
+ * interval before them, but never block on pending writes.
+ */
+public class WriteBehindGameResultRepository implements GameResultRepository, AutoCloseable {
+
+    private final GameResultRepository delegate;
+    private final WriteBehindQueue<GameResultDto> queue;
+
+    public WriteBehindGameResultRepository(GameResultRepository delegate, int capacity, int batchSize,
+                                           Duration flushInterval, Duration maxBlock) {
+        this.delegate = delegate;
+        this.queue = new WriteBehindQueue<>("game-results", capacity, batchSize, flushInterval, maxBlock,
+                delegate::saveAll);
+    }
+
+    @Override
+    public void save(GameResultDto gameResultDto) {
+        queue.add(gameResultDto);
+    }
+
+    @Override
+    public void saveAll(List<GameResultDto> gameResultDtos) {
+        gameResultDtos.forEach(queue::add);
+    }
+
+    @Override
+    public List<PlayerWinsDto> findTopWinners(Integer maxNumberOfUsers) {
+        return delegate.findTopWinners(maxNumberOfUsers);
+    }
+
+    @Override
+    public List<GameResultUsernamesDto> findAllByUserUuid(UUID uuid) {
+        return delegate.findAllByUserUuid(uuid);
+    }
+
+    @Override
+    public GameHistoryPageDto findPageByUserUuid(UUID uuid, GameHistoryCursor after, int pageSize) {
+        return delegate.findPageByUserUuid(uuid, after, pageSize);
+    }
+
+    public WriteBehindQueue<GameResultDto> queue() {
+        return queue;
+    }
+
+    @Override
+    public void close() {
+        queue.close();
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.domain.usecases.game.service;
+
+import com.bueno.domain.entities.game.Game;
+import com.bueno.domain.entities.player.Player;
+import com.bueno.domain.usecases.game.dtos.GameDto;
+import com.bueno.domain.usecases.game.dtos.PlayerDto;
+import com.bueno.domain.usecases.utils.timer.TimingWheel;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks the deadline of the current turn of each game, so expired turns are found without visiting every game. The
+ * game repository in front of the stores records each turn as it is played and removes the deleted games, so turns
+ * are timed when they start rather than when they are written. Turns are only timed for human players and only if
+ * the turn timeout is positive.
+ */
+public class GameTimers {
+
+    public static final Duration NO_TURN_TIMEOUT = Duration.ZERO;
+
+    private final TimingWheel<UUID> turns;
+    private final Map<UUID, Turn> turnOwners = new ConcurrentHashMap<>();
+    private final Duration turnTimeout;
+    private final Clock clock;
+
+    public GameTimers() {
+        this(NO_TURN_TIMEOUT);
+    }
+
+    public GameTimers(Duration turnTimeout) {
+        this(turnTimeout, Clock.systemUTC());
+    }
+
+    public GameTimers(Duration turnTimeout, Clock clock) {
+        this.turnTimeout = Objects.requireNonNull(turnTimeout);
+        this.clock = Objects.requireNonNull(clock);
+        this.turns = new TimingWheel<>(250, 64, 3, clock.millis());
+    }
+
+    public void remove(UUID gameUuid) {
+        turns.cancel(gameUuid);
+        turnOwners.remove(gameUuid);
+    }
+
+    //Returns, only once, the turns that were not played before the timeout.
+    public List<ExpiredTurn> pollExpiredTurns() {
+        return turns.advanceTo(clock.millis()).stream()
+                .map(gameUuid -> {
+                    final Turn turn = turnOwners.remove(gameUuid);
+                    return turn == null ? null : new ExpiredTurn(gameUuid, turn.playerUuid(), turn.handIndex());
+                })
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    //Restarts the turn timeout of the current player.
+    public void recordTurn(GameDto game) {
+        final int handIndex = game.hands().size() - 1;
+        final PlayerDto currentPlayer = handIndex < 0 ? null : game.hands().get(handIndex).currentPlayer();
+        if (currentPlayer == null || currentPlayer.isBot()) recordTurn(game.gameUuid(), null, handIndex);
+        else recordTurn(game.gameUuid(), currentPlayer.uuid(), handIndex);
+    }
+
+    public void recordTurn(Game game) {
+        final Player currentPlayer = game.isDone() ? null : game.currentHand().getCurrentPlayer();
+        if (currentPlayer == null || currentPlayer.isBot()) recordTurn(game.getUuid(), null, game.handsPlayed() - 1);
+        else recordTurn(game.getUuid(), currentPlayer.getUuid(), game.handsPlayed() - 1);
+    }
+
+    private void recordTurn(UUID gameUuid, UUID playerUuid, int handIndex) {
+        if (turnTimeout.isZero() || turnTimeout.isNegative() || playerUuid == null) {
+            remove(gameUuid);
+            return;
+        }
+        turnOwners.put(gameUuid, new Turn(playerUuid, handIndex));
+        turns.schedule(gameUuid, clock.millis() + turnTimeout.toMillis());
+    }
+
+    public record ExpiredTurn(UUID gameUuid, UUID playerUuid, int handIndex) {
+    }
+
+    private record Turn(UUID playerUuid, int handIndex) {
+    }
+}
@@ -22,12 +22,13 @@ package com.bueno.domain.usecases.game.usecase;
 
 import com.bueno.domain.usecases.game.dtos.GameDto;
 import com.bueno.domain.usecases.game.dtos.GameResultDto;
+import com.bueno.domain.usecases.game.dtos.InactiveGameDto;
 import com.bueno.domain.usecases.game.repos.GameRepository;
 import com.bueno.domain.usecases.game.repos.GameResultRepository;
-import com.bueno.domain.usecases.hand.dtos.HandDto;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
@@ -37,6 +38,8 @@ import java.util.UUID;
 @Service
 public class RemoveGameUseCase {
 
+    private static final System.Logger log = System.getLogger(RemoveGameUseCase.class.getName());
+
     private final GameRepository gameRepo;
     private final GameResultRepository gameResultRepo;
 
@@ -45,18 +48,28 @@ public class RemoveGameUseCase {
         this.gameResultRepo = gameResultRepo;
     }
 
+    //Returns the players whose games were removed. A game that fails to be removed is skipped, and the repository
+    //returns it again in a later call.
     public List<UUID> byInactivityAfter(int minutes){
-        final List<UUID> gamesToRemove = gameRepo.findAllInactiveAfter(minutes)
+        final List<UUID> inactivePlayers = gameRepo.findAllInactiveAfter(minutes)
                 .stream()
                 .map(this::inactivePlayerUuid)
                 .toList();
-        gamesToRemove.forEach(this::byUserUuid);
-        return gamesToRemove;
+        final List<UUID> removed = new ArrayList<>(inactivePlayers.size());
+        for (UUID playerUuid : inactivePlayers) {
+            try {
+                byUserUuid(playerUuid);
+                removed.add(playerUuid);
+            } catch (RuntimeException e) {
+                log.log(System.Logger.Level.WARNING, "Could not remove the game of inactive player " + playerUuid, e);
+            }
+        }
+        return removed;
     }
 
-    public UUID inactivePlayerUuid(GameDto game){
-        final HandDto currentHand = game.hands().get(game.hands().size() - 1);
-        return currentHand.currentPlayer().uuid();
+    //The player who should be playing the current hand, or the first player if no hand is being played.
+    public UUID inactivePlayerUuid(InactiveGameDto game){
+        return game.currentPlayerUuid() != null ? game.currentPlayerUuid() : game.player1Uuid();
     }
 
     public void byUserUuid(UUID userUuid) {
@@ -20,7 +20,9 @@
 
 package com.bueno.domain.usecases.game.usecase;
 
+import com.bueno.domain.usecases.game.dtos.GameHistoryCursor;
 import com.bueno.domain.usecases.game.dtos.UserRecordDto;
+import com.bueno.domain.usecases.game.dtos.UserRecordPageDto;
 import com.bueno.domain.usecases.game.repos.GameResultRepository;
 import com.bueno.domain.usecases.user.UserRepository;
 import com.bueno.domain.usecases.utils.exceptions.EntityNotFoundException;
@@ -30,6 +32,8 @@ import java.util.UUID;
 
 @Service
 public class UserRecordUseCase {
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final GameResultRepository gameResultRepository;
     private final UserRepository userRepository;
 
@@ -44,4 +48,15 @@ public class UserRecordUseCase {
         var userRecord = gameResultRepository.findAllByUserUuid(userUuid);
         return new UserRecordDto(user.uuid(), user.username(), userRecord);
     }
+
+    public UserRecordPageDto listPageByUuid(UUID userUuid, String afterToken, int pageSize){
+        if(pageSize < 1 || pageSize > MAX_PAGE_SIZE)
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE + ": " + pageSize);
+        var user = userRepository.findByUuid(userUuid)
+                .orElseThrow(() -> new EntityNotFoundException("User not found: " + userUuid));
+        var after = afterToken == null ? null : GameHistoryCursor.fromToken(afterToken);
+        var page = gameResultRepository.findPageByUserUuid(userUuid, after, pageSize);
+        var next = page.next() == null ? null : page.next().toToken();
+        return new UserRecordPageDto(user.uuid(), user.username(), page.results(), next);
+    }
 }
@@ -25,8 +25,9 @@ import com.bueno.domain.entities.game.Game;
 import com.bueno.domain.entities.hand.Hand;
 import com.bueno.domain.entities.intel.PossibleAction;
 import com.bueno.domain.entities.player.Player;
+import com.bueno.domain.usecases.bot.BotTurnScheduler;
 import com.bueno.domain.usecases.bot.BotUseCase;
-import com.bueno.domain.usecases.game.converter.GameConverter;
+import com.bueno.domain.usecases.executor.GameActionExecutor;
 import com.bueno.domain.usecases.game.repos.GameRepository;
 import com.bueno.domain.usecases.game.repos.GameResultRepository;
 import com.bueno.domain.usecases.hand.dtos.PlayCardDto;
@@ -38,26 +39,47 @@ import com.bueno.domain.usecases.utils.exceptions.UnsupportedGameRequestExceptio
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Objects;
+
 @Service
 public class PlayCardUseCase {
     private final GameRepository gameRepository;
     private final GameResultRepository gameResultRepository;
     private final HandResultRepository handResultRepository;
     private final BotUseCase botUseCase;
+    private final GameActionExecutor executor;
+    private final BotTurnScheduler botTurns;
 
     public PlayCardUseCase(GameRepository gameRepository) {
         this(gameRepository, null, null);
     }
 
-    @Autowired
     public PlayCardUseCase(GameRepository gameRepository,
                            GameResultRepository gameResultRepository,
                            HandResultRepository handResultRepository) {
+        this(gameRepository, gameResultRepository, handResultRepository, GameActionExecutor.callerRuns());
+    }
+
+    public PlayCardUseCase(GameRepository gameRepository,
+                           GameResultRepository gameResultRepository,
+                           HandResultRepository handResultRepository,
+                           GameActionExecutor executor) {
+        this(gameRepository, gameResultRepository, handResultRepository, executor, BotTurnScheduler.callerRuns());
+    }
+
+    @Autowired
+    public PlayCardUseCase(GameRepository gameRepository,
+                           GameResultRepository gameResultRepository,
+                           HandResultRepository handResultRepository,
+                           GameActionExecutor executor,
+                           BotTurnScheduler botTurns) {
 
         this.gameRepository = gameRepository;
         this.gameResultRepository = gameResultRepository;
         this.handResultRepository = handResultRepository;
-        this.botUseCase = new BotUseCase(gameRepository, gameResultRepository, handResultRepository);
+        this.botUseCase = new BotUseCase(gameRepository, gameResultRepository, handResultRepository, botTurns);
+        this.executor = executor;
+        this.botTurns = Objects.requireNonNull(botTurns);
     }
 
     public IntelDto playCard(PlayCardDto request) {
@@ -69,12 +91,29 @@ public class PlayCardUseCase {
     }
 
     private IntelDto playCard(PlayCardDto request, boolean discard) {
+        return executor.executeForPlayer(gameRepository, request.uuid(), () -> playCardInMailbox(request, discard));
+    }
+
+    //Runs as the single writer of the game, so the game read is the latest one.
+    private IntelDto playCardInMailbox(PlayCardDto request, boolean discard) {
+        final ResultHandler resultHandler = new ResultHandler(gameResultRepository, handResultRepository);
+        Game game = play(request, discard, resultHandler);
+        resultHandler.saveResults();
+        if(game.isDone()) return IntelConverter.toDto(game.getIntel());
+
+        botTurns.schedule(gameRepository, request.uuid(), game, botUseCase);
+
+        game = gameRepository.findGameByPlayerUuid(request.uuid()).orElseThrow();
+        return IntelConverter.toDto(game.getIntel());
+    }
+
+    private Game play(PlayCardDto request, boolean discard, ResultHandler resultHandler) {
         final var validator = new ActionValidator(gameRepository, PossibleAction.PLAY);
         final var notification = validator.validate(request.uuid());
 
         if (notification.hasErrors()) throw new UnsupportedGameRequestException(notification.errorMessage());
 
-        Game game = gameRepository.findByPlayerUuid(request.uuid()).map(GameConverter::fromDto).orElseThrow();
+        final Game game = gameRepository.findGameByPlayerUuid(request.uuid()).orElseThrow();
         final Hand hand = game.currentHand();
         final Player player = hand.getCurrentPlayer();
         final Card cardToPlay = CardConverter.fromDto(request.card());
@@ -83,15 +122,8 @@ public class PlayCardUseCase {
         if (hand.getCardToPlayAgainst().isEmpty()) hand.playFirstCard(player, playedCard);
         else hand.playSecondCard(player, playedCard);
 
-        final ResultHandler resultHandler = new ResultHandler(gameResultRepository, handResultRepository);
-        final IntelDto gameResult = resultHandler.handle(game);
-
-        gameRepository.update(GameConverter.toDto(game));
-        if(gameResult != null) return gameResult;
-
-        botUseCase.playWhenNecessary(game);
-
-        game = gameRepository.findByPlayerUuid(request.uuid()).map(GameConverter::fromDto).orElseThrow();
-        return IntelConverter.toDto(game.getIntel());
+        resultHandler.handle(game);
+        gameRepository.updateGame(game);
+        return game;
     }
 }
@@ -24,8 +24,9 @@ import com.bueno.domain.entities.game.Game;
 import com.bueno.domain.entities.hand.Hand;
 import com.bueno.domain.entities.intel.PossibleAction;
 import com.bueno.domain.entities.player.Player;
+import com.bueno.domain.usecases.bot.BotTurnScheduler;
 import com.bueno.domain.usecases.bot.BotUseCase;
-import com.bueno.domain.usecases.game.converter.GameConverter;
+import com.bueno.domain.usecases.executor.GameActionExecutor;
 import com.bueno.domain.usecases.game.repos.GameRepository;
 import com.bueno.domain.usecases.game.repos.GameResultRepository;
 import com.bueno.domain.usecases.hand.validator.ActionValidator;
@@ -39,6 +40,7 @@ import org.springframework.stereotype.Service;
 
 import java.util.Objects;
 import java.util.UUID;
+import java.util.function.BiConsumer;
 
 @Service
 public class PointsProposalUseCase {
@@ -47,70 +49,92 @@ public class PointsProposalUseCase {
     private final GameResultRepository gameResultRepository;
     private final HandResultRepository handResultRepository;
     private final BotUseCase botUseCase;
+    private final GameActionExecutor executor;
+    private final BotTurnScheduler botTurns;
 
     public PointsProposalUseCase(GameRepository gameRepository) {
         this(gameRepository, null, null);
     }
 
-    @Autowired
     public PointsProposalUseCase(GameRepository gameRepository,
                                  GameResultRepository gameResultRepository,
                                  HandResultRepository handResultRepository) {
+        this(gameRepository, gameResultRepository, handResultRepository, GameActionExecutor.callerRuns());
+    }
+
+    public PointsProposalUseCase(GameRepository gameRepository,
+                                 GameResultRepository gameResultRepository,
+                                 HandResultRepository handResultRepository,
+                                 GameActionExecutor executor) {
+        this(gameRepository, gameResultRepository, handResultRepository, executor, BotTurnScheduler.callerRuns());
+    }
+
+    @Autowired
+    public PointsProposalUseCase(GameRepository gameRepository,
+                                 GameResultRepository gameResultRepository,
+                                 HandResultRepository handResultRepository,
+                                 GameActionExecutor executor,
+                                 BotTurnScheduler botTurns) {
         this.gameRepository = Objects.requireNonNull( gameRepository);
         this.gameResultRepository = gameResultRepository;
         this.handResultRepository = handResultRepository;
-        this.botUseCase = new BotUseCase(gameRepository, gameResultRepository, handResultRepository);
+        this.botUseCase = new BotUseCase(gameRepository, gameResultRepository, handResultRepository, botTurns);
+        this.executor = Objects.requireNonNull(executor);
+        this.botTurns = Objects.requireNonNull(botTurns);
     }
 
     public IntelDto raise(UUID playerUuid){
-        validateInput(playerUuid, PossibleAction.RAISE);
-
-        Game game = gameRepository.findByPlayerUuid(playerUuid).map(GameConverter::fromDto).orElseThrow();
-        final Hand hand = game.currentHand();
-        final Player player = hand.getCurrentPlayer();
+        return executor.executeForPlayer(gameRepository, playerUuid, () -> raiseInMailbox(playerUuid));
+    }
 
-        hand.raise(player);
-        gameRepository.update(GameConverter.toDto(game));
-        botUseCase.playWhenNecessary(game);
+    private IntelDto raiseInMailbox(UUID playerUuid){
+        Game game = change(playerUuid, PossibleAction.RAISE, Hand::raise, null);
+        botTurns.schedule(gameRepository, playerUuid, game, botUseCase);
 
-        game = gameRepository.findByPlayerUuid(playerUuid).map(GameConverter::fromDto).orElseThrow();
+        game = gameRepository.findGameByPlayerUuid(playerUuid).orElseThrow();
         return IntelConverter.toDto(game.getIntel());
     }
 
     public IntelDto accept(UUID playerUuid){
-        validateInput(playerUuid, PossibleAction.ACCEPT);
-
-        Game game = gameRepository.findByPlayerUuid(playerUuid).map(GameConverter::fromDto).orElseThrow();
-        final Hand hand = game.currentHand();
-        final Player player = hand.getCurrentPlayer();
+        return executor.executeForPlayer(gameRepository, playerUuid, () -> acceptInMailbox(playerUuid));
+    }
 
-        hand.accept(player);
-        gameRepository.update(GameConverter.toDto(game));
-        botUseCase.playWhenNecessary(game);
+    private IntelDto acceptInMailbox(UUID playerUuid){
+        Game game = change(playerUuid, PossibleAction.ACCEPT, Hand::accept, null);
+        botTurns.schedule(gameRepository, playerUuid, game, botUseCase);
 
-        game = gameRepository.findByPlayerUuid(playerUuid).map(GameConverter::fromDto).orElseThrow();
+        game = gameRepository.findGameByPlayerUuid(playerUuid).orElseThrow();
         return IntelConverter.toDto(game.getIntel());
     }
 
     public IntelDto quit(UUID playerUuid){
-        validateInput(playerUuid, PossibleAction.QUIT);
+        return executor.executeForPlayer(gameRepository, playerUuid, () -> quitInMailbox(playerUuid));
+    }
 
-        Game game = gameRepository.findByPlayerUuid(playerUuid).map(GameConverter::fromDto).orElseThrow();
-        final Hand hand = game.currentHand();
-        final Player player = hand.getCurrentPlayer();
+    private IntelDto quitInMailbox(UUID playerUuid){
+        final ResultHandler resultHandler = new ResultHandler(gameResultRepository, handResultRepository);
+        Game game = change(playerUuid, PossibleAction.QUIT, Hand::quit, resultHandler);
+        resultHandler.saveResults();
+        if(game.isDone()) return IntelConverter.toDto(game.getIntel());
 
-        hand.quit(player);
+        botTurns.schedule(gameRepository, playerUuid, game, botUseCase);
 
-        final ResultHandler resultHandler = new ResultHandler(gameResultRepository, handResultRepository);
-        final IntelDto gameResult = resultHandler.handle(game);
+        game = gameRepository.findGameByPlayerUuid(playerUuid).orElseThrow();
+        return IntelConverter.toDto(game.getIntel());
+    }
 
-        gameRepository.update(GameConverter.toDto(game));
-        if(gameResult != null) return gameResult;
+    //Runs as the single writer of the game, so the game read is the latest one.
+    private Game change(UUID playerUuid, PossibleAction action, BiConsumer<Hand, Player> change,
+                        ResultHandler resultHandler){
+        validateInput(playerUuid, action);
 
-        botUseCase.playWhenNecessary(game);
+        final Game game = gameRepository.findGameByPlayerUuid(playerUuid).orElseThrow();
+        final Hand hand = game.currentHand();
+        change.accept(hand, hand.getCurrentPlayer());
 
-        game = gameRepository.findByPlayerUuid(playerUuid).map(GameConverter::fromDto).orElseThrow();
-        return IntelConverter.toDto(game.getIntel());
+        if(resultHandler != null) resultHandler.handle(game);
+        gameRepository.updateGame(game);
+        return game;
     }
 
     private void validateInput(UUID usedUuid, PossibleAction raise) {
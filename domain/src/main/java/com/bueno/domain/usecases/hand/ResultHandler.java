@@ -22,15 +22,20 @@ package com.bueno.domain.usecases.hand;
 
 import com.bueno.domain.entities.game.Game;
 import com.bueno.domain.usecases.game.converter.GameResultConverter;
+import com.bueno.domain.usecases.game.dtos.GameResultDto;
 import com.bueno.domain.usecases.game.repos.GameResultRepository;
 import com.bueno.domain.usecases.hand.converter.HandResultConverter;
+import com.bueno.domain.usecases.hand.dtos.HandResultDto;
 import com.bueno.domain.usecases.intel.converters.IntelConverter;
 import com.bueno.domain.usecases.intel.dtos.IntelDto;
 
+//Results are only saved by saveResults(), once the game changes that produced them are stored.
 class ResultHandler {
 
     private final GameResultRepository gameResultRepository;
     private final HandResultRepository handResultRepository;
+    private HandResultDto handResult;
+    private GameResultDto gameResult;
 
     ResultHandler(GameResultRepository gameResultRepository, HandResultRepository handResultRepository) {
         this.gameResultRepository = gameResultRepository;
@@ -38,19 +43,25 @@ class ResultHandler {
     }
 
     IntelDto handle(Game game) {
+        handResult = null;
+        gameResult = null;
         game.currentHand().getResult().ifPresent(unused -> {
-            if (handResultRepository != null) handResultRepository.save(HandResultConverter.of(game));
+            handResult = HandResultConverter.of(game);
             updateGameStatus(game);
         });
 
         if (game.isDone()) {
-            if (gameResultRepository != null)
-                gameResultRepository.save(GameResultConverter.toDto(game));
+            gameResult = GameResultConverter.toDto(game);
             return IntelConverter.toDto(game.getIntel());
         }
         return null;
     }
 
+    void saveResults() {
+        if (handResult != null && handResultRepository != null) handResultRepository.save(handResult);
+        if (gameResult != null && gameResultRepository != null) gameResultRepository.save(gameResult);
+    }
+
     private void updateGameStatus(Game game) {
         game.updateScores();
         if (!game.isDone()) game.prepareNewHand();
@@ -0,0 +1,121 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.domain.usecases.hand;
+
+import com.bueno.domain.entities.game.Game;
+import com.bueno.domain.entities.hand.Hand;
+import com.bueno.domain.entities.player.Player;
+import com.bueno.domain.usecases.bot.BotTurnScheduler;
+import com.bueno.domain.usecases.bot.BotUseCase;
+import com.bueno.domain.usecases.executor.GameActionExecutor;
+import com.bueno.domain.usecases.game.repos.GameRepository;
+import com.bueno.domain.usecases.game.repos.GameResultRepository;
+import com.bueno.domain.usecases.game.service.GameTimers;
+import com.bueno.domain.usecases.game.service.GameTimers.ExpiredTurn;
+import com.bueno.domain.usecases.utils.exceptions.ConcurrentGameUpdateException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+public class TurnTimeoutUseCase {
+
+    private final GameRepository gameRepository;
+    private final GameResultRepository gameResultRepository;
+    private final HandResultRepository handResultRepository;
+    private final GameTimers timers;
+    private final BotUseCase botUseCase;
+    private final GameActionExecutor executor;
+    private final BotTurnScheduler botTurns;
+
+    public TurnTimeoutUseCase(GameRepository gameRepository,
+                              GameResultRepository gameResultRepository,
+                              HandResultRepository handResultRepository,
+                              GameTimers timers,
+                              GameActionExecutor executor) {
+        this(gameRepository, gameResultRepository, handResultRepository, timers, executor,
+                BotTurnScheduler.callerRuns());
+    }
+
+    @Autowired
+    public TurnTimeoutUseCase(GameRepository gameRepository,
+                              GameResultRepository gameResultRepository,
+                              HandResultRepository handResultRepository,
+                              GameTimers timers,
+                              GameActionExecutor executor,
+                              BotTurnScheduler botTurns) {
+        this.gameRepository = Objects.requireNonNull(gameRepository);
+        this.gameResultRepository = gameResultRepository;
+        this.handResultRepository = handResultRepository;
+        this.timers = Objects.requireNonNull(timers);
+        this.executor = Objects.requireNonNull(executor);
+        this.botTurns = Objects.requireNonNull(botTurns);
+        this.botUseCase = new BotUseCase(gameRepository, gameResultRepository, handResultRepository, botTurns);
+    }
+
+    //Forfeits the current hand of each player who did not play in time and returns the uuid of those players.
+    public List<UUID> forfeitExpiredTurns() {
+        final List<UUID> forfeiters = new ArrayList<>();
+        for (ExpiredTurn turn : timers.pollExpiredTurns()) {
+            try {
+                final boolean forfeited = executor.execute(turn.gameUuid(), () -> forfeitInMailbox(turn));
+                if (forfeited) forfeiters.add(turn.playerUuid());
+            } catch (ConcurrentGameUpdateException e) {
+                //The game changed after it was loaded, so the turn was played in the meantime.
+            }
+        }
+        return forfeiters;
+    }
+
+    private boolean forfeitInMailbox(ExpiredTurn turn) {
+        final Optional<Game> possibleGame = gameRepository.findGameByPlayerUuid(turn.playerUuid());
+        if (possibleGame.isEmpty()) return false;
+
+        final Game game = possibleGame.get();
+        if (!isStillTheSameTurn(game, turn)) return false;
+
+        final Hand hand = game.currentHand();
+        hand.forfeit(hand.getCurrentPlayer());
+
+        final ResultHandler resultHandler = new ResultHandler(gameResultRepository, handResultRepository);
+        resultHandler.handle(game);
+        gameRepository.updateGame(game);
+        resultHandler.saveResults();
+
+        if (!game.isDone()) botTurns.schedule(gameRepository, turn.playerUuid(), game, botUseCase);
+        return true;
+    }
+
+    //The turn may have been played between its timeout and this check, so only the very same pending turn is forfeited.
+    private boolean isStillTheSameTurn(Game game, ExpiredTurn turn) {
+        if (!game.getUuid().equals(turn.gameUuid()) || game.isDone()) return false;
+        if (game.handsPlayed() - 1 != turn.handIndex()) return false;
+        final Hand hand = game.currentHand();
+        if (hand.getResult().isPresent()) return false;
+        final Player currentPlayer = hand.getCurrentPlayer();
+        return currentPlayer != null && currentPlayer.getUuid().equals(turn.playerUuid());
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.domain.usecases.hand;
+
+import com.bueno.domain.usecases.hand.dtos.HandResultDto;
+import com.bueno.domain.usecases.utils.writebehind.WriteBehindQueue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Hand result repository that buffers results and writes them in batches to the underlying repository, keeping
+ * result storage out of the request path.
+ */
+public class WriteBehindHandResultRepository implements HandResultRepository, AutoCloseable {
+
+    private final WriteBehindQueue<HandResultDto> queue;
+
+    public WriteBehindHandResultRepository(HandResultRepository delegate, int capacity, int batchSize,
+                                           Duration flushInterval, Duration maxBlock) {
+        this.queue = new WriteBehindQueue<>("hand-results", capacity, batchSize, flushInterval, maxBlock,
+                delegate::saveAll);
+    }
+
+    @Override
+    public void save(HandResultDto handResultDto) {
+        queue.add(handResultDto);
+    }
+
+    @Override
+    public void saveAll(List<HandResultDto> handResultDtos) {
+        handResultDtos.forEach(queue::add);
+    }
+
+    public void flush() {
+        queue.flush();
+    }
+
+    public WriteBehindQueue<HandResultDto> queue() {
+        return queue;
+    }
+
+    @Override
+    public void close() {
+        queue.close();
+    }
+}
@@ -25,10 +25,9 @@ import com.bueno.domain.usecases.intel.dtos.CardDto;
 import com.bueno.domain.usecases.intel.dtos.IntelDto;
 
 import java.util.List;
-import java.util.Set;
 
 public record HandDto(CardDto vira, List<CardDto> dealtCards, List<CardDto> openCards,
-                      List<RoundDto> roundsPlayed, List<IntelDto> history, Set<String> possibleActions,
+                      List<RoundDto> roundsPlayed, List<IntelDto> history,
                       PlayerDto firstToPlay, PlayerDto lastToPlay, PlayerDto currentPlayer, PlayerDto lastBetRaiser, PlayerDto eventPlayer,
-                      CardDto cartToPlayAgainst, int points, int pointsProposal, PlayerDto winner, String state) {
+                      CardDto cartToPlayAgainst, int points, int pointsProposal, PlayerDto winner, int state) {
 }
\ No newline at end of file
@@ -23,7 +23,6 @@ package com.bueno.domain.usecases.hand.validator;
 import com.bueno.domain.entities.game.Game;
 import com.bueno.domain.entities.intel.PossibleAction;
 import com.bueno.domain.entities.player.Player;
-import com.bueno.domain.usecases.game.converter.GameConverter;
 import com.bueno.domain.usecases.game.repos.GameRepository;
 import com.bueno.domain.usecases.utils.exceptions.GameNotFoundException;
 import com.bueno.domain.usecases.utils.validation.Notification;
@@ -44,7 +43,7 @@ public class ActionValidator extends Validator<UUID> {
     @Override
     public Notification validate(UUID uuid) {
         if(uuid == null) throw new NullPointerException("UUID is null.");
-        final var game = gameRepository.findByPlayerUuid(uuid).map(GameConverter::fromDto)
+        final var game = gameRepository.findGameByPlayerUuid(uuid)
                 .orElseThrow(() -> new GameNotFoundException("User with UUID " + uuid + " is not in an active game."));
         if(game.isDone()) throw new GameNotFoundException("Game is over. Start a new game.");
 
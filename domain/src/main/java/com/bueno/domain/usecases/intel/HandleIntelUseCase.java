@@ -21,7 +21,7 @@
 package com.bueno.domain.usecases.intel;
 
 import com.bueno.domain.entities.game.Game;
-import com.bueno.domain.usecases.game.converter.GameConverter;
+import com.bueno.domain.usecases.executor.GameActionExecutor;
 import com.bueno.domain.usecases.game.repos.GameRepository;
 import com.bueno.domain.usecases.intel.converters.CardConverter;
 import com.bueno.domain.usecases.intel.converters.IntelConverter;
@@ -30,50 +30,85 @@ import com.bueno.domain.usecases.intel.dtos.IntelSinceDto;
 import com.bueno.domain.usecases.intel.dtos.OwnedCardsDto;
 import com.bueno.domain.usecases.intel.dtos.PlayerTurnDto;
 import com.bueno.domain.usecases.utils.exceptions.GameNotFoundException;
+import com.bueno.domain.usecases.utils.exceptions.IntelStreamUnavailableException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class HandleIntelUseCase {
 
     private final GameRepository repo;
+    private final IntelBroadcaster broadcaster;
+    private final GameActionExecutor executor;
 
+    //Without a broadcaster, as in clients reading the intel on demand, subscribing to the intel is not available.
     public HandleIntelUseCase(GameRepository repo) {
+        this(repo, null);
+    }
+
+    public HandleIntelUseCase(GameRepository repo, IntelBroadcaster broadcaster) {
+        this(repo, broadcaster, GameActionExecutor.callerRuns());
+    }
+
+    @Autowired
+    public HandleIntelUseCase(GameRepository repo, IntelBroadcaster broadcaster, GameActionExecutor executor) {
         this.repo = Objects.requireNonNull(repo);
+        this.broadcaster = broadcaster;
+        this.executor = Objects.requireNonNull(executor);
     }
 
     public IntelSinceDto findIntelSince(UUID uuid, Instant lastIntelTimestamp){
-        final var game = getGameOrThrow(uuid);
-        final var intelSince = game.getIntelSince(lastIntelTimestamp).stream()
-                .map(IntelConverter::toDto)
-                .collect(Collectors.toList());
-        return new IntelSinceDto(lastIntelTimestamp, intelSince);
+        return withGame(uuid, game -> {
+            final var intelSince = game.getIntelSince(lastIntelTimestamp).stream()
+                    .map(IntelConverter::toDto)
+                    .collect(Collectors.toList());
+            return new IntelSinceDto(lastIntelTimestamp, intelSince);
+        });
     }
 
     public IntelDto findLastIntel(UUID uuid){
-        final var game = getGameOrThrow(uuid);
-        return IntelConverter.toDto(game.getIntel());
+        return withGame(uuid, game -> IntelConverter.toDto(game.getIntel()));
     }
 
     public OwnedCardsDto ownedCards(UUID uuid){
-        final var game = getGameOrThrow(uuid);
-        final var player = game.getPlayer1().getUuid().equals(uuid) ? game.getPlayer1() : game.getPlayer2();
-        return new OwnedCardsDto(player.getCards().stream().map(CardConverter::toDto).collect(Collectors.toList()));
+        return withGame(uuid, game -> {
+            final var player = game.getPlayer1().getUuid().equals(uuid) ? game.getPlayer1() : game.getPlayer2();
+            return new OwnedCardsDto(player.getCards().stream().map(CardConverter::toDto).collect(Collectors.toList()));
+        });
     }
 
     public PlayerTurnDto isPlayerTurn(UUID uuid) {
-        final var game = getGameOrThrow(uuid);
-        final var playerTurn = uuid.equals(game.getIntel().currentPlayerUuid().orElse(null));
-        return new PlayerTurnDto(playerTurn);
+        return withGame(uuid, game -> {
+            final var playerTurn = uuid.equals(game.getIntel().currentPlayerUuid().orElse(null));
+            return new PlayerTurnDto(playerTurn);
+        });
+    }
+
+    public Optional<String> findVersionToken(UUID uuid) {
+        return repo.findVersionToken(Objects.requireNonNull(uuid, "UUID must not be null."));
+    }
+
+    //Without the timestamp of the last intel received, the subscription starts from the current intel of the game.
+    public IntelBroadcaster.Subscription subscribe(UUID uuid, Instant lastIntelTimestamp,
+                                                   Consumer<IntelDto> listener, Runnable onClose) {
+        if (broadcaster == null) throw new IntelStreamUnavailableException("Intel subscriptions are not available.");
+        //Intel is published by the single writer of the game, so subscribing there neither misses nor repeats any.
+        return executor.executeForPlayer(repo, Objects.requireNonNull(uuid, "UUID must not be null."),
+                () -> withGame(uuid, game -> broadcaster.subscribe(uuid, game, lastIntelTimestamp, listener, onClose)));
     }
 
-    private Game getGameOrThrow(UUID uuid) {
+    //Games read are snapshots no action changes, so queries do not wait for the single writer of the game.
+    private <T> T withGame(UUID uuid, Function<Game, T> query) {
         Objects.requireNonNull(uuid, "UUID must not be null.");
-        return repo.findByPlayerUuid(uuid).map(GameConverter::fromDto).orElseThrow(
-                () -> new GameNotFoundException("User with UUID " + uuid + " is not in an active game."));
+        return query.apply(repo.findGameByPlayerUuid(uuid).orElseThrow(
+                () -> new GameNotFoundException("User with UUID " + uuid + " is not in an active game.")));
     }
 }
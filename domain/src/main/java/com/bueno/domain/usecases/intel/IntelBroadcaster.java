@@ -0,0 +1,170 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+
+package com.bueno.domain.usecases.intel;
+
+import com.bueno.domain.entities.game.Game;
+import com.bueno.domain.entities.intel.Intel;
+import com.bueno.domain.usecases.intel.converters.IntelConverter;
+import com.bueno.domain.usecases.intel.dtos.IntelDto;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Pushes the intel produced by game changes to the players subscribed to them. A subscription starts from the intel
+ * following the last one its player received, and each subscription delivers its intel in order on the given executor,
+ * so a slow subscriber never holds the game it listens to. Subscribers falling more than {@code maxPending} intel
+ * behind are closed, and may subscribe again from the last intel they received.
+ */
+public class IntelBroadcaster {
+
+    private static final System.Logger log = System.getLogger(IntelBroadcaster.class.getName());
+
+    private final Executor executor;
+    private final int maxPending;
+    private final Map<UUID, Set<Subscription>> subscriptionsByGame = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+
+    public IntelBroadcaster(Executor executor, int maxPending) {
+        if (maxPending <= 0) throw new IllegalArgumentException("Maximum pending intel must be positive: " + maxPending);
+        this.executor = Objects.requireNonNull(executor);
+        this.maxPending = maxPending;
+    }
+
+    //Subscribing and publishing must run as the single writer of the game, so no intel is missed or repeated.
+    public Subscription subscribe(UUID playerUuid, Game game, Instant lastIntelTimestamp,
+                                  Consumer<IntelDto> listener, Runnable onClose) {
+        final Subscription subscription =
+                new Subscription(playerUuid, game.getUuid(), lastIntelTimestamp, listener, onClose);
+        subscription.offer(lastIntelTimestamp == null ? List.of(game.getIntel()) : game.getIntelSince(lastIntelTimestamp));
+        synchronized (subscription) {
+            if (!subscription.closed) {
+                subscriptionsByGame.computeIfAbsent(game.getUuid(), uuid -> ConcurrentHashMap.newKeySet())
+                        .add(subscription);
+                subscribers.incrementAndGet();
+            }
+        }
+        return subscription;
+    }
+
+    public void publish(Game game) {
+        final Set<Subscription> gameSubscriptions = subscriptionsByGame.get(game.getUuid());
+        if (gameSubscriptions == null) return;
+        gameSubscriptions.forEach(subscription -> subscription.offer(game.getIntelSince(subscription.lastOffered)));
+    }
+
+    //Closes the subscriptions to a game that is gone, so its players stop waiting for intel that will never come.
+    public void closeGame(UUID gameUuid) {
+        final Set<Subscription> gameSubscriptions = subscriptionsByGame.get(gameUuid);
+        if (gameSubscriptions == null) return;
+        List.copyOf(gameSubscriptions).forEach(Subscription::close);
+    }
+
+    public boolean isSubscribed(UUID gameUuid) {
+        return subscriptionsByGame.containsKey(gameUuid);
+    }
+
+    public int subscribers() {
+        return subscribers.get();
+    }
+
+    public final class Subscription implements AutoCloseable {
+        private final UUID playerUuid;
+        private final UUID gameUuid;
+        private final Consumer<IntelDto> listener;
+        private final Runnable onClose;
+        private final Deque<IntelDto> pending = new ArrayDeque<>();
+        private volatile Instant lastOffered;
+        private boolean draining;
+        private boolean closed;
+
+        private Subscription(UUID playerUuid, UUID gameUuid, Instant lastOffered, Consumer<IntelDto> listener,
+                             Runnable onClose) {
+            this.playerUuid = Objects.requireNonNull(playerUuid);
+            this.gameUuid = Objects.requireNonNull(gameUuid);
+            this.lastOffered = lastOffered;
+            this.listener = Objects.requireNonNull(listener);
+            this.onClose = Objects.requireNonNull(onClose);
+        }
+
+        private void offer(List<Intel> intel) {
+            if (intel.isEmpty()) return;
+            synchronized (this) {
+                if (closed) return;
+                intel.forEach(item -> pending.add(IntelConverter.toDto(item)));
+                lastOffered = intel.get(intel.size() - 1).timestamp();
+                if (pending.size() <= maxPending) {
+                    if (!draining) {
+                        draining = true;
+                        executor.execute(this::drain);
+                    }
+                    return;
+                }
+            }
+            log.log(System.Logger.Level.WARNING, "Closing intel subscription of " + playerUuid + " falling behind.");
+            close();
+        }
+
+        private void drain() {
+            while (true) {
+                final IntelDto next;
+                synchronized (this) {
+                    next = closed ? null : pending.poll();
+                    if (next == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    listener.accept(next);
+                } catch (RuntimeException e) {
+                    log.log(System.Logger.Level.DEBUG, "Closing intel subscription of " + playerUuid + " failing to deliver.", e);
+                    close();
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            synchronized (this) {
+                if (closed) return;
+                closed = true;
+                pending.clear();
+            }
+            subscriptionsByGame.computeIfPresent(gameUuid, (uuid, gameSubscriptions) -> {
+                if (gameSubscriptions.remove(this)) subscribers.decrementAndGet();
+                return gameSubscriptions.isEmpty() ? null : gameSubscriptions;
+            });
+            onClose.run();
+        }
+    }
+}
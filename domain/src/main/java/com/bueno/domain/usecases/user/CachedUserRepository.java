@@ -0,0 +1,188 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+
+package com.bueno.domain.usecases.user;
+
+import com.bueno.domain.usecases.user.dtos.ApplicationUserDto;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of users in front of a slower user repository, looked up by uuid, username or email. Users are
+ * evicted after a time to live, or the least recently used ones when the cache is full, and invalidated when saved.
+ * Lookups of users not found are not cached, so a registered user is visible as soon as it is saved. The cache is
+ * guarded by a single lock, held only while its maps are read or changed and never while the store is accessed.
+ */
+public class CachedUserRepository implements UserRepository {
+
+    private final UserRepository store;
+    private final int maxUsers;
+    private final Duration timeToLive;
+    private final Clock clock;
+    //In access order, so the first entry is the least recently used one.
+    private final Map<UUID, Entry> users = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, UUID> uuidByUsername = new HashMap<>();
+    private final Map<String, UUID> uuidByEmail = new HashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CachedUserRepository(UserRepository store, int maxUsers, Duration timeToLive) {
+        this(store, maxUsers, timeToLive, Clock.systemUTC());
+    }
+
+    CachedUserRepository(UserRepository store, int maxUsers, Duration timeToLive, Clock clock) {
+        if (maxUsers <= 0) throw new IllegalArgumentException("Maximum number of users must be positive: " + maxUsers);
+        this.store = Objects.requireNonNull(store);
+        this.maxUsers = maxUsers;
+        this.timeToLive = Objects.requireNonNull(timeToLive);
+        this.clock = Objects.requireNonNull(clock);
+    }
+
+    @Override
+    public void save(ApplicationUserDto user) {
+        try {
+            store.save(user);
+        } finally {
+            invalidate(user);
+        }
+    }
+
+    @Override
+    public Optional<ApplicationUserDto> findByUsername(String username) {
+        return find(() -> indexed(uuidByUsername, username), user -> Objects.equals(user.username(), username),
+                () -> store.findByUsername(username));
+    }
+
+    @Override
+    public Optional<ApplicationUserDto> findByEmail(String email) {
+        return find(() -> indexed(uuidByEmail, email), user -> Objects.equals(user.email(), email),
+                () -> store.findByEmail(email));
+    }
+
+    @Override
+    public Optional<ApplicationUserDto> findByUuid(UUID uuid) {
+        return find(() -> uuid, user -> true, () -> store.findByUuid(uuid));
+    }
+
+    public Metrics metrics() {
+        final long hitCount = hits.sum();
+        final long missCount = misses.sum();
+        final long lookups = hitCount + missCount;
+        final int size;
+        synchronized (this) {
+            size = users.size();
+        }
+        return new Metrics(size, hitCount, missCount, evictions.sum(), lookups == 0 ? 0 : (double) hitCount / lookups);
+    }
+
+    private Optional<ApplicationUserDto> find(Supplier<UUID> cachedUuid, Predicate<ApplicationUserDto> matches,
+                                              Supplier<Optional<ApplicationUserDto>> loader) {
+        final long invalidationsBeforeLoad;
+        synchronized (this) {
+            final UUID uuid = cachedUuid.get();
+            final Entry cached = uuid == null ? null : users.get(uuid);
+            final long now = clock.millis();
+            if (cached != null && cached.expiresAt > now && matches.test(cached.user)) {
+                hits.increment();
+                return Optional.of(cached.user);
+            }
+            if (cached != null && cached.expiresAt <= now) remove(cached);
+            //A user saved while loading may have been read before the change, so it is only cached if nothing was
+            //saved meanwhile.
+            invalidationsBeforeLoad = invalidations.get();
+        }
+        misses.increment();
+        final Optional<ApplicationUserDto> loaded = loader.get();
+        loaded.ifPresent(user -> cache(user, invalidationsBeforeLoad));
+        return loaded;
+    }
+
+    private synchronized void cache(ApplicationUserDto user, long invalidationsBeforeLoad) {
+        if (user.uuid() == null || invalidations.get() != invalidationsBeforeLoad) return;
+        final long now = clock.millis();
+        final Entry previous = users.put(user.uuid(), new Entry(user, now + timeToLive.toMillis()));
+        if (previous != null) unindex(previous);
+        if (user.username() != null) uuidByUsername.put(user.username(), user.uuid());
+        if (user.email() != null) uuidByEmail.put(user.email(), user.uuid());
+        if (users.size() > maxUsers) evictLeastRecentlyUsed();
+    }
+
+    private synchronized void invalidate(ApplicationUserDto user) {
+        invalidations.incrementAndGet();
+        if (user.uuid() != null) {
+            final Entry removed = users.remove(user.uuid());
+            if (removed != null) unindex(removed);
+        }
+        //Usernames and emails may have been taken from another cached user.
+        removeIndexed(indexed(uuidByUsername, user.username()));
+        removeIndexed(indexed(uuidByEmail, user.email()));
+    }
+
+    private static UUID indexed(Map<String, UUID> index, String key) {
+        return key == null ? null : index.get(key);
+    }
+
+    private void removeIndexed(UUID uuid) {
+        if (uuid == null) return;
+        final Entry removed = users.remove(uuid);
+        if (removed != null) unindex(removed);
+    }
+
+    private synchronized void remove(Entry entry) {
+        if (users.remove(entry.user.uuid(), entry)) unindex(entry);
+    }
+
+    private void evictLeastRecentlyUsed() {
+        remove(users.values().iterator().next());
+        evictions.increment();
+    }
+
+    private void unindex(Entry entry) {
+        if (entry.user.username() != null) uuidByUsername.remove(entry.user.username(), entry.user.uuid());
+        if (entry.user.email() != null) uuidByEmail.remove(entry.user.email(), entry.user.uuid());
+    }
+
+    public record Metrics(int size, long hits, long misses, long evictions, double hitRate) {
+    }
+
+    private static final class Entry {
+        private final ApplicationUserDto user;
+        private final long expiresAt;
+
+        private Entry(ApplicationUserDto user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
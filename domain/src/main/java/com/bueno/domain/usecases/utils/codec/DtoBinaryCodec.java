@@ -0,0 +1,428 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+
+package com.bueno.domain.usecases.utils.codec;
+
+import com.bueno.domain.entities.deck.Rank;
+import com.bueno.domain.entities.deck.Suit;
+import com.bueno.domain.entities.intel.PossibleAction;
+import com.bueno.domain.usecases.game.dtos.GameDto;
+import com.bueno.domain.usecases.game.dtos.PlayerDto;
+import com.bueno.domain.usecases.hand.dtos.HandDto;
+import com.bueno.domain.usecases.hand.dtos.RoundDto;
+import com.bueno.domain.usecases.intel.dtos.CardDto;
+import com.bueno.domain.usecases.intel.dtos.IntelDto;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Versioned binary format for {@link GameDto} and {@link IntelDto}. Cards are written as a single byte, UUIDs as two
+ * longs, possible actions as a bitmask and repeated strings, like usernames, as references to their first occurrence.
+ * Messages are decoded straight from a {@link ByteBuffer}, which may be a heap, direct or mapped buffer, starting at
+ * its position and leaving it right after the message, so consecutive messages can be read from the same buffer.
+ * Version 1 messages, which also held the possible actions of each hand, are still decoded.
+ */
+public final class DtoBinaryCodec {
+
+    public static final int VERSION = 2;
+
+    //Hands held their possible actions, which are now derived from the state of the hand.
+    private static final int HAND_ACTIONS_VERSION = 1;
+
+    private static final byte MAGIC = (byte) 0xC7;
+    private static final byte GAME = 1;
+    private static final byte INTEL = 2;
+    private static final int NULL_CARD = 0xFF;
+    private static final String RANK_SYMBOLS = symbols(Rank.values());
+    private static final String SUIT_SYMBOLS = symbols(Suit.values());
+    private static final CardDto[] CARDS = new CardDto[RANK_SYMBOLS.length() << 3];
+    @SuppressWarnings("unchecked")
+    private static final Set<String>[] ACTIONS = new Set[1 << PossibleAction.values().length];
+
+    static {
+        for (int rank = 0; rank < RANK_SYMBOLS.length(); rank++)
+            for (int suit = 0; suit < SUIT_SYMBOLS.length(); suit++)
+                CARDS[rank << 3 | suit] = new CardDto(RANK_SYMBOLS.substring(rank, rank + 1), SUIT_SYMBOLS.substring(suit, suit + 1));
+        for (int mask = 0; mask < ACTIONS.length; mask++)
+            ACTIONS[mask] = PossibleAction.setOf(mask).stream().map(PossibleAction::name).collect(Collectors.toUnmodifiableSet());
+    }
+
+    private DtoBinaryCodec() {}
+
+    public static byte[] encode(GameDto game) {
+        final Output out = new Output(GAME);
+        out.uuid(game.gameUuid());
+        out.dateTime(game.timestamp());
+        out.player(game.player1());
+        out.player(game.player2());
+        out.player(game.firstToPlay());
+        out.player(game.lastToPlay());
+        out.list(game.hands(), out::hand);
+        out.longValue(game.version());
+        return out.toByteArray();
+    }
+
+    public static byte[] encode(IntelDto intel) {
+        final Output out = new Output(INTEL);
+        out.intel(intel);
+        return out.toByteArray();
+    }
+
+    public static GameDto decodeGame(ByteBuffer buffer) {
+        return decode(buffer, GAME, in -> new GameDto(in.uuid(), in.dateTime(), in.player(), in.player(), in.player(),
+                in.player(), in.list(in::hand), in.longValue()));
+    }
+
+    public static IntelDto decodeIntel(ByteBuffer buffer) {
+        return decode(buffer, INTEL, Input::intel);
+    }
+
+    private static <T> T decode(ByteBuffer buffer, byte kind, Function<Input, T> reader) {
+        final ByteOrder order = buffer.order();
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        try {
+            if (buffer.get() != MAGIC) throw new IllegalArgumentException("Buffer does not hold an encoded message.");
+            final int version = buffer.get();
+            if (version != VERSION && version != HAND_ACTIONS_VERSION)
+                throw new IllegalArgumentException("Unsupported codec version: " + version);
+            final byte encodedKind = buffer.get();
+            if (encodedKind != kind)
+                throw new IllegalArgumentException("Expected message of kind " + kind + " but found " + encodedKind);
+            return reader.apply(new Input(buffer, version));
+        } finally {
+            buffer.order(order);
+        }
+    }
+
+    private static String symbols(Enum<?>[] values) {
+        return Arrays.stream(values).map(Object::toString).collect(Collectors.joining());
+    }
+
+    private static final class Output {
+        private final Map<String, Integer> strings = new HashMap<>();
+        private byte[] bytes = new byte[512];
+        private int size;
+
+        Output(byte kind) {
+            byteValue(MAGIC);
+            byteValue(VERSION);
+            byteValue(kind);
+        }
+
+        void intel(IntelDto intel) {
+            instant(intel.timestamp());
+            byteValue((intel.isGameDone() ? 1 : 0) | (intel.isMaoDeOnze() ? 2 : 0));
+            uuid(intel.gameWinner());
+            nullableInt(intel.handPoints());
+            nullableInt(intel.handPointsProposal());
+            list(intel.roundWinnersUsernames(), winner -> string(winner.orElse(null)));
+            list(intel.roundWinnersUuid(), winner -> uuid(winner.orElse(null)));
+            intValue(intel.roundsPlayed());
+            card(intel.vira());
+            list(intel.openCards(), this::card);
+            string(intel.handWinner());
+            uuid(intel.currentPlayerUuid());
+            intValue(intel.currentPlayerScore());
+            string(intel.currentPlayerUsername());
+            intValue(intel.currentOpponentScore());
+            string(intel.currentOpponentUsername());
+            card(intel.cardToPlayAgainst());
+            list(intel.players(), this::player);
+            string(intel.event());
+            uuid(intel.eventPlayerUuid());
+            string(intel.eventPlayerUsername());
+            actions(intel.possibleActions());
+        }
+
+        void hand(HandDto hand) {
+            card(hand.vira());
+            list(hand.dealtCards(), this::card);
+            list(hand.openCards(), this::card);
+            list(hand.roundsPlayed(), this::round);
+            list(hand.history(), this::intel);
+            player(hand.firstToPlay());
+            player(hand.lastToPlay());
+            player(hand.currentPlayer());
+            player(hand.lastBetRaiser());
+            player(hand.eventPlayer());
+            card(hand.cartToPlayAgainst());
+            intValue(hand.points());
+            intValue(hand.pointsProposal());
+            player(hand.winner());
+            intValue(hand.state());
+        }
+
+        void round(RoundDto round) {
+            player(round.firstToPlay());
+            player(round.lastToPlay());
+            player(round.winner());
+            card(round.vira());
+            card(round.firstCard());
+            card(round.lastCard());
+        }
+
+        void player(PlayerDto player) {
+            if (player == null) {
+                byteValue(0);
+                return;
+            }
+            byteValue(player.isBot() ? 2 : 1);
+            string(player.username());
+            uuid(player.uuid());
+            intValue(player.score());
+            list(player.cards(), this::card);
+        }
+
+        void card(CardDto card) {
+            if (card == null) byteValue(NULL_CARD);
+            else byteValue(RANK_SYMBOLS.indexOf(card.rank()) << 3 | SUIT_SYMBOLS.indexOf(card.suit()));
+        }
+
+        void actions(Set<String> actions) {
+            if (actions == null) {
+                byteValue(0);
+                return;
+            }
+            int mask = 0;
+            for (String action : actions) mask |= PossibleAction.valueOf(action).mask();
+            byteValue(mask + 1);
+        }
+
+        //Strings are written once and later referenced by the order in which they were first written.
+        void string(String value) {
+            if (value == null) {
+                unsignedVarInt(0);
+                return;
+            }
+            final Integer index = strings.get(value);
+            if (index != null) {
+                unsignedVarInt(index + 2);
+                return;
+            }
+            strings.put(value, strings.size());
+            final byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            unsignedVarInt(1);
+            unsignedVarInt(utf8.length);
+            ensure(utf8.length);
+            System.arraycopy(utf8, 0, bytes, size, utf8.length);
+            size += utf8.length;
+        }
+
+        <T> void list(List<T> values, Consumer<T> writer) {
+            if (values == null) {
+                unsignedVarInt(0);
+                return;
+            }
+            unsignedVarInt(values.size() + 1);
+            values.forEach(writer);
+        }
+
+        void uuid(UUID value) {
+            byteValue(value == null ? 0 : 1);
+            if (value == null) return;
+            longValue(value.getMostSignificantBits());
+            longValue(value.getLeastSignificantBits());
+        }
+
+        void instant(Instant value) {
+            byteValue(value == null ? 0 : 1);
+            if (value == null) return;
+            longValue(value.getEpochSecond());
+            unsignedVarInt(value.getNano());
+        }
+
+        void dateTime(LocalDateTime value) {
+            instant(value == null ? null : value.toInstant(ZoneOffset.UTC));
+        }
+
+        void nullableInt(Integer value) {
+            byteValue(value == null ? 0 : 1);
+            if (value != null) intValue(value);
+        }
+
+        void intValue(int value) {
+            unsignedVarInt(value << 1 ^ value >> 31);
+        }
+
+        void unsignedVarInt(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                bytes[size++] = (byte) (value & 0x7F | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void longValue(long value) {
+            ensure(Long.BYTES);
+            for (int shift = Long.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) bytes[size++] = (byte) (value >>> shift);
+        }
+
+        void byteValue(int value) {
+            ensure(1);
+            bytes[size++] = (byte) value;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+
+        private void ensure(int length) {
+            if (size + length > bytes.length) bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + length));
+        }
+    }
+
+    private static final class Input {
+        private final ByteBuffer buffer;
+        private final int version;
+        private final List<String> strings = new ArrayList<>();
+
+        Input(ByteBuffer buffer, int version) {
+            this.buffer = buffer;
+            this.version = version;
+        }
+
+        IntelDto intel() {
+            final Instant timestamp = instant();
+            final int flags = buffer.get();
+            return new IntelDto(timestamp, (flags & 1) != 0, uuid(), (flags & 2) != 0, nullableInt(), nullableInt(),
+                    list(() -> Optional.ofNullable(string())), list(() -> Optional.ofNullable(uuid())), intValue(),
+                    card(), list(this::card), string(), uuid(), intValue(), string(), intValue(), string(), card(),
+                    list(this::player), string(), uuid(), string(), actions());
+        }
+
+        HandDto hand() {
+            final CardDto vira = card();
+            final List<CardDto> dealtCards = list(this::card);
+            final List<CardDto> openCards = list(this::card);
+            final List<RoundDto> rounds = list(this::round);
+            final List<IntelDto> history = list(this::intel);
+            if (version == HAND_ACTIONS_VERSION) actions();
+            return new HandDto(vira, dealtCards, openCards, rounds, history, player(), player(), player(), player(),
+                    player(), card(), intValue(), intValue(), player(), intValue());
+        }
+
+        RoundDto round() {
+            return new RoundDto(player(), player(), player(), card(), card(), card());
+        }
+
+        PlayerDto player() {
+            final int presence = buffer.get();
+            if (presence == 0) return null;
+            return new PlayerDto(string(), uuid(), intValue(), presence == 2, list(this::card));
+        }
+
+        CardDto card() {
+            final int code = Byte.toUnsignedInt(buffer.get());
+            if (code == NULL_CARD) return null;
+            if (code >= CARDS.length || CARDS[code] == null) throw new IllegalArgumentException("Invalid card code: " + code);
+            return CARDS[code];
+        }
+
+        Set<String> actions() {
+            final int mask = Byte.toUnsignedInt(buffer.get());
+            if (mask == 0) return null;
+            if (mask > ACTIONS.length) throw new IllegalArgumentException("Invalid action mask: " + (mask - 1));
+            return ACTIONS[mask - 1];
+        }
+
+        String string() {
+            final int reference = unsignedVarInt();
+            if (reference == 0) return null;
+            if (reference > 1) return strings.get(reference - 2);
+            final int length = unsignedVarInt();
+            final String value;
+            if (buffer.hasArray()) {
+                value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+                buffer.position(buffer.position() + length);
+            } else {
+                value = StandardCharsets.UTF_8.decode(buffer.slice(buffer.position(), length)).toString();
+                buffer.position(buffer.position() + length);
+            }
+            strings.add(value);
+            return value;
+        }
+
+        <T> List<T> list(Supplier<T> reader) {
+            final int size = unsignedVarInt() - 1;
+            if (size < 0) return null;
+            final List<T> values = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) values.add(reader.get());
+            return values;
+        }
+
+        UUID uuid() {
+            if (buffer.get() == 0) return null;
+            return new UUID(buffer.getLong(), buffer.getLong());
+        }
+
+        Instant instant() {
+            if (buffer.get() == 0) return null;
+            final long seconds = buffer.getLong();
+            return Instant.ofEpochSecond(seconds, unsignedVarInt());
+        }
+
+        LocalDateTime dateTime() {
+            final Instant instant = instant();
+            return instant == null ? null : LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+        }
+
+        Integer nullableInt() {
+            return buffer.get() == 0 ? null : intValue();
+        }
+
+        int intValue() {
+            final int value = unsignedVarInt();
+            return value >>> 1 ^ -(value & 1);
+        }
+
+        int unsignedVarInt() {
+            int value = 0;
+            for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+                final byte current = buffer.get();
+                value |= (current & 0x7F) << shift;
+                if (current >= 0) return value;
+            }
+            throw new IllegalArgumentException("Malformed variable length integer.");
+        }
+
+        long longValue() {
+            return buffer.getLong();
+        }
+    }
+}
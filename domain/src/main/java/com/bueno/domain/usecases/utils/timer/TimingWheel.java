@@ -0,0 +1,175 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.domain.usecases.utils.timer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hierarchical timing wheel. Each key is scheduled at an instant, in epoch milliseconds, and is returned once by
+ * {@link #advanceTo(long)} when the wheel reaches that instant. Scheduling, rescheduling and cancelling cost O(1),
+ * and advancing costs O(expired keys + elapsed ticks), since keys in coarser levels are only cascaded to the finer
+ * ones when their slot is reached. Keys scheduled in the past expire on the next advance.
+ */
+public class TimingWheel<K> {
+
+    private final long tickMillis;
+    private final int slots;
+    private final List<List<Set<K>>> levels = new ArrayList<>();
+    private final Map<K, Timer<K>> timers = new HashMap<>();
+    private final List<K> overdue = new ArrayList<>();
+    private long currentTick;
+
+    public TimingWheel(long tickMillis, int slots, int levels, long startMillis) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("Tick must be positive: " + tickMillis);
+        if (slots < 2) throw new IllegalArgumentException("Wheel must have at least two slots: " + slots);
+        if (levels <= 0) throw new IllegalArgumentException("Wheel must have at least one level: " + levels);
+        this.tickMillis = tickMillis;
+        this.slots = slots;
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+        for (int level = 0; level < levels; level++) {
+            final List<Set<K>> buckets = new ArrayList<>(slots);
+            for (int slot = 0; slot < slots; slot++) buckets.add(new HashSet<>());
+            this.levels.add(buckets);
+        }
+    }
+
+    public synchronized void schedule(K key, long atMillis) {
+        cancel(key);
+        final Timer<K> timer = new Timer<>(key, Math.floorDiv(atMillis + tickMillis - 1, tickMillis));
+        timers.put(key, timer);
+        place(timer);
+    }
+
+    //Schedules the key unless it is already scheduled, so an earlier schedule from another thread is not replaced.
+    public synchronized boolean scheduleIfAbsent(K key, long atMillis) {
+        if (timers.containsKey(key)) return false;
+        schedule(key, atMillis);
+        return true;
+    }
+
+    public synchronized boolean cancel(K key) {
+        final Timer<K> timer = timers.remove(key);
+        if (timer == null) return false;
+        if (timer.bucket != null) timer.bucket.remove(key);
+        else overdue.remove(key);
+        return true;
+    }
+
+    public synchronized List<K> advanceTo(long nowMillis) {
+        final long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        final List<K> expired = new ArrayList<>();
+        drainOverdue(expired);
+        while (currentTick < targetTick) {
+            if (timers.isEmpty()) {
+                currentTick = targetTick;
+                break;
+            }
+            currentTick++;
+            cascade();
+            expire(levels.get(0).get(slotOf(currentTick, 0)), expired);
+            drainOverdue(expired);
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return timers.size();
+    }
+
+    public synchronized boolean contains(K key) {
+        return timers.containsKey(key);
+    }
+
+    private void place(Timer<K> timer) {
+        final long delay = timer.expirationTick - currentTick;
+        if (delay <= 0) {
+            timer.bucket = null;
+            overdue.add(timer.key);
+            return;
+        }
+        int level = 0;
+        long span = slots;
+        while (delay >= span && level < levels.size() - 1) {
+            level++;
+            span *= slots;
+        }
+        final Set<K> bucket = levels.get(level).get(slotOf(timer.expirationTick, level));
+        bucket.add(timer.key);
+        timer.bucket = bucket;
+    }
+
+    //Moves the keys of the coarser slots that start at the current tick to the finer levels, from top to bottom.
+    private void cascade() {
+        for (int level = levels.size() - 1; level > 0; level--) {
+            if (currentTick % ticksPerSlot(level) != 0) continue;
+            final Set<K> bucket = levels.get(level).get(slotOf(currentTick, level));
+            final List<K> keys = new ArrayList<>(bucket);
+            bucket.clear();
+            keys.forEach(key -> place(timers.get(key)));
+        }
+    }
+
+    private void expire(Set<K> bucket, List<K> expired) {
+        final List<K> keys = new ArrayList<>(bucket);
+        bucket.clear();
+        for (K key : keys) {
+            final Timer<K> timer = timers.get(key);
+            //Keys beyond the span of the top level share slots with earlier ones and must wait another turn.
+            if (timer.expirationTick > currentTick) place(timer);
+            else {
+                timers.remove(key);
+                expired.add(key);
+            }
+        }
+    }
+
+    private void drainOverdue(List<K> expired) {
+        overdue.forEach(timers::remove);
+        expired.addAll(overdue);
+        overdue.clear();
+    }
+
+    private int slotOf(long tick, int level) {
+        return (int) Math.floorMod(tick / ticksPerSlot(level), (long) slots);
+    }
+
+    private long ticksPerSlot(int level) {
+        long ticks = 1;
+        for (int i = 0; i < level; i++) ticks *= slots;
+        return ticks;
+    }
+
+    private static final class Timer<K> {
+        private final K key;
+        private final long expirationTick;
+        private Set<K> bucket;
+
+        private Timer(K key, long expirationTick) {
+            this.key = key;
+            this.expirationTick = expirationTick;
+        }
+    }
+}
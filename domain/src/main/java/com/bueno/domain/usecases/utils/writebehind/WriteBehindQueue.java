@@ -0,0 +1,207 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.domain.usecases.utils.writebehind;
+
+import com.bueno.domain.usecases.utils.exceptions.WriteBehindRejectedException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Bounded buffer of items written in batches by a background thread. A batch is written as soon as it is full, or
+ * after the flush interval if items are waiting. Items only leave the buffer while the write lock is held, so a flush
+ * returns only after every item added before it has been written. When the buffer is full, producers wait up to the
+ * maximum block time and then their item is rejected with a {@link WriteBehindRejectedException} and counted, so a
+ * slow store pushes back on producers instead of growing the buffer or being written from their threads. A batch the
+ * background thread can not write is kept and retried until the store accepts it, while a flush throws the failure of
+ * the store after a few attempts. Closing the queue writes every buffered item, and only the items it still can not
+ * write are dropped. Items added after closing are written once by their producer, which gets the failure if any.
+ */
+public class WriteBehindQueue<T> implements AutoCloseable {
+
+    private static final System.Logger log = System.getLogger(WriteBehindQueue.class.getName());
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_DELAY_MILLIS = 500;
+
+    private final String name;
+    private final BlockingQueue<T> buffer;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Duration maxBlock;
+    private final Consumer<List<T>> writer;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final List<T> pending;
+    private final AtomicLong writtenItems = new AtomicLong();
+    private final AtomicLong droppedItems = new AtomicLong();
+    private final AtomicLong blockedOffers = new AtomicLong();
+    private final AtomicLong rejectedItems = new AtomicLong();
+    private final Thread thread;
+    private volatile boolean closed;
+
+    public WriteBehindQueue(String name, int capacity, int batchSize, Duration flushInterval, Duration maxBlock,
+                            Consumer<List<T>> writer) {
+        if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        if (batchSize <= 0) throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        this.name = Objects.requireNonNull(name);
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushInterval = Objects.requireNonNull(flushInterval);
+        this.maxBlock = Objects.requireNonNull(maxBlock);
+        this.writer = Objects.requireNonNull(writer);
+        this.pending = new ArrayList<>(batchSize);
+        this.thread = new Thread(this::run, name + "-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    public void add(T item) {
+        Objects.requireNonNull(item);
+        if (!closed && buffer.offer(item)) {
+            if (buffer.size() >= batchSize) LockSupport.unpark(thread);
+            return;
+        }
+        blockedOffers.incrementAndGet();
+        LockSupport.unpark(thread);
+        try {
+            if (!closed && buffer.offer(item, maxBlock.toMillis(), TimeUnit.MILLISECONDS)) return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (closed) {
+            writer.accept(List.of(item));
+            writtenItems.incrementAndGet();
+            return;
+        }
+        rejectedItems.incrementAndGet();
+        throw new WriteBehindRejectedException(
+                name + " is full and rejected an item after waiting " + maxBlock.toMillis() + " ms.");
+    }
+
+    //Writes every buffered item before returning. If the store fails, the items not written stay buffered.
+    public void flush() {
+        writeLock.lock();
+        try {
+            while (!pending.isEmpty() || !buffer.isEmpty()) writePending();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public int size() {
+        return buffer.size();
+    }
+
+    public long writtenItems() {
+        return writtenItems.get();
+    }
+
+    public long droppedItems() {
+        return droppedItems.get();
+    }
+
+    public long blockedOffers() {
+        return blockedOffers.get();
+    }
+
+    public long rejectedItems() {
+        return rejectedItems.get();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writeLock.lock();
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            final int lost = pending.size() + buffer.size();
+            pending.clear();
+            buffer.clear();
+            droppedItems.addAndGet(lost);
+            log.log(System.Logger.Level.ERROR, name + " dropped " + lost + " items it could not write on close.", e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void run() {
+        while (!closed) {
+            if (buffer.size() < batchSize) LockSupport.parkNanos(this, flushInterval.toNanos());
+            if (closed) return;
+            boolean failed = false;
+            writeLock.lock();
+            try {
+                writePending();
+            } catch (RuntimeException e) {
+                failed = true;
+                log.log(System.Logger.Level.ERROR, name + " keeps " + pending.size() + " items to retry.", e);
+            } finally {
+                writeLock.unlock();
+            }
+            if (failed) pause();
+        }
+    }
+
+    //Writes the batch kept from a failed write, or else the next batch from the buffer. Must hold the write lock.
+    private void writePending() {
+        if (pending.isEmpty()) buffer.drainTo(pending, batchSize);
+        if (pending.isEmpty()) return;
+        write(pending);
+        pending.clear();
+    }
+
+    private void write(List<T> batch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                writer.accept(List.copyOf(batch));
+                writtenItems.addAndGet(batch.size());
+                return;
+            } catch (RuntimeException e) {
+                if (attempt == MAX_ATTEMPTS) throw e;
+                log.log(System.Logger.Level.WARNING, name + " could not write " + batch.size() + " items.", e);
+                pause();
+            }
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(RETRY_DELAY_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -12,8 +12,13 @@ module domain {
     exports com.bueno.domain.usecases.intel;
     exports com.bueno.domain.usecases.intel.dtos;
     exports com.bueno.domain.usecases.hand;
+    exports com.bueno.domain.usecases.bot;
     exports com.bueno.domain.usecases.bot.providers;
     exports com.bueno.domain.usecases.utils.exceptions;
     exports com.bueno.domain.usecases.hand.dtos;
     exports com.bueno.domain.usecases.game.repos;
+    exports com.bueno.domain.usecases.game.service;
+    exports com.bueno.domain.usecases.executor;
+    exports com.bueno.domain.usecases.utils.writebehind;
+    exports com.bueno.domain.usecases.utils.codec;
 }
\ No newline at end of file
@@ -190,4 +190,71 @@ class GameTest {
 
         assertThat(new Game(player1, player2, uuid, new Deck()).toString()).isEqualTo(expected);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should fork game without affecting the original one")
+    void shouldForkGameWithoutAffectingTheOriginalOne() {
+        final Game game = new Game(Player.of(UUID.randomUUID(), "Player1"), Player.ofBot("Player2"));
+        final Game fork = game.fork(42);
+        final Hand forkedHand = fork.currentHand();
+        final Card card = fork.getFirstToPlay().getCards().get(0);
+
+        forkedHand.playFirstCard(fork.getFirstToPlay(), fork.getFirstToPlay().play(card));
+
+        SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(fork).as("Game identity").isEqualTo(game);
+        softly.assertThat(game.getFirstToPlay().getCards()).as("Original cards").contains(card);
+        softly.assertThat(game.currentHand().getOpenCards()).as("Original open cards").doesNotContain(card);
+        softly.assertThat(game.currentHand().getIntelHistory()).as("Original history").hasSize(1);
+        softly.assertThat(forkedHand.getIntelHistory()).as("Forked history").hasSize(2);
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Should copy game keeping its version without affecting the original one")
+    void shouldCopyGameKeepingItsVersionWithoutAffectingTheOriginalOne() {
+        final Game game = new Game(Player.of(UUID.randomUUID(), "Player1"), Player.ofBot("Player2"));
+        game.incrementVersion();
+        final Game copy = game.copy();
+        final Card card = copy.getFirstToPlay().getCards().get(0);
+
+        copy.currentHand().playFirstCard(copy.getFirstToPlay(), copy.getFirstToPlay().play(card));
+
+        SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(copy.getVersion()).as("Version").isEqualTo(game.getVersion());
+        softly.assertThat(game.getFirstToPlay().getCards()).as("Original cards").contains(card);
+        softly.assertThat(game.currentHand().getIntelHistory()).as("Original history").hasSize(1);
+        softly.assertThat(copy.currentHand().getIntelHistory()).as("Copied history").hasSize(2);
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Should keep fork history when the original game changes")
+    void shouldKeepForkHistoryWhenTheOriginalGameChanges() {
+        final Game game = new Game(Player.of(UUID.randomUUID(), "Player1"), Player.ofBot("Player2"));
+        final Game fork = game.fork(42);
+        final Player player = game.getFirstToPlay();
+
+        game.currentHand().playFirstCard(player, player.play(player.getCards().get(0)));
+
+        assertThat(fork.currentHand().getIntelHistory()).hasSize(1);
+        assertThat(fork.getIntel()).isEqualTo(game.currentHand().getIntelHistory().get(0));
+    }
+
+    @Test
+    @DisplayName("Should re-sample only the cards the observer can not see")
+    void shouldReSampleOnlyTheCardsTheObserverCanNotSee() {
+        final Game game = new Game(Player.of(UUID.randomUUID(), "Player1"), Player.ofBot("Player2"));
+        final Player observer = game.getPlayer1();
+        final Game fork = game.fork(observer, 42);
+        final List<Card> opponentCards = fork.getPlayer2().getCards();
+
+        SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(fork.getPlayer1().getCards()).as("Observer cards").isEqualTo(observer.getCards());
+        softly.assertThat(opponentCards).as("Opponent cards").hasSize(3).doesNotHaveDuplicates()
+                .doesNotContainAnyElementsOf(observer.getCards()).doesNotContain(game.currentHand().getVira());
+        softly.assertThat(fork.currentHand().getDealtCards()).as("Dealt cards").containsAll(opponentCards);
+        softly.assertThat(game.fork(observer, 42).getPlayer2().getCards()).as("Same seed").isEqualTo(opponentCards);
+        softly.assertAll();
+    }
+}
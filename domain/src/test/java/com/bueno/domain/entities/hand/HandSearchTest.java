@@ -0,0 +1,145 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.domain.entities.hand;
+
+import com.bueno.domain.entities.deck.Card;
+import com.bueno.domain.entities.deck.Deck;
+import com.bueno.domain.entities.player.Player;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+class HandSearchTest {
+
+    private record Snapshot(int state, Object possibleActions, Player firstToPlay, Player lastToPlay,
+                            Player currentPlayer, Player lastBetRaiser, Player eventPlayer, Object cardToPlayAgainst,
+                            HandPoints points, HandPoints pointsProposal, Object result, List<Card> openCards,
+                            List<Round> rounds, List<Card> player1Cards, List<Card> player2Cards, int history) {
+
+        static Snapshot of(Hand hand, Player player1, Player player2) {
+            return new Snapshot(hand.getState().id(), hand.getPossibleActions(), hand.getFirstToPlay(),
+                    hand.getLastToPlay(), hand.getCurrentPlayer(), hand.getLastBetRaiser(), hand.getEventPlayer(),
+                    hand.getCardToPlayAgainst(), hand.getPoints(), hand.getPointsProposal(), hand.getResult(),
+                    List.copyOf(hand.getOpenCards()), hand.getRoundsPlayed(), List.copyOf(player1.getCards()),
+                    List.copyOf(player2.getCards()), hand.getIntelHistory().size());
+        }
+    }
+
+    private Player player1;
+    private Player player2;
+
+    private Hand dealHand(Random random, int player1Score, int player2Score) {
+        final Deck deck = new Deck();
+        deck.shuffle(random);
+        player1 = new Player(deck.take(3), "Player1", UUID.randomUUID(), player1Score, false);
+        player2 = new Player(deck.take(3), "Player2", UUID.randomUUID(), player2Score, true);
+        return new Hand(player1, player2, deck.takeOne());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9})
+    @DisplayName("Should restore exact hand state after random make and unmake sequences")
+    void shouldRestoreExactHandStateAfterRandomMakeAndUnmakeSequences(int seed) {
+        final Random random = new Random(seed);
+        final int[][] scores = {{0, 0}, {11, 4}, {3, 11}, {6, 9}};
+        final int[] score = scores[seed % scores.length];
+        final Hand hand = dealHand(random, score[0], score[1]);
+        final Snapshot initial = Snapshot.of(hand, player1, player2);
+        final Deque<Snapshot> snapshots = new ArrayDeque<>();
+
+        hand.beginSearch();
+        for (int step = 0; step < 2_000; step++) {
+            final List<Move> moves = hand.getLegalMoves();
+            final boolean shouldUnmake = moves.isEmpty() || !snapshots.isEmpty() && random.nextInt(3) == 0;
+            if (shouldUnmake && !snapshots.isEmpty()) {
+                hand.unmakeMove();
+                assertThat(Snapshot.of(hand, player1, player2)).isEqualTo(snapshots.pop());
+            } else if (!moves.isEmpty()) {
+                snapshots.push(Snapshot.of(hand, player1, player2));
+                hand.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+        }
+        while (!snapshots.isEmpty()) {
+            hand.unmakeMove();
+            assertThat(Snapshot.of(hand, player1, player2)).isEqualTo(snapshots.pop());
+        }
+        hand.endSearch();
+
+        assertThat(Snapshot.of(hand, player1, player2)).isEqualTo(initial);
+    }
+
+    @Test
+    @DisplayName("Should reach a result playing until there are no legal moves")
+    void shouldReachAResultPlayingUntilThereAreNoLegalMoves() {
+        final Random random = new Random(42);
+        final Hand hand = dealHand(random, 0, 0);
+
+        hand.beginSearch();
+        for (List<Move> moves = hand.getLegalMoves(); !moves.isEmpty(); moves = hand.getLegalMoves())
+            hand.makeMove(moves.get(random.nextInt(moves.size())));
+
+        assertThat(hand.isDone()).isTrue();
+        assertThat(hand.getResult()).isPresent();
+        assertThat(hand.getIntelHistory()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should restore hand if move is illegal")
+    void shouldRestoreHandIfMoveIsIllegal() {
+        final Hand hand = dealHand(new Random(42), 0, 0);
+        final Snapshot initial = Snapshot.of(hand, player1, player2);
+        final Card card = player1.getCards().get(0);
+
+        hand.beginSearch();
+
+        assertThatIllegalStateException().isThrownBy(() -> hand.makeMove(Move.accept()));
+        assertThat(Snapshot.of(hand, player1, player2)).isEqualTo(initial);
+        assertThat(hand.getSearchDepth()).isZero();
+        assertThat(new ArrayList<>(player1.getCards())).contains(card);
+    }
+
+    @Test
+    @DisplayName("Should not make moves out of search mode")
+    void shouldNotMakeMovesOutOfSearchMode() {
+        final Hand hand = dealHand(new Random(42), 0, 0);
+        assertThatIllegalStateException().isThrownBy(() -> hand.makeMove(Move.raise()));
+    }
+
+    @Test
+    @DisplayName("Should not end search with moves to unmake")
+    void shouldNotEndSearchWithMovesToUnmake() {
+        final Hand hand = dealHand(new Random(42), 0, 0);
+        hand.beginSearch();
+        hand.makeMove(Move.raise());
+        assertThatIllegalStateException().isThrownBy(hand::endSearch);
+    }
+}
@@ -25,6 +25,7 @@ import com.bueno.domain.entities.deck.Deck;
 import com.bueno.domain.entities.deck.Rank;
 import com.bueno.domain.entities.deck.Suit;
 import com.bueno.domain.entities.game.GameRuleViolationException;
+import com.bueno.domain.entities.hand.states.Done;
 import com.bueno.domain.entities.intel.PossibleAction;
 import com.bueno.domain.entities.player.Player;
 import org.assertj.core.api.SoftAssertions;
@@ -736,6 +737,41 @@ class HandTest {
         }
     }
 
+    @Nested
+    @DisplayName("When forfeiting ")
+    class ForfeitTest {
+
+        @Test
+        @DisplayName("Should opponent win the hand if current player forfeits")
+        void shouldOpponentWinTheHandIfCurrentPlayerForfeits() {
+            sut.forfeit(player1);
+            assertThat(getPossibleWinner()).isEqualTo(player2);
+            assertThat(sut.getState()).isEqualTo(Done.INSTANCE);
+        }
+
+        @Test
+        @DisplayName("Should opponent win the current hand points if player forfeits while answering a raise")
+        void shouldOpponentWinTheCurrentHandPointsIfPlayerForfeitsWhileAnsweringARaise() {
+            sut.raise(player1);
+            sut.forfeit(player2);
+            assertThat(getPossibleWinner()).isEqualTo(player1);
+            assertThat(sut.getResult().map(HandResult::getPoints).orElseThrow()).isEqualTo(ONE);
+        }
+
+        @Test
+        @DisplayName("Should not allow forfeiting during opponent turn")
+        void shouldNotAllowForfeitingDuringOpponentTurn() {
+            assertThatIllegalArgumentException().isThrownBy(() -> sut.forfeit(player2));
+        }
+
+        @Test
+        @DisplayName("Should not allow forfeiting if hand is done")
+        void shouldNotAllowForfeitingIfHandIsDone() {
+            sut.forfeit(player1);
+            assertThatIllegalStateException().isThrownBy(() -> sut.forfeit(player1));
+        }
+    }
+
     private Player getPossibleWinner() {
         return sut.getResult().flatMap(HandResult::getWinner).orElse(null);
     }
@@ -37,35 +37,35 @@ class DoneTest {
     @Test
     @DisplayName("Should throw if plays first card in done state")
     void shouldThrowIfPlaysFirstCardInDoneState() {
-        Done sut = new Done(hand);
-        assertThatIllegalStateException().isThrownBy(() -> sut.playFirstCard(null, null));
+        Done sut = Done.INSTANCE;
+        assertThatIllegalStateException().isThrownBy(() -> sut.playFirstCard(hand, null, null));
     }
 
     @Test
     @DisplayName("Should throw if plays second card in done state")
     void shouldThrowIfPlaysSecondCardInDoneState() {
-        Done sut = new Done(hand);
-        assertThatIllegalStateException().isThrownBy(() -> sut.playSecondCard(null, null));
+        Done sut = Done.INSTANCE;
+        assertThatIllegalStateException().isThrownBy(() -> sut.playSecondCard(hand, null, null));
     }
 
     @Test
     @DisplayName("Should throw if accepts request or mao de onze in done state")
     void shouldThrowIfAcceptsRequestOrMaoDeOnzeInDoneState() {
-        Done sut = new Done(hand);
-        assertThatIllegalStateException().isThrownBy(() -> sut.accept(null));
+        Done sut = Done.INSTANCE;
+        assertThatIllegalStateException().isThrownBy(() -> sut.accept(hand, null));
     }
 
     @Test
     @DisplayName("Should throw if quits request or mao de onze in done state")
     void shouldThrowIfQuitsRequestOrMaoDeOnzeInDoneState() {
-        Done sut = new Done(hand);
-        assertThatIllegalStateException().isThrownBy(() -> sut.quit(null));
+        Done sut = Done.INSTANCE;
+        assertThatIllegalStateException().isThrownBy(() -> sut.quit(hand, null));
     }
 
     @Test
     @DisplayName("Should throw if raises in done state")
     void shouldThrowIfRaisesInDoneState() {
-        Done sut = new Done(hand);
-        assertThatIllegalStateException().isThrownBy(() -> sut.raise(null));
+        Done sut = Done.INSTANCE;
+        assertThatIllegalStateException().isThrownBy(() -> sut.raise(hand, null));
     }
 }
\ No newline at end of file
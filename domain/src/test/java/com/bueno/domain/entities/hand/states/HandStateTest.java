@@ -0,0 +1,60 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.domain.entities.hand.states;
+
+import com.bueno.domain.entities.intel.PossibleAction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+
+import static com.bueno.domain.entities.intel.PossibleAction.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class HandStateTest {
+
+    @Test
+    @DisplayName("Should recover the same state instance from its id")
+    void shouldRecoverTheSameStateInstanceFromItsId() {
+        final List<HandState> states = List.of(NoCard.INSTANCE, OneCard.INSTANCE, WaitingRaiseResponse.INSTANCE,
+                WaitingMaoDeOnze.INSTANCE, Done.INSTANCE);
+        states.forEach(state -> assertThat(HandState.fromId(state.id())).isSameAs(state));
+    }
+
+    @Test
+    @DisplayName("Should throw if recovering state from unknown id")
+    void shouldThrowIfRecoveringStateFromUnknownId() {
+        assertThatIllegalArgumentException().isThrownBy(() -> HandState.fromId(42));
+    }
+
+    @Test
+    @DisplayName("Should only include raise in possible actions if bet can be raised")
+    void shouldOnlyIncludeRaiseInPossibleActionsIfBetCanBeRaised() {
+        assertThat(PossibleAction.setOf(NoCard.INSTANCE.possibleActions(true))).isEqualTo(EnumSet.of(PLAY, RAISE));
+        assertThat(PossibleAction.setOf(OneCard.INSTANCE.possibleActions(false))).isEqualTo(EnumSet.of(PLAY));
+        assertThat(PossibleAction.setOf(WaitingRaiseResponse.INSTANCE.possibleActions(true)))
+                .isEqualTo(EnumSet.of(ACCEPT, QUIT, RAISE));
+        assertThat(PossibleAction.setOf(WaitingMaoDeOnze.INSTANCE.possibleActions(true))).isEqualTo(EnumSet.of(ACCEPT, QUIT));
+        assertThat(PossibleAction.setOf(Done.INSTANCE.possibleActions(true))).isEmpty();
+    }
+}
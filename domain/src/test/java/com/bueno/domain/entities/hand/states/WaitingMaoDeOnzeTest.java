@@ -37,21 +37,21 @@ class WaitingMaoDeOnzeTest {
     @Test
     @DisplayName("Should throw if plays first card in waiting mao de onze state")
     void shouldThrowIfPlaysFirstCardInWaitingMaoDeOnzeState() {
-        WaitingMaoDeOnze sut = new WaitingMaoDeOnze(hand);
-        assertThatIllegalStateException().isThrownBy(() -> sut.playFirstCard(null, null));
+        WaitingMaoDeOnze sut = WaitingMaoDeOnze.INSTANCE;
+        assertThatIllegalStateException().isThrownBy(() -> sut.playFirstCard(hand, null, null));
     }
 
     @Test
     @DisplayName("Should throw if plays second card in waiting mao de onze state")
     void shouldThrowIfPlaysSecondCardInWaitingMaoDeOnzeState() {
-        WaitingMaoDeOnze sut = new WaitingMaoDeOnze(hand);
-        assertThatIllegalStateException().isThrownBy(() -> sut.playSecondCard(null, null));
+        WaitingMaoDeOnze sut = WaitingMaoDeOnze.INSTANCE;
+        assertThatIllegalStateException().isThrownBy(() -> sut.playSecondCard(hand, null, null));
     }
 
     @Test
     @DisplayName("Should throw if raises in waiting mao de onze state")
     void shouldThrowIfRaisesInWaitingMaoDeOnzeState() {
-        WaitingMaoDeOnze sut = new WaitingMaoDeOnze(hand);
-        assertThatIllegalStateException().isThrownBy(() -> sut.raise(null));
+        WaitingMaoDeOnze sut = WaitingMaoDeOnze.INSTANCE;
+        assertThatIllegalStateException().isThrownBy(() -> sut.raise(hand, null));
     }
 }
\ No newline at end of file
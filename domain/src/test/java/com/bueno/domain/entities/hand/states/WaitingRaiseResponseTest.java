@@ -37,14 +37,14 @@ class WaitingRaiseResponseTest {
     @Test
     @DisplayName("Should throw if plays first card in waiting raise response state")
     void shouldThrowIfPlaysFirstCardInWaitingRaiseResponseState() {
-        WaitingRaiseResponse sut = new WaitingRaiseResponse(hand);
-        assertThatIllegalStateException().isThrownBy(() -> sut.playFirstCard(null, null));
+        WaitingRaiseResponse sut = WaitingRaiseResponse.INSTANCE;
+        assertThatIllegalStateException().isThrownBy(() -> sut.playFirstCard(hand, null, null));
     }
 
     @Test
     @DisplayName("Should throw if plays second card in waiting raise response state")
     void shouldThrowIfPlaysSecondCardInWaitingRaiseResponseState() {
-        WaitingRaiseResponse sut = new WaitingRaiseResponse(hand);
-        assertThatIllegalStateException().isThrownBy(() -> sut.playSecondCard(null, null));
+        WaitingRaiseResponse sut = WaitingRaiseResponse.INSTANCE;
+        assertThatIllegalStateException().isThrownBy(() -> sut.playSecondCard(hand, null, null));
     }
 }
\ No newline at end of file
@@ -0,0 +1,211 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+
+package com.bueno.domain.usecases.bot;
+
+import com.bueno.domain.entities.game.Game;
+import com.bueno.domain.entities.intel.Intel;
+import com.bueno.domain.usecases.executor.GameActionExecutor;
+import com.bueno.domain.usecases.game.repos.GameRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BotTurnSchedulerTest {
+
+    @Mock private GameRepository repository;
+    @Mock private BotUseCase botUseCase;
+    @Mock private Game game;
+
+    private UUID playerUuid;
+    private UUID gameUuid;
+    private GameActionExecutor executor;
+    private BotTurnScheduler sut;
+    private List<String> moveThreads;
+
+    @BeforeEach
+    void setUp() {
+        playerUuid = UUID.randomUUID();
+        gameUuid = UUID.randomUUID();
+        executor = new GameActionExecutor(1, "game-worker");
+        sut = new BotTurnScheduler(executor, 1);
+        moveThreads = new CopyOnWriteArrayList<>();
+        lenient().when(game.getUuid()).thenReturn(gameUuid);
+        lenient().when(repository.findGameByPlayerUuid(playerUuid)).thenReturn(Optional.of(game));
+    }
+
+    @AfterEach
+    void tearDown() {
+        sut.close();
+        executor.close();
+    }
+
+    @Test
+    @DisplayName("Should play bot turn in caller thread without thinkers")
+    void shouldPlayBotTurnInCallerThreadWithoutThinkers() {
+        when(botUseCase.isBotTurn(game)).thenReturn(true);
+        BotTurnScheduler.callerRuns().schedule(repository, playerUuid, game, botUseCase);
+        verify(botUseCase).playWhenNecessary(game);
+    }
+
+    @Test
+    @DisplayName("Should not schedule turn if it is not the turn of a bot")
+    void shouldNotScheduleTurnIfItIsNotTheTurnOfABot() {
+        when(botUseCase.isBotTurn(game)).thenReturn(false);
+        sut.schedule(repository, playerUuid, game, botUseCase);
+        verify(botUseCase, never()).decide(any());
+        verify(botUseCase, never()).playWhenNecessary(any());
+    }
+
+    @Test
+    @DisplayName("Should choose the move from the stored game and make it in the mailbox of the game")
+    void shouldChooseTheMoveFromTheStoredGameAndMakeItInTheMailboxOfTheGame() {
+        when(botUseCase.isBotTurn(game)).thenReturn(true);
+        when(botUseCase.decide(game)).thenReturn(recordedMove());
+
+        sut.schedule(repository, playerUuid, game, botUseCase);
+
+        awaitMoves(1);
+        verify(botUseCase).decide(game);
+        assertThat(moveThreads).containsExactly("game-worker-0");
+    }
+
+    @Test
+    @DisplayName("Should keep a single turn per game while one is pending")
+    void shouldKeepASingleTurnPerGameWhileOneIsPending() throws InterruptedException {
+        when(botUseCase.isBotTurn(game)).thenReturn(true);
+        when(botUseCase.decide(game)).thenReturn(recordedMove());
+        final CountDownLatch release = blockMailbox();
+
+        sut.schedule(repository, playerUuid, game, botUseCase);
+        sut.schedule(repository, playerUuid, game, botUseCase);
+        verify(botUseCase, timeout(5_000)).decide(game);
+        release.countDown();
+
+        awaitMoves(1);
+        verify(botUseCase, times(1)).decide(game);
+        assertThat(moveThreads).hasSize(1);
+        assertThat(sut.metrics().pendingTurns()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should choose the move again if the game changed while thinking")
+    void shouldChooseTheMoveAgainIfTheGameChangedWhileThinking() {
+        when(botUseCase.isBotTurn(game)).thenReturn(true);
+        when(botUseCase.decide(game)).thenReturn(recordedMove());
+        when(game.getVersion()).thenReturn(0L, 1L);
+
+        sut.schedule(repository, playerUuid, game, botUseCase);
+
+        verify(botUseCase, timeout(5_000).times(2)).decide(game);
+        awaitMoves(1);
+        assertThat(moveThreads).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should retry a failed bot turn once")
+    void shouldRetryAFailedBotTurnOnce() {
+        when(botUseCase.isBotTurn(game)).thenReturn(true);
+        final AtomicInteger attempts = new AtomicInteger();
+        final Supplier<Intel> move = recordedMove();
+        when(botUseCase.decide(game)).thenReturn(() -> {
+            if (attempts.incrementAndGet() == 1) throw new IllegalStateException();
+            return move.get();
+        });
+
+        sut.schedule(repository, playerUuid, game, botUseCase);
+
+        awaitMoves(1);
+        verify(botUseCase, times(2)).decide(game);
+        verify(botUseCase, never()).playDefaultWhenNecessary(any());
+    }
+
+    @Test
+    @DisplayName("Should play the default action after the bot turn fails twice")
+    void shouldPlayTheDefaultActionAfterTheBotTurnFailsTwice() {
+        when(botUseCase.isBotTurn(game)).thenReturn(true);
+        when(botUseCase.decide(game)).thenThrow(new IllegalStateException());
+        sut.schedule(repository, playerUuid, game, botUseCase);
+        verify(botUseCase, timeout(5_000)).playDefaultWhenNecessary(game);
+        verify(botUseCase, times(2)).decide(game);
+        assertThat(sut.metrics().defaultTurns()).isOne();
+    }
+
+    @Test
+    @DisplayName("Should play the default action in caller thread after the bot turn fails twice")
+    void shouldPlayTheDefaultActionInCallerThreadAfterTheBotTurnFailsTwice() {
+        when(botUseCase.isBotTurn(game)).thenReturn(true);
+        when(botUseCase.playWhenNecessary(game)).thenThrow(new IllegalStateException());
+        BotTurnScheduler.callerRuns().schedule(repository, playerUuid, game, botUseCase);
+        verify(botUseCase).playDefaultWhenNecessary(game);
+    }
+
+    private Supplier<Intel> recordedMove() {
+        return () -> {
+            moveThreads.add(Thread.currentThread().getName());
+            return null;
+        };
+    }
+
+    private CountDownLatch blockMailbox() throws InterruptedException {
+        final CountDownLatch running = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        executor.submit(gameUuid, () -> {
+            running.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        });
+        running.await();
+        return release;
+    }
+
+    private void awaitMoves(int moves) {
+        final long deadline = System.currentTimeMillis() + 5_000;
+        while (moveThreads.size() < moves && System.currentTimeMillis() < deadline) Thread.onSpinWait();
+        executor.execute(gameUuid, () -> null);
+    }
+}
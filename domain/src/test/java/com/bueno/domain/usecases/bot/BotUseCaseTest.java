@@ -124,8 +124,8 @@ class BotUseCaseTest {
     void shouldFirstHandleMaoDeOnze() {
         when(maoDeOnzeHandler.shouldHandle(intel)).thenReturn(true);
         sut.playWhenNecessary(game);
-        verify(maoDeOnzeHandler, times(1)).handle(intel, player);
-        verify(raiseHandler, times(0)).handle(intel, player);
+        verify(maoDeOnzeHandler, times(1)).decide(intel, player);
+        verify(raiseHandler, times(0)).decide(intel, player);
     }
 
     @Test
@@ -134,8 +134,8 @@ class BotUseCaseTest {
         when(maoDeOnzeHandler.shouldHandle(intel)).thenReturn(false);
         when(raiseHandler.shouldHandle(intel)).thenReturn(true);
         sut.playWhenNecessary(game);
-        verify(raiseHandler, times(1)).handle(intel, player);
-        verify(cardPlayingHandler, times(0)).handle(intel, player);
+        verify(raiseHandler, times(1)).decide(intel, player);
+        verify(cardPlayingHandler, times(0)).decide(intel, player);
     }
 
     @Test
@@ -144,8 +144,8 @@ class BotUseCaseTest {
         when(raiseHandler.shouldHandle(intel)).thenReturn(false);
         when(cardPlayingHandler.shouldHandle(intel)).thenReturn(true);
         sut.playWhenNecessary(game);
-        verify(cardPlayingHandler, times(1)).handle(intel, player);
-        verify(raiseRequestHandler, times(0)).handle(intel, player);
+        verify(cardPlayingHandler, times(1)).decide(intel, player);
+        verify(raiseRequestHandler, times(0)).decide(intel, player);
     }
 
     @Test
@@ -153,7 +153,7 @@ class BotUseCaseTest {
     void shouldHandleIfItIsBotTurnJustBecauseItMustDecideAboutRaiseRequest() {
         when(raiseRequestHandler.shouldHandle(any())).thenReturn(true);
         sut.playWhenNecessary(game);
-        verify(raiseRequestHandler, times(1)).handle(intel, player);
+        verify(raiseRequestHandler, times(1)).decide(intel, player);
     }
 
     @Test
@@ -171,4 +171,12 @@ class BotUseCaseTest {
                 .as("It's false that no implementation is available")
                 .isFalse();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should not play default action if it is not the turn of a bot")
+    void shouldNotPlayDefaultActionIfItIsNotTheTurnOfABot() {
+        when(player.isBot()).thenReturn(false);
+        assertThat(sut.playDefaultWhenNecessary(game)).isEqualTo(intel);
+        verifyNoInteractions(gameRepository, maoDeOnzeHandler, raiseHandler, cardPlayingHandler, raiseRequestHandler);
+    }
+}
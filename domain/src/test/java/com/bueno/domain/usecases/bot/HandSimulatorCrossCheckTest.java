@@ -0,0 +1,138 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.domain.usecases.bot;
+
+import com.bueno.domain.entities.deck.Card;
+import com.bueno.domain.entities.deck.Deck;
+import com.bueno.domain.entities.hand.Hand;
+import com.bueno.domain.entities.hand.HandResult;
+import com.bueno.domain.entities.hand.Move;
+import com.bueno.domain.entities.player.Player;
+import com.bueno.domain.usecases.bot.converter.SpiModelAdapter;
+import com.bueno.impl.ismctsbot.HandSimulator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+
+import static com.bueno.impl.ismctsbot.HandSimulator.ACCEPT;
+import static com.bueno.impl.ismctsbot.HandSimulator.BOT;
+import static com.bueno.impl.ismctsbot.HandSimulator.DISCARD;
+import static com.bueno.impl.ismctsbot.HandSimulator.MAX_ACTIONS;
+import static com.bueno.impl.ismctsbot.HandSimulator.NONE;
+import static com.bueno.impl.ismctsbot.HandSimulator.QUIT;
+import static com.bueno.impl.ismctsbot.HandSimulator.RAISE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+//The ISMCTS bot searches with its own compact model of a hand. Playing it and the domain hand, through the search
+//moves, on the same random deals checks that the model follows the rules of the engine.
+class HandSimulatorCrossCheckTest {
+
+    private static final int DEALS = 2000;
+
+    private final Map<Integer, Card> cardById = new HashMap<>();
+    private final Map<Card, Integer> idByCard = new HashMap<>();
+
+    @Test
+    @DisplayName("Should follow the rules of the hand on random deals")
+    void shouldFollowTheRulesOfTheHandOnRandomDeals() {
+        for (int id = 0; id < HandSimulator.CLOSED; id++) {
+            final Card card = SpiModelAdapter.toCard(HandSimulator.card(id));
+            cardById.put(id, card);
+            idByCard.put(card, id);
+        }
+        final Random random = new Random(42);
+        for (int deal = 0; deal < DEALS; deal++) playBoth(random);
+    }
+
+    private void playBoth(Random random) {
+        final Player bot = new Player(List.of(), "Bot", UUID.randomUUID(), random.nextInt(11), true);
+        final Player opponent = new Player(List.of(), "Opponent", UUID.randomUUID(), random.nextInt(11), false);
+        final Deck deck = new Deck();
+        deck.shuffle(random);
+        final Card vira = deck.takeOne();
+        bot.setCards(deck.take(3));
+        opponent.setCards(deck.take(3));
+        final Hand hand = new Hand(bot, opponent, vira);
+
+        final HandSimulator simulator =
+                HandSimulator.ofCardPlaying(SpiModelAdapter.toGameIntel(bot, hand.getLastIntel()));
+        simulator.determinize(random);
+        hand.redeal(opponent, cardsOf(simulator.hand(HandSimulator.OPPONENT)));
+        hand.beginSearch();
+
+        final int[] actions = new int[MAX_ACTIONS];
+        while (!simulator.isDone()) {
+            final int player = simulator.currentPlayer();
+            assertThat(hand.getCurrentPlayer()).isEqualTo(player == BOT ? bot : opponent);
+            assertThat(hand.getState().id()).isEqualTo(simulator.state());
+            assertThat(hand.getPoints().get()).isEqualTo(simulator.points());
+
+            final int[] legalActions = Arrays.copyOf(actions, simulator.legalActions(actions));
+            assertThat(legalActions).containsExactlyInAnyOrder(actionsOf(hand.getLegalMoves()));
+
+            final int action = legalActions[random.nextInt(legalActions.length)];
+            final long cards = simulator.hand(player);
+            simulator.apply(action);
+            hand.makeMove(moveOf(action, Long.numberOfTrailingZeros(cards & ~simulator.hand(player))));
+        }
+
+        assertThat(hand.isDone()).isTrue();
+        final HandResult result = hand.getResult().orElseThrow();
+        final int winner = simulator.winner();
+        assertThat(result.getWinner()).isEqualTo(
+                winner == NONE ? Optional.empty() : Optional.of(winner == BOT ? bot : opponent));
+        assertThat(result.getPoints().get()).isEqualTo(simulator.resultPoints());
+    }
+
+    private List<Card> cardsOf(long hand) {
+        final List<Card> cards = new ArrayList<>();
+        for (long remaining = hand; remaining != 0; remaining &= remaining - 1)
+            cards.add(cardById.get(Long.numberOfTrailingZeros(remaining)));
+        return cards;
+    }
+
+    private int[] actionsOf(List<Move> moves) {
+        return moves.stream().mapToInt(move -> switch (move.action()) {
+            case PLAY -> move.discard() ? DISCARD : idByCard.get(move.card());
+            case RAISE -> RAISE;
+            case ACCEPT -> ACCEPT;
+            case QUIT -> QUIT;
+        }).distinct().toArray();
+    }
+
+    private Move moveOf(int action, int playedCard) {
+        return switch (action) {
+            case RAISE -> Move.raise();
+            case ACCEPT -> Move.accept();
+            case QUIT -> Move.quit();
+            case DISCARD -> Move.discard(cardById.get(playedCard));
+            default -> Move.play(cardById.get(action));
+        };
+    }
+}
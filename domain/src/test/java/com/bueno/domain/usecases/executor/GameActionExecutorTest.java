@@ -0,0 +1,146 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.domain.usecases.executor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class GameActionExecutorTest {
+
+    private GameActionExecutor sut;
+
+    @BeforeEach
+    void setUp() {
+        sut = new GameActionExecutor(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sut.close();
+    }
+
+    @Test
+    @DisplayName("Should run actions of the same game in submission order")
+    void shouldRunActionsOfTheSameGameInSubmissionOrder() {
+        final UUID gameUuid = UUID.randomUUID();
+        final List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+        final List<CompletableFuture<Boolean>> results = IntStream.range(0, 1000)
+                .mapToObj(i -> sut.submit(gameUuid, () -> executed.add(i)))
+                .toList();
+
+        results.forEach(CompletableFuture::join);
+
+        assertThat(executed).containsExactlyElementsOf(IntStream.range(0, 1000).boxed().toList());
+    }
+
+    @Test
+    @DisplayName("Should run actions of different games in parallel")
+    void shouldRunActionsOfDifferentGamesInParallel() throws InterruptedException {
+        final CountDownLatch bothRunning = new CountDownLatch(2);
+        final Runnable waitForOtherGame = () -> {
+            bothRunning.countDown();
+            try {
+                bothRunning.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        final UUID game1 = new UUID(0, 0);
+        final UUID game2 = new UUID(0, 1);
+
+        sut.submit(game1, () -> {waitForOtherGame.run(); return null;});
+        sut.submit(game2, () -> {waitForOtherGame.run(); return null;});
+
+        assertThat(bothRunning.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should run nested action of the same game immediately")
+    void shouldRunNestedActionOfTheSameGameImmediately() {
+        final UUID gameUuid = UUID.randomUUID();
+        final int result = sut.execute(gameUuid, () -> sut.execute(gameUuid, () -> 42));
+        assertThat(result).isEqualTo(42);
+    }
+
+    @Test
+    @DisplayName("Should throw exception of the action to the caller")
+    void shouldThrowExceptionOfTheActionToTheCaller() {
+        assertThatIllegalStateException().isThrownBy(() -> sut.execute(UUID.randomUUID(), () -> {
+            throw new IllegalStateException("Invalid action");
+        }));
+    }
+
+    @Test
+    @DisplayName("Should report queue depth of waiting actions")
+    void shouldReportQueueDepthOfWaitingActions() throws InterruptedException {
+        final UUID gameUuid = UUID.randomUUID();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        sut.submit(gameUuid, () -> {
+            started.countDown();
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        started.await(5, TimeUnit.SECONDS);
+        final CompletableFuture<Integer> last = IntStream.range(0, 3)
+                .mapToObj(i -> sut.submit(gameUuid, () -> i))
+                .reduce((first, second) -> second)
+                .orElseThrow();
+
+        assertThat(sut.queueDepth(gameUuid)).isEqualTo(3);
+        assertThat(sut.metrics().pendingActions()).isEqualTo(3);
+        assertThat(sut.metrics().maxQueueDepth()).isEqualTo(3);
+
+        release.countDown();
+        last.join();
+        assertThat(sut.queueDepth(gameUuid)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should run actions in caller thread if there are no workers")
+    void shouldRunActionsInCallerThreadIfThereAreNoWorkers() {
+        final Thread caller = Thread.currentThread();
+        final Thread runner = GameActionExecutor.callerRuns().execute(UUID.randomUUID(), Thread::currentThread);
+        assertThat(runner).isSameAs(caller);
+    }
+
+    @Test
+    @DisplayName("Should not accept negative number of workers")
+    void shouldNotAcceptNegativeNumberOfWorkers() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new GameActionExecutor(-1));
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.domain.usecases.game.repos;
+
+import com.bueno.domain.entities.game.Game;
+import com.bueno.domain.entities.player.Player;
+import com.bueno.domain.usecases.game.converter.GameConverter;
+import com.bueno.domain.usecases.game.dtos.GameDto;
+import com.bueno.domain.usecases.game.dtos.InactiveGameDto;
+import com.bueno.domain.usecases.utils.exceptions.ConcurrentGameUpdateException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class GameRepositoryInMemoryImplTest {
+
+    @Mock private Clock clock;
+
+    private GameRepositoryInMemoryImpl sut;
+    private GameDto game;
+
+    @BeforeEach
+    void setUp() {
+        setTime(0);
+        sut = new GameRepositoryInMemoryImpl(clock);
+        game = newGame();
+    }
+
+    @Test
+    @DisplayName("Should find game by any of its players")
+    void shouldFindGameByAnyOfItsPlayers() {
+        sut.save(game);
+        assertThat(sut.findByPlayerUuid(game.player1().uuid())).contains(game);
+        assertThat(sut.findByPlayerUuid(game.player2().uuid())).contains(game);
+    }
+
+    @Test
+    @DisplayName("Should not find game after deleting it")
+    void shouldNotFindGameAfterDeletingIt() {
+        sut.save(game);
+        sut.delete(game.gameUuid());
+        assertThat(sut.findByPlayerUuid(game.player1().uuid())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not update game that was not saved")
+    void shouldNotUpdateGameThatWasNotSaved() {
+        sut.update(game);
+        assertThat(sut.findByPlayerUuid(game.player1().uuid())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should increment version of updated game")
+    void shouldIncrementVersionOfUpdatedGame() {
+        sut.save(game);
+        sut.update(game);
+        assertThat(sut.findByPlayerUuid(game.player1().uuid()).map(GameDto::version)).contains(1L);
+    }
+
+    @Test
+    @DisplayName("Should reject update of a stale game version")
+    void shouldRejectUpdateOfAStaleGameVersion() {
+        sut.save(game);
+        sut.update(game);
+        assertThatExceptionOfType(ConcurrentGameUpdateException.class).isThrownBy(() -> sut.update(game));
+    }
+
+    @Test
+    @DisplayName("Should find only games inactive for the given minutes")
+    void shouldFindOnlyGamesInactiveForTheGivenMinutes() {
+        final GameDto activeGame = newGame();
+        sut.save(game);
+        setTime(4 * 60);
+        sut.save(activeGame);
+        setTime(5 * 60);
+
+        assertThat(sut.findAllInactiveAfter(5)).containsExactly(InactiveGameDto.of(game));
+    }
+
+    @Test
+    @DisplayName("Should consider update as activity")
+    void shouldConsiderUpdateAsActivity() {
+        sut.save(game);
+        setTime(4 * 60);
+        sut.update(game);
+        setTime(5 * 60);
+
+        assertThat(sut.findAllInactiveAfter(5)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should find inactive game again until it is deleted")
+    void shouldFindInactiveGameAgainUntilItIsDeleted() {
+        sut.save(game);
+        setTime(5 * 60);
+        assertThat(sut.findAllInactiveAfter(5)).containsExactly(InactiveGameDto.of(game));
+        assertThat(sut.findAllInactiveAfter(5)).containsExactly(InactiveGameDto.of(game));
+
+        sut.delete(game.gameUuid());
+        setTime(7 * 60);
+        assertThat(sut.findAllInactiveAfter(5)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep every game saved concurrently")
+    void shouldKeepEveryGameSavedConcurrently() {
+        final List<GameDto> games = IntStream.range(0, 1000).mapToObj(i -> newGame()).toList();
+        games.parallelStream().forEach(sut::save);
+        assertThat(games).allMatch(each -> sut.findByPlayerUuid(each.player1().uuid()).isPresent());
+    }
+
+    private void setTime(long epochSecond) {
+        lenient().when(clock.instant()).thenReturn(Instant.ofEpochSecond(epochSecond));
+        lenient().when(clock.millis()).thenReturn(epochSecond * 1000);
+    }
+
+    private static GameDto newGame() {
+        return GameConverter.toDto(new Game(Player.of(UUID.randomUUID(), "Player"), Player.ofBot("DummyBot")));
+    }
+}
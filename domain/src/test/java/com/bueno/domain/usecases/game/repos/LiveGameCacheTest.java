@@ -0,0 +1,266 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.domain.usecases.game.repos;
+
+import com.bueno.domain.entities.game.Game;
+import com.bueno.domain.entities.player.Player;
+import com.bueno.domain.usecases.game.converter.GameConverter;
+import com.bueno.domain.usecases.game.dtos.GameDto;
+import com.bueno.domain.usecases.game.dtos.InactiveGameDto;
+import com.bueno.domain.usecases.game.service.GameTimers;
+import com.bueno.domain.usecases.game.service.GameTimers.ExpiredTurn;
+import com.bueno.domain.usecases.utils.exceptions.ConcurrentGameUpdateException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LiveGameCacheTest {
+
+    @Mock private GameRepository store;
+    @Mock private Clock clock;
+
+    private LiveGameCache sut;
+    private GameTimers timers;
+    private Game game;
+    private UUID p1Uuid;
+    private UUID p2Uuid;
+
+    @BeforeEach
+    void setUp() {
+        p1Uuid = UUID.randomUUID();
+        p2Uuid = UUID.randomUUID();
+        game = new Game(Player.of(p1Uuid, "Player1"), Player.ofBot(p2Uuid, "DummyBot"));
+        lenient().when(clock.millis()).thenReturn(0L);
+        timers = new GameTimers(Duration.ofSeconds(30), clock);
+        sut = new LiveGameCache(store, timers, 2, Duration.ofMinutes(10), clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sut.close();
+    }
+
+    @Test
+    @DisplayName("Should load game from store only once")
+    void shouldLoadGameFromStoreOnlyOnce() {
+        when(store.findByPlayerUuid(p1Uuid)).thenReturn(Optional.of(GameConverter.toDto(game)));
+
+        final Game loaded = sut.findGameByPlayerUuid(p1Uuid).orElseThrow();
+
+        assertThat(sut.findGameByPlayerUuid(p1Uuid).map(Game::getUuid)).contains(loaded.getUuid());
+        assertThat(sut.findGameByPlayerUuid(p2Uuid).map(Game::getUuid)).contains(loaded.getUuid());
+        verify(store, times(1)).findByPlayerUuid(any());
+    }
+
+    @Test
+    @DisplayName("Should write updated game to store")
+    void shouldWriteUpdatedGameToStore() {
+        sut.save(GameConverter.toDto(game));
+        final Game live = sut.findGameByPlayerUuid(p1Uuid).orElseThrow();
+        live.currentHand().raise(live.currentHand().getCurrentPlayer());
+
+        sut.updateGame(live);
+        sut.flush();
+
+        final ArgumentCaptor<GameDto> captor = ArgumentCaptor.forClass(GameDto.class);
+        verify(store).update(captor.capture());
+        assertThat(captor.getValue().hands().get(0).pointsProposal()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should write game with the version of the store")
+    void shouldWriteGameWithTheVersionOfTheStore() {
+        sut.save(GameConverter.toDto(game));
+        sut.updateGame(sut.findGameByPlayerUuid(p1Uuid).orElseThrow());
+        sut.updateGame(sut.findGameByPlayerUuid(p1Uuid).orElseThrow());
+        sut.flush();
+        sut.updateGame(sut.findGameByPlayerUuid(p1Uuid).orElseThrow());
+        sut.flush();
+
+        //Writes may coalesce the changes made before them, but each one is based on the previous.
+        final ArgumentCaptor<GameDto> captor = ArgumentCaptor.forClass(GameDto.class);
+        verify(store, atLeast(2)).update(captor.capture());
+        final List<Long> versions = captor.getAllValues().stream().map(GameDto::version).toList();
+        assertThat(versions).isEqualTo(LongStream.range(0, versions.size()).boxed().toList());
+    }
+
+    @Test
+    @DisplayName("Should reject update of a stale game version")
+    void shouldRejectUpdateOfAStaleGameVersion() {
+        final GameDto dto = GameConverter.toDto(game);
+        sut.save(dto);
+        sut.update(dto);
+        assertThatExceptionOfType(ConcurrentGameUpdateException.class).isThrownBy(() -> sut.update(dto));
+    }
+
+    @Test
+    @DisplayName("Should overwrite game changed in the store by someone else")
+    void shouldOverwriteGameChangedInTheStoreBySomeoneElse() {
+        sut.save(GameConverter.toDto(game));
+        doThrow(new ConcurrentGameUpdateException("Conflict")).doNothing().when(store).update(any());
+        when(store.findByPlayerUuid(p1Uuid)).thenReturn(Optional.of(GameConverter.toDto(game).withVersion(5)));
+
+        sut.updateGame(sut.findGameByPlayerUuid(p1Uuid).orElseThrow());
+        sut.flush();
+
+        final ArgumentCaptor<GameDto> captor = ArgumentCaptor.forClass(GameDto.class);
+        verify(store, times(2)).update(captor.capture());
+        assertThat(captor.getValue().version()).isEqualTo(5);
+        assertThat(sut.size()).isOne();
+    }
+
+    @Test
+    @DisplayName("Should drop game deleted from the store by someone else")
+    void shouldDropGameDeletedFromTheStoreBySomeoneElse() {
+        sut.save(GameConverter.toDto(game));
+        doThrow(new ConcurrentGameUpdateException("Conflict")).when(store).update(any());
+        when(store.findByPlayerUuid(p1Uuid)).thenReturn(Optional.empty());
+
+        sut.updateGame(sut.findGameByPlayerUuid(p1Uuid).orElseThrow());
+        sut.flush();
+
+        assertThat(sut.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject update of a game read before the last update")
+    void shouldRejectUpdateOfAGameReadBeforeTheLastUpdate() {
+        sut.save(GameConverter.toDto(game));
+        final Game stale = sut.findGameByPlayerUuid(p1Uuid).orElseThrow();
+        sut.updateGame(sut.findGameByPlayerUuid(p1Uuid).orElseThrow());
+
+        assertThatExceptionOfType(ConcurrentGameUpdateException.class).isThrownBy(() -> sut.updateGame(stale));
+    }
+
+    @Test
+    @DisplayName("Should keep cached game unchanged by a failed action")
+    void shouldKeepCachedGameUnchangedByAFailedAction() {
+        sut.save(GameConverter.toDto(game));
+        final Player player = sut.findGameByPlayerUuid(p1Uuid).orElseThrow().getPlayer1();
+        final int cards = player.getCards().size();
+
+        player.play(player.getCards().get(0));
+
+        assertThat(sut.findGameByPlayerUuid(p1Uuid).orElseThrow().getPlayer1().getCards()).hasSize(cards);
+    }
+
+    @Test
+    @DisplayName("Should leave out inactive games played in the cache since")
+    void shouldLeaveOutInactiveGamesPlayedInTheCacheSince() {
+        final GameDto dto = GameConverter.toDto(game);
+        sut.save(dto);
+        when(store.findAllInactiveAfter(10)).thenReturn(List.of(InactiveGameDto.of(dto)));
+
+        assertThat(sut.findAllInactiveAfter(10)).isEmpty();
+        verify(store, never()).update(any());
+    }
+
+    @Test
+    @DisplayName("Should evict idle games after writing them")
+    void shouldEvictIdleGamesAfterWritingThem() {
+        sut.save(GameConverter.toDto(game));
+        sut.updateGame(sut.findGameByPlayerUuid(p1Uuid).orElseThrow());
+        when(clock.millis()).thenReturn(Duration.ofMinutes(11).toMillis());
+
+        sut.evictIdle();
+
+        assertThat(sut.size()).isZero();
+        verify(store, atMostOnce()).update(any());
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used game if full")
+    void shouldEvictLeastRecentlyUsedGameIfFull() {
+        sut.save(GameConverter.toDto(game));
+        when(clock.millis()).thenReturn(1L);
+        sut.save(GameConverter.toDto(new Game(Player.of(UUID.randomUUID(), "A"), Player.ofBot("DummyBot"))));
+        sut.save(GameConverter.toDto(new Game(Player.of(UUID.randomUUID(), "B"), Player.ofBot("DummyBot"))));
+        sut.awaitWriter();
+
+        when(store.findByPlayerUuid(p1Uuid)).thenReturn(Optional.empty());
+
+        assertThat(sut.size()).isEqualTo(2);
+        assertThat(sut.findGameByPlayerUuid(p1Uuid)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should delete game from cache and store")
+    void shouldDeleteGameFromCacheAndStore() {
+        sut.save(GameConverter.toDto(game));
+
+        sut.delete(game.getUuid());
+
+        verify(store).delete(game.getUuid());
+        assertThat(sut.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should time the turn when it is played instead of when it is written")
+    void shouldTimeTheTurnWhenItIsPlayedInsteadOfWhenItIsWritten() {
+        final Game humans = new Game(Player.of(p1Uuid, "Player1"), Player.of(p2Uuid, "Player2"));
+        final UUID currentPlayer = humans.currentHand().getCurrentPlayer().getUuid();
+        sut.save(GameConverter.toDto(humans));
+        when(clock.millis()).thenReturn(20_000L);
+        sut.updateGame(sut.findGameByPlayerUuid(p1Uuid).orElseThrow());
+
+        when(clock.millis()).thenReturn(31_000L);
+        assertThat(timers.pollExpiredTurns()).isEmpty();
+        when(clock.millis()).thenReturn(51_000L);
+        assertThat(timers.pollExpiredTurns()).containsExactly(new ExpiredTurn(humans.getUuid(), currentPlayer, 0));
+    }
+
+    @Test
+    @DisplayName("Should stop timing the turn of a deleted game")
+    void shouldStopTimingTheTurnOfADeletedGame() {
+        final Game humans = new Game(Player.of(p1Uuid, "Player1"), Player.of(p2Uuid, "Player2"));
+        sut.save(GameConverter.toDto(humans));
+
+        sut.delete(humans.getUuid());
+
+        when(clock.millis()).thenReturn(31_000L);
+        assertThat(timers.pollExpiredTurns()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not accept non positive maximum number of games")
+    void shouldNotAcceptNonPositiveMaximumNumberOfGames() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new LiveGameCache(store, 0, Duration.ofMinutes(1)));
+    }
+}
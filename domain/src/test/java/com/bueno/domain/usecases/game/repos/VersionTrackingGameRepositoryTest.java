@@ -0,0 +1,111 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+
+package com.bueno.domain.usecases.game.repos;
+
+import com.bueno.domain.entities.game.Game;
+import com.bueno.domain.entities.player.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class VersionTrackingGameRepositoryTest {
+
+    @Mock private GameRepository repository;
+
+    private Game game;
+    private UUID player1;
+    private UUID player2;
+    private VersionTrackingGameRepository sut;
+
+    @BeforeEach
+    void setUp() {
+        player1 = UUID.randomUUID();
+        player2 = UUID.randomUUID();
+        game = new Game(Player.of(player1, "Player1"), Player.of(player2, "Player2"));
+        lenient().when(repository.findGameByPlayerUuid(player1)).thenReturn(Optional.of(game));
+        sut = new VersionTrackingGameRepository(repository);
+    }
+
+    @Test
+    @DisplayName("Should not have version token of game not read or changed")
+    void shouldNotHaveVersionTokenOfGameNotReadOrChanged() {
+        assertThat(sut.findVersionToken(player1)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should create the same version token for both players when game is read")
+    void shouldCreateTheSameVersionTokenForBothPlayersWhenGameIsRead() {
+        sut.findGameByPlayerUuid(player1);
+        assertThat(sut.findVersionToken(player1)).isPresent().isEqualTo(sut.findVersionToken(player2));
+    }
+
+    @Test
+    @DisplayName("Should keep version token while game is only read")
+    void shouldKeepVersionTokenWhileGameIsOnlyRead() {
+        sut.findGameByPlayerUuid(player1);
+        final Optional<String> token = sut.findVersionToken(player1);
+        sut.findGameByPlayerUuid(player1);
+        assertThat(sut.findVersionToken(player1)).isEqualTo(token);
+    }
+
+    @Test
+    @DisplayName("Should replace version token when game is updated")
+    void shouldReplaceVersionTokenWhenGameIsUpdated() {
+        sut.findGameByPlayerUuid(player1);
+        final Optional<String> token = sut.findVersionToken(player1);
+        sut.updateGame(game);
+        verify(repository).updateGame(game);
+        assertThat(sut.findVersionToken(player1)).isPresent().isNotEqualTo(token);
+        assertThat(sut.findVersionToken(player2)).isEqualTo(sut.findVersionToken(player1));
+    }
+
+    @Test
+    @DisplayName("Should remove version tokens when game is deleted")
+    void shouldRemoveVersionTokensWhenGameIsDeleted() {
+        sut.updateGame(game);
+        sut.delete(game.getUuid());
+        assertThat(sut.findVersionToken(player1)).isEmpty();
+        assertThat(sut.findVersionToken(player2)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep version tokens of other games when game is deleted")
+    void shouldKeepVersionTokensOfOtherGamesWhenGameIsDeleted() {
+        final Game other = new Game(Player.of(UUID.randomUUID(), "Other1"), Player.of(UUID.randomUUID(), "Other2"));
+        sut.updateGame(game);
+        sut.updateGame(other);
+        sut.delete(game.getUuid());
+        assertThat(sut.findVersionToken(other.getPlayer1().getUuid())).isPresent();
+        assertThat(sut.findVersionToken(other.getPlayer2().getUuid())).isPresent();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+
+package com.bueno.domain.usecases.game.usecase;
+
+import com.bueno.domain.entities.game.Game;
+import com.bueno.domain.entities.player.Player;
+import com.bueno.domain.usecases.game.converter.GameConverter;
+import com.bueno.domain.usecases.game.dtos.GameDto;
+import com.bueno.domain.usecases.game.dtos.InactiveGameDto;
+import com.bueno.domain.usecases.game.repos.GameRepository;
+import com.bueno.domain.usecases.game.repos.GameResultRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RemoveGameUseCaseTest {
+
+    @Mock private GameRepository gameRepo;
+    @Mock private GameResultRepository gameResultRepo;
+    @InjectMocks private RemoveGameUseCase sut;
+
+    @Test
+    @DisplayName("Should return the inactive players whose games were removed")
+    void shouldReturnTheInactivePlayersWhoseGamesWereRemoved() {
+        final GameDto game = newGame();
+        final UUID inactivePlayer = sut.inactivePlayerUuid(InactiveGameDto.of(game));
+        when(gameRepo.findAllInactiveAfter(5)).thenReturn(List.of(InactiveGameDto.of(game)));
+        when(gameRepo.findByPlayerUuid(inactivePlayer)).thenReturn(Optional.of(game));
+
+        assertThat(sut.byInactivityAfter(5)).containsExactly(inactivePlayer);
+        verify(gameRepo).delete(game.gameUuid());
+    }
+
+    @Test
+    @DisplayName("Should keep removing inactive games after failing to remove one")
+    void shouldKeepRemovingInactiveGamesAfterFailingToRemoveOne() {
+        final GameDto missing = newGame();
+        final GameDto game = newGame();
+        final InactiveGameDto inactiveMissing = InactiveGameDto.of(missing);
+        final UUID inactivePlayer = sut.inactivePlayerUuid(InactiveGameDto.of(game));
+        when(gameRepo.findAllInactiveAfter(5)).thenReturn(List.of(inactiveMissing, InactiveGameDto.of(game)));
+        when(gameRepo.findByPlayerUuid(sut.inactivePlayerUuid(inactiveMissing))).thenReturn(Optional.empty());
+        when(gameRepo.findByPlayerUuid(inactivePlayer)).thenReturn(Optional.of(game));
+
+        assertThat(sut.byInactivityAfter(5)).containsExactly(inactivePlayer);
+        verify(gameRepo, never()).delete(missing.gameUuid());
+        verify(gameRepo).delete(game.gameUuid());
+    }
+
+    @Test
+    @DisplayName("Should consider the first player inactive if no hand is being played")
+    void shouldConsiderTheFirstPlayerInactiveIfNoHandIsBeingPlayed() {
+        final InactiveGameDto game = new InactiveGameDto(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), null);
+        assertThat(sut.inactivePlayerUuid(game)).isEqualTo(game.player1Uuid());
+    }
+
+    private static GameDto newGame() {
+        return GameConverter.toDto(new Game(Player.of(UUID.randomUUID(), "Player"), Player.ofBot("DummyBot")));
+    }
+}
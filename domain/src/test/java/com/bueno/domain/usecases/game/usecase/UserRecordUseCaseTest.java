@@ -0,0 +1,108 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.domain.usecases.game.usecase;
+
+import com.bueno.domain.usecases.game.dtos.GameHistoryCursor;
+import com.bueno.domain.usecases.game.dtos.GameHistoryPageDto;
+import com.bueno.domain.usecases.game.dtos.GameResultUsernamesDto;
+import com.bueno.domain.usecases.game.dtos.UserRecordPageDto;
+import com.bueno.domain.usecases.game.repos.GameResultRepository;
+import com.bueno.domain.usecases.user.UserRepository;
+import com.bueno.domain.usecases.user.dtos.ApplicationUserDto;
+import com.bueno.domain.usecases.utils.exceptions.EntityNotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserRecordUseCaseTest {
+
+    @Mock GameResultRepository gameResultRepository;
+    @Mock UserRepository userRepository;
+    @InjectMocks UserRecordUseCase sut;
+
+    private final UUID userUuid = UUID.randomUUID();
+    private final ApplicationUserDto user = new ApplicationUserDto(userUuid, "name", "password", "email@email.com");
+    private final GameResultUsernamesDto result = new GameResultUsernamesDto(LocalDateTime.now(), "name", "other", "name");
+
+    @Test
+    @DisplayName("Should return first page with token of next page")
+    void shouldReturnFirstPageWithTokenOfNextPage() {
+        final var next = new GameHistoryCursor(LocalDateTime.of(2022, 5, 1, 10, 30), UUID.randomUUID());
+        when(userRepository.findByUuid(userUuid)).thenReturn(Optional.of(user));
+        when(gameResultRepository.findPageByUserUuid(userUuid, null, 1)).thenReturn(new GameHistoryPageDto(List.of(result), next));
+
+        final UserRecordPageDto page = sut.listPageByUuid(userUuid, null, 1);
+
+        assertThat(page.record()).containsExactly(result);
+        assertThat(GameHistoryCursor.fromToken(page.next())).isEqualTo(next);
+    }
+
+    @Test
+    @DisplayName("Should continue after cursor of given token")
+    void shouldContinueAfterCursorOfGivenToken() {
+        final var after = new GameHistoryCursor(LocalDateTime.of(2022, 5, 1, 10, 30, 15, 123), UUID.randomUUID());
+        when(userRepository.findByUuid(userUuid)).thenReturn(Optional.of(user));
+        when(gameResultRepository.findPageByUserUuid(userUuid, after, 10)).thenReturn(new GameHistoryPageDto(List.of(result), null));
+
+        final UserRecordPageDto page = sut.listPageByUuid(userUuid, after.toToken(), 10);
+
+        assertThat(page.record()).containsExactly(result);
+        assertThat(page.next()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should throw if page size is out of bounds")
+    void shouldThrowIfPageSizeIsOutOfBounds() {
+        assertThatIllegalArgumentException().isThrownBy(() -> sut.listPageByUuid(userUuid, null, 0));
+        assertThatIllegalArgumentException().isThrownBy(() -> sut.listPageByUuid(userUuid, null, UserRecordUseCase.MAX_PAGE_SIZE + 1));
+        verifyNoInteractions(gameResultRepository);
+    }
+
+    @Test
+    @DisplayName("Should throw if token is invalid")
+    void shouldThrowIfTokenIsInvalid() {
+        when(userRepository.findByUuid(userUuid)).thenReturn(Optional.of(user));
+        assertThatIllegalArgumentException().isThrownBy(() -> sut.listPageByUuid(userUuid, "not a cursor", 10));
+        assertThatIllegalArgumentException().isThrownBy(() -> sut.listPageByUuid(userUuid, "2022-05-01T10:30_x", 10));
+    }
+
+    @Test
+    @DisplayName("Should throw if user does not exist")
+    void shouldThrowIfUserDoesNotExist() {
+        when(userRepository.findByUuid(userUuid)).thenReturn(Optional.empty());
+        assertThatExceptionOfType(EntityNotFoundException.class).isThrownBy(() -> sut.listPageByUuid(userUuid, null, 10));
+    }
+}
@@ -31,6 +31,7 @@ import com.bueno.domain.usecases.game.repos.GameRepositoryInMemoryImpl;
 import com.bueno.domain.usecases.intel.converters.CardConverter;
 import com.bueno.domain.usecases.intel.converters.IntelConverter;
 import com.bueno.domain.usecases.utils.exceptions.GameNotFoundException;
+import com.bueno.domain.usecases.utils.exceptions.IntelStreamUnavailableException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -136,4 +137,12 @@ class HandleIntelUseCaseTest {
 
         assertThat(obtained.intelSinceBaseTimestamp()).isEqualTo(expected);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should throw if subscribes to intel without broadcaster")
+    void shouldThrowIfSubscribesToIntelWithoutBroadcaster() {
+        repo.save(GameConverter.toDto(game));
+        assertThatExceptionOfType(IntelStreamUnavailableException.class)
+                .isThrownBy(() -> sut.subscribe(p1Uuid, null, intel -> {}, () -> {}));
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+
+package com.bueno.domain.usecases.intel;
+
+import com.bueno.domain.entities.deck.Card;
+import com.bueno.domain.entities.game.Game;
+import com.bueno.domain.entities.hand.Hand;
+import com.bueno.domain.entities.player.Player;
+import com.bueno.domain.usecases.intel.dtos.IntelDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntelBroadcasterTest {
+
+    private Game game;
+    private UUID playerUuid;
+    private List<IntelDto> received;
+    private AtomicInteger closed;
+    private IntelBroadcaster sut;
+
+    @BeforeEach
+    void setUp() {
+        playerUuid = UUID.randomUUID();
+        game = new Game(Player.of(playerUuid, "Player1"), Player.of(UUID.randomUUID(), "Player2"));
+        received = new ArrayList<>();
+        closed = new AtomicInteger();
+        sut = new IntelBroadcaster(Runnable::run, 2);
+    }
+
+    @Test
+    @DisplayName("Should start from current intel without last intel timestamp")
+    void shouldStartFromCurrentIntelWithoutLastIntelTimestamp() {
+        play();
+        sut.subscribe(playerUuid, game, null, received::add, closed::incrementAndGet);
+        assertThat(received).extracting(IntelDto::timestamp).containsExactly(game.getIntel().timestamp());
+    }
+
+    @Test
+    @DisplayName("Should resume after last intel received")
+    void shouldResumeAfterLastIntelReceived() {
+        final var lastReceived = game.getIntel().timestamp();
+        play();
+        sut.subscribe(playerUuid, game, lastReceived, received::add, closed::incrementAndGet);
+        assertThat(received).extracting(IntelDto::event).containsExactly("PLAY");
+    }
+
+    @Test
+    @DisplayName("Should push only new intel when published")
+    void shouldPushOnlyNewIntelWhenPublished() {
+        sut.subscribe(playerUuid, game, null, received::add, closed::incrementAndGet);
+        play();
+        sut.publish(game);
+        sut.publish(game);
+        assertThat(received).extracting(IntelDto::event).containsExactly("HAND_START", "PLAY");
+    }
+
+    @Test
+    @DisplayName("Should not push intel after subscription is closed")
+    void shouldNotPushIntelAfterSubscriptionIsClosed() {
+        sut.subscribe(playerUuid, game, null, received::add, closed::incrementAndGet).close();
+        play();
+        sut.publish(game);
+        assertThat(received).hasSize(1);
+        assertThat(closed).hasValue(1);
+        assertThat(sut.subscribers()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should close subscription falling behind")
+    void shouldCloseSubscriptionFallingBehind() {
+        final List<Runnable> tasks = new ArrayList<>();
+        sut = new IntelBroadcaster(tasks::add, 2);
+        sut.subscribe(playerUuid, game, null, received::add, closed::incrementAndGet);
+        play();
+        sut.publish(game);
+        play();
+        sut.publish(game);
+        tasks.forEach(Runnable::run);
+        assertThat(received).isEmpty();
+        assertThat(closed).hasValue(1);
+        assertThat(sut.subscribers()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should close subscriptions of a deleted game only")
+    void shouldCloseSubscriptionsOfADeletedGameOnly() {
+        final Game otherGame =
+                new Game(Player.of(UUID.randomUUID(), "Player3"), Player.of(UUID.randomUUID(), "Player4"));
+        sut.subscribe(playerUuid, game, null, received::add, closed::incrementAndGet);
+        sut.subscribe(otherGame.getPlayer1().getUuid(), otherGame, null, received::add, closed::incrementAndGet);
+        sut.closeGame(game.getUuid());
+        assertThat(closed).hasValue(1);
+        assertThat(sut.subscribers()).isOne();
+    }
+
+    @Test
+    @DisplayName("Should tell whether a game has subscribers")
+    void shouldTellWhetherAGameHasSubscribers() {
+        final var subscription = sut.subscribe(playerUuid, game, null, received::add, closed::incrementAndGet);
+        assertThat(sut.isSubscribed(game.getUuid())).isTrue();
+        assertThat(sut.isSubscribed(UUID.randomUUID())).isFalse();
+        subscription.close();
+        assertThat(sut.isSubscribed(game.getUuid())).isFalse();
+    }
+
+    private void play() {
+        final Hand hand = game.currentHand();
+        final Player player = hand.getCurrentPlayer();
+        final Card card = player.play(player.getCards().get(0));
+        if (hand.getCardToPlayAgainst().isEmpty()) hand.playFirstCard(player, card);
+        else hand.playSecondCard(player, card);
+    }
+}
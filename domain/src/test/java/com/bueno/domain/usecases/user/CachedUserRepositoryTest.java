@@ -0,0 +1,133 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+
+package com.bueno.domain.usecases.user;
+
+import com.bueno.domain.usecases.user.dtos.ApplicationUserDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachedUserRepositoryTest {
+
+    @Mock private UserRepository store;
+    @Mock private Clock clock;
+
+    private ApplicationUserDto user;
+    private CachedUserRepository sut;
+
+    @BeforeEach
+    void setUp() {
+        user = new ApplicationUserDto(UUID.randomUUID(), "name", "password", "name@email.com");
+        lenient().when(clock.millis()).thenReturn(0L);
+        sut = new CachedUserRepository(store, 2, Duration.ofMinutes(5), clock);
+    }
+
+    @Test
+    @DisplayName("Should serve repeated lookups by any key from cache")
+    void shouldServeRepeatedLookupsByAnyKeyFromCache() {
+        when(store.findByUsername("name")).thenReturn(Optional.of(user));
+
+        assertThat(sut.findByUsername("name")).contains(user);
+        assertThat(sut.findByUuid(user.uuid())).contains(user);
+        assertThat(sut.findByEmail("name@email.com")).contains(user);
+        assertThat(sut.findByUsername("name")).contains(user);
+
+        verify(store, times(1)).findByUsername("name");
+        assertThat(sut.metrics().hits()).isEqualTo(3);
+        assertThat(sut.metrics().misses()).isEqualTo(1);
+        assertThat(sut.metrics().hitRate()).isEqualTo(0.75);
+    }
+
+    @Test
+    @DisplayName("Should not cache users not found")
+    void shouldNotCacheUsersNotFound() {
+        when(store.findByUsername("name")).thenReturn(Optional.empty()).thenReturn(Optional.of(user));
+
+        assertThat(sut.findByUsername("name")).isEmpty();
+        assertThat(sut.findByUsername("name")).contains(user);
+    }
+
+    @Test
+    @DisplayName("Should reload user after time to live")
+    void shouldReloadUserAfterTimeToLive() {
+        when(store.findByUuid(user.uuid())).thenReturn(Optional.of(user));
+
+        sut.findByUuid(user.uuid());
+        when(clock.millis()).thenReturn(Duration.ofMinutes(5).toMillis());
+        sut.findByUuid(user.uuid());
+
+        verify(store, times(2)).findByUuid(user.uuid());
+    }
+
+    @Test
+    @DisplayName("Should reload user after it is saved")
+    void shouldReloadUserAfterItIsSaved() {
+        final ApplicationUserDto renamed = new ApplicationUserDto(user.uuid(), "other", "password", "name@email.com");
+        when(store.findByUuid(user.uuid())).thenReturn(Optional.of(user)).thenReturn(Optional.of(renamed));
+
+        sut.findByUuid(user.uuid());
+        sut.save(renamed);
+
+        assertThat(sut.findByUuid(user.uuid())).contains(renamed);
+        verify(store).save(renamed);
+        verify(store, times(2)).findByUuid(user.uuid());
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used user when full")
+    void shouldEvictLeastRecentlyUsedUserWhenFull() {
+        final ApplicationUserDto second = new ApplicationUserDto(UUID.randomUUID(), "second", "password", "s@email.com");
+        final ApplicationUserDto third = new ApplicationUserDto(UUID.randomUUID(), "third", "password", "t@email.com");
+        when(store.findByUuid(user.uuid())).thenReturn(Optional.of(user));
+        when(store.findByUuid(second.uuid())).thenReturn(Optional.of(second));
+        when(store.findByUuid(third.uuid())).thenReturn(Optional.of(third));
+
+        sut.findByUuid(user.uuid());
+        when(clock.millis()).thenReturn(1L);
+        sut.findByUuid(second.uuid());
+        when(clock.millis()).thenReturn(2L);
+        sut.findByUuid(user.uuid());
+        sut.findByUuid(third.uuid());
+        sut.findByUuid(user.uuid());
+        sut.findByUuid(second.uuid());
+
+        verify(store, times(1)).findByUuid(user.uuid());
+        verify(store, times(2)).findByUuid(second.uuid());
+        assertThat(sut.metrics().size()).isEqualTo(2);
+        assertThat(sut.metrics().evictions()).isEqualTo(2);
+    }
+}
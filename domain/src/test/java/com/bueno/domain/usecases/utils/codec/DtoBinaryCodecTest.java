@@ -0,0 +1,146 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+
+package com.bueno.domain.usecases.utils.codec;
+
+import com.bueno.domain.entities.deck.Card;
+import com.bueno.domain.entities.game.Game;
+import com.bueno.domain.entities.hand.Hand;
+import com.bueno.domain.entities.player.Player;
+import com.bueno.domain.usecases.game.converter.GameConverter;
+import com.bueno.domain.usecases.game.dtos.GameDto;
+import com.bueno.domain.usecases.intel.dtos.CardDto;
+import com.bueno.domain.usecases.intel.dtos.IntelDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class DtoBinaryCodecTest {
+
+    //Game with one hand, encoded by the first version of the codec, when hands also held their possible actions.
+    private static final String VERSION_1_GAME =
+            "c701010100000000000000000000000000000003010000000061d0424000010107506c617965723101000000000000000000" +
+            "0000000000000100020c020107506c6179657232010000000000000000000000000000000200023901020100000000000000" +
+            "00000000000000000100020c020301000000000000000000000000000000020002390211030c390211010104010201000000" +
+            "0000000000000000000000000100020c02030100000000000000000000000000000002000239010201000000000000000000" +
+            "0000000000000100020c0000ff020000000000000000000007";
+
+    private GameDto game;
+
+    @BeforeEach
+    void setUp() {
+        final Game sut = new Game(Player.of(UUID.randomUUID(), "Player1"), Player.of(UUID.randomUUID(), "Player2"));
+        final Hand hand = sut.currentHand();
+        hand.raise(hand.getCurrentPlayer());
+        hand.accept(hand.getCurrentPlayer());
+        for (int i = 0; i < 2; i++) {
+            final Player player = hand.getCurrentPlayer();
+            final Card card = player.play(player.getCards().get(0));
+            if (hand.getCardToPlayAgainst().isEmpty()) hand.playFirstCard(player, card);
+            else hand.playSecondCard(player, card);
+        }
+        game = GameConverter.toDto(sut).withVersion(7);
+    }
+
+    @Test
+    @DisplayName("Should decode encoded game with the same content")
+    void shouldDecodeEncodedGameWithTheSameContent() {
+        final byte[] encoded = DtoBinaryCodec.encode(game);
+        final GameDto decoded = DtoBinaryCodec.decodeGame(ByteBuffer.wrap(encoded));
+
+        assertThat(DtoBinaryCodec.encode(decoded)).isEqualTo(encoded);
+        assertThat(decoded.gameUuid()).isEqualTo(game.gameUuid());
+        assertThat(decoded.timestamp()).isEqualTo(game.timestamp());
+        assertThat(decoded.version()).isEqualTo(7);
+        assertThat(decoded.player1().username()).isEqualTo("Player1");
+        assertThat(decoded.player1().cards()).isEqualTo(game.player1().cards());
+        assertThat(decoded.hands().get(0).dealtCards()).isEqualTo(game.hands().get(0).dealtCards());
+        assertThat(decoded.hands().get(0).roundsPlayed()).isEqualTo(game.hands().get(0).roundsPlayed());
+        assertThat(decoded.hands().get(0).points()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should decode encoded intel with the same content")
+    void shouldDecodeEncodedIntelWithTheSameContent() {
+        final IntelDto intel = game.hands().get(0).history().get(4);
+        final byte[] encoded = DtoBinaryCodec.encode(intel);
+        final IntelDto decoded = DtoBinaryCodec.decodeIntel(ByteBuffer.wrap(encoded));
+
+        assertThat(DtoBinaryCodec.encode(decoded)).isEqualTo(encoded);
+        assertThat(decoded.timestamp()).isEqualTo(intel.timestamp());
+        assertThat(decoded.handPoints()).isEqualTo(3);
+        assertThat(decoded.handPointsProposal()).isNull();
+        assertThat(decoded.roundWinnersUsernames()).isEqualTo(intel.roundWinnersUsernames());
+        assertThat(decoded.roundWinnersUuid()).isEqualTo(intel.roundWinnersUuid());
+        assertThat(decoded.openCards()).isEqualTo(intel.openCards());
+        assertThat(decoded.event()).isEqualTo("PLAY");
+        assertThat(decoded.eventPlayerUsername()).isEqualTo(intel.eventPlayerUsername());
+        assertThat(decoded.possibleActions()).isEqualTo(intel.possibleActions());
+    }
+
+    @Test
+    @DisplayName("Should decode consecutive messages from a direct buffer")
+    void shouldDecodeConsecutiveMessagesFromADirectBuffer() {
+        final byte[] encodedGame = DtoBinaryCodec.encode(game);
+        final byte[] encodedIntel = DtoBinaryCodec.encode(game.hands().get(0).history().get(0));
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(encodedGame.length + encodedIntel.length)
+                .put(encodedGame).put(encodedIntel).flip();
+
+        assertThat(DtoBinaryCodec.encode(DtoBinaryCodec.decodeGame(buffer))).isEqualTo(encodedGame);
+        assertThat(DtoBinaryCodec.encode(DtoBinaryCodec.decodeIntel(buffer))).isEqualTo(encodedIntel);
+        assertThat(buffer.hasRemaining()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reject unsupported codec version")
+    void shouldRejectUnsupportedCodecVersion() {
+        final byte[] encoded = DtoBinaryCodec.encode(game);
+        encoded[1] = DtoBinaryCodec.VERSION + 1;
+        assertThatIllegalArgumentException().isThrownBy(() -> DtoBinaryCodec.decodeGame(ByteBuffer.wrap(encoded)));
+    }
+
+    @Test
+    @DisplayName("Should reject message of another kind")
+    void shouldRejectMessageOfAnotherKind() {
+        final byte[] encoded = DtoBinaryCodec.encode(game);
+        assertThatIllegalArgumentException().isThrownBy(() -> DtoBinaryCodec.decodeIntel(ByteBuffer.wrap(encoded)));
+    }
+
+    @Test
+    @DisplayName("Should decode game encoded by the first codec version")
+    void shouldDecodeGameEncodedByTheFirstCodecVersion() {
+        final GameDto decoded = DtoBinaryCodec.decodeGame(ByteBuffer.wrap(HexFormat.of().parseHex(VERSION_1_GAME)));
+
+        assertThat(decoded.gameUuid()).isEqualTo(new UUID(0, 3));
+        assertThat(decoded.version()).isEqualTo(7);
+        assertThat(decoded.hands().get(0).dealtCards()).containsExactly(new CardDto("4", "C"), new CardDto("K", "D"));
+        assertThat(decoded.hands().get(0).currentPlayer().username()).isEqualTo("Player1");
+        assertThat(decoded.hands().get(0).points()).isEqualTo(1);
+        assertThat(DtoBinaryCodec.encode(decoded)[1]).isEqualTo((byte) DtoBinaryCodec.VERSION);
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.domain.usecases.utils.timer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class TimingWheelTest {
+
+    private TimingWheel<String> sut;
+
+    @BeforeEach
+    void setUp() {
+        sut = new TimingWheel<>(10, 8, 3, 0);
+    }
+
+    @Test
+    @DisplayName("Should not create wheel with invalid configuration")
+    void shouldNotCreateWheelWithInvalidConfiguration() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new TimingWheel<>(0, 8, 3, 0));
+        assertThatIllegalArgumentException().isThrownBy(() -> new TimingWheel<>(10, 1, 3, 0));
+        assertThatIllegalArgumentException().isThrownBy(() -> new TimingWheel<>(10, 8, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Should only expire key when its instant is reached")
+    void shouldOnlyExpireKeyWhenItsInstantIsReached() {
+        sut.schedule("a", 50);
+        assertThat(sut.advanceTo(40)).isEmpty();
+        assertThat(sut.advanceTo(50)).containsExactly("a");
+        assertThat(sut.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should expire key only once")
+    void shouldExpireKeyOnlyOnce() {
+        sut.schedule("a", 50);
+        sut.advanceTo(60);
+        assertThat(sut.advanceTo(1_000)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should expire keys of coarser levels at their instant")
+    void shouldExpireKeysOfCoarserLevelsAtTheirInstant() {
+        sut.schedule("second level", 250);
+        sut.schedule("third level", 3_000);
+        assertThat(sut.advanceTo(240)).isEmpty();
+        assertThat(sut.advanceTo(250)).containsExactly("second level");
+        assertThat(sut.advanceTo(2_990)).isEmpty();
+        assertThat(sut.advanceTo(3_000)).containsExactly("third level");
+    }
+
+    @Test
+    @DisplayName("Should expire keys beyond the span of the wheel at their instant")
+    void shouldExpireKeysBeyondTheSpanOfTheWheelAtTheirInstant() {
+        sut.schedule("far", 20_000);
+        sut.schedule("near", 10);
+        assertThat(sut.advanceTo(19_990)).containsExactly("near");
+        assertThat(sut.advanceTo(20_000)).containsExactly("far");
+    }
+
+    @Test
+    @DisplayName("Should expire keys scheduled in the past on next advance")
+    void shouldExpireKeysScheduledInThePastOnNextAdvance() {
+        sut.advanceTo(100);
+        sut.schedule("late", 30);
+        assertThat(sut.advanceTo(100)).containsExactly("late");
+    }
+
+    @Test
+    @DisplayName("Should replace previous instant if key is rescheduled")
+    void shouldReplacePreviousInstantIfKeyIsRescheduled() {
+        sut.schedule("a", 50);
+        sut.schedule("a", 500);
+        assertThat(sut.advanceTo(490)).isEmpty();
+        assertThat(sut.advanceTo(500)).containsExactly("a");
+    }
+
+    @Test
+    @DisplayName("Should keep previous instant if key is scheduled only if absent")
+    void shouldKeepPreviousInstantIfKeyIsScheduledOnlyIfAbsent() {
+        sut.schedule("a", 50);
+        assertThat(sut.scheduleIfAbsent("a", 500)).isFalse();
+        assertThat(sut.scheduleIfAbsent("b", 500)).isTrue();
+        assertThat(sut.advanceTo(60)).containsExactly("a");
+        assertThat(sut.advanceTo(500)).containsExactly("b");
+    }
+
+    @Test
+    @DisplayName("Should not expire cancelled key")
+    void shouldNotExpireCancelledKey() {
+        sut.schedule("a", 500);
+        assertThat(sut.cancel("a")).isTrue();
+        assertThat(sut.cancel("a")).isFalse();
+        assertThat(sut.contains("a")).isFalse();
+        assertThat(sut.advanceTo(1_000)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should expire every key in order of their instants when advanced tick by tick")
+    void shouldExpireEveryKeyInOrderOfTheirInstantsWhenAdvancedTickByTick() {
+        for (int i = 0; i < 500; i++) sut.schedule("key" + i, 10L * ((i * 37) % 500 + 1));
+        final List<String> expired = new ArrayList<>();
+        for (long now = 0; now <= 5_000; now += 10) {
+            for (String key : sut.advanceTo(now)) {
+                assertThat(10L * ((Integer.parseInt(key.substring(3)) * 37) % 500 + 1)).isEqualTo(now);
+                expired.add(key);
+            }
+        }
+        assertThat(expired).hasSize(500);
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.domain.usecases.utils.writebehind;
+
+import com.bueno.domain.usecases.utils.exceptions.WriteBehindRejectedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+class WriteBehindQueueTest {
+
+    private final List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+    private WriteBehindQueue<Integer> sut;
+
+    @AfterEach
+    void tearDown() {
+        if (sut != null) sut.close();
+    }
+
+    @Test
+    @DisplayName("Should write every buffered item on flush")
+    void shouldWriteEveryBufferedItemOnFlush() {
+        sut = new WriteBehindQueue<>("test", 100, 10, Duration.ofHours(1), Duration.ZERO, batches::add);
+        for (int i = 0; i < 25; i++) sut.add(i);
+        sut.flush();
+        assertThat(batches.stream().flatMap(List::stream).toList()).containsExactlyInAnyOrderElementsOf(range(25));
+        assertThat(sut.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not write batches larger than batch size")
+    void shouldNotWriteBatchesLargerThanBatchSize() {
+        sut = new WriteBehindQueue<>("test", 100, 10, Duration.ofHours(1), Duration.ZERO, batches::add);
+        for (int i = 0; i < 25; i++) sut.add(i);
+        sut.flush();
+        assertThat(batches).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(10));
+    }
+
+    @Test
+    @DisplayName("Should write in background without flushing")
+    void shouldWriteInBackgroundWithoutFlushing() throws InterruptedException {
+        final CountDownLatch written = new CountDownLatch(3);
+        sut = new WriteBehindQueue<>("test", 100, 10, Duration.ofMillis(10), Duration.ZERO,
+                batch -> batch.forEach(item -> written.countDown()));
+        for (int i = 0; i < 3; i++) sut.add(i);
+        assertThat(written.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject items when buffer stays full")
+    void shouldRejectItemsWhenBufferStaysFull() throws InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch writing = new CountDownLatch(1);
+        sut = new WriteBehindQueue<>("test", 1, 1, Duration.ofMillis(10), Duration.ZERO, batch -> {
+            if (batch.contains(0)) {
+                writing.countDown();
+                await(release);
+            }
+            batches.add(batch);
+        });
+        sut.add(0);
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        sut.add(1);
+        assertThatExceptionOfType(WriteBehindRejectedException.class).isThrownBy(() -> sut.add(2));
+        assertThat(sut.blockedOffers()).isEqualTo(1);
+        assertThat(sut.rejectedItems()).isEqualTo(1);
+        assertThat(batches).isEmpty();
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Should retry failed batches")
+    void shouldRetryFailedBatches() {
+        final AtomicInteger attempts = new AtomicInteger();
+        sut = new WriteBehindQueue<>("test", 10, 10, Duration.ofHours(1), Duration.ZERO, batch -> {
+            if (attempts.incrementAndGet() == 1) throw new IllegalStateException("Store unavailable.");
+            batches.add(batch);
+        });
+        sut.add(1);
+        sut.flush();
+        assertThat(batches).containsExactly(List.of(1));
+        assertThat(sut.droppedItems()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep retrying a batch in background until the store accepts it")
+    void shouldKeepRetryingABatchInBackgroundUntilTheStoreAcceptsIt() throws InterruptedException {
+        final AtomicInteger failures = new AtomicInteger(4);
+        final CountDownLatch written = new CountDownLatch(1);
+        sut = new WriteBehindQueue<>("test", 10, 10, Duration.ofMillis(10), Duration.ZERO, batch -> {
+            if (failures.getAndDecrement() > 0) throw new IllegalStateException("Store unavailable.");
+            batches.add(batch);
+            written.countDown();
+        });
+        sut.add(1);
+        assertThat(written.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(batches).containsExactly(List.of(1));
+        assertThat(sut.droppedItems()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should throw from flush and keep the items if the store fails")
+    void shouldThrowFromFlushAndKeepTheItemsIfTheStoreFails() {
+        final AtomicBoolean available = new AtomicBoolean();
+        sut = new WriteBehindQueue<>("test", 10, 10, Duration.ofHours(1), Duration.ZERO, batch -> {
+            if (!available.get()) throw new IllegalStateException("Store unavailable.");
+            batches.add(batch);
+        });
+        sut.add(1);
+        assertThatIllegalStateException().isThrownBy(sut::flush);
+        available.set(true);
+        sut.flush();
+        assertThat(batches).containsExactly(List.of(1));
+        assertThat(sut.droppedItems()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should throw to the producer if its synchronous write fails")
+    void shouldThrowToTheProducerIfItsSynchronousWriteFails() {
+        sut = new WriteBehindQueue<>("test", 10, 10, Duration.ofHours(1), Duration.ZERO, batch -> {
+            throw new IllegalStateException("Store unavailable.");
+        });
+        sut.close();
+        assertThatIllegalStateException().isThrownBy(() -> sut.add(1));
+    }
+
+    @Test
+    @DisplayName("Should only drop items it can not write when closed")
+    void shouldOnlyDropItemsItCanNotWriteWhenClosed() {
+        sut = new WriteBehindQueue<>("test", 10, 10, Duration.ofHours(1), Duration.ZERO, batch -> {
+            throw new IllegalStateException("Store unavailable.");
+        });
+        for (int i = 0; i < 3; i++) sut.add(i);
+        sut.close();
+        assertThat(sut.droppedItems()).isEqualTo(3);
+        assertThat(sut.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should drain buffer when closed")
+    void shouldDrainBufferWhenClosed() {
+        sut = new WriteBehindQueue<>("test", 100, 10, Duration.ofHours(1), Duration.ZERO, batches::add);
+        for (int i = 0; i < 25; i++) sut.add(i);
+        sut.close();
+        assertThat(sut.writtenItems()).isEqualTo(25);
+    }
+
+    @Test
+    @DisplayName("Should write synchronously after being closed")
+    void shouldWriteSynchronouslyAfterBeingClosed() {
+        sut = new WriteBehindQueue<>("test", 100, 10, Duration.ofHours(1), Duration.ZERO, batches::add);
+        sut.close();
+        sut.add(1);
+        assertThat(batches).containsExactly(List.of(1));
+    }
+
+    @Test
+    @DisplayName("Should not accept invalid capacity or batch size")
+    void shouldNotAcceptInvalidCapacityOrBatchSize() {
+        assertThatIllegalArgumentException().isThrownBy(() ->
+                new WriteBehindQueue<Integer>("test", 0, 1, Duration.ZERO, Duration.ZERO, batches::add));
+        assertThatIllegalArgumentException().isThrownBy(() ->
+                new WriteBehindQueue<Integer>("test", 1, 0, Duration.ZERO, Duration.ZERO, batches::add));
+    }
+
+    private static List<Integer> range(int size) {
+        return java.util.stream.IntStream.range(0, size).boxed().toList();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
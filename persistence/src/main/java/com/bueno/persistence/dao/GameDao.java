@@ -22,10 +22,19 @@ package com.bueno.persistence.dao;
 
 import com.bueno.persistence.dto.GameEntity;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface GameDao extends MongoRepository<GameEntity, UUID> {
-    Optional<GameEntity> findByPlayer1OrPlayer2(UUID player1, UUID player2);
+    @Query("{ 'playerIds' : ?0 }")
+    Optional<GameEntity> findByPlayerId(UUID playerId);
+
+    //Games are returned with their id, players and current player only.
+    @Query(value = "{ 'lastActivity' : { $lt : ?0 } }",
+            fields = "{ 'player1' : 1, 'player2' : 1, 'currentPlayer' : 1 }")
+    List<GameEntity> findPlayersByLastActivityBefore(Instant instant);
 }
@@ -21,29 +21,23 @@
 package com.bueno.persistence.dao;
 
 import com.bueno.persistence.dto.GameResultEntity;
+import com.bueno.persistence.dto.GameHistoryQR;
 import com.bueno.persistence.dto.GameResultQR;
-import com.bueno.persistence.dto.PlayerWinsQR;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface GameResultDao extends JpaRepository<GameResultEntity, UUID> {
 
-    @Query("""
-            SELECT a.username as username, count(a.username) as wins
-            FROM UserEntity a
-            RIGHT JOIN GameResultEntity b ON a.uuid = b.winnerUuid
-            GROUP BY username
-            ORDER BY username
-            """
-    )
-    List<PlayerWinsQR> findTopWinners(Pageable pageable);
+    @Query("SELECT g.gameUuid FROM GameResultEntity g WHERE g.gameUuid IN :ids")
+    List<UUID> findStoredIds(@Param("ids") Collection<UUID> ids);
 
     @Query(
             value = """
@@ -69,4 +63,51 @@ public interface GameResultDao extends JpaRepository<GameResultEntity, UUID> {
             , nativeQuery = true
     )
     List<GameResultQR> findAllByPlayerUuid(@Param("uuid") UUID uuid);
+
+    // Each branch of the union is a range scan on one of the (player, game_end_time, game_id) indexes, stopping
+    // after size rows, so the cost of a page does not depend on how long the history is.
+    @Query(
+            value = """
+            SELECT page.game_id gameId, page.game_end_time ending, p1.username player1, p2.username player2, win.username winner
+            FROM (
+                (SELECT game_id, game_end_time, player1, player2, winner FROM game_result
+                WHERE player1 = :uuid
+                ORDER BY game_end_time DESC, game_id DESC LIMIT :size)
+                UNION ALL
+                (SELECT game_id, game_end_time, player1, player2, winner FROM game_result
+                WHERE player2 = :uuid AND player1 <> :uuid
+                ORDER BY game_end_time DESC, game_id DESC LIMIT :size)
+            ) AS page
+            LEFT JOIN app_user p1 ON p1.id = page.player1
+            LEFT JOIN app_user p2 ON p2.id = page.player2
+            LEFT JOIN app_user win ON win.id = page.winner
+            ORDER BY page.game_end_time DESC, page.game_id DESC
+            LIMIT :size
+            """
+            , nativeQuery = true
+    )
+    List<GameHistoryQR> findFirstHistoryPage(@Param("uuid") UUID uuid, @Param("size") int size);
+
+    @Query(
+            value = """
+            SELECT page.game_id gameId, page.game_end_time ending, p1.username player1, p2.username player2, win.username winner
+            FROM (
+                (SELECT game_id, game_end_time, player1, player2, winner FROM game_result
+                WHERE player1 = :uuid AND (game_end_time, game_id) < (:endTime, :gameId)
+                ORDER BY game_end_time DESC, game_id DESC LIMIT :size)
+                UNION ALL
+                (SELECT game_id, game_end_time, player1, player2, winner FROM game_result
+                WHERE player2 = :uuid AND player1 <> :uuid AND (game_end_time, game_id) < (:endTime, :gameId)
+                ORDER BY game_end_time DESC, game_id DESC LIMIT :size)
+            ) AS page
+            LEFT JOIN app_user p1 ON p1.id = page.player1
+            LEFT JOIN app_user p2 ON p2.id = page.player2
+            LEFT JOIN app_user win ON win.id = page.winner
+            ORDER BY page.game_end_time DESC, page.game_id DESC
+            LIMIT :size
+            """
+            , nativeQuery = true
+    )
+    List<GameHistoryQR> findHistoryPageAfter(@Param("uuid") UUID uuid, @Param("endTime") LocalDateTime endTime,
+                                             @Param("gameId") UUID gameId, @Param("size") int size);
 }
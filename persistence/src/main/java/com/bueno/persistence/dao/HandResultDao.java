@@ -22,9 +22,23 @@ package com.bueno.persistence.dao;
 
 import com.bueno.persistence.dto.HandResultEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.stream.Stream;
+
 @Repository
 public interface HandResultDao extends JpaRepository<HandResultEntity, Long> {
 
+    // The fetch size makes the driver read rows through a server-side cursor instead of loading the whole result.
+    // The stream must be consumed inside a read-only transaction and closed afterwards.
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT h FROM HandResultEntity h WHERE h.id > :afterId ORDER BY h.id")
+    Stream<HandResultEntity> streamAfter(@Param("afterId") long afterId);
 }
@@ -0,0 +1,61 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.persistence.dao;
+
+import com.bueno.persistence.dto.PlayerStatsEntity;
+import com.bueno.persistence.dto.PlayerWinsQR;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PlayerStatsDao extends JpaRepository<PlayerStatsEntity, UUID> {
+
+    @Query("""
+            SELECT u.username as username, s.wins as wins
+            FROM PlayerStatsEntity s
+            JOIN UserEntity u ON u.uuid = s.userUuid
+            ORDER BY s.wins DESC, s.userUuid
+            """
+    )
+    List<PlayerWinsQR> findTopWinners(Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query(
+            value = """
+            INSERT INTO player_stats (user_id, wins, losses, games) VALUES (:uuid, :wins, :losses, 1)
+            ON CONFLICT (user_id) DO UPDATE SET
+                wins = player_stats.wins + EXCLUDED.wins,
+                losses = player_stats.losses + EXCLUDED.losses,
+                games = player_stats.games + 1
+            """
+            , nativeQuery = true
+    )
+    void addGame(@Param("uuid") UUID uuid, @Param("wins") int wins, @Param("losses") int losses);
+}
@@ -21,18 +21,24 @@
 package com.bueno.persistence.dto;
 
 import com.bueno.domain.usecases.game.dtos.GameDto;
+import com.bueno.domain.usecases.game.dtos.InactiveGameDto;
 import com.bueno.domain.usecases.game.dtos.PlayerDto;
+import com.bueno.domain.usecases.intel.dtos.IntelDto;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import javax.persistence.Id;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Data
 @AllArgsConstructor
@@ -45,9 +51,17 @@ public class GameEntity {
     private LocalDateTime timestamp;
     private UUID player1;
     private UUID player2;
+    @Indexed
+    private List<UUID> playerIds;
+    private List<PlayerEntity> players;
     private UUID firstToPlay;
     private UUID lastToPlay;
     private List<HandEntity> hands;
+    //Current player of the last hand, so inactive games are queried without their hands.
+    private UUID currentPlayer;
+    @Indexed
+    private Instant lastActivity;
+    private long version;
 
     public static GameEntity from(GameDto dto){
         return GameEntity.builder()
@@ -55,13 +69,28 @@ public class GameEntity {
                 .timestamp(dto.timestamp())
                 .player1(dto.player1().uuid())
                 .player2(dto.player2().uuid())
+                .playerIds(List.of(dto.player1().uuid(), dto.player2().uuid()))
+                .players(List.of(PlayerEntity.from(dto.player1()), PlayerEntity.from(dto.player2())))
                 .firstToPlay(dto.firstToPlay().uuid())
                 .lastToPlay(dto.lastToPlay().uuid())
                 .hands(dto.hands().stream().map(HandEntity::from).toList())
+                .currentPlayer(InactiveGameDto.of(dto).currentPlayerUuid())
+                .lastActivity(lastActivityOf(dto))
+                .version(dto.version())
                 .build();
     }
 
-    public GameDto toDto(Map<UUID, PlayerDto> players){
+    private static Instant lastActivityOf(GameDto dto){
+        if(dto.hands().isEmpty()) return Instant.now();
+        final List<IntelDto> history = dto.hands().get(dto.hands().size() - 1).history();
+        if(history.isEmpty()) return Instant.now();
+        return history.get(history.size() - 1).timestamp();
+    }
+
+    public GameDto toDto(){
+        final Map<UUID, PlayerDto> players = this.players.stream()
+                .map(PlayerEntity::toDto)
+                .collect(Collectors.toMap(PlayerDto::uuid, Function.identity()));
         return new GameDto(
                 id,
                 timestamp,
@@ -69,7 +98,8 @@ public class GameEntity {
                 players.get(player2),
                 players.get(firstToPlay),
                 players.get(lastToPlay),
-                hands.stream().map(hand -> hand.toDto(players)).toList()
+                hands.stream().map(hand -> hand.toDto(players)).toList(),
+                version
         );
     }
 }
@@ -18,12 +18,10 @@
  *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
  */
 
-package com.bueno.persistence.dao;
-
-import com.bueno.persistence.dto.PlayerEntity;
-import org.springframework.data.mongodb.repository.MongoRepository;
+package com.bueno.persistence.dto;
 
 import java.util.UUID;
 
-public interface PlayerDao extends MongoRepository<PlayerEntity, UUID> {
+public interface GameHistoryQR extends GameResultQR {
+    UUID getGameId();
 }
@@ -30,7 +30,6 @@ import lombok.NoArgsConstructor;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 import java.util.function.Function;
 
@@ -44,7 +43,6 @@ public class HandEntity {
     private List<String> openCards;
     private List<RoundEntity> roundsPlayed;
     private List<IntelEntity> history;
-    private Set<String> possibleActions;
     private UUID firstToPlay;
     private UUID lastToPlay;
     private UUID currentPlayer;
@@ -54,7 +52,7 @@ public class HandEntity {
     private int points;
     private int pointsProposal;
     private UUID winner;
-    private String state;
+    private HandStateId state;
 
     public static HandEntity from(HandDto dto){
         final Function<List<CardDto>, List<String>> mapToString = dtos -> dtos.stream().map(CardDto::toString).toList();
@@ -67,7 +65,6 @@ public class HandEntity {
                 .openCards(mapToString.apply(dto.openCards()))
                 .roundsPlayed(roundEntities)
                 .history(history)
-                .possibleActions(dto.possibleActions())
                 .firstToPlay(dto.firstToPlay().uuid())
                 .lastToPlay(dto.lastToPlay().uuid())
                 .currentPlayer(playerUuidOrNull.apply(dto.currentPlayer()))
@@ -77,7 +74,7 @@ public class HandEntity {
                 .points(dto.points())
                 .pointsProposal(dto.pointsProposal())
                 .winner(dto.winner() != null ? dto.winner().uuid() : null)
-                .state(dto.state())
+                .state(new HandStateId(dto.state()))
                 .build();
     }
 
@@ -91,7 +88,6 @@ public class HandEntity {
                 openCards.stream().map(toCardDto).toList(),
                 roundsPlayed.stream().map(round -> round.toDto(players)).toList(),
                 history.stream().map(IntelEntity::toDto).toList(),
-                possibleActions,
                 players.get(firstToPlay),
                 players.get(lastToPlay),
                 toPlayerDtoOrNull.apply(currentPlayer),
@@ -101,6 +97,6 @@ public class HandEntity {
                 points,
                 pointsProposal,
                 toPlayerDtoOrNull.apply(winner),
-                state);
+                state.id());
     }
 }
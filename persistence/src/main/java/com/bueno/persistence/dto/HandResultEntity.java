@@ -38,7 +38,8 @@ import java.util.UUID;
 @Table(name = "HAND_RESULT")
 public class HandResultEntity {
 
-    @Id @GeneratedValue(strategy= GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "hand_result_seq")
+    @SequenceGenerator(name = "hand_result_seq", sequenceName = "HAND_RESULT_SEQ", allocationSize = 50)
     private long id;
 
     @Column(name = "HAND_TYPE", length = 9)
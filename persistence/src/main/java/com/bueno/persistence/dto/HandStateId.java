@@ -0,0 +1,69 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.persistence.dto;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+
+import java.util.List;
+import java.util.Map;
+
+//Id of the domain HandState of a stored hand, written as a plain number. Hand states used to be stored by name, so
+//names are read as well and game documents stored before the change still load. The conversions only apply to this
+//type, leaving every other string and number of the documents to the default conversions.
+public record HandStateId(int id) {
+    private static final Map<String, Integer> LEGACY_STATES = Map.of(
+            "NOCARD", 0,
+            "ONECARD", 1,
+            "WAITINGRAISERESPONSE", 2,
+            "WAITINGMAODEONZE", 3,
+            "DONE", 4);
+
+    public static List<Converter<?, ?>> converters() {
+        return List.of(new IdReader(), new NameReader(), new IdWriter());
+    }
+
+    @ReadingConverter
+    private static class IdReader implements Converter<Integer, HandStateId> {
+        @Override
+        public HandStateId convert(Integer source) {
+            return new HandStateId(source);
+        }
+    }
+
+    @ReadingConverter
+    private static class NameReader implements Converter<String, HandStateId> {
+        @Override
+        public HandStateId convert(String source) {
+            final Integer stateId = LEGACY_STATES.get(source);
+            return new HandStateId(stateId != null ? stateId : Integer.parseInt(source));
+        }
+    }
+
+    @WritingConverter
+    private static class IdWriter implements Converter<HandStateId, Integer> {
+        @Override
+        public Integer convert(HandStateId source) {
+            return source.id();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.persistence.export;
+
+import com.bueno.persistence.dao.HandResultDao;
+import com.bueno.persistence.dto.HandResultEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes hand results as NDJSON, one object per line in id order. Rows are read through a database cursor and
+ * detached once written, so memory use does not depend on the number of rows. Every line carries the row id: an
+ * interrupted export is resumed by passing the id of the last complete line as the starting position.
+ * <p>
+ * Ids do not follow commit order: the pooled sequence reserves blocks of 50 ids for each application instance, and
+ * batches are written by the write-behind queue while producers facing a full buffer write their own rows. A row may
+ * therefore be committed after a row with a higher id, and an export resumed from that higher id never returns it.
+ * Resuming is meant for interrupted transfers of a quiet table; to collect rows committed in the meantime, resume from
+ * an earlier id and skip the ids already received.
+ */
+@Component
+public class HandResultExporter {
+
+    private static final int FLUSH_EVERY_ROWS = 1000;
+
+    private final HandResultDao dao;
+    private final EntityManager entityManager;
+
+    public HandResultExporter(HandResultDao dao, EntityManager entityManager) {
+        this.dao = dao;
+        this.entityManager = entityManager;
+    }
+
+    //Returns the id of the last exported row, or afterId if there was nothing to export.
+    @Transactional(readOnly = true)
+    public long exportAfter(long afterId, OutputStream out) {
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long lastId = afterId;
+        int rows = 0;
+        try (Stream<HandResultEntity> stream = dao.streamAfter(afterId)) {
+            final Iterator<HandResultEntity> results = stream.iterator();
+            while (results.hasNext()) {
+                final HandResultEntity result = results.next();
+                writeLine(writer, result);
+                entityManager.detach(result);
+                lastId = result.getId();
+                if (++rows % FLUSH_EVERY_ROWS == 0) writer.flush();
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return lastId;
+    }
+
+    private void writeLine(Writer writer, HandResultEntity result) throws IOException {
+        final StringBuilder line = new StringBuilder(512).append('{');
+        field(line, "id", result.getId());
+        field(line, "gameUuid", result.getGameUuid());
+        field(line, "handType", result.getHandType());
+        field(line, "handWinner", result.getHandWinner());
+        field(line, "points", result.getPoints());
+        field(line, "pointsProposal", result.getPointsProposal());
+        field(line, "vira", result.getVira());
+        field(line, "r1c1", result.getCard1Round1());
+        field(line, "r1c2", result.getCard2Round1());
+        field(line, "r1Winner", result.getRound1Winner());
+        field(line, "r2c1", result.getCard1Round2());
+        field(line, "r2c2", result.getCard2Round2());
+        field(line, "r2Winner", result.getRound2Winner());
+        field(line, "r3c1", result.getCard1Round3());
+        field(line, "r3c2", result.getCard2Round3());
+        field(line, "r3Winner", result.getRound3Winner());
+        line.setCharAt(line.length() - 1, '}');
+        writer.write(line.append('\n').toString());
+    }
+
+    private void field(StringBuilder line, String name, Object value) {
+        line.append('"').append(name).append("\":");
+        if (value == null) line.append("null");
+        else if (value instanceof Number) line.append(value);
+        else quote(line, value.toString());
+        line.append(',');
+    }
+
+    private void quote(StringBuilder line, String value) {
+        line.append('"');
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> {
+                    if (c < 0x20) line.append(String.format("\\u%04x", (int) c));
+                    else line.append(c);
+                }
+            }
+        }
+        line.append('"');
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.persistence.log;
+
+import com.bueno.domain.usecases.game.dtos.GameDto;
+import com.bueno.persistence.dto.GameEntity;
+import com.mongodb.MongoClientSettings;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinarySubType;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.UuidRepresentation;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.UuidCodec;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.io.BasicOutputBuffer;
+import org.bson.types.Binary;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+//Stores games as the BSON of their Mongo documents, so the log keeps the same mapping as the Mongo repository.
+class GameDocumentCodec {
+
+    private final MongoConverter converter;
+    private final Codec<Document> codec = new DocumentCodec(CodecRegistries.fromRegistries(
+            CodecRegistries.fromCodecs(new UuidCodec(UuidRepresentation.STANDARD)),
+            MongoClientSettings.getDefaultCodecRegistry()));
+
+    GameDocumentCodec(MongoConverter converter) {
+        this.converter = converter;
+    }
+
+    Document toDocument(GameEntity game) {
+        final Document document = new Document();
+        converter.write(game, document);
+        return document;
+    }
+
+    byte[] encode(Document document) {
+        final BasicOutputBuffer buffer = new BasicOutputBuffer();
+        try (BsonBinaryWriter writer = new BsonBinaryWriter(buffer)) {
+            codec.encode(writer, document, EncoderContext.builder().build());
+        }
+        return buffer.toByteArray();
+    }
+
+    Document decode(byte[] bson) {
+        try (BsonBinaryReader reader = new BsonBinaryReader(ByteBuffer.wrap(bson))) {
+            return (Document) restoreUuids(codec.decode(reader, DecoderContext.builder().build()));
+        }
+    }
+
+    GameDto toDto(Document document) {
+        return converter.read(GameEntity.class, document).toDto();
+    }
+
+    //Depending on the driver version, nested codecs decode UUIDs as binaries, which the Mongo converter cannot read.
+    private static Object restoreUuids(Object value) {
+        if (value instanceof Document document) {
+            document.replaceAll((key, field) -> restoreUuids(field));
+            return document;
+        }
+        if (value instanceof List<?> list) return list.stream().map(GameDocumentCodec::restoreUuids).collect(Collectors.toCollection(ArrayList::new));
+        if (value instanceof Binary binary && binary.getType() == BsonBinarySubType.UUID_STANDARD.getValue()) {
+            final ByteBuffer bytes = ByteBuffer.wrap(binary.getData());
+            return new UUID(bytes.getLong(), bytes.getLong());
+        }
+        return value;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+
+package com.bueno.persistence.log;
+
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Computes and applies the change between two stored versions of a game document. Hands are only appended and their
+ * history only grows, so a move is described by the fields it changed, the hands it started and the history entries
+ * it pushed. The pushed entries are the intel of the move, which keeps the sequence of events of a game auditable.
+ */
+final class GameDocumentDiff {
+
+    private static final String SET = "set";
+    private static final String UNSET = "unset";
+    private static final String HANDS = "hands";
+    private static final String HISTORY = "history";
+    private static final String INDEX = "index";
+    private static final String HAND = "hand";
+    private static final String PUSH = "push";
+
+    private GameDocumentDiff() {}
+
+    //Empty when the change can not be described incrementally, which is left to a full snapshot.
+    @SuppressWarnings("unchecked")
+    static Optional<Document> diff(Document written, Document current) {
+        final Document event = changedFields(written, current, Set.of("_id", HANDS));
+
+        final List<Document> writtenHands = written.getList(HANDS, Document.class, List.of());
+        final List<Document> currentHands = current.getList(HANDS, Document.class, List.of());
+        if (currentHands.size() < writtenHands.size()) return Optional.empty();
+
+        final List<Document> handChanges = new ArrayList<>();
+        for (int i = 0; i < currentHands.size(); i++) {
+            if (i >= writtenHands.size()) {
+                handChanges.add(new Document(INDEX, i).append(HAND, currentHands.get(i)));
+                continue;
+            }
+            final Document writtenHand = writtenHands.get(i);
+            final Document currentHand = currentHands.get(i);
+            final Document handChange = changedFields(writtenHand, currentHand, Set.of(HISTORY));
+
+            final List<Object> writtenHistory = (List<Object>) writtenHand.get(HISTORY, List.class);
+            final List<Object> currentHistory = (List<Object>) currentHand.get(HISTORY, List.class);
+            if (currentHistory.size() < writtenHistory.size()) return Optional.empty();
+            if (!currentHistory.subList(0, writtenHistory.size()).equals(writtenHistory)) return Optional.empty();
+            if (currentHistory.size() > writtenHistory.size())
+                handChange.append(PUSH, new ArrayList<>(currentHistory.subList(writtenHistory.size(), currentHistory.size())));
+            if (!handChange.isEmpty()) handChanges.add(handChange.append(INDEX, i));
+        }
+        if (!handChanges.isEmpty()) event.append(HANDS, handChanges);
+        return Optional.of(event);
+    }
+
+    @SuppressWarnings("unchecked")
+    static void apply(Document document, Document event) {
+        applyFields(document, event);
+        final List<Document> hands = new ArrayList<>(document.getList(HANDS, Document.class, List.of()));
+        for (Document handChange : event.getList(HANDS, Document.class, List.of())) {
+            final int index = handChange.getInteger(INDEX);
+            if (handChange.containsKey(HAND)) {
+                final Document hand = handChange.get(HAND, Document.class);
+                if (index < hands.size()) hands.set(index, hand);
+                else hands.add(hand);
+                continue;
+            }
+            final Document hand = hands.get(index);
+            applyFields(hand, handChange);
+            final List<Object> pushed = (List<Object>) handChange.get(PUSH, List.class);
+            if (pushed != null) {
+                final List<Object> history = new ArrayList<>((List<Object>) hand.get(HISTORY, List.class));
+                history.addAll(pushed);
+                hand.put(HISTORY, history);
+            }
+        }
+        if (event.containsKey(HANDS)) document.put(HANDS, hands);
+    }
+
+    private static Document changedFields(Document written, Document current, Set<String> ignored) {
+        final Document set = new Document();
+        current.forEach((key, value) -> {
+            if (!ignored.contains(key) && !Objects.equals(written.get(key), value)) set.append(key, value);
+        });
+        final List<String> unset = written.keySet().stream()
+                .filter(key -> !ignored.contains(key) && !current.containsKey(key))
+                .toList();
+        final Document change = new Document();
+        if (!set.isEmpty()) change.append(SET, set);
+        if (!unset.isEmpty()) change.append(UNSET, unset);
+        return change;
+    }
+
+    private static void applyFields(Document document, Document change) {
+        final Document set = change.get(SET, Document.class);
+        if (set != null) document.putAll(set);
+        change.getList(UNSET, String.class, List.of()).forEach(document::remove);
+    }
+}
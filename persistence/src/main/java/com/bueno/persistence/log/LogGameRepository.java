@@ -0,0 +1,286 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.persistence.log;
+
+import com.bueno.domain.usecases.game.dtos.GameDto;
+import com.bueno.domain.usecases.game.dtos.InactiveGameDto;
+import com.bueno.domain.usecases.game.repos.GameRepository;
+import com.bueno.domain.usecases.utils.exceptions.ConcurrentGameUpdateException;
+import com.bueno.persistence.dto.GameEntity;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+import org.bson.Document;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Game repository storing games in a {@link SegmentedLog}. Every move of a game is appended as an event holding the
+ * change to the stored game document, and every {@code snapshotEvery} records a full snapshot of the game is written
+ * instead, so reading a game decodes its latest snapshot and applies the few events that followed it. Deletions are
+ * appended as tombstones. An in-memory index, rebuilt by replaying the log when the repository is created, maps games
+ * and players to the positions of their live records, along with the last activity of each game, which inactivity
+ * queries read without decoding any game. Superseded records are reclaimed by {@link #compact()}.
+ */
+public class LogGameRepository implements GameRepository, AutoCloseable {
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final byte EVENT = 3;
+    private static final int PUT_HEADER_BYTES = 16 + Long.BYTES + 16 + 16 + Long.BYTES;
+    private static final int EVENT_HEADER_BYTES = 16 + Long.BYTES + Long.BYTES;
+
+    private final SegmentedLog log;
+    private final GameDocumentCodec codec;
+    private final double maxLiveRatio;
+    private final int snapshotEvery;
+    private final Map<UUID, Entry> games = new ConcurrentHashMap<>();
+    private final Map<UUID, UUID> gameByPlayer = new ConcurrentHashMap<>();
+
+    //Events are kept in version order, which may differ from their order in the log after a compaction.
+    private record Entry(long snapshot, long[] events, long version, UUID player1, UUID player2, long lastActivity) {
+        Entry withSnapshot(long position) {
+            return new Entry(position, events, version, player1, player2, lastActivity);
+        }
+
+        Entry withEvent(long position, long newVersion, long newLastActivity) {
+            final long[] appended = Arrays.copyOf(events, events.length + 1);
+            appended[events.length] = position;
+            return new Entry(snapshot, appended, newVersion, player1, player2, newLastActivity);
+        }
+
+        Entry withRelocatedEvent(long from, long to) {
+            final long[] relocated = events.clone();
+            for (int i = 0; i < relocated.length; i++) if (relocated[i] == from) relocated[i] = to;
+            return new Entry(snapshot, relocated, version, player1, player2, lastActivity);
+        }
+
+        boolean references(long position) {
+            return snapshot == position || Arrays.stream(events).anyMatch(event -> event == position);
+        }
+    }
+
+    private record RecoveredSnapshot(long position, long version, UUID player1, UUID player2) {}
+
+    public LogGameRepository(SegmentedLog log, MongoConverter converter, double maxLiveRatio, int snapshotEvery) {
+        if (snapshotEvery < 1) throw new IllegalArgumentException("Snapshot interval must be positive: " + snapshotEvery);
+        this.log = Objects.requireNonNull(log);
+        this.codec = new GameDocumentCodec(converter);
+        this.maxLiveRatio = maxLiveRatio;
+        this.snapshotEvery = snapshotEvery;
+        recover();
+    }
+
+    @Override
+    public synchronized void save(GameDto game) {
+        final GameEntity entity = GameEntity.from(game);
+        appendSnapshot(game, entity, codec.toDocument(entity));
+    }
+
+    @Override
+    public synchronized void update(GameDto gameDto) {
+        final Entry stored = games.get(gameDto.gameUuid());
+        if (stored == null) return;
+        if (stored.version() != gameDto.version())
+            throw new ConcurrentGameUpdateException("Game " + gameDto.gameUuid() + " was updated concurrently.");
+        final GameDto updated = gameDto.withVersion(gameDto.version() + 1);
+        final GameEntity entity = GameEntity.from(updated);
+        final Document document = codec.toDocument(entity);
+        final Optional<Document> event = stored.events().length + 1 < snapshotEvery
+                ? GameDocumentDiff.diff(readDocument(stored), document)
+                : Optional.empty();
+        if (event.isPresent()) appendEvent(updated, entity, stored, event.get());
+        else appendSnapshot(updated, entity, document);
+    }
+
+    @Override
+    public synchronized void delete(UUID uuid) {
+        final Entry removed = games.remove(uuid);
+        if (removed != null) {
+            log.append(DELETE, new Payloads.Writer().uuid(uuid).toByteArray());
+            unindex(uuid, removed);
+        }
+    }
+
+    @Override
+    public Optional<GameDto> findByPlayerUuid(UUID playerUuid) {
+        return findGameUuidByPlayerUuid(playerUuid).flatMap(this::findByGameUuid);
+    }
+
+    @Override
+    public Optional<UUID> findGameUuidByPlayerUuid(UUID playerUuid) {
+        return Optional.ofNullable(gameByPlayer.get(playerUuid));
+    }
+
+    //Only the games found inactive in the index are decoded. A game that could not be removed is found again.
+    @Override
+    public Collection<InactiveGameDto> findAllInactiveAfter(int minutes) {
+        final long inactiveSince = Instant.now().minus(Duration.ofMinutes(minutes)).toEpochMilli();
+        return games.entrySet().stream()
+                .filter(game -> game.getValue().lastActivity() < inactiveSince)
+                .map(game -> findByGameUuid(game.getKey()))
+                .flatMap(Optional::stream)
+                .map(InactiveGameDto::of)
+                .toList();
+    }
+
+    //Rewrites the oldest segments while they are mostly made of superseded records and tombstones.
+    public synchronized int compact() {
+        int removedSegments = 0;
+        while (log.compactOldest(maxLiveRatio, this::isLive, this::relocate)) removedSegments++;
+        return removedSegments;
+    }
+
+    public void sync() {
+        log.force();
+    }
+
+    @Override
+    public void close() {
+        log.close();
+    }
+
+    private Optional<GameDto> findByGameUuid(UUID gameUuid) {
+        while (true) {
+            final Entry entry = games.get(gameUuid);
+            if (entry == null) return Optional.empty();
+            final Document document = readDocument(entry);
+            //A record was moved by a compaction after the entry was read.
+            if (document == null) continue;
+            return Optional.of(codec.toDto(document));
+        }
+    }
+
+    private Document readDocument(Entry entry) {
+        final Document document = readRecord(entry.snapshot(), PUT_HEADER_BYTES);
+        if (document == null) return null;
+        for (long position : entry.events()) {
+            final Document event = readRecord(position, EVENT_HEADER_BYTES);
+            if (event == null) return null;
+            GameDocumentDiff.apply(document, event);
+        }
+        return document;
+    }
+
+    private Document readRecord(long position, int headerBytes) {
+        final byte[] payload = log.read(position);
+        if (payload == null) return null;
+        final Payloads.Reader reader = new Payloads.Reader(payload);
+        reader.skip(headerBytes);
+        return codec.decode(reader.remaining());
+    }
+
+    private void appendSnapshot(GameDto game, GameEntity entity, Document document) {
+        final byte[] payload = new Payloads.Writer()
+                .uuid(game.gameUuid())
+                .longValue(game.version())
+                .uuid(game.player1().uuid())
+                .uuid(game.player2().uuid())
+                .longValue(entity.getLastActivity().toEpochMilli())
+                .bytes(codec.encode(document))
+                .toByteArray();
+        final Entry entry = new Entry(log.append(PUT, payload), new long[0], game.version(),
+                game.player1().uuid(), game.player2().uuid(), entity.getLastActivity().toEpochMilli());
+        index(game.gameUuid(), entry);
+    }
+
+    private void appendEvent(GameDto game, GameEntity entity, Entry stored, Document event) {
+        final byte[] payload = new Payloads.Writer()
+                .uuid(game.gameUuid())
+                .longValue(game.version())
+                .longValue(entity.getLastActivity().toEpochMilli())
+                .bytes(codec.encode(event))
+                .toByteArray();
+        games.put(game.gameUuid(), stored.withEvent(log.append(EVENT, payload), game.version(),
+                entity.getLastActivity().toEpochMilli()));
+    }
+
+    //A compaction only moves live records, so the last snapshot of a game in the log is its latest one. Its events are
+    //matched by version instead, since a moved event may follow newer ones.
+    private void recover() {
+        final Map<UUID, RecoveredSnapshot> snapshots = new HashMap<>();
+        final Map<UUID, TreeMap<Long, Long>> events = new HashMap<>();
+        final Map<UUID, Long> lastActivity = new HashMap<>();
+        log.replay((position, type, payload) -> {
+            final Payloads.Reader reader = new Payloads.Reader(payload);
+            final UUID gameUuid = reader.uuid();
+            switch (type) {
+                case DELETE -> {
+                    snapshots.remove(gameUuid);
+                    events.remove(gameUuid);
+                    lastActivity.remove(gameUuid);
+                }
+                case PUT -> {
+                    snapshots.put(gameUuid, new RecoveredSnapshot(position, reader.longValue(), reader.uuid(), reader.uuid()));
+                    lastActivity.merge(gameUuid, reader.longValue(), Math::max);
+                }
+                case EVENT -> {
+                    events.computeIfAbsent(gameUuid, uuid -> new TreeMap<>()).put(reader.longValue(), position);
+                    lastActivity.merge(gameUuid, reader.longValue(), Math::max);
+                }
+                default -> throw new IllegalStateException("Unknown game record type: " + type);
+            }
+        });
+        snapshots.forEach((gameUuid, snapshot) -> {
+            final TreeMap<Long, Long> following = events.getOrDefault(gameUuid, new TreeMap<>());
+            final Map<Long, Long> pending = following.tailMap(snapshot.version(), false);
+            final long version = pending.isEmpty() ? snapshot.version() : following.lastKey();
+            final long[] positions = pending.values().stream().mapToLong(Long::longValue).toArray();
+            index(gameUuid, new Entry(snapshot.position(), positions, version, snapshot.player1(), snapshot.player2(),
+                    lastActivity.get(gameUuid)));
+        });
+    }
+
+    private boolean isLive(long position) {
+        final byte[] payload = log.read(position);
+        if (payload == null) return false;
+        final Entry entry = games.get(new Payloads.Reader(payload).uuid());
+        return entry != null && entry.references(position);
+    }
+
+    private void relocate(long from, long to, byte type, byte[] payload) {
+        games.computeIfPresent(new Payloads.Reader(payload).uuid(), (uuid, entry) -> {
+            if (type == PUT) return entry.snapshot() == from ? entry.withSnapshot(to) : entry;
+            return entry.withRelocatedEvent(from, to);
+        });
+    }
+
+    private void index(UUID gameUuid, Entry entry) {
+        final Entry previous = games.put(gameUuid, entry);
+        if (previous != null) unindex(gameUuid, previous);
+        gameByPlayer.put(entry.player1(), gameUuid);
+        gameByPlayer.put(entry.player2(), gameUuid);
+    }
+
+    private void unindex(UUID gameUuid, Entry entry) {
+        gameByPlayer.remove(entry.player1(), gameUuid);
+        gameByPlayer.remove(entry.player2(), gameUuid);
+    }
+}
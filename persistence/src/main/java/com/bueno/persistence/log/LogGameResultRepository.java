@@ -0,0 +1,168 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.persistence.log;
+
+import com.bueno.domain.usecases.game.dtos.GameHistoryCursor;
+import com.bueno.domain.usecases.game.dtos.GameHistoryPageDto;
+import com.bueno.domain.usecases.game.dtos.GameResultDto;
+import com.bueno.domain.usecases.game.dtos.GameResultUsernamesDto;
+import com.bueno.domain.usecases.game.dtos.PlayerWinsDto;
+import com.bueno.domain.usecases.game.repos.GameResultRepository;
+import com.bueno.domain.usecases.user.UserRepository;
+import com.bueno.domain.usecases.user.dtos.ApplicationUserDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Game result repository appending results to a {@link SegmentedLog}. The wins of each player and the history of each
+ * player, ordered as the keyset pages of {@link GameResultRepository#findPageByUserUuid}, are kept in memory and
+ * rebuilt by replaying the log. Usernames are resolved through the user repository.
+ */
+public class LogGameResultRepository implements GameResultRepository, AutoCloseable {
+
+    private static final byte RESULT = 1;
+    private static final Comparator<HistoryKey> NEWEST_FIRST = Comparator
+            .comparing(HistoryKey::ending, Comparator.reverseOrder())
+            .thenComparing(HistoryKey::gameUuid, Comparator.reverseOrder());
+
+    private final SegmentedLog log;
+    private final UserRepository userRepository;
+    private final Set<UUID> games = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, LongAdder> wins = new ConcurrentHashMap<>();
+    private final Map<UUID, NavigableMap<HistoryKey, Long>> history = new ConcurrentHashMap<>();
+
+    private record HistoryKey(LocalDateTime ending, UUID gameUuid) {}
+
+    public LogGameResultRepository(SegmentedLog log, UserRepository userRepository) {
+        this.log = Objects.requireNonNull(log);
+        this.userRepository = Objects.requireNonNull(userRepository);
+        log.replay((position, type, payload) -> index(position, decode(payload)));
+    }
+
+    //Results already stored are ignored, so saving a game twice does not count it twice.
+    @Override
+    public synchronized void save(GameResultDto result) {
+        if (games.contains(result.gameUuid())) return;
+        index(log.append(RESULT, encode(result)), result);
+    }
+
+    @Override
+    public List<PlayerWinsDto> findTopWinners(Integer maxNumberOfUsers) {
+        return wins.entrySet().stream()
+                .sorted(Map.Entry.<UUID, LongAdder>comparingByValue(Comparator.comparingLong(LongAdder::sum)).reversed()
+                        .thenComparing(Map.Entry::getKey))
+                .map(entry -> userRepository.findByUuid(entry.getKey())
+                        .map(user -> new PlayerWinsDto(user.username(), entry.getValue().intValue())))
+                .flatMap(Optional::stream)
+                .limit(maxNumberOfUsers)
+                .toList();
+    }
+
+    @Override
+    public List<GameResultUsernamesDto> findAllByUserUuid(UUID uuid) {
+        return historyOf(uuid).values().stream()
+                .map(position -> toUsernames(decode(log.read(position))))
+                .toList();
+    }
+
+    @Override
+    public GameHistoryPageDto findPageByUserUuid(UUID uuid, GameHistoryCursor after, int pageSize) {
+        final NavigableMap<HistoryKey, Long> entries = after == null ? historyOf(uuid)
+                : historyOf(uuid).tailMap(new HistoryKey(after.endingTime(), after.gameUuid()), false);
+        final List<GameResultDto> page = new ArrayList<>(pageSize + 1);
+        for (Long position : entries.values()) {
+            if (page.size() > pageSize) break;
+            page.add(decode(log.read(position)));
+        }
+        final List<GameResultUsernamesDto> results = page.stream().limit(pageSize).map(this::toUsernames).toList();
+        if (page.size() <= pageSize) return new GameHistoryPageDto(results, null);
+        final GameResultDto last = page.get(pageSize - 1);
+        return new GameHistoryPageDto(results, new GameHistoryCursor(endingOf(last), last.gameUuid()));
+    }
+
+    public void sync() {
+        log.force();
+    }
+
+    @Override
+    public void close() {
+        log.close();
+    }
+
+    private NavigableMap<HistoryKey, Long> historyOf(UUID playerUuid) {
+        return history.getOrDefault(playerUuid, new ConcurrentSkipListMap<>(NEWEST_FIRST));
+    }
+
+    private void index(long position, GameResultDto result) {
+        games.add(result.gameUuid());
+        if (result.winnerUuid() != null) wins.computeIfAbsent(result.winnerUuid(), uuid -> new LongAdder()).increment();
+        final HistoryKey key = new HistoryKey(endingOf(result), result.gameUuid());
+        for (UUID player : new UUID[]{result.player1Uuid(), result.player2Uuid()}) {
+            if (player == null) continue;
+            history.computeIfAbsent(player, uuid -> new ConcurrentSkipListMap<>(NEWEST_FIRST)).put(key, position);
+        }
+    }
+
+    private static LocalDateTime endingOf(GameResultDto result) {
+        return result.gameEnd() == null ? LocalDateTime.MIN : result.gameEnd();
+    }
+
+    private GameResultUsernamesDto toUsernames(GameResultDto result) {
+        return new GameResultUsernamesDto(result.gameEnd(), usernameOf(result.player1Uuid()),
+                usernameOf(result.player2Uuid()), usernameOf(result.winnerUuid()));
+    }
+
+    private String usernameOf(UUID uuid) {
+        if (uuid == null) return null;
+        return userRepository.findByUuid(uuid).map(ApplicationUserDto::username).orElse(null);
+    }
+
+    private static byte[] encode(GameResultDto result) {
+        return new Payloads.Writer()
+                .uuid(result.gameUuid())
+                .nullableDateTime(result.gameStart())
+                .nullableDateTime(result.gameEnd())
+                .nullableUuid(result.winnerUuid())
+                .nullableUuid(result.player1Uuid())
+                .intValue(result.player1Score())
+                .nullableUuid(result.player2Uuid())
+                .intValue(result.player2Score())
+                .toByteArray();
+    }
+
+    private static GameResultDto decode(byte[] payload) {
+        final Payloads.Reader reader = new Payloads.Reader(payload);
+        return new GameResultDto(reader.uuid(), reader.nullableDateTime(), reader.nullableDateTime(),
+                reader.nullableUuid(), reader.nullableUuid(), reader.intValue(), reader.nullableUuid(), reader.intValue());
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.persistence.log;
+
+import com.bueno.domain.usecases.hand.HandResultRepository;
+import com.bueno.domain.usecases.hand.dtos.HandResultDto;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hand result repository appending results to a {@link SegmentedLog}. Results get increasing ids, continuing after the
+ * highest id found when the log is replayed.
+ */
+public class LogHandResultRepository implements HandResultRepository, AutoCloseable {
+
+    private static final byte RESULT = 1;
+
+    private final SegmentedLog log;
+    private final AtomicLong lastId = new AtomicLong();
+
+    public LogHandResultRepository(SegmentedLog log) {
+        this.log = Objects.requireNonNull(log);
+        log.replay((position, type, payload) -> lastId.accumulateAndGet(new Payloads.Reader(payload).longValue(), Math::max));
+    }
+
+    @Override
+    public synchronized void save(HandResultDto result) {
+        log.append(RESULT, encode(lastId.incrementAndGet(), result));
+    }
+
+    @Override
+    public synchronized void saveAll(List<HandResultDto> results) {
+        results.forEach(this::save);
+    }
+
+    public void sync() {
+        log.force();
+    }
+
+    @Override
+    public void close() {
+        log.close();
+    }
+
+    private static byte[] encode(long id, HandResultDto result) {
+        final Payloads.Writer writer = new Payloads.Writer()
+                .longValue(id)
+                .nullableString(result.handType())
+                .nullableUuid(result.gameUuid())
+                .nullableUuid(result.handWinner())
+                .intValue(result.points())
+                .intValue(result.pointsProposal())
+                .intValue(result.roundWinners().size());
+        result.roundWinners().forEach(writer::nullableUuid);
+        writer.intValue(result.openCards().size());
+        result.openCards().forEach(writer::nullableString);
+        return writer.toByteArray();
+    }
+}
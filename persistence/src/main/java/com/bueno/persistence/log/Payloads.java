@@ -0,0 +1,167 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.persistence.log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+//Binary encoding of the fields stored in log records. Nullable values are preceded by a presence flag.
+final class Payloads {
+
+    private Payloads() {}
+
+    static final class Writer {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        private final DataOutputStream out = new DataOutputStream(bytes);
+
+        Writer uuid(UUID value) {
+            try {
+                out.writeLong(value.getMostSignificantBits());
+                out.writeLong(value.getLeastSignificantBits());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return this;
+        }
+
+        Writer nullableUuid(UUID value) {
+            flag(value != null);
+            return value == null ? this : uuid(value);
+        }
+
+        Writer nullableString(String value) {
+            flag(value != null);
+            if (value == null) return this;
+            final byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            try {
+                out.writeShort(utf8.length);
+                out.write(utf8);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return this;
+        }
+
+        Writer nullableDateTime(LocalDateTime value) {
+            flag(value != null);
+            if (value == null) return this;
+            longValue(value.toEpochSecond(ZoneOffset.UTC));
+            return intValue(value.getNano());
+        }
+
+        Writer longValue(long value) {
+            try {
+                out.writeLong(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return this;
+        }
+
+        Writer intValue(int value) {
+            try {
+                out.writeInt(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return this;
+        }
+
+        Writer bytes(byte[] value) {
+            try {
+                out.write(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return this;
+        }
+
+        byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+
+        private void flag(boolean present) {
+            try {
+                out.writeBoolean(present);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    static final class Reader {
+        private final ByteBuffer buffer;
+
+        Reader(byte[] payload) {
+            this.buffer = ByteBuffer.wrap(payload);
+        }
+
+        UUID uuid() {
+            return new UUID(buffer.getLong(), buffer.getLong());
+        }
+
+        UUID nullableUuid() {
+            return present() ? uuid() : null;
+        }
+
+        String nullableString() {
+            if (!present()) return null;
+            final byte[] utf8 = new byte[Short.toUnsignedInt(buffer.getShort())];
+            buffer.get(utf8);
+            return new String(utf8, StandardCharsets.UTF_8);
+        }
+
+        LocalDateTime nullableDateTime() {
+            if (!present()) return null;
+            final long seconds = buffer.getLong();
+            return LocalDateTime.ofEpochSecond(seconds, buffer.getInt(), ZoneOffset.UTC);
+        }
+
+        long longValue() {
+            return buffer.getLong();
+        }
+
+        int intValue() {
+            return buffer.getInt();
+        }
+
+        void skip(int bytes) {
+            buffer.position(buffer.position() + bytes);
+        }
+
+        byte[] remaining() {
+            final byte[] rest = new byte[buffer.remaining()];
+            buffer.get(rest);
+            return rest;
+        }
+
+        private boolean present() {
+            return buffer.get() != 0;
+        }
+    }
+}
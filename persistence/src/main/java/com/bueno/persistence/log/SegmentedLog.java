@@ -0,0 +1,277 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.persistence.log;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.LongPredicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log split in fixed-size segment files, all read through memory mappings. The active segment is mapped
+ * read-write at its full size, so an append is a memory copy. Sealed segments keep that size, their free tail left
+ * zeroed, since a mapped file must not be truncated and a mapping can not be released before it is collected. A record is its payload length, a CRC32 of type and payload, the type and the payload. The length
+ * is written last, so a record torn by a crash reads as the end of the log and is discarded when the log is opened.
+ * Records are addressed by a position packing the segment id and the offset of the record in it.
+ * <p>
+ * Appends and compaction must not run concurrently; reads may run concurrently with both.
+ */
+public class SegmentedLog implements AutoCloseable {
+
+    private static final System.Logger log = System.getLogger(SegmentedLog.class.getName());
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d{8})\\.log");
+    private static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES + Byte.BYTES;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final NavigableMap<Integer, Segment> segments = new ConcurrentSkipListMap<>();
+    private Segment active;
+
+    @FunctionalInterface
+    public interface RecordVisitor {
+        void visit(long position, byte type, byte[] payload);
+    }
+
+    @FunctionalInterface
+    public interface RelocationListener {
+        void moved(long from, long to, byte type, byte[] payload);
+    }
+
+    public SegmentedLog(Path directory, int segmentBytes) {
+        if (segmentBytes <= HEADER_BYTES) throw new IllegalArgumentException("Segment size too small: " + segmentBytes);
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        try {
+            Files.createDirectories(directory);
+            final List<Integer> ids;
+            try (Stream<Path> files = Files.list(directory)) {
+                ids = files.map(file -> SEGMENT_NAME.matcher(file.getFileName().toString()))
+                        .filter(Matcher::matches)
+                        .map(matcher -> Integer.parseInt(matcher.group(1)))
+                        .sorted()
+                        .toList();
+            }
+            for (int i = 0; i < ids.size() - 1; i++) segments.put(ids.get(i), Segment.openSealed(pathOf(ids.get(i)), ids.get(i)));
+            final int activeId = ids.isEmpty() ? 1 : ids.get(ids.size() - 1);
+            active = Segment.openActive(pathOf(activeId), activeId, segmentBytes);
+            segments.put(activeId, active);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static int segmentOf(long position) {
+        return (int) (position >>> 32);
+    }
+
+    public static int offsetOf(long position) {
+        return (int) position;
+    }
+
+    private static long positionOf(int segment, int offset) {
+        return ((long) segment << 32) | (offset & 0xFFFFFFFFL);
+    }
+
+    public synchronized long append(byte type, byte[] payload) {
+        if (payload.length == 0) throw new IllegalArgumentException("Records must not be empty.");
+        final int recordBytes = HEADER_BYTES + payload.length;
+        if (recordBytes > segmentBytes) throw new IllegalArgumentException("Record larger than a segment: " + recordBytes);
+        if (active.size + recordBytes > segmentBytes) roll();
+
+        final int offset = active.size;
+        final MappedByteBuffer buffer = active.buffer;
+        buffer.putInt(offset + Integer.BYTES, checksum(type, payload));
+        buffer.put(offset + 2 * Integer.BYTES, type);
+        buffer.put(offset + HEADER_BYTES, payload);
+        buffer.putInt(offset, payload.length);
+        active.size += recordBytes;
+        return positionOf(active.id, offset);
+    }
+
+    //Returns null if the segment of the position was removed by a compaction.
+    public byte[] read(long position) {
+        final Segment segment = segments.get(segmentOf(position));
+        if (segment == null) return null;
+        final int offset = offsetOf(position);
+        final byte[] payload = new byte[segment.buffer.getInt(offset)];
+        segment.buffer.get(offset + HEADER_BYTES, payload);
+        return payload;
+    }
+
+    //Visits every record in log order. Used to rebuild indexes when the log is opened.
+    public void replay(RecordVisitor visitor) {
+        for (Segment segment : segments.values()) {
+            int offset = 0;
+            while (offset < segment.size) {
+                final int length = segment.buffer.getInt(offset);
+                final byte[] payload = new byte[length];
+                segment.buffer.get(offset + HEADER_BYTES, payload);
+                visitor.visit(positionOf(segment.id, offset), segment.buffer.get(offset + 2 * Integer.BYTES), payload);
+                offset += HEADER_BYTES + length;
+            }
+        }
+    }
+
+    // Rewrites the oldest sealed segment if at most maxLiveRatio of its bytes are live records, appending the live
+    // records to the log and deleting the segment. Records that are not live, tombstones included, are dropped: being
+    // in the oldest segment, they cannot shadow any older record. Returns whether a segment was removed.
+    public synchronized boolean compactOldest(double maxLiveRatio, LongPredicate isLive, RelocationListener listener) {
+        final Segment oldest = segments.firstEntry().getValue();
+        if (oldest == active) return false;
+
+        long liveBytes = 0;
+        for (int offset = 0; offset < oldest.size; offset += HEADER_BYTES + oldest.buffer.getInt(offset))
+            if (isLive.test(positionOf(oldest.id, offset))) liveBytes += HEADER_BYTES + oldest.buffer.getInt(offset);
+        if (liveBytes > maxLiveRatio * oldest.size) return false;
+
+        for (int offset = 0; offset < oldest.size; offset += HEADER_BYTES + oldest.buffer.getInt(offset)) {
+            final long from = positionOf(oldest.id, offset);
+            if (!isLive.test(from)) continue;
+            final byte type = oldest.buffer.get(offset + 2 * Integer.BYTES);
+            final byte[] payload = read(from);
+            listener.moved(from, append(type, payload), type, payload);
+        }
+        force();
+        segments.remove(oldest.id);
+        oldest.close();
+        try {
+            Files.delete(oldest.path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.log(System.Logger.Level.INFO, "Compacted " + oldest.path + " keeping " + liveBytes + " of " + oldest.size + " bytes.");
+        return true;
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    //Flushes the appended records to the storage device.
+    public synchronized void force() {
+        active.buffer.force();
+    }
+
+    @Override
+    public synchronized void close() {
+        force();
+        segments.values().forEach(Segment::close);
+    }
+
+    private void roll() {
+        final int nextId = active.id + 1;
+        final Segment sealed = active.seal();
+        segments.put(sealed.id, sealed);
+        try {
+            active = Segment.openActive(pathOf(nextId), nextId, segmentBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        segments.put(nextId, active);
+    }
+
+    private Path pathOf(int segmentId) {
+        return directory.resolve(String.format("segment-%08d.log", segmentId));
+    }
+
+    private static int checksum(byte type, byte[] payload) {
+        final CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static final class Segment {
+        private final int id;
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int size;
+
+        private Segment(int id, Path path, FileChannel channel, MappedByteBuffer buffer, int size) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.size = size;
+        }
+
+        static Segment openSealed(Path path, int id) throws IOException {
+            final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new Segment(id, path, channel, buffer, validBytes(buffer, (int) channel.size()));
+        }
+
+        static Segment openActive(Path path, int id, int segmentBytes) throws IOException {
+            final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            final int size = validBytes(buffer, segmentBytes);
+            final int tornLength = size + Integer.BYTES <= segmentBytes ? buffer.getInt(size) : 0;
+            if (tornLength != 0) {
+                log.log(System.Logger.Level.WARNING, "Discarding torn record at " + size + " of " + path + ".");
+                final int end = (int) Math.min(segmentBytes, (long) size + HEADER_BYTES + Math.max(tornLength, 0));
+                for (int i = size; i < end; i++) buffer.put(i, (byte) 0);
+                buffer.force();
+            }
+            return new Segment(id, path, channel, buffer, size);
+        }
+
+        //Returns the number of bytes taken by complete records, stopping at the first missing or corrupted one.
+        private static int validBytes(MappedByteBuffer buffer, int limit) {
+            int offset = 0;
+            while (offset + HEADER_BYTES <= limit) {
+                final int length = buffer.getInt(offset);
+                if (length <= 0 || offset + HEADER_BYTES + (long) length > limit) break;
+                final byte[] payload = new byte[length];
+                buffer.get(offset + HEADER_BYTES, payload);
+                if (checksum(buffer.get(offset + 2 * Integer.BYTES), payload) != buffer.getInt(offset + Integer.BYTES)) break;
+                offset += HEADER_BYTES + length;
+            }
+            return offset;
+        }
+
+        //Keeps the read-write mapping: reopening the segment would leave it mapped twice until the old buffer is collected.
+        Segment seal() {
+            buffer.force();
+            return this;
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
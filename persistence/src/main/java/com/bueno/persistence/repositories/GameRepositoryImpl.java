@@ -21,15 +21,18 @@
 package com.bueno.persistence.repositories;
 
 import com.bueno.domain.usecases.game.dtos.GameDto;
-import com.bueno.domain.usecases.game.dtos.PlayerDto;
+import com.bueno.domain.usecases.game.dtos.InactiveGameDto;
 import com.bueno.domain.usecases.game.repos.GameRepository;
+import com.bueno.domain.usecases.utils.exceptions.ConcurrentGameUpdateException;
 import com.bueno.domain.usecases.utils.exceptions.EntityNotFoundException;
 import com.bueno.persistence.dao.GameDao;
-import com.bueno.persistence.dao.PlayerDao;
 import com.bueno.persistence.dto.GameEntity;
 import com.bueno.persistence.dto.HandEntity;
-import com.bueno.persistence.dto.IntelEntity;
-import com.bueno.persistence.dto.PlayerEntity;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Repository;
 
 import java.time.Duration;
@@ -37,76 +40,106 @@ import java.time.Instant;
 import java.util.*;
 
 @Repository
+@ConditionalOnProperty(name = "application.storage", havingValue = "external", matchIfMissing = true)
 public class GameRepositoryImpl implements GameRepository {
 
+    static final int MAX_WRITTEN_GAMES = 1 << 14;
+
     private final GameDao gameDao;
-    private final PlayerDao playerDao;
+    private final MongoOperations mongo;
+    //Only the version and hand count of the last write are kept, for the games written most recently.
+    private final Map<UUID, WrittenGame> writtenGames = Collections.synchronizedMap(
+            new LinkedHashMap<>(1024, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<UUID, WrittenGame> eldest) {
+                    return size() > MAX_WRITTEN_GAMES;
+                }
+            });
 
-    public GameRepositoryImpl(GameDao dao, PlayerDao playerDao) {
+    public GameRepositoryImpl(GameDao dao, MongoOperations mongo) {
         this.gameDao = dao;
-        this.playerDao = playerDao;
+        this.mongo = mongo;
     }
 
     @Override
     public void save(GameDto dto) {
-        gameDao.findById(dto.gameUuid())
-                .ifPresent(game -> {throw new EntityNotFoundException("Game already exists: " + game.getId());});
-        playerDao.save(PlayerEntity.from(dto.player1()));
-        playerDao.save(PlayerEntity.from(dto.player2()));
-        gameDao.save(GameEntity.from(dto));
+        if(gameDao.existsById(dto.gameUuid()))
+            throw new EntityNotFoundException("Game already exists: " + dto.gameUuid());
+        final GameEntity game = GameEntity.from(dto);
+        gameDao.save(game);
+        writtenGames.put(dto.gameUuid(), WrittenGame.of(game));
     }
 
     @Override
     public void update(GameDto dto) {
-        gameDao.findById(dto.gameUuid())
-                .orElseThrow(() -> new EntityNotFoundException("Can not update non-existing game: " + dto.gameUuid()));
-        playerDao.save(PlayerEntity.from(dto.player1()));
-        playerDao.save(PlayerEntity.from(dto.player2()));
-        gameDao.save(GameEntity.from(dto));
+        final GameDto updated = dto.withVersion(dto.version() + 1);
+        final GameEntity game = GameEntity.from(updated);
+        final WrittenGame written = writtenGames.get(dto.gameUuid());
+        final boolean isWrittenVersion = written != null && written.version() == dto.version();
+        final Optional<Update> update = isWrittenVersion ? incrementalUpdate(written, game) : Optional.empty();
+
+        final Query sameVersion = Query.query(Criteria.where("id").is(dto.gameUuid()).and("version").is(dto.version()));
+        final boolean isUpdated = update.isPresent()
+                ? mongo.updateFirst(sameVersion, update.get(), GameEntity.class).getMatchedCount() > 0
+                : mongo.findAndReplace(sameVersion, game) != null;
+
+        if(!isUpdated) {
+            writtenGames.remove(dto.gameUuid());
+            if(!gameDao.existsById(dto.gameUuid()))
+                throw new EntityNotFoundException("Can not update non-existing game: " + dto.gameUuid());
+            throw new ConcurrentGameUpdateException("Game " + dto.gameUuid() + " was updated concurrently.");
+        }
+        writtenGames.put(dto.gameUuid(), WrittenGame.of(game));
     }
 
     @Override
     public void delete(UUID uuid) {
-        final GameEntity game = gameDao.findById(uuid)
-                .orElseThrow(() -> new EntityNotFoundException("Can not update non-existing game: " + uuid));
-        playerDao.deleteById(game.getPlayer1());
-        playerDao.deleteById(game.getPlayer2());
-        gameDao.delete(game);
+        if(!gameDao.existsById(uuid))
+            throw new EntityNotFoundException("Can not update non-existing game: " + uuid);
+        gameDao.deleteById(uuid);
+        writtenGames.remove(uuid);
     }
 
     @Override
     public Optional<GameDto> findByPlayerUuid(UUID playerUuid) {
         final UUID uuid = Objects.requireNonNull(playerUuid, "User UUID must not be null.");
-        final Optional<GameEntity> possibleGame = gameDao.findByPlayer1OrPlayer2(uuid, uuid);
-        return getGameDto(possibleGame.orElse(null));
+        return gameDao.findByPlayerId(uuid).map(GameEntity::toDto);
     }
 
+    //Games written before the current player was stored are loaded whole, and get it on their next write.
     @Override
-    public Collection<GameDto> findAllInactiveAfter(int minutes) {
-        return gameDao.findAll().stream()
-                .filter(game -> isInactive(game, minutes))
-                .map(this::getGameDto)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
+    public Collection<InactiveGameDto> findAllInactiveAfter(int minutes) {
+        final Instant lastAllowedActivity = Instant.now().minus(Duration.ofMinutes(minutes));
+        return gameDao.findPlayersByLastActivityBefore(lastAllowedActivity).stream()
+                .map(game -> game.getCurrentPlayer() != null
+                        ? Optional.of(new InactiveGameDto(game.getId(), game.getPlayer1(), game.getPlayer2(),
+                                game.getCurrentPlayer()))
+                        : gameDao.findById(game.getId()).map(GameEntity::toDto).map(InactiveGameDto::of))
+                .flatMap(Optional::stream)
                 .toList();
     }
 
-    public boolean isInactive(GameEntity game, int minutes){
-        if(game.getHands().isEmpty()) return false;
-        final int index = game.getHands().size() - 1;
-        final HandEntity hand = game.getHands().get(index);
-        final IntelEntity intel = hand.getHistory().get(hand.getHistory().size() - 1);
-        final Instant lastInteraction = intel.getTimestamp();
-        final Instant now = Instant.now();
-        final long inactivityInMinutes = Duration.between(lastInteraction, now).toMinutes();
-        System.out.println("Inactive during (minutes): " + inactivityInMinutes);
-        return inactivityInMinutes >= minutes;
+    //Earlier hands are finished and hands are only appended, so a move can only change the game fields, the hand in
+    //progress at the last write and the hands started after it. Those are set instead of rewriting the whole game,
+    //which keeps each write as small as one hand. Any other change is left to a full replacement.
+    private Optional<Update> incrementalUpdate(WrittenGame written, GameEntity game) {
+        final List<HandEntity> hands = game.getHands();
+        if(hands.size() < written.hands()) return Optional.empty();
+        final Update update = new Update()
+                .set("players", game.getPlayers())
+                .set("firstToPlay", game.getFirstToPlay())
+                .set("lastToPlay", game.getLastToPlay())
+                .set("currentPlayer", game.getCurrentPlayer())
+                .set("lastActivity", game.getLastActivity())
+                .set("version", game.getVersion());
+        for (int i = Math.max(0, written.hands() - 1); i < hands.size(); i++)
+            update.set("hands." + i, hands.get(i));
+        return Optional.of(update);
     }
 
-    private Optional<GameDto> getGameDto(GameEntity game) {
-        if(game == null) return Optional.empty();
-        final PlayerDto player1 = playerDao.findById(game.getPlayer1()).orElseThrow().toDto();
-        final PlayerDto player2 = playerDao.findById(game.getPlayer2()).orElseThrow().toDto();
-        return Optional.of(game.toDto(Map.of(player1.uuid(), player1, player2.uuid(), player2)));
+    private record WrittenGame(long version, int hands) {
+        static WrittenGame of(GameEntity game) {
+            return new WrittenGame(game.getVersion(), game.getHands().size());
+        }
     }
 }
@@ -20,36 +20,82 @@
 
 package com.bueno.persistence.repositories;
 
+import com.bueno.domain.usecases.game.dtos.GameHistoryCursor;
+import com.bueno.domain.usecases.game.dtos.GameHistoryPageDto;
 import com.bueno.domain.usecases.game.dtos.GameResultDto;
 import com.bueno.domain.usecases.game.dtos.GameResultUsernamesDto;
 import com.bueno.domain.usecases.game.dtos.PlayerWinsDto;
 import com.bueno.domain.usecases.game.repos.GameResultRepository;
 import com.bueno.persistence.dao.GameResultDao;
+import com.bueno.persistence.dao.PlayerStatsDao;
+import com.bueno.persistence.dto.GameHistoryQR;
 import com.bueno.persistence.dto.GameResultEntity;
 import com.bueno.persistence.dto.GameResultQR;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
 public class GameResultRepositoryImpl implements GameResultRepository {
 
     private final GameResultDao repo;
+    private final PlayerStatsDao statsRepo;
+    private final EntityManager entityManager;
 
-    public GameResultRepositoryImpl(GameResultDao repo) {
+    public GameResultRepositoryImpl(GameResultDao repo, PlayerStatsDao statsRepo, EntityManager entityManager) {
         this.repo = repo;
+        this.statsRepo = statsRepo;
+        this.entityManager = entityManager;
     }
 
     @Override
+    @Transactional
     public void save(GameResultDto gameResult) {
-        repo.save(GameResultEntity.from(gameResult));
+        saveAll(List.of(gameResult));
+    }
+
+    //Only results not stored yet count for the leaderboard, so saving a game twice does not count it twice. The stored
+    //ids of the whole batch are read with a single query, and new results are persisted directly: saving them through
+    //the dao would merge them, selecting each one again because their ids are assigned.
+    @Override
+    @Transactional
+    public void saveAll(List<GameResultDto> gameResults) {
+        if (gameResults.isEmpty()) return;
+        final List<UUID> ids = gameResults.stream().map(GameResultDto::gameUuid).toList();
+        final Set<UUID> known = new HashSet<>(repo.findStoredIds(ids));
+        final List<GameResultEntity> newResults = gameResults.stream()
+                .filter(result -> known.add(result.gameUuid()))
+                .map(GameResultEntity::from)
+                .toList();
+        newResults.forEach(entityManager::persist);
+        newResults.forEach(this::addToLeaderboard);
+    }
+
+    private void addToLeaderboard(GameResultEntity result) {
+        final UUID winner = result.getWinnerUuid();
+        final UUID player1 = result.getPlayer1Uuid();
+        final UUID player2 = result.getPlayer2Uuid();
+        if (player1 != null) statsRepo.addGame(player1, isWinner(player1, winner), isLoser(player1, winner));
+        if (player2 != null) statsRepo.addGame(player2, isWinner(player2, winner), isLoser(player2, winner));
+    }
+
+    private int isWinner(UUID player, UUID winner) {
+        return player.equals(winner) ? 1 : 0;
+    }
+
+    private int isLoser(UUID player, UUID winner) {
+        return winner != null && !player.equals(winner) ? 1 : 0;
     }
 
     @Override
     public List<PlayerWinsDto> findTopWinners(Integer maxNumberOfUsers){
-        return repo.findTopWinners(Pageable.ofSize(maxNumberOfUsers)).stream()
+        return statsRepo.findTopWinners(Pageable.ofSize(maxNumberOfUsers)).stream()
                 .map(playerWins -> new PlayerWinsDto(playerWins.getUsername(), playerWins.getWins().intValue()))
                 .toList();
     }
@@ -61,4 +107,18 @@ public class GameResultRepositoryImpl implements GameResultRepository {
                 .map(r -> new GameResultUsernamesDto(r.getEnding(), r.getPlayer1(), r.getPlayer2(), r.getWinner()))
                 .toList();
     }
+
+    @Override
+    public GameHistoryPageDto findPageByUserUuid(UUID uuid, GameHistoryCursor after, int pageSize) {
+        final List<GameHistoryQR> page = after == null
+                ? repo.findFirstHistoryPage(uuid, pageSize + 1)
+                : repo.findHistoryPageAfter(uuid, after.endingTime(), after.gameUuid(), pageSize + 1);
+        final List<GameResultUsernamesDto> results = page.stream()
+                .limit(pageSize)
+                .map(r -> new GameResultUsernamesDto(r.getEnding(), r.getPlayer1(), r.getPlayer2(), r.getWinner()))
+                .toList();
+        if (page.size() <= pageSize) return new GameHistoryPageDto(results, null);
+        final GameHistoryQR last = page.get(pageSize - 1);
+        return new GameHistoryPageDto(results, new GameHistoryCursor(last.getEnding(), last.getGameId()));
+    }
 }
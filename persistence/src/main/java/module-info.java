@@ -5,9 +5,17 @@ module application.persistence {
     requires spring.data.jpa;
     requires spring.context;
     requires spring.beans;
+    requires spring.boot.autoconfigure;
     requires spring.data.mongodb;
+    requires org.mongodb.bson;
+    requires org.mongodb.driver.core;
     requires spring.data.commons;
+    requires spring.core;
+    requires spring.tx;
     exports com.bueno.persistence.repositories;
     exports com.bueno.persistence.dao;
     exports com.bueno.persistence.dto;
+    opens com.bueno.persistence.dto;
+    exports com.bueno.persistence.export;
+    exports com.bueno.persistence.log;
 }
\ No newline at end of file
@@ -0,0 +1,81 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.persistence.dto;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatRuntimeException;
+
+class HandStateIdTest {
+
+    private MappingMongoConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        final MongoCustomConversions conversions = new MongoCustomConversions(HandStateId.converters());
+        final MongoMappingContext context = new MongoMappingContext();
+        context.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        context.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+    }
+
+    @Test
+    @DisplayName("Should load hands stored with legacy state names")
+    void shouldLoadHandsStoredWithLegacyStateNames() {
+        assertThat(List.of("NOCARD", "ONECARD", "WAITINGRAISERESPONSE", "WAITINGMAODEONZE", "DONE"))
+                .map(state -> converter.read(HandEntity.class, hand(state)).getState().id())
+                .containsExactly(0, 1, 2, 3, 4);
+    }
+
+    @Test
+    @DisplayName("Should store and load state ids as numbers")
+    void shouldStoreAndLoadStateIdsAsNumbers() {
+        final Document stored = new Document();
+        converter.write(HandEntity.builder().state(new HandStateId(3)).build(), stored);
+
+        assertThat(stored.get("state")).isEqualTo(3);
+        assertThat(converter.read(HandEntity.class, stored).getState()).isEqualTo(new HandStateId(3));
+    }
+
+    @Test
+    @DisplayName("Should not read state names into other numbers")
+    void shouldNotReadStateNamesIntoOtherNumbers() {
+        final Document stored = hand("DONE").append("points", "DONE");
+        assertThatRuntimeException().isThrownBy(() -> converter.read(HandEntity.class, stored));
+    }
+
+    private static Document hand(String state) {
+        return new Document("vira", "5D").append("points", 1).append("state", state)
+                .append("possibleActions", List.of("ACCEPT", "QUIT"));
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+
+package com.bueno.persistence.export;
+
+import com.bueno.persistence.dao.HandResultDao;
+import com.bueno.persistence.dto.HandResultEntity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HandResultExporterTest {
+
+    @Mock private HandResultDao dao;
+    @Mock private EntityManager entityManager;
+    @InjectMocks private HandResultExporter sut;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    @Test
+    @DisplayName("Should write one JSON object per line with numbers unquoted and missing values as null")
+    void shouldWriteOneJsonObjectPerLineWithNumbersUnquotedAndMissingValuesAsNull() {
+        final UUID gameUuid = UUID.randomUUID();
+        final HandResultEntity result = HandResultEntity.builder().id(7).gameUuid(gameUuid).handType("WIN")
+                .points(3).pointsProposal(6).vira("7S").card1Round1("AC").build();
+        when(dao.streamAfter(0)).thenReturn(Stream.of(result));
+
+        sut.exportAfter(0, out);
+
+        assertThat(lines()).containsExactly("{\"id\":7,\"gameUuid\":\"" + gameUuid + "\",\"handType\":\"WIN\","
+                + "\"handWinner\":null,\"points\":3,\"pointsProposal\":6,\"vira\":\"7S\",\"r1c1\":\"AC\","
+                + "\"r1c2\":null,\"r1Winner\":null,\"r2c1\":null,\"r2c2\":null,\"r2Winner\":null,\"r3c1\":null,"
+                + "\"r3c2\":null,\"r3Winner\":null}");
+    }
+
+    @Test
+    @DisplayName("Should escape quotes, backslashes and control characters in strings")
+    void shouldEscapeQuotesBackslashesAndControlCharactersInStrings() {
+        final HandResultEntity result = HandResultEntity.builder().id(1).handType("a\"b\\c\nd\re\tf\u0001g").build();
+        when(dao.streamAfter(0)).thenReturn(Stream.of(result));
+
+        sut.exportAfter(0, out);
+
+        assertThat(lines()).singleElement().asString()
+                .contains("\"handType\":\"a\\\"b\\\\c\\nd\\re\\tf\\u0001g\"");
+    }
+
+    @Test
+    @DisplayName("Should resume after the given id and return the id of the last exported row")
+    void shouldResumeAfterTheGivenIdAndReturnTheIdOfTheLastExportedRow() {
+        final HandResultEntity first = HandResultEntity.builder().id(51).build();
+        final HandResultEntity second = HandResultEntity.builder().id(52).build();
+        when(dao.streamAfter(50)).thenReturn(Stream.of(first, second));
+
+        final long lastId = sut.exportAfter(50, out);
+
+        assertThat(lastId).isEqualTo(52);
+        assertThat(lines()).hasSize(2).allSatisfy(line -> assertThat(line).startsWith("{\"id\":5"));
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+    }
+
+    @Test
+    @DisplayName("Should return the starting id if there is nothing to export")
+    void shouldReturnTheStartingIdIfThereIsNothingToExport() {
+        when(dao.streamAfter(42)).thenReturn(Stream.empty());
+
+        assertThat(sut.exportAfter(42, out)).isEqualTo(42);
+        assertThat(out.size()).isZero();
+    }
+
+    private String[] lines() {
+        final String text = out.toString(StandardCharsets.UTF_8);
+        assertThat(text).endsWith("\n");
+        return text.split("\n");
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+
+package com.bueno.persistence.log;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GameDocumentDiffTest {
+
+    private Document written;
+
+    @BeforeEach
+    void setUp() {
+        written = new Document("_id", UUID.randomUUID())
+                .append("version", 1L)
+                .append("firstToPlay", UUID.randomUUID())
+                .append("hands", List.of(hand("4C", 1)));
+    }
+
+    @Test
+    @DisplayName("Should rebuild current document from written one and changed fields")
+    void shouldRebuildCurrentDocumentFromWrittenOneAndChangedFields() {
+        final Document current = copy(written).append("version", 2L).append("lastToPlay", UUID.randomUUID());
+        current.remove("firstToPlay");
+
+        assertRoundTrip(current);
+    }
+
+    @Test
+    @DisplayName("Should rebuild current document from written one and started hands")
+    void shouldRebuildCurrentDocumentFromWrittenOneAndStartedHands() {
+        final Document current = copy(written);
+        current.put("hands", List.of(hand("4C", 1), hand("7H", 2)));
+
+        assertRoundTrip(current);
+    }
+
+    @Test
+    @DisplayName("Should rebuild current document from written one and changed hand with pushed history")
+    void shouldRebuildCurrentDocumentFromWrittenOneAndChangedHandWithPushedHistory() {
+        final Document current = copy(written);
+        final Document hand = hand("4C", 1).append("points", 3).append("cartToPlayAgainst", "KD");
+        hand.put("history", List.of(intel(1), intel(2), intel(3)));
+        current.put("hands", List.of(hand));
+
+        final Document event = GameDocumentDiff.diff(written, current).orElseThrow();
+
+        assertThat(event.getList("hands", Document.class)).singleElement()
+                .satisfies(change -> assertThat(change.getList("push", Document.class)).containsExactly(intel(2), intel(3)));
+        assertRoundTrip(current);
+    }
+
+    @Test
+    @DisplayName("Should describe unchanged document by an empty event")
+    void shouldDescribeUnchangedDocumentByAnEmptyEvent() {
+        assertThat(GameDocumentDiff.diff(written, copy(written))).contains(new Document());
+    }
+
+    @Test
+    @DisplayName("Should not describe incrementally a change that removes hands")
+    void shouldNotDescribeIncrementallyAChangeThatRemovesHands() {
+        final Document current = copy(written);
+        current.put("hands", List.of());
+
+        assertThat(GameDocumentDiff.diff(written, current)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not describe incrementally a change that rewrites the history of a hand")
+    void shouldNotDescribeIncrementallyAChangeThatRewritesTheHistoryOfAHand() {
+        final Document current = copy(written);
+        final Document hand = hand("4C", 1);
+        hand.put("history", List.of(intel(5), intel(6)));
+        current.put("hands", List.of(hand));
+
+        assertThat(GameDocumentDiff.diff(written, current)).isEmpty();
+    }
+
+    private void assertRoundTrip(Document current) {
+        final Document event = GameDocumentDiff.diff(written, current).orElseThrow();
+        final Document applied = copy(written);
+
+        GameDocumentDiff.apply(applied, event);
+
+        assertThat(applied).isEqualTo(current);
+    }
+
+    private static Document hand(String vira, int intels) {
+        final List<Document> history = new ArrayList<>();
+        for (int i = 1; i <= intels; i++) history.add(intel(i));
+        return new Document("vira", vira).append("points", 1).append("history", history);
+    }
+
+    private static Document intel(int sequence) {
+        return new Document("event", "PLAY").append("sequence", sequence);
+    }
+
+    //Deep enough for the test documents: hands are copied, their history entries are never changed in place.
+    private static Document copy(Document document) {
+        final Document copy = new Document(document);
+        copy.put("hands", document.getList("hands", Document.class).stream().map(Document::new).toList());
+        return copy;
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+
+package com.bueno.persistence.log;
+
+import com.bueno.domain.usecases.game.dtos.GameDto;
+import com.bueno.domain.usecases.game.dtos.PlayerDto;
+import com.bueno.domain.usecases.hand.dtos.HandDto;
+import com.bueno.domain.usecases.intel.dtos.CardDto;
+import com.bueno.domain.usecases.utils.exceptions.ConcurrentGameUpdateException;
+import com.bueno.persistence.dto.HandStateId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class LogGameRepositoryTest {
+
+    private static final int SEGMENT_BYTES = 8 * 1024;
+
+    @TempDir Path directory;
+
+    private final MongoConverter converter = converter();
+    private LogGameRepository sut;
+    private GameDto game;
+
+    @BeforeEach
+    void setUp() {
+        sut = open();
+        game = game(UUID.randomUUID(), UUID.randomUUID());
+    }
+
+    @AfterEach
+    void tearDown() {
+        sut.close();
+    }
+
+    @Test
+    @DisplayName("Should find saved game by any of its players")
+    void shouldFindSavedGameByAnyOfItsPlayers() {
+        sut.save(game);
+
+        assertThat(sut.findByPlayerUuid(game.player1().uuid())).map(GameDto::gameUuid).contains(game.gameUuid());
+        assertThat(sut.findGameUuidByPlayerUuid(game.player2().uuid())).contains(game.gameUuid());
+    }
+
+    @Test
+    @DisplayName("Should find updated game after reopening the log")
+    void shouldFindUpdatedGameAfterReopeningTheLog() {
+        sut.save(game);
+        sut.update(withScore(game, 3));
+
+        reopen();
+
+        final GameDto found = sut.findByPlayerUuid(game.player1().uuid()).orElseThrow();
+        assertThat(found.player1().score()).isEqualTo(3);
+        assertThat(found.version()).isOne();
+    }
+
+    @Test
+    @DisplayName("Should reject update of a stale game version")
+    void shouldRejectUpdateOfAStaleGameVersion() {
+        sut.save(game);
+        sut.update(game);
+        assertThatExceptionOfType(ConcurrentGameUpdateException.class).isThrownBy(() -> sut.update(game));
+    }
+
+    @Test
+    @DisplayName("Should not find deleted game after reopening the log")
+    void shouldNotFindDeletedGameAfterReopeningTheLog() {
+        sut.save(game);
+        sut.update(withScore(game, 1));
+        sut.delete(game.gameUuid());
+
+        reopen();
+
+        assertThat(sut.findByPlayerUuid(game.player1().uuid())).isEmpty();
+        assertThat(sut.findGameUuidByPlayerUuid(game.player2().uuid())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep live games and drop deleted ones after compacting and reopening the log")
+    void shouldKeepLiveGamesAndDropDeletedOnesAfterCompactingAndReopeningTheLog() {
+        sut.save(game);
+        final List<GameDto> deleted = new ArrayList<>();
+        GameDto current = game;
+        for (int score = 1; score <= 11; score++) {
+            sut.update(current);
+            current = withScore(current, score).withVersion(current.version() + 1);
+            final GameDto other = game(UUID.randomUUID(), UUID.randomUUID());
+            sut.save(other);
+            sut.delete(other.gameUuid());
+            deleted.add(other);
+        }
+
+        assertThat(sut.compact()).isPositive();
+        reopen();
+
+        final GameDto found = sut.findByPlayerUuid(game.player1().uuid()).orElseThrow();
+        assertThat(found.version()).isEqualTo(current.version());
+        assertThat(found.player1().score()).isEqualTo(10);
+        assertThat(deleted).allSatisfy(other -> assertThat(sut.findByPlayerUuid(other.player1().uuid())).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should find game updated by events after reopening the log")
+    void shouldFindGameUpdatedByEventsAfterReopeningTheLog() {
+        reopen(5);
+        sut.save(game);
+        final GameDto current = updateScores(game, 1, 7);
+
+        reopen(5);
+
+        final GameDto found = sut.findByPlayerUuid(game.player1().uuid()).orElseThrow();
+        assertThat(found.version()).isEqualTo(current.version());
+        assertThat(found.player1().score()).isEqualTo(7);
+        assertThat(found.hands()).hasSize(current.hands().size());
+    }
+
+    @Test
+    @DisplayName("Should apply events written before a relocated snapshot after compacting and reopening the log")
+    void shouldApplyEventsWrittenBeforeARelocatedSnapshotAfterCompactingAndReopeningTheLog() {
+        reopen(20);
+        sut.save(game);
+        saveDeletedGames(8);
+        final GameDto current = updateScores(game, 1, 3);
+        for (int i = 0; i < 5; i++) sut.save(game(UUID.randomUUID(), UUID.randomUUID()));
+        saveDeletedGames(2);
+
+        //Only the first segment is mostly dead, so the snapshot is moved after the events of the second one.
+        assertThat(sut.compact()).isOne();
+        reopen(20);
+
+        final GameDto found = sut.findByPlayerUuid(game.player1().uuid()).orElseThrow();
+        assertThat(found.version()).isEqualTo(current.version());
+        assertThat(found.player1().score()).isEqualTo(3);
+        assertThat(found.hands()).hasSize(current.hands().size());
+    }
+
+    private void saveDeletedGames(int count) {
+        for (int i = 0; i < count; i++) {
+            final GameDto other = game(UUID.randomUUID(), UUID.randomUUID());
+            sut.save(other);
+            sut.delete(other.gameUuid());
+        }
+    }
+
+    //Each update changes the score, and every other one starts a new hand.
+    private GameDto updateScores(GameDto stored, int firstScore, int lastScore) {
+        GameDto current = stored;
+        for (int score = firstScore; score <= lastScore; score++) {
+            final GameDto changed = withScore(current, score);
+            final List<HandDto> hands = new ArrayList<>(changed.hands());
+            if (score % 2 == 0) hands.add(hands.get(0));
+            final GameDto updated = new GameDto(changed.gameUuid(), changed.timestamp(), changed.player1(),
+                    changed.player2(), changed.firstToPlay(), changed.lastToPlay(), hands, changed.version());
+            sut.update(updated);
+            current = updated.withVersion(updated.version() + 1);
+        }
+        return current;
+    }
+
+    private LogGameRepository open() {
+        return open(1);
+    }
+
+    private LogGameRepository open(int snapshotEvery) {
+        return new LogGameRepository(new SegmentedLog(directory, SEGMENT_BYTES), converter, 0.5, snapshotEvery);
+    }
+
+    private void reopen() {
+        reopen(1);
+    }
+
+    private void reopen(int snapshotEvery) {
+        sut.close();
+        sut = open(snapshotEvery);
+    }
+
+    static GameDto game(UUID player1Uuid, UUID player2Uuid) {
+        final PlayerDto player1 = new PlayerDto("Player1", player1Uuid, 0, false,
+                List.of(new CardDto("4", "C"), new CardDto("7", "H"), new CardDto("A", "S")));
+        final PlayerDto player2 = new PlayerDto("Player2", player2Uuid, 0, true,
+                List.of(new CardDto("K", "D"), new CardDto("2", "C"), new CardDto("3", "H")));
+        final HandDto hand = new HandDto(new CardDto("5", "D"), List.of(), List.of(new CardDto("5", "D")), List.of(),
+                List.of(), player1, player2, player1, null, null, null, 1, 0, null, 0);
+        return new GameDto(UUID.randomUUID(), LocalDateTime.of(2022, 1, 1, 12, 0), player1, player2, player1, player2,
+                List.of(hand));
+    }
+
+    static GameDto withScore(GameDto game, int score) {
+        final PlayerDto player1 = game.player1();
+        final PlayerDto scored = new PlayerDto(player1.username(), player1.uuid(), score, player1.isBot(), player1.cards());
+        return new GameDto(game.gameUuid(), game.timestamp(), scored, game.player2(), scored, game.lastToPlay(),
+                game.hands(), game.version());
+    }
+
+    static MongoConverter converter() {
+        final MongoCustomConversions conversions = new MongoCustomConversions(HandStateId.converters());
+        final MongoMappingContext context = new MongoMappingContext();
+        context.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        context.afterPropertiesSet();
+        final MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+}
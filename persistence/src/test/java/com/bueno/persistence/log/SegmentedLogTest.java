@@ -0,0 +1,157 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+
+package com.bueno.persistence.log;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class SegmentedLogTest {
+
+    private static final int SEGMENT_BYTES = 64;
+    private static final byte TYPE = 1;
+
+    @TempDir Path directory;
+
+    private SegmentedLog sut;
+
+    @BeforeEach
+    void setUp() {
+        sut = new SegmentedLog(directory, SEGMENT_BYTES);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sut.close();
+    }
+
+    @Test
+    @DisplayName("Should read appended records after reopening the log")
+    void shouldReadAppendedRecordsAfterReopeningTheLog() {
+        final long first = sut.append(TYPE, new byte[]{1, 2, 3});
+        final long second = sut.append(TYPE, new byte[]{4, 5});
+
+        reopen();
+
+        assertThat(sut.read(first)).containsExactly(1, 2, 3);
+        assertThat(sut.read(second)).containsExactly(4, 5);
+        assertThat(payloads()).containsExactly(List.of((byte) 1, (byte) 2, (byte) 3), List.of((byte) 4, (byte) 5));
+    }
+
+    @Test
+    @DisplayName("Should roll to a new segment when the active one is full")
+    void shouldRollToANewSegmentWhenTheActiveOneIsFull() {
+        final long first = sut.append(TYPE, new byte[40]);
+        final long second = sut.append(TYPE, new byte[40]);
+
+        reopen();
+
+        assertThat(SegmentedLog.segmentOf(second)).isEqualTo(SegmentedLog.segmentOf(first) + 1);
+        assertThat(sut.segmentCount()).isEqualTo(2);
+        assertThat(payloads()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Should discard torn record when the log is reopened")
+    void shouldDiscardTornRecordWhenTheLogIsReopened() throws IOException {
+        sut.append(TYPE, new byte[]{1, 2, 3});
+        final long torn = sut.append(TYPE, new byte[]{4, 5, 6});
+        sut.close();
+        corrupt(torn);
+
+        sut = new SegmentedLog(directory, SEGMENT_BYTES);
+        assertThat(payloads()).containsExactly(List.of((byte) 1, (byte) 2, (byte) 3));
+
+        final long appended = sut.append(TYPE, new byte[]{7});
+        reopen();
+
+        assertThat(appended).isEqualTo(torn);
+        assertThat(payloads()).containsExactly(List.of((byte) 1, (byte) 2, (byte) 3), List.of((byte) 7));
+    }
+
+    @Test
+    @DisplayName("Should relocate live records of the oldest segment when compacting")
+    void shouldRelocateLiveRecordsOfTheOldestSegmentWhenCompacting() {
+        final long live = sut.append(TYPE, new byte[]{1});
+        sut.append(TYPE, new byte[40]);
+        sut.append(TYPE, new byte[40]);
+        final List<Long> moved = new ArrayList<>();
+
+        final boolean compacted = sut.compactOldest(0.5, position -> position == live,
+                (from, to, type, payload) -> moved.add(to));
+        reopen();
+
+        assertThat(compacted).isTrue();
+        assertThat(sut.read(live)).isNull();
+        assertThat(moved).singleElement().satisfies(position -> assertThat(sut.read(position)).containsExactly(1));
+        assertThat(payloads()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Should not compact the active segment")
+    void shouldNotCompactTheActiveSegment() {
+        sut.append(TYPE, new byte[]{1});
+        assertThat(sut.compactOldest(1, position -> false, (from, to, type, payload) -> {})).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should not append record larger than a segment")
+    void shouldNotAppendRecordLargerThanASegment() {
+        assertThatIllegalArgumentException().isThrownBy(() -> sut.append(TYPE, new byte[SEGMENT_BYTES]));
+    }
+
+    private void reopen() {
+        sut.close();
+        sut = new SegmentedLog(directory, SEGMENT_BYTES);
+    }
+
+    private List<List<Byte>> payloads() {
+        final List<List<Byte>> payloads = new ArrayList<>();
+        sut.replay((position, type, payload) -> {
+            final List<Byte> bytes = new ArrayList<>();
+            for (byte value : payload) bytes.add(value);
+            payloads.add(bytes);
+        });
+        return payloads;
+    }
+
+    //Changes the last payload byte, as if the machine stopped before the record was fully written.
+    private void corrupt(long position) throws IOException {
+        final Path segment = directory.resolve(String.format("segment-%08d.log", SegmentedLog.segmentOf(position)));
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            final long lastPayloadByte = SegmentedLog.offsetOf(position) + 9 + 2;
+            file.seek(lastPayloadByte);
+            file.write(0x7F);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.persistence.repositories;
+
+import com.bueno.domain.usecases.game.dtos.GameDto;
+import com.bueno.domain.usecases.game.dtos.InactiveGameDto;
+import com.bueno.domain.usecases.game.dtos.PlayerDto;
+import com.bueno.domain.usecases.hand.dtos.HandDto;
+import com.bueno.domain.usecases.intel.dtos.CardDto;
+import com.bueno.persistence.dao.GameDao;
+import com.bueno.persistence.dto.GameEntity;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GameRepositoryImplTest {
+
+    @Mock private GameDao dao;
+    @Mock private MongoOperations mongo;
+
+    @Test
+    @DisplayName("Should set only the game fields and the hands changed since the last write")
+    void shouldSetOnlyTheGameFieldsAndTheHandsChangedSinceTheLastWrite() {
+        final GameRepositoryImpl sut = new GameRepositoryImpl(dao, mongo);
+        final GameDto game = game();
+        when(mongo.updateFirst(any(Query.class), any(Update.class), eq(GameEntity.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        sut.save(game);
+        final GameDto twoHands = withNewHand(game);
+        sut.update(twoHands);
+        sut.update(withNewHand(twoHands.withVersion(1)));
+
+        final ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(mongo, times(2)).updateFirst(any(Query.class), updates.capture(), eq(GameEntity.class));
+        assertThat(setFields(updates.getAllValues().get(0))).containsOnly("players", "firstToPlay", "lastToPlay",
+                "currentPlayer", "lastActivity", "version", "hands.0", "hands.1");
+        assertThat(setFields(updates.getAllValues().get(1))).contains("hands.1", "hands.2")
+                .doesNotContain("hands.0");
+    }
+
+    @Test
+    @DisplayName("Should replace the whole game if its last write is unknown")
+    void shouldReplaceTheWholeGameIfItsLastWriteIsUnknown() {
+        final GameRepositoryImpl sut = new GameRepositoryImpl(dao, mongo);
+        final GameDto game = game();
+        when(mongo.findAndReplace(any(Query.class), any(GameEntity.class))).thenReturn(GameEntity.from(game));
+
+        sut.update(game);
+
+        verify(mongo, never()).updateFirst(any(Query.class), any(Update.class), eq(GameEntity.class));
+    }
+
+    @Test
+    @DisplayName("Should find inactive games by their players and current player only")
+    void shouldFindInactiveGamesByTheirPlayersAndCurrentPlayerOnly() {
+        final GameRepositoryImpl sut = new GameRepositoryImpl(dao, mongo);
+        final GameDto game = game();
+        final GameEntity projected = GameEntity.builder().id(game.gameUuid()).player1(game.player1().uuid())
+                .player2(game.player2().uuid()).currentPlayer(game.player1().uuid()).build();
+        when(dao.findPlayersByLastActivityBefore(any(Instant.class))).thenReturn(List.of(projected));
+
+        assertThat(sut.findAllInactiveAfter(5)).containsExactly(InactiveGameDto.of(game));
+        verify(dao, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Should load inactive game stored without its current player")
+    void shouldLoadInactiveGameStoredWithoutItsCurrentPlayer() {
+        final GameRepositoryImpl sut = new GameRepositoryImpl(dao, mongo);
+        final GameDto game = game();
+        final GameEntity projected = GameEntity.builder().id(game.gameUuid()).player1(game.player1().uuid())
+                .player2(game.player2().uuid()).build();
+        when(dao.findPlayersByLastActivityBefore(any(Instant.class))).thenReturn(List.of(projected));
+        when(dao.findById(game.gameUuid())).thenReturn(Optional.of(GameEntity.from(game)));
+
+        assertThat(sut.findAllInactiveAfter(5)).containsExactly(InactiveGameDto.of(game));
+    }
+
+    private static GameDto game() {
+        final PlayerDto player1 = new PlayerDto("Player1", UUID.randomUUID(), 0, false,
+                List.of(new CardDto("4", "C"), new CardDto("7", "H"), new CardDto("A", "S")));
+        final PlayerDto player2 = new PlayerDto("Player2", UUID.randomUUID(), 0, true,
+                List.of(new CardDto("K", "D"), new CardDto("2", "C"), new CardDto("3", "H")));
+        final HandDto hand = new HandDto(new CardDto("5", "D"), List.of(), List.of(new CardDto("5", "D")), List.of(),
+                List.of(), player1, player2, player1, null, null, null, 1, 0, null, 0);
+        return new GameDto(UUID.randomUUID(), LocalDateTime.of(2022, 1, 1, 12, 0), player1, player2, player1, player2,
+                List.of(hand));
+    }
+
+    private static GameDto withNewHand(GameDto game) {
+        final List<HandDto> hands = new ArrayList<>(game.hands());
+        hands.add(hands.get(0));
+        return new GameDto(game.gameUuid(), game.timestamp(), game.player1(), game.player2(), game.firstToPlay(),
+                game.lastToPlay(), hands, game.version());
+    }
+
+    private static List<String> setFields(Update update) {
+        return new ArrayList<>(update.getUpdateObject().get("$set", Document.class).keySet());
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+
+package com.bueno.persistence.repositories;
+
+import com.bueno.domain.usecases.game.dtos.GameResultDto;
+import com.bueno.domain.usecases.game.dtos.PlayerWinsDto;
+import com.bueno.persistence.dao.GameResultDao;
+import com.bueno.persistence.dao.PlayerStatsDao;
+import com.bueno.persistence.dto.GameResultEntity;
+import com.bueno.persistence.dto.PlayerWinsQR;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GameResultRepositoryImplTest {
+
+    @Mock private GameResultDao repo;
+    @Mock private PlayerStatsDao statsRepo;
+    @Mock private EntityManager entityManager;
+    @InjectMocks private GameResultRepositoryImpl sut;
+
+    @Test
+    @DisplayName("Should look up the stored results of a batch with a single query")
+    void shouldLookUpTheStoredResultsOfABatchWithASingleQuery() {
+        final List<GameResultDto> results = List.of(result(), result(), result());
+        when(repo.findStoredIds(anyCollection())).thenReturn(List.of());
+
+        sut.saveAll(results);
+
+        verify(repo).findStoredIds(results.stream().map(GameResultDto::gameUuid).toList());
+        verify(repo, never()).existsById(any());
+        verify(entityManager, times(3)).persist(any(GameResultEntity.class));
+    }
+
+    @Test
+    @DisplayName("Should only persist and count results not stored yet")
+    void shouldOnlyPersistAndCountResultsNotStoredYet() {
+        final GameResultDto stored = result();
+        final GameResultDto fresh = result();
+        when(repo.findStoredIds(anyCollection())).thenReturn(List.of(stored.gameUuid()));
+
+        sut.saveAll(List.of(stored, fresh, fresh));
+
+        final ArgumentCaptor<GameResultEntity> persisted = ArgumentCaptor.forClass(GameResultEntity.class);
+        verify(entityManager).persist(persisted.capture());
+        assertThat(persisted.getValue().getGameUuid()).isEqualTo(fresh.gameUuid());
+        verify(statsRepo).addGame(fresh.player1Uuid(), 1, 0);
+        verify(statsRepo).addGame(fresh.player2Uuid(), 0, 1);
+    }
+
+    @Test
+    @DisplayName("Should add each game of a batch to the leaderboard in the order of the results")
+    void shouldAddEachGameOfABatchToTheLeaderboardInTheOrderOfTheResults() {
+        final GameResultDto won = result();
+        final GameResultDto lost = new GameResultDto(UUID.randomUUID(), won.gameStart(), won.gameEnd(),
+                won.player2Uuid(), won.player1Uuid(), 3, won.player2Uuid(), 12);
+        when(repo.findStoredIds(anyCollection())).thenReturn(List.of());
+
+        sut.saveAll(List.of(won, lost));
+
+        final InOrder inOrder = inOrder(statsRepo);
+        inOrder.verify(statsRepo).addGame(won.player1Uuid(), 1, 0);
+        inOrder.verify(statsRepo).addGame(won.player2Uuid(), 0, 1);
+        inOrder.verify(statsRepo).addGame(won.player1Uuid(), 0, 1);
+        inOrder.verify(statsRepo).addGame(won.player2Uuid(), 1, 0);
+    }
+
+    @Test
+    @DisplayName("Should keep the leaderboard order when finding top winners")
+    void shouldKeepTheLeaderboardOrderWhenFindingTopWinners() {
+        final List<PlayerWinsQR> leaderboard = List.of(wins("Ana", 7L), wins("Bia", 7L), wins("Caio", 2L));
+        when(statsRepo.findTopWinners(Pageable.ofSize(3))).thenReturn(leaderboard);
+
+        assertThat(sut.findTopWinners(3)).containsExactly(
+                new PlayerWinsDto("Ana", 7), new PlayerWinsDto("Bia", 7), new PlayerWinsDto("Caio", 2));
+    }
+
+    @Test
+    @DisplayName("Should not query the database for an empty batch")
+    void shouldNotQueryTheDatabaseForAnEmptyBatch() {
+        sut.saveAll(List.of());
+        verifyNoInteractions(repo, statsRepo, entityManager);
+    }
+
+    private static PlayerWinsQR wins(String username, Long wins) {
+        return new PlayerWinsQR() {
+            @Override
+            public String getUsername() {
+                return username;
+            }
+
+            @Override
+            public Long getWins() {
+                return wins;
+            }
+        };
+    }
+
+    private static GameResultDto result() {
+        final UUID player1 = UUID.randomUUID();
+        final LocalDateTime now = LocalDateTime.now();
+        return new GameResultDto(UUID.randomUUID(), now.minusMinutes(5), now, player1, player1, 12,
+                UUID.randomUUID(), 4);
+    }
+}
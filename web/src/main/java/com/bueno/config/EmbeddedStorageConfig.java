@@ -0,0 +1,87 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.config;
+
+import com.bueno.domain.usecases.user.UserRepository;
+import com.bueno.persistence.log.LogGameRepository;
+import com.bueno.persistence.log.LogGameResultRepository;
+import com.bueno.persistence.log.LogHandResultRepository;
+import com.bueno.persistence.log.SegmentedLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.nio.file.Path;
+
+//Stores games and results in local log files instead of MongoDB and PostgreSQL. Users are still stored by JPA, in the
+//in-process H2 database set by the embedded profile, which also turns off the MongoDB auto-configuration.
+@Configuration
+@ConditionalOnProperty(name = "application.storage", havingValue = "embedded")
+public class EmbeddedStorageConfig {
+
+    @Value("${application.storage.embedded.directory:data}")
+    private Path directory;
+    @Value("${application.storage.embedded.segment-megabytes:64}")
+    private int segmentMegabytes;
+    @Value("${application.storage.embedded.max-live-ratio:0.5}")
+    private double maxLiveRatio;
+    @Value("${application.storage.embedded.snapshot-every:20}")
+    private int snapshotEvery;
+
+    @Bean
+    public LogGameRepository logGameRepository(MongoCustomConversions conversions) {
+        return new LogGameRepository(log("games"), gameDocumentConverter(conversions), maxLiveRatio, snapshotEvery);
+    }
+
+    @Bean
+    @Primary
+    public LogGameResultRepository logGameResultRepository(UserRepository userRepository) {
+        return new LogGameResultRepository(log("game-results"), userRepository);
+    }
+
+    @Bean
+    @Primary
+    public LogHandResultRepository logHandResultRepository() {
+        return new LogHandResultRepository(log("hand-results"));
+    }
+
+    //Game documents are mapped as MongoDB would map them, without connecting to it.
+    private static MongoConverter gameDocumentConverter(MongoCustomConversions conversions) {
+        final MongoMappingContext context = new MongoMappingContext();
+        context.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        context.afterPropertiesSet();
+        final MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    private SegmentedLog log(String name) {
+        return new SegmentedLog(directory.resolve(name), segmentMegabytes * 1024 * 1024);
+    }
+}
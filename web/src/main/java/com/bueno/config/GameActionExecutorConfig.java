@@ -0,0 +1,43 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.config;
+
+import com.bueno.domain.usecases.bot.BotTurnScheduler;
+import com.bueno.domain.usecases.executor.GameActionExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class GameActionExecutorConfig {
+
+    @Bean
+    public GameActionExecutor gameActionExecutor(@Value("${application.games.workers:0}") int workers) {
+        return new GameActionExecutor(workers > 0 ? workers : Runtime.getRuntime().availableProcessors());
+    }
+
+    @Bean
+    public BotTurnScheduler botTurnScheduler(GameActionExecutor gameActionExecutor,
+                                             @Value("${application.bots.workers:0}") int workers) {
+        final int thinkers = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        return new BotTurnScheduler(gameActionExecutor, thinkers);
+    }
+}
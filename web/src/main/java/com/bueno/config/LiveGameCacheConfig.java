@@ -0,0 +1,59 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.config;
+
+import com.bueno.domain.usecases.game.repos.GameRepository;
+import com.bueno.domain.usecases.game.repos.IntelPublishingGameRepository;
+import com.bueno.domain.usecases.game.repos.LiveGameCache;
+import com.bueno.domain.usecases.game.repos.VersionTrackingGameRepository;
+import com.bueno.domain.usecases.game.service.GameTimers;
+import com.bueno.domain.usecases.intel.IntelBroadcaster;
+import com.bueno.persistence.log.LogGameRepository;
+import com.bueno.persistence.repositories.GameRepositoryImpl;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+
+@Configuration
+public class LiveGameCacheConfig {
+
+    @Bean
+    @Primary
+    public VersionTrackingGameRepository versionTrackingGameRepository(LiveGameCache liveGameCache,
+                                                                       IntelBroadcaster intelBroadcaster) {
+        return new VersionTrackingGameRepository(new IntelPublishingGameRepository(liveGameCache, intelBroadcaster));
+    }
+
+    @Bean
+    public LiveGameCache liveGameCache(ObjectProvider<GameRepositoryImpl> gameRepository,
+                                       ObjectProvider<LogGameRepository> embeddedGameRepository,
+                                       GameTimers timers,
+                                       @Value("${application.games.cache.max-games:10000}") int maxGames,
+                                       @Value("${application.games.cache.max-idle-minutes:10}") long maxIdleMinutes) {
+        final LogGameRepository embedded = embeddedGameRepository.getIfAvailable();
+        final GameRepository store = embedded != null ? embedded : gameRepository.getObject();
+        return new LiveGameCache(store, timers, maxGames, Duration.ofMinutes(maxIdleMinutes));
+    }
+}
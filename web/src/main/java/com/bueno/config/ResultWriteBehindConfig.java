@@ -0,0 +1,61 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.config;
+
+import com.bueno.domain.usecases.game.repos.WriteBehindGameResultRepository;
+import com.bueno.domain.usecases.hand.WriteBehindHandResultRepository;
+import com.bueno.persistence.repositories.GameResultRepositoryImpl;
+import com.bueno.persistence.repositories.HandResultRepositoryImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "application.storage", havingValue = "external", matchIfMissing = true)
+public class ResultWriteBehindConfig {
+
+    @Value("${application.results.buffer-capacity:10000}")
+    private int capacity;
+    @Value("${application.results.batch-size:50}")
+    private int batchSize;
+    @Value("${application.results.flush-interval-millis:200}")
+    private long flushIntervalMillis;
+    @Value("${application.results.max-block-millis:100}")
+    private long maxBlockMillis;
+
+    @Bean
+    @Primary
+    public WriteBehindHandResultRepository writeBehindHandResultRepository(HandResultRepositoryImpl repository) {
+        return new WriteBehindHandResultRepository(repository, capacity, batchSize,
+                Duration.ofMillis(flushIntervalMillis), Duration.ofMillis(maxBlockMillis));
+    }
+
+    @Bean
+    @Primary
+    public WriteBehindGameResultRepository writeBehindGameResultRepository(GameResultRepositoryImpl repository) {
+        return new WriteBehindGameResultRepository(repository, capacity, batchSize,
+                Duration.ofMillis(flushIntervalMillis), Duration.ofMillis(maxBlockMillis));
+    }
+}
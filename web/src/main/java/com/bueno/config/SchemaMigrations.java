@@ -0,0 +1,104 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Applies the versioned scripts in db/migration (named V{version}__{description}.sql) that are not recorded in the
+ * SCHEMA_VERSION table yet, in version order. Runs after Hibernate has generated the schema and before any other
+ * application runner. Tables created by the scripts must be listed in {@link MigrationOwnedTables}, otherwise
+ * create-drop recreates them on restart while SCHEMA_VERSION still records the scripts as applied. The scripts are
+ * written for PostgreSQL, so they do not run with embedded storage, which keeps game results out of the database.
+ */
+@Component
+@ConditionalOnProperty(name = "application.storage", havingValue = "external", matchIfMissing = true)
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SchemaMigrations implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaMigrations.class);
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    public SchemaMigrations(DataSource dataSource) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS schema_version (
+                    version INTEGER PRIMARY KEY,
+                    description VARCHAR(255) NOT NULL,
+                    installed_on TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)
+                """);
+        final Set<Integer> applied = new HashSet<>(
+                jdbcTemplate.queryForList("SELECT version FROM schema_version", Integer.class));
+
+        for (Migration migration : findMigrations()) {
+            if (applied.contains(migration.version())) continue;
+            log.info("Applying schema migration V{} {}", migration.version(), migration.description());
+            new ResourceDatabasePopulator(migration.script()).execute(dataSource);
+            jdbcTemplate.update("INSERT INTO schema_version (version, description) VALUES (?, ?)",
+                    migration.version(), migration.description());
+        }
+    }
+
+    private List<Migration> findMigrations() throws IOException {
+        final Resource[] scripts = new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/V*__*.sql");
+        return Arrays.stream(scripts)
+                .map(Migration::of)
+                .sorted(Comparator.comparingInt(Migration::version))
+                .toList();
+    }
+
+    private record Migration(int version, String description, Resource script) {
+        static Migration of(Resource script) {
+            final Matcher matcher = SCRIPT_NAME.matcher(String.valueOf(script.getFilename()));
+            if (!matcher.matches()) throw new IllegalStateException("Invalid migration name: " + script.getFilename());
+            return new Migration(Integer.parseInt(matcher.group(1)), matcher.group(2).replace('_', ' '), script);
+        }
+    }
+}
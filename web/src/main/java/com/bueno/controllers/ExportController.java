@@ -0,0 +1,50 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.controllers;
+
+import com.bueno.persistence.export.HandResultExporter;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping(path = "/api/v1/exports")
+public class ExportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final HandResultExporter handResultExporter;
+
+    public ExportController(HandResultExporter handResultExporter) {
+        this.handResultExporter = handResultExporter;
+    }
+
+    @GetMapping(path = "/hand-results")
+    public ResponseEntity<StreamingResponseBody> handResults(@RequestParam(defaultValue = "0") long after){
+        if(after < 0) throw new IllegalArgumentException("Export position must not be negative: " + after);
+        final StreamingResponseBody body = out -> handResultExporter.exportAfter(after, out);
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+}
@@ -21,19 +21,32 @@
 package com.bueno.controllers;
 
 import com.bueno.domain.usecases.intel.HandleIntelUseCase;
+import com.bueno.domain.usecases.intel.dtos.IntelDto;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping(path = "/api/v1/games/players/{uuid}")
 public class IntelController {
 
+    private static final long STREAM_TIMEOUT_MILLIS = Duration.ofMinutes(30).toMillis();
+
     private final HandleIntelUseCase intelUseCase;
 
     public IntelController(HandleIntelUseCase intelUseCase) {
@@ -41,20 +54,51 @@ public class IntelController {
     }
 
     @GetMapping(path = "/in-turn")
-    private ResponseEntity<?> isPlayerTurn(@PathVariable UUID uuid){
-        final var responseModel = intelUseCase.isPlayerTurn(uuid);
-        return ResponseEntity.ok(responseModel);
+    private ResponseEntity<?> isPlayerTurn(@PathVariable UUID uuid, WebRequest request){
+        return unlessNotModified(uuid, request, () -> intelUseCase.isPlayerTurn(uuid));
     }
 
     @GetMapping(path = "/last-intel")
-    private ResponseEntity<?> getLastIntel(@PathVariable UUID uuid){
-        final var responseModel = intelUseCase.findLastIntel(uuid);
-        return ResponseEntity.ok(responseModel);
+    private ResponseEntity<?> getLastIntel(@PathVariable UUID uuid, WebRequest request){
+        return unlessNotModified(uuid, request, () -> intelUseCase.findLastIntel(uuid));
     }
 
     @GetMapping(path = "/intel-since/{timestamp}")
-    private ResponseEntity<?> getIntelSince(@PathVariable UUID uuid, @PathVariable Instant timestamp){
-        final var intelSince = intelUseCase.findIntelSince(uuid, timestamp);
-        return ResponseEntity.ok(intelSince);
+    private ResponseEntity<?> getIntelSince(@PathVariable UUID uuid, @PathVariable Instant timestamp, WebRequest request){
+        return unlessNotModified(uuid, request, () -> intelUseCase.findIntelSince(uuid, timestamp));
+    }
+
+    //The version token of the game is the ETag. It is read before the game, so it never tags newer content.
+    private ResponseEntity<?> unlessNotModified(UUID uuid, WebRequest request, Supplier<?> query){
+        final Optional<String> version = intelUseCase.findVersionToken(uuid);
+        if (version.isPresent() && request.checkNotModified(version.get())) return null;
+        return ResponseEntity.ok(query.get());
+    }
+
+    //Events are identified by the intel timestamp, so a reconnecting client resumes from its Last-Event-ID header.
+    @GetMapping(path = "/intel-stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    private SseEmitter streamIntel(@PathVariable UUID uuid,
+                                   @RequestHeader(name = "Last-Event-ID", required = false) Instant lastEventId){
+        final SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MILLIS);
+        final AtomicBoolean completed = new AtomicBoolean();
+        final var subscription = intelUseCase.subscribe(uuid, lastEventId, intel -> send(emitter, intel), () -> {
+            if (completed.compareAndSet(false, true)) emitter.complete();
+        });
+        final Runnable unsubscribe = () -> {
+            completed.set(true);
+            subscription.close();
+        };
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+        return emitter;
+    }
+
+    private void send(SseEmitter emitter, IntelDto intel) {
+        try {
+            emitter.send(SseEmitter.event().id(intel.timestamp().toString()).name("intel").data(intel));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
@@ -20,8 +20,11 @@
 
 package com.bueno.controllers;
 
+import com.bueno.domain.usecases.bot.BotTurnScheduler;
+import com.bueno.domain.usecases.executor.GameActionExecutor;
 import com.bueno.domain.usecases.game.usecase.ReportTopWinnersUseCase;
 import com.bueno.domain.usecases.game.dtos.TopWinnersDto;
+import com.bueno.domain.usecases.user.CachedUserRepository;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -32,13 +35,35 @@ import org.springframework.web.bind.annotation.RestController;
 public class ReportController {
 
     private final ReportTopWinnersUseCase reportTopWinnersUseCase;
+    private final GameActionExecutor gameActionExecutor;
+    private final CachedUserRepository cachedUserRepository;
+    private final BotTurnScheduler botTurnScheduler;
 
-    public ReportController(ReportTopWinnersUseCase reportTopWinnersUseCase) {
+    public ReportController(ReportTopWinnersUseCase reportTopWinnersUseCase, GameActionExecutor gameActionExecutor,
+                            CachedUserRepository cachedUserRepository, BotTurnScheduler botTurnScheduler) {
         this.reportTopWinnersUseCase = reportTopWinnersUseCase;
+        this.gameActionExecutor = gameActionExecutor;
+        this.cachedUserRepository = cachedUserRepository;
+        this.botTurnScheduler = botTurnScheduler;
     }
 
     @GetMapping(path = "/top-winners/{numberOfTopWinners}")
     public TopWinnersDto topWinners(@PathVariable int numberOfTopWinners){
         return reportTopWinnersUseCase.create(numberOfTopWinners);
     }
+
+    @GetMapping(path = "/game-actions")
+    public GameActionExecutor.Metrics gameActions(){
+        return gameActionExecutor.metrics();
+    }
+
+    @GetMapping(path = "/bot-turns")
+    public BotTurnScheduler.Metrics botTurns(){
+        return botTurnScheduler.metrics();
+    }
+
+    @GetMapping(path = "/user-cache")
+    public CachedUserRepository.Metrics userCache(){
+        return cachedUserRepository.metrics();
+    }
 }
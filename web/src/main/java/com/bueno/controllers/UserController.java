@@ -22,6 +22,7 @@ package com.bueno.controllers;
 
 import com.bueno.domain.usecases.game.usecase.UserRecordUseCase;
 import com.bueno.domain.usecases.game.dtos.UserRecordDto;
+import com.bueno.domain.usecases.game.dtos.UserRecordPageDto;
 import com.bueno.domain.usecases.user.FindUserUseCase;
 import com.bueno.domain.usecases.user.RegisterUserUseCase;
 import com.bueno.domain.usecases.user.dtos.ApplicationUserDto;
@@ -78,4 +79,11 @@ public class UserController {
     public UserRecordDto removeGame(@PathVariable UUID uuid){
         return userRecordUseCase.listByUuid(uuid);
     }
+
+    @GetMapping(path = "/api/v1/users/{uuid}/history")
+    public UserRecordPageDto history(@PathVariable UUID uuid,
+                                     @RequestParam(required = false) String after,
+                                     @RequestParam(defaultValue = "20") int size){
+        return userRecordUseCase.listPageByUuid(uuid, after, size);
+    }
 }
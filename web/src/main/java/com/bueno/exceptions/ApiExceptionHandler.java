@@ -107,6 +107,18 @@ public class ApiExceptionHandler {
         return new ResponseEntity<>(apiException, forbidden);
     }
 
+    @ExceptionHandler(value = IntelStreamUnavailableException.class)
+    public ResponseEntity<?> handleIntelStreamUnavailableException(IntelStreamUnavailableException e){
+        final HttpStatus notImplemented = NOT_IMPLEMENTED;
+        final ApiException apiException = ApiException.builder()
+                .status(notImplemented)
+                .message(e.getMessage())
+                .developerMessage(e.getClass().getName())
+                .timestamp(ZonedDateTime.now(ZoneId.of("Z")))
+                .build();
+        return new ResponseEntity<>(apiException, notImplemented);
+    }
+
     @ExceptionHandler(value = EntityNotFoundException.class)
     public ResponseEntity<?> handleEntityNotFoundException(EntityNotFoundException e){
         final HttpStatus notFound = NOT_FOUND;
@@ -130,4 +142,28 @@ public class ApiExceptionHandler {
                 .build();
         return new ResponseEntity<>(apiException, conflict);
     }
+
+    @ExceptionHandler(value = ConcurrentGameUpdateException.class)
+    public ResponseEntity<?> handleConcurrentGameUpdateException(ConcurrentGameUpdateException e){
+        final HttpStatus conflict = CONFLICT;
+        final ApiException apiException = ApiException.builder()
+                .status(conflict)
+                .message(e.getMessage())
+                .developerMessage(e.getClass().getName())
+                .timestamp(ZonedDateTime.now(ZoneId.of("Z")))
+                .build();
+        return new ResponseEntity<>(apiException, conflict);
+    }
+
+    @ExceptionHandler(value = WriteBehindRejectedException.class)
+    public ResponseEntity<?> handleWriteBehindRejectedException(WriteBehindRejectedException e){
+        final HttpStatus serviceUnavailable = SERVICE_UNAVAILABLE;
+        final ApiException apiException = ApiException.builder()
+                .status(serviceUnavailable)
+                .message(e.getMessage())
+                .developerMessage(e.getClass().getName())
+                .timestamp(ZonedDateTime.now(ZoneId.of("Z")))
+                .build();
+        return new ResponseEntity<>(apiException, serviceUnavailable);
+    }
 }
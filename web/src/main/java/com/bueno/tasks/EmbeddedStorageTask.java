@@ -0,0 +1,62 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+package com.bueno.tasks;
+
+import com.bueno.persistence.log.LogGameRepository;
+import com.bueno.persistence.log.LogGameResultRepository;
+import com.bueno.persistence.log.LogHandResultRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "application.storage", havingValue = "embedded")
+public class EmbeddedStorageTask {
+
+    private static final Logger log = LoggerFactory.getLogger(EmbeddedStorageTask.class);
+
+    private final LogGameRepository gameRepository;
+    private final LogGameResultRepository gameResultRepository;
+    private final LogHandResultRepository handResultRepository;
+
+    public EmbeddedStorageTask(LogGameRepository gameRepository, LogGameResultRepository gameResultRepository,
+                               LogHandResultRepository handResultRepository) {
+        this.gameRepository = gameRepository;
+        this.gameResultRepository = gameResultRepository;
+        this.handResultRepository = handResultRepository;
+    }
+
+    //Appends survive a crash of the process as soon as they are made, and a crash of the machine once synced.
+    @Scheduled(fixedRateString = "${application.storage.embedded.sync-interval-millis:1000}")
+    public void sync() {
+        gameRepository.sync();
+        gameResultRepository.sync();
+        handResultRepository.sync();
+    }
+
+    @Scheduled(fixedDelayString = "${application.storage.embedded.compaction-interval-millis:60000}")
+    public void compact() {
+        final int removedSegments = gameRepository.compact();
+        if (removedSegments > 0) log.info("Compacted {} game log segments.", removedSegments);
+    }
+}
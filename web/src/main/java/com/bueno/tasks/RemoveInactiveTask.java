@@ -21,6 +21,7 @@
 package com.bueno.tasks;
 
 import com.bueno.domain.usecases.game.usecase.RemoveGameUseCase;
+import com.bueno.domain.usecases.hand.TurnTimeoutUseCase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -35,14 +36,22 @@ public class RemoveInactiveTask {
     private static final Logger log = LoggerFactory.getLogger(RemoveInactiveTask.class);
 
     private final RemoveGameUseCase removeGameUseCase;
+    private final TurnTimeoutUseCase turnTimeoutUseCase;
 
-    public RemoveInactiveTask(RemoveGameUseCase removeGameUseCase) {
+    public RemoveInactiveTask(RemoveGameUseCase removeGameUseCase, TurnTimeoutUseCase turnTimeoutUseCase) {
         this.removeGameUseCase = removeGameUseCase;
+        this.turnTimeoutUseCase = turnTimeoutUseCase;
     }
 
     @Scheduled(fixedRate = 30_000)
     public void reportCurrentTime() {
-        final List<UUID> removedGames = removeGameUseCase.byInactivityAfter(5);
-        removedGames.forEach(gameUuid -> log.info("Removed game {} due to inactivity.", gameUuid));
+        final List<UUID> inactivePlayers = removeGameUseCase.byInactivityAfter(5);
+        inactivePlayers.forEach(playerUuid -> log.info("Removed the game of player {} due to inactivity.", playerUuid));
+    }
+
+    @Scheduled(fixedRate = 1_000)
+    public void forfeitExpiredTurns() {
+        final List<UUID> forfeiters = turnTimeoutUseCase.forfeitExpiredTurns();
+        forfeiters.forEach(playerUuid -> log.info("Player {} forfeited the hand due to turn timeout.", playerUuid));
     }
 }
\ No newline at end of file
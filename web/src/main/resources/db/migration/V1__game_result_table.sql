@@ -0,0 +1,20 @@
+-- game_result is owned by the migrations: Hibernate skips it (see MigrationOwnedTables), so the table and its
+-- indexes survive restarts together with schema_version.
+CREATE TABLE IF NOT EXISTS game_result (
+    game_id UUID PRIMARY KEY,
+    game_start_time TIMESTAMP,
+    game_end_time TIMESTAMP,
+    winner UUID,
+    player1 UUID,
+    player1_score INTEGER NOT NULL,
+    player2 UUID,
+    player2_score INTEGER NOT NULL
+);
+
+-- Keyset pagination of a player's history reads game_result by (player, game_end_time, game_id). Including the
+-- other player and the winner lets each page be answered from the index alone.
+CREATE INDEX IF NOT EXISTS idx_game_result_player1_history
+    ON game_result (player1, game_end_time, game_id) INCLUDE (player2, winner);
+
+CREATE INDEX IF NOT EXISTS idx_game_result_player2_history
+    ON game_result (player2, game_end_time, game_id) INCLUDE (player1, winner);
@@ -0,0 +1,8 @@
+-- app_user is owned by the migrations too: the history and leaderboard queries join game results with it, so it
+-- must survive restarts like game_result, otherwise the joins would drop the rows of every user registered before.
+CREATE TABLE IF NOT EXISTS app_user (
+    id UUID PRIMARY KEY,
+    username VARCHAR(255),
+    email VARCHAR(255),
+    password VARCHAR(255)
+);
@@ -0,0 +1,28 @@
+-- player_stats is the leaderboard kept up to date as game results are saved. It is owned by the migrations so it
+-- survives restarts, and it starts from the results already stored, counting each player of each game once.
+CREATE TABLE IF NOT EXISTS player_stats (
+    user_id UUID PRIMARY KEY,
+    wins BIGINT NOT NULL,
+    losses BIGINT NOT NULL,
+    games BIGINT NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_player_stats_wins ON player_stats (wins DESC, user_id);
+
+INSERT INTO player_stats (user_id, wins, losses, games)
+SELECT player, SUM(won), SUM(lost), COUNT(*)
+FROM (
+    SELECT player1 AS player,
+           CASE WHEN winner = player1 THEN 1 ELSE 0 END AS won,
+           CASE WHEN winner <> player1 THEN 1 ELSE 0 END AS lost
+    FROM game_result
+    WHERE player1 IS NOT NULL
+    UNION ALL
+    SELECT player2,
+           CASE WHEN winner = player2 THEN 1 ELSE 0 END,
+           CASE WHEN winner <> player2 THEN 1 ELSE 0 END
+    FROM game_result
+    WHERE player2 IS NOT NULL
+) results
+GROUP BY player
+ON CONFLICT (user_id) DO UPDATE SET wins = EXCLUDED.wins, losses = EXCLUDED.losses, games = EXCLUDED.games;
@@ -0,0 +1,23 @@
+package com.bueno;
+
+import com.bueno.domain.usecases.game.repos.GameResultRepository;
+import com.bueno.persistence.log.LogGameResultRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//Starts without MongoDB and PostgreSQL, which are not available to the tests.
+@SpringBootTest(properties = "application.storage.embedded.directory=target/embedded-storage-tests")
+@ActiveProfiles("embedded")
+class EmbeddedStorageTests {
+
+    @Autowired private GameResultRepository gameResultRepository;
+
+    @Test
+    void contextLoadsWithoutExternalServices() {
+        assertThat(gameResultRepository).isInstanceOf(LogGameResultRepository.class);
+    }
+}
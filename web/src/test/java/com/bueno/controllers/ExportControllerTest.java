@@ -0,0 +1,74 @@
+/*
+ *  Copyright (C) 2022 Lucas B. R. de Oliveira - IFSP/SCL
+ *  Contact: lucas <dot> oliveira <at> ifsp <dot> edu <dot> br
+ *
+ *  This file is part of CTruco (Truco game for didactic purpose).
+ *
+ *  CTruco is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  CTruco is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with CTruco.  If not, see <https://www.gnu.org/licenses/>
+ */
+
+
+package com.bueno.controllers;
+
+import com.bueno.persistence.export.HandResultExporter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExportControllerTest {
+
+    @Mock private HandResultExporter exporter;
+    @InjectMocks private ExportController sut;
+
+    @Test
+    @DisplayName("Should stream the hand results exported after the requested id as NDJSON")
+    void shouldStreamTheHandResultsExportedAfterTheRequestedIdAsNdjson() throws IOException {
+        when(exporter.exportAfter(eq(50L), any(OutputStream.class))).thenAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(1).write("{\"id\":51}\n".getBytes(StandardCharsets.UTF_8));
+            return 51L;
+        });
+
+        final ResponseEntity<StreamingResponseBody> response = sut.handResults(50);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertThat(response.getHeaders().getContentType()).hasToString("application/x-ndjson");
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("{\"id\":51}\n");
+    }
+
+    @Test
+    @DisplayName("Should not export from a negative position")
+    void shouldNotExportFromANegativePosition() {
+        assertThatIllegalArgumentException().isThrownBy(() -> sut.handResults(-1));
+        verifyNoInteractions(exporter);
+    }
+}